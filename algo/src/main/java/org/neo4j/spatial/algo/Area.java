@@ -1,5 +1,6 @@
 package org.neo4j.spatial.algo;
 
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.MultiPolygon;
 import org.neo4j.spatial.core.Polygon;
 
@@ -32,5 +33,13 @@ public abstract class Area {
      * @param polygon
      * @return The area of the simple polygon
      */
-    public abstract double area(Polygon.SimplePolygon polygon);
+    public double area(Polygon.SimplePolygon polygon) {
+        return area(polygon.getCoordinateSequence());
+    }
+
+    /**
+     * @param ring the vertices of a closed ring
+     * @return The area enclosed by the ring
+     */
+    public abstract double area(CoordinateSequence ring);
 }
\ No newline at end of file
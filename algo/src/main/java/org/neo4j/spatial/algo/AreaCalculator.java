@@ -6,20 +6,15 @@ import org.neo4j.spatial.core.CRS;
 import org.neo4j.spatial.core.Polygon;
 
 public class AreaCalculator {
-    private static CartesianArea cartesian;
-    private static WGS84Area wgs84;
+    private static final CartesianArea cartesian = new CartesianArea();
+    private static final WGS84Area wgs84 = new WGS84Area();
+    private static final WGS84Area wgs84Fast = new WGS84Area(Precision.FAST);
 
     private static Area getCartesian() {
-        if (cartesian == null) {
-            cartesian = new CartesianArea();
-        }
         return cartesian;
     }
 
     private static Area getWGS84() {
-        if (wgs84 == null) {
-            wgs84 = new WGS84Area();
-        }
         return wgs84;
     }
 
@@ -38,4 +33,16 @@ public class AreaCalculator {
             return getWGS84();
         }
     }
+
+    /**
+     * @param crs
+     * @param precision how WGS84 areas evaluate angles, Cartesian areas are always exact
+     * @return The calculator for the coordinate reference system
+     */
+    public static Area getCalculator(CRS crs, Precision precision) {
+        if (crs != CRS.Cartesian && precision == Precision.FAST) {
+            return wgs84Fast;
+        }
+        return getCalculator(crs);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,187 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.core.CoordinateSequence;
+
+/**
+ * The distance between two convex polygons in the plane in O(n + m). The edges of both polygons are merged by angle,
+ * which walks the boundary of their Minkowski difference A - B once. The polygons overlap iff the origin lies within
+ * that difference, and otherwise the edge of the difference closest to the origin is an edge of one polygon facing a
+ * vertex of the other, which gives the closest points.
+ */
+public class ConvexDistance {
+    private ConvexDistance() {
+    }
+
+    /**
+     * @param a the vertices of a convex ring, in either orientation and with or without the closing vertex
+     * @param b
+     * @return The closest points of the two convex polygons
+     */
+    public static Contact closest(CoordinateSequence a, CoordinateSequence b) {
+        return closest(pack(a), pack(b));
+    }
+
+    /**
+     * @param a the interleaved x and y coordinates of a convex ring, in either orientation and with or without the closing vertex
+     * @param b
+     * @return The closest points of the two convex polygons
+     */
+    public static Contact closest(double[] a, double[] b) {
+        int[] ringA = ring(a);
+        int[] ringB = ring(b);
+        int n = ringA.length;
+        int m = ringB.length;
+        if (n == 0 || m == 0) {
+            throw new IllegalArgumentException("Convex distance needs two non-empty rings");
+        }
+
+        //The lowest vertex of A minus the highest vertex of B is the lowest vertex of A - B
+        int startA = lowest(a, ringA, 1);
+        int startB = lowest(b, ringB, -1);
+
+        boolean inside = true;
+        double area = 0;
+        double best = Double.MAX_VALUE;
+        Contact contact = null;
+        for (int i = 0, j = 0; i < n || j < m; ) {
+            int ai = ringA[(startA + i) % n];
+            int an = ringA[(startA + i + 1) % n];
+            int bj = ringB[(startB + j) % m];
+            int bn = ringB[(startB + j + 1) % m];
+            double vx = a[2 * ai] - b[2 * bj];
+            double vy = a[2 * ai + 1] - b[2 * bj + 1];
+            double eax = a[2 * an] - a[2 * ai];
+            double eay = a[2 * an + 1] - a[2 * ai + 1];
+            double ebx = b[2 * bj] - b[2 * bn];
+            double eby = b[2 * bj + 1] - b[2 * bn + 1];
+
+            //Take the edge which turns least, from A on ties
+            boolean edgeOfA = j == m || (i < n && eax * eby - eay * ebx >= 0);
+            double ex = edgeOfA ? eax : ebx;
+            double ey = edgeOfA ? eay : eby;
+
+            //The origin has to be left of every edge of the counter-clockwise difference to be inside
+            if (ey * vx - ex * vy < 0) {
+                inside = false;
+            }
+            area += vx * ey - vy * ex;
+
+            double squared = ex * ex + ey * ey;
+            double t = squared == 0 ? 0 : Math.max(0, Math.min(1, -(vx * ex + vy * ey) / squared));
+            double dx = vx + t * ex;
+            double dy = vy + t * ey;
+            double current = dx * dx + dy * dy;
+            if (current < best) {
+                best = current;
+                if (edgeOfA) {
+                    contact = new Contact(ai, bj, true,
+                            new double[]{a[2 * ai] + t * eax, a[2 * ai + 1] + t * eay},
+                            new double[]{b[2 * bj], b[2 * bj + 1]});
+                } else {
+                    contact = new Contact(ai, bj, false,
+                            new double[]{a[2 * ai], a[2 * ai + 1]},
+                            new double[]{b[2 * bj] - t * ebx, b[2 * bj + 1] - t * eby});
+                }
+            }
+
+            if (edgeOfA) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        //A difference without area is a segment or point, which contains the origin only if it touches it
+        if (best == 0 || (inside && area > 0)) {
+            return new Contact(contact.a, contact.b, contact.edgeOfA, null, null);
+        }
+        return contact;
+    }
+
+    private static double[] pack(CoordinateSequence sequence) {
+        double[] coordinates = new double[2 * sequence.size()];
+        for (int i = 0; i < sequence.size(); i++) {
+            coordinates[2 * i] = sequence.getX(i);
+            coordinates[2 * i + 1] = sequence.getY(i);
+        }
+        return coordinates;
+    }
+
+    /**
+     * @return The indices of the distinct vertices of the ring in counter-clockwise order, without the closing vertex
+     */
+    private static int[] ring(double[] coordinates) {
+        int n = coordinates.length / 2;
+        if (n > 1 && coordinates[0] == coordinates[2 * n - 2] && coordinates[1] == coordinates[2 * n - 1]) {
+            n--;
+        }
+        double area = 0;
+        for (int i = 0; i < n; i++) {
+            int next = (i + 1) % n;
+            area += coordinates[2 * i] * coordinates[2 * next + 1] - coordinates[2 * next] * coordinates[2 * i + 1];
+        }
+        int[] ring = new int[n];
+        for (int i = 0; i < n; i++) {
+            ring[i] = area < 0 ? n - 1 - i : i;
+        }
+        return ring;
+    }
+
+    /**
+     * @param sign 1 for the lowest vertex, left most on ties, or -1 for the highest vertex, right most on ties
+     * @return The position of that vertex in the ring
+     */
+    private static int lowest(double[] coordinates, int[] ring, int sign) {
+        int result = 0;
+        for (int i = 1; i < ring.length; i++) {
+            double dy = sign * (coordinates[2 * ring[i] + 1] - coordinates[2 * ring[result] + 1]);
+            double dx = sign * (coordinates[2 * ring[i]] - coordinates[2 * ring[result]]);
+            if (dy < 0 || (dy == 0 && dx < 0)) {
+                result = i;
+            }
+        }
+        return result;
+    }
+
+    public static class Contact {
+        /**
+         * The vertex of A which is, or starts the edge which is, closest to B
+         */
+        public final int a;
+        /**
+         * The vertex of B which is, or starts the edge which is, closest to A
+         */
+        public final int b;
+        /**
+         * True if the closest points are on the edge of A starting at vertex a and vertex b, false if they are on
+         * vertex a and the edge of B starting at vertex b
+         */
+        public final boolean edgeOfA;
+        public final double[] start;
+        public final double[] end;
+
+        private Contact(int a, int b, boolean edgeOfA, double[] start, double[] end) {
+            this.a = a;
+            this.b = b;
+            this.edgeOfA = edgeOfA;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * @return True if the polygons overlap, in which case there are no closest points
+         */
+        public boolean isOverlap() {
+            return start == null;
+        }
+
+        public double distance() {
+            if (isOverlap()) {
+                return 0;
+            }
+            double dx = start[0] - end[0];
+            double dy = start[1] - end[1];
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+}
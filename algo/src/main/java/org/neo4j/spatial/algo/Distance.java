@@ -1,5 +1,6 @@
 package org.neo4j.spatial.algo;
 
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.MultiPolyline;
 import org.neo4j.spatial.core.Point;
@@ -25,6 +26,39 @@ public abstract class Distance {
      */
     public abstract DistanceResult distanceAndEndpoints(Polygon a, Polygon b);
 
+    /**
+     * Walks both boundaries once instead of comparing all pairs of line segments, so this is only correct for convex
+     * polygons such as convex hulls.
+     *
+     * @param a a convex polygon
+     * @param b a convex polygon
+     * @return The minimum distance between two convex polygons. Returns 0 if they overlap
+     */
+    public double convexDistance(Polygon.SimplePolygon a, Polygon.SimplePolygon b) {
+        return convexDistanceAndEndpoints(a, b).distance;
+    }
+
+    /**
+     * @param a a convex polygon
+     * @param b a convex polygon
+     * @return The minimum distance between two convex polygons, and the closest points on those polygons. Returns 0 if they overlap
+     */
+    public abstract DistanceResult convexDistanceAndEndpoints(Polygon.SimplePolygon a, Polygon.SimplePolygon b);
+
+    /**
+     * @param a
+     * @param b
+     * @param distance
+     * @return True iff the minimum distance between the two polygons is at most the given distance. Pairs whose
+     * envelopes are further apart are rejected without computing the distance.
+     */
+    public boolean isWithinDistance(Polygon a, Polygon b, double distance) {
+        if (DistanceCalculator.lowerBound(a.getEnvelope(), b.getEnvelope()) > distance) {
+            return false;
+        }
+        return distance(a, b) <= distance;
+    }
+
     /**
      * @param polygon
      * @param multiPolyline
@@ -129,31 +163,90 @@ public abstract class Distance {
      */
     public abstract double distance(double[] p1, double[] p2);
 
-    protected double getMinDistance(LineSegment[] aLS, LineSegment[] bLS) {
-        double minDistance = Double.MAX_VALUE;
+    /**
+     * Compares the segments between consecutive vertices of both sequences without creating intermediate objects.
+     * Containment is not taken into account, so for polygons this is the distance between their boundaries.
+     *
+     * @param a
+     * @param b
+     * @return The minimum distance between the segments of the two sequences
+     */
+    public abstract double distance(CoordinateSequence a, CoordinateSequence b);
+
+    /**
+     * @param sequence
+     * @param x
+     * @param y
+     * @return The minimum distance between the segments of the sequence and the coordinate
+     */
+    public abstract double distance(CoordinateSequence sequence, double x, double y);
+
+    /**
+     * Below this number of segment pairs comparing all pairs is cheaper than building two segment trees
+     */
+    private static final int BRUTE_FORCE_PAIRS = 1024;
 
-        for (LineSegment aLineSegment : aLS) {
-            for (LineSegment bLineSegment : bLS) {
-                double current = distance(aLineSegment, bLineSegment);
-                if (current < minDistance) {
-                    minDistance = current;
+    protected double getMinDistance(LineSegment[] aLS, LineSegment[] bLS) {
+        if ((long) aLS.length * bLS.length <= BRUTE_FORCE_PAIRS) {
+            double minDistance = Double.MAX_VALUE;
+
+            for (LineSegment aLineSegment : aLS) {
+                for (LineSegment bLineSegment : bLS) {
+                    double current = distance(aLineSegment, bLineSegment);
+                    if (current < minDistance) {
+                        minDistance = current;
+                    }
                 }
             }
+            return minDistance;
         }
-        return minDistance;
+
+        SegmentTree.Nearest nearest = SegmentTree.nearest(index(aLS), index(bLS), this::lowerBound, (i, j) -> distance(aLS[i], bLS[j]), Double.MAX_VALUE);
+        return nearest.distance;
     }
 
     protected DistanceResult getMinDistanceAndEndpoints(LineSegment[] aLS, LineSegment[] bLS) {
-        DistanceResult minDistance = DistanceResult.NO_RESULT;
+        return getMinDistanceAndEndpoints(aLS, bLS, DistanceResult.NO_RESULT);
+    }
+
+    /**
+     * @param aLS
+     * @param bLS
+     * @param bound a known result, only closer pairs of line segments are considered
+     * @return The closest pair of line segments with their end points, or the given bound if no pair is closer
+     */
+    protected DistanceResult getMinDistanceAndEndpoints(LineSegment[] aLS, LineSegment[] bLS, DistanceResult bound) {
+        if ((long) aLS.length * bLS.length <= BRUTE_FORCE_PAIRS) {
+            DistanceResult minDistance = bound;
 
-        for (LineSegment aLineSegment : aLS) {
-            for (LineSegment bLineSegment : bLS) {
-                minDistance = minDistance.min(distanceAndEndpoints(aLineSegment, bLineSegment));
+            for (LineSegment aLineSegment : aLS) {
+                for (LineSegment bLineSegment : bLS) {
+                    minDistance = minDistance.min(distanceAndEndpoints(aLineSegment, bLineSegment));
+                }
             }
+            return minDistance;
         }
-        return minDistance;
+
+        double upperBound = bound.isEmpty() ? Double.MAX_VALUE : bound.distance;
+        SegmentTree.Nearest nearest = SegmentTree.nearest(index(aLS), index(bLS), this::lowerBound, (i, j) -> distanceAndEndpoints(aLS[i], bLS[j]).distance, upperBound);
+        if (!nearest.isFound()) {
+            return bound;
+        }
+        return distanceAndEndpoints(aLS[nearest.a], bLS[nearest.b]);
     }
 
+    /**
+     * @param lineSegments
+     * @return A segment tree over boxes which contain the line segments, item i being lineSegments[i]
+     */
+    protected abstract SegmentTree index(LineSegment[] lineSegments);
+
+    /**
+     * @param boxDistance the distance between two boxes of the trees built by {@link #index(LineSegment[])}
+     * @return A lower bound for the distance between any two line segments contained by those boxes
+     */
+    protected abstract double lowerBound(double boxDistance);
+
     protected abstract DistanceResult distanceAndEndpoints(LineSegment a, LineSegment b);
 
     private boolean debug;
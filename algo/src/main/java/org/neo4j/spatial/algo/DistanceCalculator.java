@@ -5,20 +5,15 @@ import org.neo4j.spatial.algo.wgs84.WGS84Distance;
 import org.neo4j.spatial.core.*;
 
 public class DistanceCalculator {
-    private static CartesianDistance cartesian;
-    private static WGS84Distance wgs84;
+    private static final CartesianDistance cartesian = new CartesianDistance();
+    private static final WGS84Distance wgs84 = new WGS84Distance();
+    private static final WGS84Distance wgs84Fast = new WGS84Distance(Precision.FAST);
 
     private static Distance getCartesian() {
-        if (cartesian == null) {
-            cartesian = new CartesianDistance();
-        }
         return cartesian;
     }
 
     private static Distance getWGS84() {
-        if (wgs84 == null) {
-            wgs84 = new WGS84Distance();
-        }
         return wgs84;
     }
 
@@ -35,4 +30,26 @@ public class DistanceCalculator {
     public static Distance getCalculator(HasCRS geometry) {
         return getCalculator(geometry.getCRS());
     }
+
+    /**
+     * @param crs
+     * @param precision how WGS84 distances evaluate angles, Cartesian distances are always exact
+     * @return The calculator for the coordinate reference system
+     */
+    public static Distance getCalculator(CRS crs, Precision precision) {
+        if (crs == CRS.WGS84 && precision == Precision.FAST) {
+            return wgs84Fast;
+        }
+        return getCalculator(crs);
+    }
+
+    /**
+     * @param a
+     * @param b
+     * @return A value which is never larger than the distance between the geometries bounded by the two envelopes,
+     * computed without looking at any vertex
+     */
+    public static double lowerBound(Envelope a, Envelope b) {
+        return a.lowerBoundDistance(b);
+    }
 }
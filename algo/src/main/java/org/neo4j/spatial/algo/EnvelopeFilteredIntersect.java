@@ -0,0 +1,100 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.Envelope;
+import org.neo4j.spatial.core.LineSegment;
+import org.neo4j.spatial.core.MultiPolyline;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
+
+/**
+ * Compares the envelopes of the two geometries before handing them to the actual intersection algorithm, so pairs
+ * which are far apart are rejected without looking at their edges.
+ */
+public class EnvelopeFilteredIntersect implements Intersect {
+    private static final Point[] NO_INTERSECTIONS = new Point[0];
+
+    private final Intersect intersect;
+
+    public EnvelopeFilteredIntersect(Intersect intersect) {
+        this.intersect = intersect;
+    }
+
+    private static boolean disjoint(Envelope a, Envelope b) {
+        return !a.intersects(b);
+    }
+
+    @Override
+    public boolean doesIntersect(Polygon a, Polygon b) {
+        return !disjoint(a.getEnvelope(), b.getEnvelope()) && intersect.doesIntersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(Polygon a, Polygon b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public boolean doesIntersect(Polygon a, MultiPolyline b) {
+        return !disjoint(a.getEnvelope(), b.getEnvelope()) && intersect.doesIntersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(Polygon a, MultiPolyline b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public boolean doesIntersect(Polygon a, Polyline b) {
+        return !disjoint(a.getEnvelope(), b.getEnvelope()) && intersect.doesIntersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(Polygon a, Polyline b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(MultiPolyline a, MultiPolyline b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(MultiPolyline a, Polyline b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(MultiPolyline a, LineSegment b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(Polyline a, Polyline b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(Polyline a, LineSegment b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+
+    /**
+     * A single pair of line segments is cheaper to compare directly than to bound
+     */
+    @Override
+    public Point intersect(LineSegment a, LineSegment b) {
+        return intersect.intersect(a, b);
+    }
+
+    @Override
+    public boolean doesIntersect(CoordinateSequence a, CoordinateSequence b) {
+        return !disjoint(a.getEnvelope(), b.getEnvelope()) && intersect.doesIntersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(CoordinateSequence a, CoordinateSequence b) {
+        return disjoint(a.getEnvelope(), b.getEnvelope()) ? NO_INTERSECTIONS : intersect.intersect(a, b);
+    }
+}
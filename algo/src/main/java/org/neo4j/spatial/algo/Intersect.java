@@ -1,5 +1,6 @@
 package org.neo4j.spatial.algo;
 
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.MultiPolyline;
 import org.neo4j.spatial.core.Point;
@@ -107,4 +108,23 @@ public interface Intersect {
      * @return Point of intersection if it exists, else null
      */
     Point intersect(LineSegment a, LineSegment b);
+
+    /**
+     * Compares the segments between consecutive vertices of both sequences without creating intermediate objects.
+     *
+     * @param a
+     * @param b
+     * @return True iff the two sequences intersect in at least 1 point.
+     */
+    boolean doesIntersect(CoordinateSequence a, CoordinateSequence b);
+
+    /**
+     * Given two coordinate sequences, returns all points in which the segments between consecutive vertices intersect.
+     * Only the intersections themselves are allocated.
+     *
+     * @param a
+     * @param b
+     * @return Array of intersections
+     */
+    Point[] intersect(CoordinateSequence a, CoordinateSequence b);
 }
@@ -1,48 +1,50 @@
 package org.neo4j.spatial.algo;
 
-import org.neo4j.spatial.algo.cartesian.intersect.CartesianIntersect;
 import org.neo4j.spatial.algo.cartesian.intersect.CartesianMCSweepLineIntersect;
 import org.neo4j.spatial.algo.cartesian.intersect.CartesianNaiveIntersect;
-import org.neo4j.spatial.algo.wgs84.intersect.WGS84Intersect;
 import org.neo4j.spatial.algo.wgs84.intersect.WGS84MCSweepLineIntersect;
 import org.neo4j.spatial.algo.wgs84.intersect.WGS84NaiveIntersect;
 import org.neo4j.spatial.core.*;
 
+/**
+ * Provides the intersection algorithms, wrapped in an {@link EnvelopeFilteredIntersect} so disjoint pairs are rejected
+ * before any edges are compared. The {@link AlgorithmVariant#Parallel} variant runs the sweep line algorithm on the parts
+ * of the geometries in parallel, see {@link ParallelIntersect}.
+ */
 public class IntersectCalculator {
-    private static CartesianIntersect cartesianNaive;
-    private static WGS84Intersect wgs84Naive;
+    private static final Intersect cartesianNaive = new EnvelopeFilteredIntersect(new CartesianNaiveIntersect());
+    private static final Intersect wgs84Naive = new EnvelopeFilteredIntersect(new WGS84NaiveIntersect());
 
-    private static CartesianIntersect cartesianSweep;
-    private static WGS84Intersect wgs84Sweep;
+    private static final Intersect cartesianSweep = new EnvelopeFilteredIntersect(new CartesianMCSweepLineIntersect());
+    private static final Intersect wgs84Sweep = new EnvelopeFilteredIntersect(new WGS84MCSweepLineIntersect());
+
+    private static final Intersect cartesianParallel = new EnvelopeFilteredIntersect(new ParallelIntersect(new CartesianMCSweepLineIntersect()));
+    private static final Intersect wgs84Parallel = new EnvelopeFilteredIntersect(new ParallelIntersect(new WGS84MCSweepLineIntersect()));
 
     private static Intersect getCartesianNaive() {
-        if (cartesianNaive == null) {
-            cartesianNaive = new CartesianNaiveIntersect();
-        }
         return cartesianNaive;
     }
 
     private static Intersect getWGS84Naive() {
-        if (wgs84Naive == null) {
-            wgs84Naive = new WGS84NaiveIntersect();
-        }
         return wgs84Naive;
     }
 
     private static Intersect getCartesianSweep() {
-        if (cartesianSweep == null) {
-            cartesianSweep = new CartesianMCSweepLineIntersect();
-        }
         return cartesianSweep;
     }
 
     private static Intersect getWGS84Sweep() {
-        if (wgs84Sweep == null) {
-            wgs84Sweep = new WGS84MCSweepLineIntersect();
-        }
         return wgs84Sweep;
     }
 
+    private static Intersect getCartesianParallel() {
+        return cartesianParallel;
+    }
+
+    private static Intersect getWGS84Parallel() {
+        return wgs84Parallel;
+    }
+
     public static Intersect getCalculator(CRS crs) {
         return getCalculator(crs, AlgorithmVariant.Naive);
     }
@@ -51,12 +53,16 @@ public class IntersectCalculator {
         if (crs == CRS.Cartesian) {
             if (variant == AlgorithmVariant.Naive) {
                 return getCartesianNaive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getCartesianParallel();
             } else {
                 return getCartesianSweep();
             }
         } else {
             if (variant == AlgorithmVariant.Naive) {
                 return getWGS84Naive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getWGS84Parallel();
             } else {
                 return getWGS84Sweep();
             }
@@ -71,12 +77,16 @@ public class IntersectCalculator {
         if (a.getCRS() == CRS.Cartesian) {
             if (variant == AlgorithmVariant.Naive) {
                 return getCartesianNaive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getCartesianParallel();
             } else {
                 return getCartesianSweep();
             }
         } else {
             if (variant == AlgorithmVariant.Naive) {
                 return getWGS84Naive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getWGS84Parallel();
             } else {
                 return getWGS84Sweep();
             }
@@ -91,12 +101,16 @@ public class IntersectCalculator {
         if (a.getCRS() == CRS.Cartesian) {
             if (variant == AlgorithmVariant.Naive) {
                 return getCartesianNaive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getCartesianParallel();
             } else {
                 return getCartesianSweep();
             }
         } else {
             if (variant == AlgorithmVariant.Naive) {
                 return getWGS84Naive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getWGS84Parallel();
             } else {
                 return getWGS84Sweep();
             }
@@ -111,12 +125,16 @@ public class IntersectCalculator {
         if (a.getCRS() == CRS.Cartesian) {
             if (variant == AlgorithmVariant.Naive) {
                 return getCartesianNaive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getCartesianParallel();
             } else {
                 return getCartesianSweep();
             }
         } else {
             if (variant == AlgorithmVariant.Naive) {
                 return getWGS84Naive();
+            } else if (variant == AlgorithmVariant.Parallel) {
+                return getWGS84Parallel();
             } else {
                 return getWGS84Sweep();
             }
@@ -124,6 +142,6 @@ public class IntersectCalculator {
     }
 
     public enum AlgorithmVariant {
-        Naive, MCSweepLine
+        Naive, MCSweepLine, Parallel
     }
 }
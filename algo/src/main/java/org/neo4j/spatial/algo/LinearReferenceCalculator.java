@@ -6,20 +6,14 @@ import org.neo4j.spatial.core.CRS;
 import org.neo4j.spatial.core.Polygon;
 
 public class LinearReferenceCalculator {
-    private static CartesianLinearReference cartesian;
-    private static WGS84LinearReference wgs84;
+    private static final CartesianLinearReference cartesian = new CartesianLinearReference();
+    private static final WGS84LinearReference wgs84 = new WGS84LinearReference();
 
     private static LinearReference getCartesian() {
-        if (cartesian == null) {
-            cartesian = new CartesianLinearReference();
-        }
         return cartesian;
     }
 
     private static LinearReference getWGS84() {
-        if (wgs84 == null) {
-            wgs84 = new WGS84LinearReference();
-        }
         return wgs84;
     }
 
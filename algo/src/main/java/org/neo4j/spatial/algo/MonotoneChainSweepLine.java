@@ -0,0 +1,553 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.core.LineSegment;
+import org.neo4j.spatial.core.MonotoneChain;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * A monotone chain sweep line algorithm based on:
+ * Park S.C., Shin H., Choi B.K. (2001) A sweep line algorithm for polygonal chain intersection and its applications.
+ * In: Kimura F. (eds) Geometric Modelling. GEO 1998. IFIP — The International Federation for Information Processing, vol 75. Springer, Boston, MA
+ * <p>
+ * The active chain list is an ordered set keyed by the x-coordinate of the front vertices, and the sweeping chain
+ * list is a treap ordered by the y-coordinate at the sweep line, so every event costs O(log n). The line segment
+ * intersection and the mapping of found points are left to the coordinate reference system specific callers.
+ */
+public class MonotoneChainSweepLine {
+    private final BiFunction<LineSegment, LineSegment, Point> segmentIntersect;
+    private final UnaryOperator<Point> outputMapper;
+
+    private final Map<MonotoneChain, Chain> chains = new IdentityHashMap<>();
+    private final TreeSet<Chain> activeChainList = new TreeSet<>(Comparator.<Chain>comparingDouble(c -> c.x).thenComparingLong(c -> -c.order));
+    private final Treap sweepingChainList = new Treap();
+    private final List<Point> outputList = new ArrayList<>();
+    //Groups the output by cells of AlgoUtil.EPSILON, so equal points are found by looking at neighbouring cells only
+    private final Map<Cell, List<Point>> outputCells = new HashMap<>();
+
+    //Chains with an id below this value come from the first geometry
+    private long splitId;
+    private long order;
+    //The x-coordinate of the event which is being handled
+    private double sweepX = Double.NEGATIVE_INFINITY;
+
+    /**
+     * @param segmentIntersect the intersection between two line segments, or null if they do not intersect
+     * @param outputMapper maps the points found by the sweep to the points which are reported
+     */
+    public MonotoneChainSweepLine(BiFunction<LineSegment, LineSegment, Point> segmentIntersect, UnaryOperator<Point> outputMapper) {
+        this.segmentIntersect = segmentIntersect;
+        this.outputMapper = outputMapper;
+    }
+
+    /**
+     * Numbers the chains of both geometries, so the ids tell which geometry a chain belongs to, and sweeps them.
+     * A sweep line instance holds the state of a single call and must not be reused.
+     *
+     * @param first the chains of the first geometry
+     * @param second the chains of the second geometry
+     * @param shortcut stop at the first intersection
+     * @return An array of points at which the chains of the two input geometries intersect
+     */
+    public Point[] intersect(List<MonotoneChain> first, List<MonotoneChain> second, boolean shortcut) {
+        long id = 0;
+        for (MonotoneChain monotoneChain : first) {
+            monotoneChain.setId(id++);
+        }
+        this.splitId = id;
+        for (MonotoneChain monotoneChain : second) {
+            monotoneChain.setId(id++);
+        }
+
+        for (MonotoneChain monotoneChain : first) {
+            insertMonotoneChainInACL(chain(monotoneChain));
+        }
+        for (MonotoneChain monotoneChain : second) {
+            insertMonotoneChainInACL(chain(monotoneChain));
+        }
+
+        Chain MCa;
+        while (!this.activeChainList.isEmpty()) {
+            MCa = this.activeChainList.pollFirst();
+            MCa.queued = false;
+            //Only intersection vertices are objects of their own, the other vertices are read from the coordinates
+            Vertex.Type type = MCa.chain.getFrontType();
+            double x = MCa.chain.getFrontX();
+            sweepX = x;
+            Vertex v = type == Vertex.Type.INTERSECTION ? MCa.chain.getFrontVertex() : null;
+            MCa.chain.advance();
+            insertMonotoneChainInACL(MCa);
+
+            switch (type) {
+                case LEFT_MOST:
+                    insertInSCL(MCa, x);
+                    findIntersection(MCa, getPrevious(MCa));
+                    findIntersection(MCa, getNext(MCa));
+                    break;
+                case INTERNAL:
+                    findIntersection(MCa, getPrevious(MCa));
+                    findIntersection(MCa, getNext(MCa));
+                    break;
+                case RIGHT_MOST:
+                    Chain MCp = getPrevious(MCa);
+                    Chain MCn = getNext(MCa);
+                    removeFromSCL(MCa);
+                    removeFromACL(MCa);
+                    findIntersection(MCp, MCn);
+                    break;
+                case INTERSECTION:
+                    Chain finalMCa = MCa;
+                    Chain MCb = chain(v.getMonotoneChains().stream().filter(c -> !c.equals(finalMCa.chain)).findFirst().get());
+                    removeFromACL(MCb);
+                    MCb.chain.advance(v);
+                    insertMonotoneChainInACL(MCb);
+                    swapAccordingToSCL(MCa, MCb, x);
+                    Chain previous = getPrevious(MCb);
+                    if (previous == MCa) {
+                        findIntersection(MCa, getPrevious(MCa));
+                        findIntersection(MCb, getNext(MCb));
+                    } else {
+                        findIntersection(MCb, getPrevious(MCb));
+                        findIntersection(MCa, getNext(MCa));
+                    }
+                    //Chains of the same geometry may cross as well, they are swapped but not reported
+                    if (fromDifferentGeometries(MCa.chain, MCb.chain)) {
+                        addToOutput(v.getPoint());
+                    }
+                    break;
+            }
+            if (shortcut && outputList.size() > 0) {
+                return getOutput();
+            }
+        }
+
+        return getOutput();
+    }
+
+    public Point[] getOutput() {
+        return outputList.toArray(new Point[0]);
+    }
+
+    /**
+     * Adds the mapped point to the output, unless an equal point was already found
+     *
+     * @param point
+     */
+    public void addToOutput(Point point) {
+        Point mapped = outputMapper.apply(point);
+        double[] coordinate = mapped.getCoordinate();
+        long x = (long) Math.floor(coordinate[0] / AlgoUtil.EPSILON);
+        long y = (long) Math.floor(coordinate[1] / AlgoUtil.EPSILON);
+        for (long i = x - 1; i <= x + 1; i++) {
+            for (long j = y - 1; j <= y + 1; j++) {
+                for (Point inList : outputCells.getOrDefault(new Cell(i, j), Collections.emptyList())) {
+                    if (AlgoUtil.equal(coordinate, inList.getCoordinate())) {
+                        return;
+                    }
+                }
+            }
+        }
+        this.outputCells.computeIfAbsent(new Cell(x, y), k -> new ArrayList<>()).add(mapped);
+        this.outputList.add(mapped);
+    }
+
+    private record Cell(long x, long y) {
+    }
+
+    private Chain chain(MonotoneChain monotoneChain) {
+        return chains.computeIfAbsent(monotoneChain, Chain::new);
+    }
+
+    /**
+     * Insert the monotone chain into the active chain list based on x-values of the front vertices.
+     * Chains with equal x-values are handled in reverse order of insertion. Finished chains are not inserted.
+     *
+     * @param chain The monotone chain to be inserted
+     */
+    private void insertMonotoneChainInACL(Chain chain) {
+        removeFromACL(chain);
+
+        if (chain.chain.getFrontType() == null) {
+            return;
+        }
+        chain.x = chain.chain.getFrontX();
+        chain.order = order++;
+        chain.queued = true;
+        this.activeChainList.add(chain);
+    }
+
+    /**
+     * Removes the chain from the active chain list, this has to happen before its front vertex changes
+     */
+    private void removeFromACL(Chain chain) {
+        if (chain.queued) {
+            this.activeChainList.remove(chain);
+            chain.queued = false;
+        }
+    }
+
+    /**
+     * Check if the two chains are from different geometries by comparing the signs of their ids relative to the split id
+     */
+    private boolean fromDifferentGeometries(MonotoneChain a, MonotoneChain b) {
+        return (a.getId() - splitId ^ b.getId() - splitId) < 0;
+    }
+
+    /**
+     * Find the intersection between two monotone chains (if it exists) and create a new INTERSECTION vertex
+     * if the intersection point is not a shared point of the two chains. Intersections behind the sweep line, or
+     * already passed or pending on either chain, are skipped, otherwise rounding lets the same crossing be found
+     * again after the chains are swapped and the sweep never ends.
+     *
+     * @param a
+     * @param b
+     */
+    private void findIntersection(Chain a, Chain b) {
+        if (a == null || b == null) {
+            return;
+        }
+
+        MonotoneChain aChain = a.chain;
+        MonotoneChain bChain = b.chain;
+        LineSegment aSegment = LineSegment.lineSegment(aChain.getFrontPoint(), aChain.getPreviousPoint());
+        LineSegment bSegment = LineSegment.lineSegment(bChain.getFrontPoint(), bChain.getPreviousPoint());
+
+        Point sharedPoint = LineSegment.sharedPoint(aSegment, bSegment);
+        if (sharedPoint != null) {
+            //addToOutput skips known points
+            if (fromDifferentGeometries(aChain, bChain)) {
+                addToOutput(sharedPoint);
+            }
+            return;
+        }
+
+        Point intersect = segmentIntersect.apply(aSegment, bSegment);
+
+        if (intersect == null || intersect.getCoordinate()[0] < sweepX
+                || aChain.isKnownIntersection(intersect) || bChain.isKnownIntersection(intersect)) {
+            return;
+        }
+
+        Vertex intersectVertex = new Vertex(intersect);
+
+        intersectVertex.setType(Vertex.Type.INTERSECTION);
+        intersectVertex.setMonotoneChains(new ArrayList<>(Arrays.asList(aChain, bChain)));
+
+        removeFromACL(a);
+        aChain.insertFrontVertex(intersectVertex);
+        insertMonotoneChainInACL(a);
+        removeFromACL(b);
+        bChain.insertFrontVertex(intersectVertex);
+        insertMonotoneChainInACL(b);
+    }
+
+    /**
+     * Re-sort two intersecting chains, which currently cross the sweep line, in the sweeping chain list based
+     * on their angle at the sweep line. Both take the place of the chain which came first.
+     *
+     * @param a
+     * @param b
+     * @param x The x-coordinate of the sweep line
+     */
+    private void swapAccordingToSCL(Chain a, Chain b, double x) {
+        if (a.node == null || b.node == null) {
+            return;
+        }
+        Chain lower = a;
+        Chain upper = b;
+        if (Double.compare(b.chain.getAngle(x), a.chain.getAngle(x)) < 0) {
+            lower = b;
+            upper = a;
+        }
+
+        Node first = a.node;
+        Node second = b.node;
+        if (sweepingChainList.rank(second) < sweepingChainList.rank(first)) {
+            first = b.node;
+            second = a.node;
+        }
+
+        if (sweepingChainList.successor(first) == second) {
+            first.set(lower);
+            second.set(upper);
+        } else {
+            sweepingChainList.remove(second);
+            first.set(lower);
+            sweepingChainList.insertAfter(first, upper);
+        }
+    }
+
+    /**
+     * Insert the monotone chain into the sweeping chain list based on its y-value at the sweep line.
+     * If this y-value coincides with another chain in the list, sort them by their angle.
+     *
+     * @param chain The chain to be inserted.
+     * @param x     The x-coordinate of the sweep line
+     */
+    private void insertInSCL(Chain chain, double x) {
+        double y = chain.chain.getY(x);
+        double angle = chain.chain.getAngle(x);
+        sweepingChainList.insert(chain, other -> {
+            double otherY = other.getY(x);
+
+            if (AlgoUtil.equal(y, otherY)) {
+                return Double.compare(angle, other.getAngle(x));
+            }
+
+            return Double.compare(y, otherY);
+        });
+    }
+
+    private void removeFromSCL(Chain chain) {
+        if (chain.node != null) {
+            sweepingChainList.remove(chain.node);
+        }
+    }
+
+    /**
+     * @return The next chain in the sweeping chain list, and null if the chain is not in the list or is the last one.
+     */
+    private Chain getNext(Chain chain) {
+        if (chain.node == null) {
+            return null;
+        }
+        Node next = sweepingChainList.successor(chain.node);
+        return next == null ? null : next.chain;
+    }
+
+    /**
+     * @return The previous chain in the sweeping chain list, and null if the chain is not in the list or is the first one.
+     */
+    private Chain getPrevious(Chain chain) {
+        if (chain.node == null) {
+            return null;
+        }
+        Node previous = sweepingChainList.predecessor(chain.node);
+        return previous == null ? null : previous.chain;
+    }
+
+    /**
+     * The sweep state of a monotone chain: its key in the active chain list and its node in the sweeping chain list
+     */
+    private static class Chain {
+        private final MonotoneChain chain;
+        private double x;
+        private long order;
+        private boolean queued;
+        private Node node;
+
+        private Chain(MonotoneChain chain) {
+            this.chain = chain;
+        }
+    }
+
+    private static class Node {
+        private Chain chain;
+        private Node left;
+        private Node right;
+        private Node parent;
+        private final int priority;
+        private int size = 1;
+
+        private Node(Chain chain, int priority) {
+            this.priority = priority;
+            set(chain);
+        }
+
+        private void set(Chain chain) {
+            this.chain = chain;
+            chain.node = this;
+        }
+    }
+
+    /**
+     * A randomized balanced binary search tree with parent pointers, so the neighbours of a node can be found
+     * without searching, and subtree sizes, so the order of two nodes can be compared.
+     */
+    private static class Treap {
+        private Node root;
+        private int seed = 0x2545F491;
+
+        private int nextPriority() {
+            seed ^= seed << 13;
+            seed ^= seed >>> 17;
+            seed ^= seed << 5;
+            return seed;
+        }
+
+        private interface Position {
+            /**
+             * @return Negative if the inserted chain belongs before the given chain
+             */
+            int compareTo(MonotoneChain other);
+        }
+
+        /**
+         * Inserts the chain after all chains it does not belong before
+         */
+        private void insert(Chain chain, Position position) {
+            Node node = new Node(chain, nextPriority());
+            if (root == null) {
+                root = node;
+                return;
+            }
+            Node parent = root;
+            while (true) {
+                parent.size++;
+                if (position.compareTo(parent.chain.chain) < 0) {
+                    if (parent.left == null) {
+                        parent.left = node;
+                        break;
+                    }
+                    parent = parent.left;
+                } else {
+                    if (parent.right == null) {
+                        parent.right = node;
+                        break;
+                    }
+                    parent = parent.right;
+                }
+            }
+            node.parent = parent;
+            bubbleUp(node);
+        }
+
+        /**
+         * Inserts the chain directly after the given node
+         */
+        private void insertAfter(Node anchor, Chain chain) {
+            Node node = new Node(chain, nextPriority());
+            Node parent;
+            if (anchor.right == null) {
+                parent = anchor;
+                parent.right = node;
+            } else {
+                parent = anchor.right;
+                while (parent.left != null) {
+                    parent = parent.left;
+                }
+                parent.left = node;
+            }
+            node.parent = parent;
+            for (Node current = parent; current != null; current = current.parent) {
+                current.size++;
+            }
+            bubbleUp(node);
+        }
+
+        private void remove(Node node) {
+            while (node.left != null && node.right != null) {
+                rotateUp(node.left.priority < node.right.priority ? node.left : node.right);
+            }
+            Node child = node.left != null ? node.left : node.right;
+            replace(node, child);
+            for (Node current = node.parent; current != null; current = current.parent) {
+                current.size--;
+            }
+            node.chain.node = null;
+            node.parent = null;
+        }
+
+        private Node successor(Node node) {
+            if (node.right != null) {
+                Node current = node.right;
+                while (current.left != null) {
+                    current = current.left;
+                }
+                return current;
+            }
+            Node current = node;
+            while (current.parent != null && current.parent.right == current) {
+                current = current.parent;
+            }
+            return current.parent;
+        }
+
+        private Node predecessor(Node node) {
+            if (node.left != null) {
+                Node current = node.left;
+                while (current.right != null) {
+                    current = current.right;
+                }
+                return current;
+            }
+            Node current = node;
+            while (current.parent != null && current.parent.left == current) {
+                current = current.parent;
+            }
+            return current.parent;
+        }
+
+        /**
+         * @return The number of nodes before the given node
+         */
+        private int rank(Node node) {
+            int rank = size(node.left);
+            for (Node current = node; current.parent != null; current = current.parent) {
+                if (current.parent.right == current) {
+                    rank += size(current.parent.left) + 1;
+                }
+            }
+            return rank;
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+
+        private void bubbleUp(Node node) {
+            while (node.parent != null && node.parent.priority > node.priority) {
+                rotateUp(node);
+            }
+        }
+
+        private void replace(Node node, Node child) {
+            if (child != null) {
+                child.parent = node.parent;
+            }
+            if (node.parent == null) {
+                root = child;
+            } else if (node.parent.left == node) {
+                node.parent.left = child;
+            } else {
+                node.parent.right = child;
+            }
+        }
+
+        /**
+         * Rotates the node above its parent, keeping the order of all nodes
+         */
+        private void rotateUp(Node node) {
+            Node parent = node.parent;
+            replace(parent, node);
+            if (parent.left == node) {
+                parent.left = node.right;
+                if (node.right != null) {
+                    node.right.parent = parent;
+                }
+                node.right = parent;
+            } else {
+                parent.right = node.left;
+                if (node.left != null) {
+                    node.left.parent = parent;
+                }
+                node.left = parent;
+            }
+            parent.parent = node;
+            parent.size = 1 + size(parent.left) + size(parent.right);
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+    }
+}
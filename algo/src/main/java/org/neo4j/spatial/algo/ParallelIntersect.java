@@ -0,0 +1,267 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.LineSegment;
+import org.neo4j.spatial.core.MultiPolyline;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Splits both geometries into pieces, intersects all pairs of pieces with overlapping envelopes on a
+ * {@link ForkJoinPool} and merges the intersections, removing duplicates.
+ * <p>
+ * Every shell and hole of a polygon and every child of a multi polyline becomes a piece. Rings and polylines with more
+ * than {@link #PIECE_SIZE} line segments are cut into runs of consecutive line segments, so a single large ring is
+ * spread over the pool as well. The pieces are handed to the wrapped algorithm as polylines.
+ */
+public class ParallelIntersect implements Intersect {
+    static final int PIECE_SIZE = 2048;
+
+    private final Intersect intersect;
+    private final ForkJoinPool pool;
+
+    public ParallelIntersect(Intersect intersect) {
+        this(intersect, ForkJoinPool.commonPool());
+    }
+
+    public ParallelIntersect(Intersect intersect, ForkJoinPool pool) {
+        this.intersect = intersect;
+        this.pool = pool;
+    }
+
+    @Override
+    public boolean doesIntersect(Polygon a, Polygon b) {
+        return doesIntersect(pieces(a), pieces(b));
+    }
+
+    @Override
+    public Point[] intersect(Polygon a, Polygon b) {
+        return intersect(pieces(a), pieces(b));
+    }
+
+    @Override
+    public boolean doesIntersect(Polygon a, MultiPolyline b) {
+        return doesIntersect(pieces(a), pieces(b.getChildren()));
+    }
+
+    @Override
+    public Point[] intersect(Polygon a, MultiPolyline b) {
+        return intersect(pieces(a), pieces(b.getChildren()));
+    }
+
+    @Override
+    public boolean doesIntersect(Polygon a, Polyline b) {
+        return doesIntersect(pieces(a), pieces(b));
+    }
+
+    @Override
+    public Point[] intersect(Polygon a, Polyline b) {
+        return intersect(pieces(a), pieces(b));
+    }
+
+    @Override
+    public Point[] intersect(MultiPolyline a, MultiPolyline b) {
+        return intersect(pieces(a.getChildren()), pieces(b.getChildren()));
+    }
+
+    @Override
+    public Point[] intersect(MultiPolyline a, Polyline b) {
+        return intersect(pieces(a.getChildren()), pieces(b));
+    }
+
+    @Override
+    public Point[] intersect(MultiPolyline a, LineSegment b) {
+        return intersect(pieces(a.getChildren()), b);
+    }
+
+    @Override
+    public Point[] intersect(Polyline a, Polyline b) {
+        return intersect(pieces(a), pieces(b));
+    }
+
+    @Override
+    public Point[] intersect(Polyline a, LineSegment b) {
+        return intersect(pieces(a), b);
+    }
+
+    @Override
+    public Point intersect(LineSegment a, LineSegment b) {
+        return intersect.intersect(a, b);
+    }
+
+    @Override
+    public boolean doesIntersect(CoordinateSequence a, CoordinateSequence b) {
+        return intersect.doesIntersect(a, b);
+    }
+
+    @Override
+    public Point[] intersect(CoordinateSequence a, CoordinateSequence b) {
+        return intersect.intersect(a, b);
+    }
+
+    private Point[] intersect(List<Polyline> a, LineSegment b) {
+        List<Polyline> candidates = new ArrayList<>();
+        for (Polyline piece : a) {
+            if (piece.getEnvelope().intersects(b.getEnvelope())) {
+                candidates.add(piece);
+            }
+        }
+        List<Point[]> results = pool.invoke(new IntersectTask(candidates.size(), (i, found) -> intersect.intersect(candidates.get(i), b), null));
+        return merge(results);
+    }
+
+    private Point[] intersect(List<Polyline> a, List<Polyline> b) {
+        List<Polyline[]> pairs = pairs(a, b);
+        List<Point[]> results = pool.invoke(new IntersectTask(pairs.size(), (i, found) -> intersect.intersect(pairs.get(i)[0], pairs.get(i)[1]), null));
+        return merge(results);
+    }
+
+    private boolean doesIntersect(List<Polyline> a, List<Polyline> b) {
+        List<Polyline[]> pairs = pairs(a, b);
+        AtomicBoolean found = new AtomicBoolean();
+        pool.invoke(new IntersectTask(pairs.size(), (i, stop) -> {
+            if (!stop.get() && intersect.doesIntersect(pairs.get(i)[0].getCoordinateSequence(), pairs.get(i)[1].getCoordinateSequence())) {
+                stop.set(true);
+            }
+            return null;
+        }, found));
+        return found.get();
+    }
+
+    /**
+     * @return All pairs of pieces whose envelopes overlap
+     */
+    private static List<Polyline[]> pairs(List<Polyline> a, List<Polyline> b) {
+        List<Polyline[]> pairs = new ArrayList<>();
+        for (Polyline aPiece : a) {
+            for (Polyline bPiece : b) {
+                if (aPiece.getEnvelope().intersects(bPiece.getEnvelope())) {
+                    pairs.add(new Polyline[]{aPiece, bPiece});
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static List<Polyline> pieces(Polygon polygon) {
+        List<Polyline> pieces = new ArrayList<>();
+        for (Polygon.SimplePolygon shell : polygon.getShells()) {
+            addPieces(pieces, shell.getPoints());
+        }
+        for (Polygon.SimplePolygon hole : polygon.getHoles()) {
+            addPieces(pieces, hole.getPoints());
+        }
+        return pieces;
+    }
+
+    private static List<Polyline> pieces(Polyline... polylines) {
+        List<Polyline> pieces = new ArrayList<>();
+        for (Polyline polyline : polylines) {
+            addPieces(pieces, polyline.getPoints());
+        }
+        return pieces;
+    }
+
+    /**
+     * Cuts the points into polylines of at most PIECE_SIZE line segments, consecutive pieces share their end point
+     */
+    private static void addPieces(List<Polyline> pieces, Point[] points) {
+        if (points.length <= PIECE_SIZE + 1) {
+            pieces.add(Polyline.polyline(points));
+            return;
+        }
+        for (int start = 0; start < points.length - 1; start += PIECE_SIZE) {
+            int end = Math.min(points.length, start + PIECE_SIZE + 1);
+            pieces.add(Polyline.polyline(Arrays.copyOfRange(points, start, end)));
+        }
+    }
+
+    /**
+     * Combines the intersections of all pieces. Pieces share their end points, so the same intersection can be found
+     * twice, which is removed by comparing points that fall in the same or a neighbouring cell of AlgoUtil.EPSILON.
+     */
+    private static Point[] merge(List<Point[]> results) {
+        List<Point> output = new ArrayList<>();
+        Map<List<Long>, List<Point>> cells = new HashMap<>();
+        for (Point[] result : results) {
+            if (result == null) {
+                continue;
+            }
+            for (Point point : result) {
+                double[] coordinate = point.getCoordinate();
+                long x = (long) Math.floor(coordinate[0] / AlgoUtil.EPSILON);
+                long y = (long) Math.floor(coordinate[1] / AlgoUtil.EPSILON);
+                if (!contains(cells, x, y, coordinate)) {
+                    cells.computeIfAbsent(Arrays.asList(x, y), k -> new ArrayList<>()).add(point);
+                    output.add(point);
+                }
+            }
+        }
+        return output.toArray(new Point[0]);
+    }
+
+    private static boolean contains(Map<List<Long>, List<Point>> cells, long x, long y, double[] coordinate) {
+        for (long i = x - 1; i <= x + 1; i++) {
+            for (long j = y - 1; j <= y + 1; j++) {
+                for (Point point : cells.getOrDefault(Arrays.asList(i, j), Collections.emptyList())) {
+                    if (AlgoUtil.equal(coordinate, point.getCoordinate())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the work items [from, to) by splitting the range in halves until a single item remains
+     */
+    private static class IntersectTask extends RecursiveTask<List<Point[]>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final BiFunction<Integer, AtomicBoolean, Point[]> work;
+        private final AtomicBoolean stop;
+
+        private IntersectTask(int size, BiFunction<Integer, AtomicBoolean, Point[]> work, AtomicBoolean stop) {
+            this(0, size, work, stop == null ? new AtomicBoolean() : stop);
+        }
+
+        private IntersectTask(int from, int to, BiFunction<Integer, AtomicBoolean, Point[]> work, AtomicBoolean stop) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+            this.stop = stop;
+        }
+
+        @Override
+        protected List<Point[]> compute() {
+            if (stop.get() || from >= to) {
+                return Collections.emptyList();
+            }
+            if (to - from == 1) {
+                return Collections.singletonList(work.apply(from, stop));
+            }
+            int middle = (from + to) >>> 1;
+            IntersectTask left = new IntersectTask(from, middle, work, stop);
+            IntersectTask right = new IntersectTask(middle, to, work, stop);
+            left.fork();
+            List<Point[]> result = new ArrayList<>(right.compute());
+            result.addAll(0, left.join());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.algo.cartesian.CartesianPreparedPolygon;
+import org.neo4j.spatial.algo.wgs84.WGS84PreparedPolygon;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+
+import java.util.Arrays;
+
+/**
+ * A polygon prepared for many point-in-polygon queries. The rings are indexed once, so each query only looks at
+ * the edges that can be crossed by the ray cast from the queried point, instead of scanning the whole polygon.
+ * The result is the same as {@link WithinCalculator#within(Polygon, Point)}.
+ */
+public abstract class PreparedPolygon {
+    private final Polygon polygon;
+
+    protected PreparedPolygon(Polygon polygon) {
+        this.polygon = polygon;
+    }
+
+    public static PreparedPolygon prepare(Polygon polygon) {
+        if (polygon.getCRS() == CRS.Cartesian) {
+            return new CartesianPreparedPolygon(polygon);
+        } else {
+            return new WGS84PreparedPolygon(polygon);
+        }
+    }
+
+    public Polygon getPolygon() {
+        return polygon;
+    }
+
+    public boolean within(Point point) {
+        return within(point.getCoordinate()[0], point.getCoordinate()[1]);
+    }
+
+    /**
+     * @param x
+     * @param y
+     * @return True iff the coordinate is inside more shells than holes of the polygon
+     */
+    public abstract boolean within(double x, double y);
+
+    /**
+     * Buckets over a one-dimensional range holding the edges whose extent overlaps the bucket, stored in two flat
+     * arrays: the edges of bucket b are edges[offsets[b]] up to edges[offsets[b + 1]]. An edge may be given with
+     * several extents, consecutive entries of the same edge are stored at most once per bucket.
+     */
+    protected static class EdgeBuckets {
+        private static final int MAX_BUCKETS = 1 << 16;
+
+        private final double min;
+        private final double scale;
+        private final int count;
+        private final int[] offsets;
+        private final int[] edges;
+
+        /**
+         * @param min lower end of the indexed range
+         * @param max upper end of the indexed range
+         * @param edge the edge of every entry
+         * @param low the lower end of the extent of every entry
+         * @param high the upper end of the extent of every entry
+         * @param size the number of entries
+         */
+        public EdgeBuckets(double min, double max, int[] edge, double[] low, double[] high, int size) {
+            this.min = min;
+            this.count = Math.max(1, Math.min(size, MAX_BUCKETS));
+            this.scale = max > min ? count / (max - min) : 0;
+            this.offsets = new int[count + 1];
+
+            int[] last = new int[count];
+            Arrays.fill(last, -1);
+            for (int i = 0; i < size; i++) {
+                for (int b = bucket(low[i]); b <= bucket(high[i]); b++) {
+                    if (last[b] != edge[i]) {
+                        last[b] = edge[i];
+                        offsets[b + 1]++;
+                    }
+                }
+            }
+            for (int b = 0; b < count; b++) {
+                offsets[b + 1] += offsets[b];
+            }
+
+            this.edges = new int[offsets[count]];
+            int[] fill = new int[count];
+            Arrays.fill(last, -1);
+            for (int i = 0; i < size; i++) {
+                for (int b = bucket(low[i]); b <= bucket(high[i]); b++) {
+                    if (last[b] != edge[i]) {
+                        last[b] = edge[i];
+                        edges[offsets[b] + fill[b]++] = edge[i];
+                    }
+                }
+            }
+        }
+
+        public int bucket(double value) {
+            int bucket = (int) ((value - min) * scale);
+            return bucket < 0 ? 0 : (bucket >= count ? count - 1 : bucket);
+        }
+
+        public int start(int bucket) {
+            return offsets[bucket];
+        }
+
+        public int end(int bucket) {
+            return offsets[bucket + 1];
+        }
+
+        public int edge(int i) {
+            return edges[i];
+        }
+    }
+}
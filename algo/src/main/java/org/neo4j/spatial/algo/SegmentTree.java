@@ -0,0 +1,408 @@
+package org.neo4j.spatial.algo;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.PriorityQueue;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A static R-tree over the axis aligned boxes of line segments, packed with the Sort-Tile-Recursive algorithm.
+ * The tree only knows about boxes, so it can be used with the lon/lat boxes of Cartesian segments as well as with the
+ * three-dimensional n-vector boxes of WGS84 arcs. Items are identified by their index in the arrays the tree was
+ * built from.
+ */
+public class SegmentTree {
+    private static final int NODE_CAPACITY = 8;
+
+    private final int dimension;
+    private final int size;
+    private final double[] itemMin;
+    private final double[] itemMax;
+    private final int[] items;
+
+    private double[] nodeMin;
+    private double[] nodeMax;
+    private int[] nodeStart;
+    private int[] nodeEnd;
+    private int leafCount;
+    private int nodeCount;
+
+    /**
+     * @param dimension number of dimensions of the boxes
+     * @param min lower corners of the boxes of all items, dimension values per item
+     * @param max upper corners of the boxes of all items, dimension values per item
+     */
+    public SegmentTree(int dimension, double[] min, double[] max) {
+        this.dimension = dimension;
+        this.size = min.length / dimension;
+        this.itemMin = min;
+        this.itemMax = max;
+        this.items = new int[size];
+        for (int i = 0; i < size; i++) {
+            items[i] = i;
+        }
+        build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void build() {
+        if (size == 0) {
+            return;
+        }
+        int leaves = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int capacity = 2 * leaves + 1;
+        nodeMin = new double[capacity * dimension];
+        nodeMax = new double[capacity * dimension];
+        nodeStart = new int[capacity];
+        nodeEnd = new int[capacity];
+
+        sortTileRecursive(items, 0, size, centers(itemMin, itemMax, size), 0);
+        for (int start = 0; start < size; start += NODE_CAPACITY) {
+            int node = nodeCount++;
+            nodeStart[node] = start;
+            nodeEnd[node] = Math.min(size, start + NODE_CAPACITY);
+            initBox(node);
+            for (int i = nodeStart[node]; i < nodeEnd[node]; i++) {
+                expandBox(node, itemMin, itemMax, items[i]);
+            }
+        }
+        leafCount = nodeCount;
+
+        int levelStart = 0;
+        int levelEnd = nodeCount;
+        while (levelEnd - levelStart > 1) {
+            sortLevel(levelStart, levelEnd);
+            for (int start = levelStart; start < levelEnd; start += NODE_CAPACITY) {
+                int node = nodeCount++;
+                nodeStart[node] = start;
+                nodeEnd[node] = Math.min(levelEnd, start + NODE_CAPACITY);
+                initBox(node);
+                for (int child = nodeStart[node]; child < nodeEnd[node]; child++) {
+                    expandBox(node, nodeMin, nodeMax, child);
+                }
+            }
+            levelStart = levelEnd;
+            levelEnd = nodeCount;
+        }
+    }
+
+    /**
+     * Reorders the nodes of one level in Sort-Tile-Recursive order, so consecutive nodes can be grouped into parents
+     */
+    private void sortLevel(int levelStart, int levelEnd) {
+        int count = levelEnd - levelStart;
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = levelStart + i;
+        }
+        double[] centers = new double[nodeCount * dimension];
+        for (int node = levelStart; node < levelEnd; node++) {
+            for (int d = 0; d < dimension; d++) {
+                centers[node * dimension + d] = (nodeMin[node * dimension + d] + nodeMax[node * dimension + d]) / 2;
+            }
+        }
+        sortTileRecursive(order, 0, count, centers, 0);
+
+        double[] min = new double[count * dimension];
+        double[] max = new double[count * dimension];
+        int[] start = new int[count];
+        int[] end = new int[count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(nodeMin, order[i] * dimension, min, i * dimension, dimension);
+            System.arraycopy(nodeMax, order[i] * dimension, max, i * dimension, dimension);
+            start[i] = nodeStart[order[i]];
+            end[i] = nodeEnd[order[i]];
+        }
+        System.arraycopy(min, 0, nodeMin, levelStart * dimension, count * dimension);
+        System.arraycopy(max, 0, nodeMax, levelStart * dimension, count * dimension);
+        System.arraycopy(start, 0, nodeStart, levelStart, count);
+        System.arraycopy(end, 0, nodeEnd, levelStart, count);
+    }
+
+    private double[] centers(double[] min, double[] max, int count) {
+        double[] centers = new double[count * dimension];
+        for (int i = 0; i < centers.length; i++) {
+            centers[i] = (min[i] + max[i]) / 2;
+        }
+        return centers;
+    }
+
+    /**
+     * Sorts the range by the center in the given dimension, cuts it into slices and sorts every slice by the next
+     * dimension, until the last dimension is reached.
+     */
+    private void sortTileRecursive(int[] ids, int from, int to, double[] centers, int d) {
+        int count = to - from;
+        double[] keys = new double[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = centers[ids[from + i] * dimension + d];
+        }
+        sort(keys, ids, from, 0, count - 1);
+        if (d == dimension - 1 || count <= NODE_CAPACITY) {
+            return;
+        }
+        int nodes = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.pow(nodes, 1.0 / (dimension - d)));
+        int sliceSize = NODE_CAPACITY * ((nodes + slices - 1) / slices);
+        for (int start = from; start < to; start += sliceSize) {
+            sortTileRecursive(ids, start, Math.min(to, start + sliceSize), centers, d + 1);
+        }
+    }
+
+    /**
+     * Quicksort of keys[lo..hi], applying the same swaps to ids[offset + lo..offset + hi]
+     */
+    private static void sort(double[] keys, int[] ids, int offset, int lo, int hi) {
+        while (lo < hi) {
+            if (hi - lo < 16) {
+                for (int i = lo + 1; i <= hi; i++) {
+                    for (int j = i; j > lo && keys[j - 1] > keys[j]; j--) {
+                        swap(keys, ids, offset, j - 1, j);
+                    }
+                }
+                return;
+            }
+            double pivot = keys[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, ids, offset, i++, j--);
+                }
+            }
+            if (j - lo < hi - i) {
+                sort(keys, ids, offset, lo, j);
+                lo = i;
+            } else {
+                sort(keys, ids, offset, i, hi);
+                hi = j;
+            }
+        }
+    }
+
+    private static void swap(double[] keys, int[] ids, int offset, int i, int j) {
+        double key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int id = ids[offset + i];
+        ids[offset + i] = ids[offset + j];
+        ids[offset + j] = id;
+    }
+
+    private void initBox(int node) {
+        for (int d = 0; d < dimension; d++) {
+            nodeMin[node * dimension + d] = Double.POSITIVE_INFINITY;
+            nodeMax[node * dimension + d] = Double.NEGATIVE_INFINITY;
+        }
+    }
+
+    private void expandBox(int node, double[] min, double[] max, int index) {
+        for (int d = 0; d < dimension; d++) {
+            nodeMin[node * dimension + d] = Math.min(nodeMin[node * dimension + d], min[index * dimension + d]);
+            nodeMax[node * dimension + d] = Math.max(nodeMax[node * dimension + d], max[index * dimension + d]);
+        }
+    }
+
+    private boolean isLeaf(int node) {
+        return node < leafCount;
+    }
+
+    private double extent(int node) {
+        double sum = 0;
+        for (int d = 0; d < dimension; d++) {
+            double length = nodeMax[node * dimension + d] - nodeMin[node * dimension + d];
+            sum += length * length;
+        }
+        return sum;
+    }
+
+    /**
+     * @return The Euclidean distance between two boxes, zero if they overlap
+     */
+    private static double boxDistance(int dimension, double[] aMin, double[] aMax, int a, double[] bMin, double[] bMax, int b) {
+        double sum = 0;
+        for (int d = 0; d < dimension; d++) {
+            double gap = Math.max(bMin[b * dimension + d] - aMax[a * dimension + d], aMin[a * dimension + d] - bMax[b * dimension + d]);
+            if (gap > 0) {
+                sum += gap * gap;
+            }
+        }
+        return Math.sqrt(sum);
+    }
+
+    @FunctionalInterface
+    public interface PairDistance {
+        /**
+         * @param a item of the first tree
+         * @param b item of the second tree
+         * @return The exact distance between the two items
+         */
+        double distance(int a, int b);
+    }
+
+    @FunctionalInterface
+    public interface PairConsumer {
+        /**
+         * @param a item of the first tree
+         * @param b item of the second tree
+         */
+        void accept(int a, int b);
+    }
+
+    public static class Nearest {
+        public final double distance;
+        public final int a;
+        public final int b;
+
+        private Nearest(double distance, int a, int b) {
+            this.distance = distance;
+            this.a = a;
+            this.b = b;
+        }
+
+        /**
+         * @return False if no pair closer than the given upper bound was found
+         */
+        public boolean isFound() {
+            return a >= 0;
+        }
+    }
+
+    private static class Candidate implements Comparable<Candidate> {
+        private final double bound;
+        private final int a;
+        private final int b;
+
+        private Candidate(double bound, int a, int b) {
+            this.bound = bound;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(bound, other.bound);
+        }
+    }
+
+    /**
+     * Branch-and-bound search for the closest pair of items of two trees. Pairs of nodes are visited in order of the
+     * lower bound of their distance, and the search stops as soon as no remaining pair can beat the best distance.
+     *
+     * @param a the first tree
+     * @param b the second tree
+     * @param lowerBound maps the distance between two boxes to a lower bound of the distance between their items
+     * @param exact the exact distance between an item of the first and an item of the second tree
+     * @param upperBound only pairs closer than this distance are reported, use a known distance to prune early
+     * @return The closest pair, or a result which is not found if no pair is closer than the upper bound
+     */
+    public static Nearest nearest(SegmentTree a, SegmentTree b, DoubleUnaryOperator lowerBound, PairDistance exact, double upperBound) {
+        double best = upperBound;
+        int bestA = -1;
+        int bestB = -1;
+        if (a.size == 0 || b.size == 0) {
+            return new Nearest(best, bestA, bestB);
+        }
+        int dimension = a.dimension;
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        int rootA = a.nodeCount - 1;
+        int rootB = b.nodeCount - 1;
+        queue.add(new Candidate(lowerBound.applyAsDouble(boxDistance(dimension, a.nodeMin, a.nodeMax, rootA, b.nodeMin, b.nodeMax, rootB)), rootA, rootB));
+
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            if (candidate.bound >= best) {
+                break;
+            }
+            int nodeA = candidate.a;
+            int nodeB = candidate.b;
+            if (a.isLeaf(nodeA) && b.isLeaf(nodeB)) {
+                for (int i = a.nodeStart[nodeA]; i < a.nodeEnd[nodeA]; i++) {
+                    int itemA = a.items[i];
+                    for (int j = b.nodeStart[nodeB]; j < b.nodeEnd[nodeB]; j++) {
+                        int itemB = b.items[j];
+                        if (lowerBound.applyAsDouble(boxDistance(dimension, a.itemMin, a.itemMax, itemA, b.itemMin, b.itemMax, itemB)) >= best) {
+                            continue;
+                        }
+                        double distance = exact.distance(itemA, itemB);
+                        if (distance < best) {
+                            best = distance;
+                            bestA = itemA;
+                            bestB = itemB;
+                            if (best == 0) {
+                                return new Nearest(best, bestA, bestB);
+                            }
+                        }
+                    }
+                }
+            } else if (b.isLeaf(nodeB) || (!a.isLeaf(nodeA) && a.extent(nodeA) >= b.extent(nodeB))) {
+                for (int child = a.nodeStart[nodeA]; child < a.nodeEnd[nodeA]; child++) {
+                    double bound = lowerBound.applyAsDouble(boxDistance(dimension, a.nodeMin, a.nodeMax, child, b.nodeMin, b.nodeMax, nodeB));
+                    if (bound < best) {
+                        queue.add(new Candidate(bound, child, nodeB));
+                    }
+                }
+            } else {
+                for (int child = b.nodeStart[nodeB]; child < b.nodeEnd[nodeB]; child++) {
+                    double bound = lowerBound.applyAsDouble(boxDistance(dimension, a.nodeMin, a.nodeMax, nodeA, b.nodeMin, b.nodeMax, child));
+                    if (bound < best) {
+                        queue.add(new Candidate(bound, nodeA, child));
+                    }
+                }
+            }
+        }
+        return new Nearest(best, bestA, bestB);
+    }
+
+    /**
+     * Visits every pair of items of two trees whose boxes overlap, in no particular order. Visiting a tree with itself
+     * reports each pair of distinct items in both orders, and every item with itself.
+     *
+     * @param a the first tree
+     * @param b the second tree
+     * @param consumer called with the item of the first and the item of the second tree
+     */
+    public static void overlapping(SegmentTree a, SegmentTree b, PairConsumer consumer) {
+        if (a.size == 0 || b.size == 0) {
+            return;
+        }
+        int dimension = a.dimension;
+        Deque<int[]> stack = new ArrayDeque<>();
+        stack.push(new int[]{a.nodeCount - 1, b.nodeCount - 1});
+        while (!stack.isEmpty()) {
+            int[] pair = stack.pop();
+            int nodeA = pair[0];
+            int nodeB = pair[1];
+            if (boxDistance(dimension, a.nodeMin, a.nodeMax, nodeA, b.nodeMin, b.nodeMax, nodeB) > 0) {
+                continue;
+            }
+            if (a.isLeaf(nodeA) && b.isLeaf(nodeB)) {
+                for (int i = a.nodeStart[nodeA]; i < a.nodeEnd[nodeA]; i++) {
+                    for (int j = b.nodeStart[nodeB]; j < b.nodeEnd[nodeB]; j++) {
+                        if (boxDistance(dimension, a.itemMin, a.itemMax, a.items[i], b.itemMin, b.itemMax, b.items[j]) == 0) {
+                            consumer.accept(a.items[i], b.items[j]);
+                        }
+                    }
+                }
+            } else if (b.isLeaf(nodeB) || (!a.isLeaf(nodeA) && a.extent(nodeA) >= b.extent(nodeB))) {
+                for (int child = a.nodeStart[nodeA]; child < a.nodeEnd[nodeA]; child++) {
+                    stack.push(new int[]{child, nodeB});
+                }
+            } else {
+                for (int child = b.nodeStart[nodeB]; child < b.nodeEnd[nodeB]; child++) {
+                    stack.push(new int[]{nodeA, child});
+                }
+            }
+        }
+    }
+}
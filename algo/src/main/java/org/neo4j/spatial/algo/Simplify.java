@@ -0,0 +1,382 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.LineSegment;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Removes vertices from polylines and polygons which contribute less than a tolerance to their shape.
+ * <p>
+ * Rings keep at least three vertices. Rings which are simplified together, like the shells and holes of a
+ * {@link MultiPolygon}, are repaired afterwards until none of their simplified edges cross another edge, by putting
+ * back the removed vertex furthest from a crossing edge.
+ */
+public abstract class Simplify {
+    public enum Method {
+        /**
+         * Keeps every vertex which is further than the tolerance from the simplified line
+         */
+        DouglasPeucker,
+        /**
+         * Repeatedly removes the vertex which forms the smallest triangle with its neighbours, as long as the area of
+         * that triangle is less than the square of the tolerance
+         */
+        Visvalingam
+    }
+
+    /**
+     * @param polyline
+     * @param tolerance in the units of the distance calculations, meters for WGS84
+     * @param method
+     * @return The simplified polyline, with the same first and last point
+     */
+    public Polyline simplify(Polyline polyline, double tolerance, Method method) {
+        Point[] points = polyline.getPoints();
+        boolean[] keep = new boolean[points.length];
+        keep[0] = true;
+        keep[points.length - 1] = true;
+        simplify(points, 0, points.length - 1, tolerance, method, keep);
+        return Polyline.polyline(kept(points, keep));
+    }
+
+    /**
+     * @param polygon
+     * @param tolerance in the units of the distance calculations, meters for WGS84
+     * @param method
+     * @return The simplified polygon, which has at least three vertices and no self intersections the original did not have
+     */
+    public Polygon.SimplePolygon simplify(Polygon.SimplePolygon polygon, double tolerance, Method method) {
+        return simplify(new Polygon.SimplePolygon[]{polygon}, tolerance, method)[0];
+    }
+
+    /**
+     * Simplifies the polygons together, so the simplified polygons do not cross each other unless the originals did.
+     *
+     * @param polygons
+     * @param tolerance in the units of the distance calculations, meters for WGS84
+     * @param method
+     * @return The simplified polygons, in the same order
+     */
+    public Polygon.SimplePolygon[] simplify(Polygon.SimplePolygon[] polygons, double tolerance, Method method) {
+        Ring[] rings = new Ring[polygons.length];
+        for (int i = 0; i < polygons.length; i++) {
+            rings[i] = new Ring(polygons[i].getPoints());
+            simplify(rings[i], tolerance, method);
+        }
+        repairCrossings(rings);
+
+        Polygon.SimplePolygon[] simplified = new Polygon.SimplePolygon[polygons.length];
+        for (int i = 0; i < rings.length; i++) {
+            simplified[i] = Polygon.simple(kept(rings[i].points, rings[i].keep));
+        }
+        return simplified;
+    }
+
+    /**
+     * @param multiPolygon
+     * @param tolerance in the units of the distance calculations, meters for WGS84
+     * @param method
+     * @return A multi polygon of the same structure, with all shells and holes simplified together
+     */
+    public MultiPolygon simplify(MultiPolygon multiPolygon, double tolerance, Method method) {
+        List<Polygon.SimplePolygon> polygons = new ArrayList<>();
+        collectPolygons(multiPolygon, polygons);
+        Polygon.SimplePolygon[] simplified = simplify(polygons.toArray(new Polygon.SimplePolygon[0]), tolerance, method);
+
+        MultiPolygon result = new MultiPolygon();
+        rebuild(multiPolygon, result, simplified, new int[]{0});
+        return result;
+    }
+
+    /**
+     * @return The area of the triangle between the three points, in the square of the units of the distance calculations
+     */
+    protected abstract double area(Point a, Point b, Point c);
+
+    protected abstract CRS getCRS();
+
+    private static void collectPolygons(MultiPolygon multiPolygon, List<Polygon.SimplePolygon> polygons) {
+        for (MultiPolygon.MultiPolygonNode child : multiPolygon.getChildren()) {
+            polygons.add(child.getPolygon());
+            collectPolygons(child, polygons);
+        }
+    }
+
+    private static void rebuild(MultiPolygon original, MultiPolygon result, Polygon.SimplePolygon[] simplified, int[] next) {
+        for (MultiPolygon.MultiPolygonNode child : original.getChildren()) {
+            MultiPolygon.MultiPolygonNode simplifiedChild = new MultiPolygon.MultiPolygonNode(simplified[next[0]++]);
+            result.addChild(simplifiedChild);
+            rebuild(child, simplifiedChild, simplified, next);
+        }
+    }
+
+    private static Point[] kept(Point[] points, boolean[] keep) {
+        List<Point> result = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            if (keep[i]) {
+                result.add(points[i]);
+            }
+        }
+        return result.toArray(new Point[0]);
+    }
+
+    /**
+     * Splits the ring at its first vertex and the vertex furthest from it, simplifies both halves and puts back the
+     * vertex furthest from the split line if only the two split vertices remain
+     */
+    private void simplify(Ring ring, double tolerance, Method method) {
+        Point[] points = ring.points;
+        int last = points.length - 1;
+        if (last <= 3) {
+            Arrays.fill(ring.keep, true);
+            return;
+        }
+        Distance calculator = DistanceCalculator.getCalculator(getCRS());
+        int split = 1;
+        double splitDistance = 0;
+        for (int i = 1; i < last; i++) {
+            double distance = calculator.distance(points[0], points[i]);
+            if (distance > splitDistance) {
+                split = i;
+                splitDistance = distance;
+            }
+        }
+        ring.keep[0] = true;
+        ring.keep[split] = true;
+        ring.keep[last] = true;
+        simplify(points, 0, split, tolerance, method, ring.keep);
+        simplify(points, split, last, tolerance, method, ring.keep);
+
+        int count = 0;
+        for (int i = 0; i < last; i++) {
+            if (ring.keep[i]) {
+                count++;
+            }
+        }
+        if (count < 3) {
+            int first = furthest(points, 0, split);
+            int second = furthest(points, split, last);
+            if (first < 0 || (second >= 0 && distance(points, split, last, second) > distance(points, 0, split, first))) {
+                first = second;
+            }
+            if (first >= 0) {
+                ring.keep[first] = true;
+            }
+        }
+    }
+
+    /**
+     * Marks the vertices between from and to which should be kept
+     */
+    private void simplify(Point[] points, int from, int to, double tolerance, Method method, boolean[] keep) {
+        if (method == Method.Visvalingam) {
+            visvalingam(points, from, to, tolerance * tolerance, keep);
+        } else {
+            douglasPeucker(points, from, to, tolerance, keep);
+        }
+    }
+
+    private void douglasPeucker(Point[] points, int from, int to, double tolerance, boolean[] keep) {
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{from, to});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int furthest = furthest(points, range[0], range[1]);
+            if (furthest >= 0 && distance(points, range[0], range[1], furthest) > tolerance) {
+                keep[furthest] = true;
+                ranges.push(new int[]{range[0], furthest});
+                ranges.push(new int[]{furthest, range[1]});
+            }
+        }
+    }
+
+    private void visvalingam(Point[] points, int from, int to, double minArea, boolean[] keep) {
+        int[] previous = new int[points.length];
+        int[] next = new int[points.length];
+        double[] areas = new double[points.length];
+        PriorityQueue<Triangle> queue = new PriorityQueue<>();
+        for (int i = from + 1; i < to; i++) {
+            previous[i] = i - 1;
+            next[i] = i + 1;
+            areas[i] = area(points[i - 1], points[i], points[i + 1]);
+            queue.add(new Triangle(i, areas[i]));
+        }
+
+        boolean[] removed = new boolean[points.length];
+        while (!queue.isEmpty()) {
+            Triangle triangle = queue.poll();
+            int i = triangle.index;
+            if (removed[i] || triangle.area != areas[i]) {
+                continue;
+            }
+            if (triangle.area >= minArea) {
+                break;
+            }
+            removed[i] = true;
+            int before = previous[i];
+            int after = next[i];
+            next[before] = after;
+            previous[after] = before;
+            //The area of a neighbour never drops below the area of a vertex removed before it
+            for (int neighbour : new int[]{before, after}) {
+                if (neighbour > from && neighbour < to) {
+                    areas[neighbour] = Math.max(triangle.area, area(points[previous[neighbour]], points[neighbour], points[next[neighbour]]));
+                    queue.add(new Triangle(neighbour, areas[neighbour]));
+                }
+            }
+        }
+
+        for (int i = from + 1; i < to; i++) {
+            if (!removed[i]) {
+                keep[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Puts back removed vertices until no simplified edge crosses another simplified edge of any ring. Crossings
+     * between edges of the original geometries are left alone. Each round splits every crossing edge found, so the
+     * edges and their index are only rebuilt once per round.
+     */
+    private void repairCrossings(Ring[] rings) {
+        Distance distance = DistanceCalculator.getCalculator(getCRS());
+        Intersect intersect = IntersectCalculator.getCalculator(getCRS());
+        while (true) {
+            List<Edge> edges = new ArrayList<>();
+            for (Ring ring : rings) {
+                int from = 0;
+                for (int i = 1; i < ring.points.length; i++) {
+                    if (ring.keep[i]) {
+                        edges.add(new Edge(ring, from, i));
+                        from = i;
+                    }
+                }
+            }
+            LineSegment[] lineSegments = new LineSegment[edges.size()];
+            for (int i = 0; i < lineSegments.length; i++) {
+                lineSegments[i] = edges.get(i).toLineSegment();
+            }
+
+            SegmentTree tree = distance.index(lineSegments);
+            boolean[] crossing = new boolean[edges.size()];
+            SegmentTree.overlapping(tree, tree, (a, b) -> {
+                Edge edgeA = edges.get(a);
+                Edge edgeB = edges.get(b);
+                if (a >= b || (crossing[a] && crossing[b]) || edgeA.isAdjacent(edgeB) || (edgeA.isOriginal() && edgeB.isOriginal())) {
+                    return;
+                }
+                if (intersect.intersect(lineSegments[a], lineSegments[b]) != null) {
+                    crossing[a] = true;
+                    crossing[b] = true;
+                }
+            });
+            boolean found = false;
+            for (int i = 0; i < crossing.length; i++) {
+                if (crossing[i]) {
+                    edges.get(i).split();
+                    found = true;
+                }
+            }
+            if (!found) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return The vertex strictly between from and to which is furthest from the line segment between them, or -1 if there is none
+     */
+    private int furthest(Point[] points, int from, int to) {
+        int furthest = -1;
+        double max = -1;
+        for (int i = from + 1; i < to; i++) {
+            double distance = distance(points, from, to, i);
+            if (distance > max) {
+                furthest = i;
+                max = distance;
+            }
+        }
+        return furthest;
+    }
+
+    private double distance(Point[] points, int from, int to, int i) {
+        Distance calculator = DistanceCalculator.getCalculator(getCRS());
+        if (points[from].equals(points[to])) {
+            return calculator.distance(points[from], points[i]);
+        }
+        return calculator.distance(LineSegment.lineSegment(points[from], points[to]), points[i]);
+    }
+
+    /**
+     * A closed ring and the vertices which are kept, the last point is the same as the first
+     */
+    private static class Ring {
+        private final Point[] points;
+        private final boolean[] keep;
+
+        private Ring(Point[] points) {
+            this.points = points;
+            this.keep = new boolean[points.length];
+        }
+    }
+
+    private class Edge {
+        private final Ring ring;
+        private final int from;
+        private final int to;
+
+        private Edge(Ring ring, int from, int to) {
+            this.ring = ring;
+            this.from = from;
+            this.to = to;
+        }
+
+        private LineSegment toLineSegment() {
+            return LineSegment.lineSegment(ring.points[from], ring.points[to]);
+        }
+
+        private boolean isOriginal() {
+            return to - from == 1;
+        }
+
+        private boolean isAdjacent(Edge other) {
+            if (ring != other.ring) {
+                return false;
+            }
+            int last = ring.points.length - 1;
+            return to == other.from || other.to == from || (from == 0 && other.to == last) || (other.from == 0 && to == last);
+        }
+
+        private void split() {
+            int furthest = furthest(ring.points, from, to);
+            if (furthest >= 0) {
+                ring.keep[furthest] = true;
+            }
+        }
+    }
+
+    private static class Triangle implements Comparable<Triangle> {
+        private final int index;
+        private final double area;
+
+        private Triangle(int index, double area) {
+            this.index = index;
+            this.area = area;
+        }
+
+        @Override
+        public int compareTo(Triangle other) {
+            return Double.compare(area, other.area);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.neo4j.spatial.algo;
+
+import org.neo4j.spatial.algo.cartesian.CartesianSimplify;
+import org.neo4j.spatial.algo.wgs84.WGS84Simplify;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.HasCRS;
+
+public class SimplifyCalculator {
+    private static final CartesianSimplify cartesian = new CartesianSimplify();
+    private static final WGS84Simplify wgs84 = new WGS84Simplify();
+
+    private static Simplify getCartesian() {
+        return cartesian;
+    }
+
+    private static Simplify getWGS84() {
+        return wgs84;
+    }
+
+    public static Simplify getCalculator(CRS crs) {
+        if (crs == CRS.Cartesian) {
+            return getCartesian();
+        } else {
+            return getWGS84();
+        }
+    }
+
+    public static Simplify getCalculator(HasCRS geometry) {
+        return getCalculator(geometry.getCRS());
+    }
+}
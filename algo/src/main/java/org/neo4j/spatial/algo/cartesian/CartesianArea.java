@@ -1,11 +1,11 @@
 package org.neo4j.spatial.algo.cartesian;
 
 import org.neo4j.spatial.algo.Area;
-import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.CoordinateSequence;
 
 public class CartesianArea extends Area {
     @Override
-    public double area(Polygon.SimplePolygon polygon) {
-        return Math.abs(CartesianCCW.shoelace(polygon)/2);
+    public double area(CoordinateSequence ring) {
+        return Math.abs(CartesianCCW.shoelace(ring)/2);
     }
 }
@@ -4,7 +4,9 @@ import org.neo4j.spatial.algo.AlgoUtil;
 import org.neo4j.spatial.algo.Distance;
 import org.neo4j.spatial.algo.DistanceCalculator;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.PackedPolygon;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
@@ -65,6 +67,92 @@ public class CartesianConvexHull {
         return Polygon.simple(stack.toArray(new Point[0]));
     }
 
+    /**
+     * Computes the convex hull of the vertices of a coordinate sequence using Andrew's monotone chain algorithm.
+     * Coordinates are read directly from the sequence, only index arrays are allocated.
+     *
+     * @param sequence
+     * @return A polygon which is the convex hull of the input, starting at the lowest vertex in counter-clockwise order
+     */
+    public static PackedPolygon convexHull(CoordinateSequence sequence) {
+        int n = sequence.size();
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        sortByXY(sequence, order, new int[n], 0, n);
+
+        int[] hull = new int[2 * n];
+        int k = 0;
+        //Lower hull
+        for (int i = 0; i < n; i++) {
+            while (k >= 2 && cross(sequence, hull[k - 2], hull[k - 1], order[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = order[i];
+        }
+        //Upper hull
+        for (int i = n - 2, lower = k + 1; i >= 0; i--) {
+            while (k >= lower && cross(sequence, hull[k - 2], hull[k - 1], order[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = order[i];
+        }
+        //The last index repeats the first one
+        k--;
+
+        int lowest = 0;
+        for (int i = 1; i < k; i++) {
+            double y = sequence.getY(hull[i]);
+            double lowestY = sequence.getY(hull[lowest]);
+            if (y < lowestY || (y == lowestY && sequence.getX(hull[i]) < sequence.getX(hull[lowest]))) {
+                lowest = i;
+            }
+        }
+
+        double[] coordinates = new double[2 * k];
+        for (int i = 0; i < k; i++) {
+            int index = hull[(lowest + i) % k];
+            coordinates[2 * i] = sequence.getX(index);
+            coordinates[2 * i + 1] = sequence.getY(index);
+        }
+        return Polygon.packed(sequence.getCRS(), coordinates);
+    }
+
+    private static double cross(CoordinateSequence sequence, int a, int b, int c) {
+        double ax = sequence.getX(a);
+        double ay = sequence.getY(a);
+        return (sequence.getX(b) - ax) * (sequence.getY(c) - ay) - (sequence.getY(b) - ay) * (sequence.getX(c) - ax);
+    }
+
+    /**
+     * Merge sort of the indices in [from, to) by x and then by y of the referenced vertices
+     */
+    private static void sortByXY(CoordinateSequence sequence, int[] indices, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortByXY(sequence, indices, buffer, from, middle);
+        sortByXY(sequence, indices, buffer, middle, to);
+
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && compareXY(sequence, buffer[left], buffer[right]) <= 0)) {
+                indices[i] = buffer[left++];
+            } else {
+                indices[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static int compareXY(CoordinateSequence sequence, int a, int b) {
+        int compare = Double.compare(sequence.getX(a), sequence.getX(b));
+        return compare != 0 ? compare : Double.compare(sequence.getY(a), sequence.getY(b));
+    }
+
     /**
      * Computes the convex hull of a set of coordinates using Graham's scan
      *
@@ -1,9 +1,12 @@
 package org.neo4j.spatial.algo.cartesian;
 
 import org.neo4j.spatial.algo.AlgoUtil;
+import org.neo4j.spatial.algo.ConvexDistance;
 import org.neo4j.spatial.algo.Distance;
+import org.neo4j.spatial.algo.SegmentTree;
 import org.neo4j.spatial.algo.cartesian.intersect.CartesianIntersect;
 import org.neo4j.spatial.algo.cartesian.intersect.CartesianMCSweepLineIntersect;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.MultiPolyline;
 import org.neo4j.spatial.core.Point;
@@ -15,42 +18,104 @@ import static java.lang.String.format;
 public class CartesianDistance extends Distance {
     public double distance(Polygon a, Polygon b) {
         debug("Calculating cartesian distance");
-        boolean intersects = new CartesianMCSweepLineIntersect().doesIntersect(a, b);
-
-        //Check if one polygon is (partially) contained by the other
-        if (intersects) {
-            return 0;
-        } else  if (CartesianWithin.within(a, b.getShells()[0].getPoints()[0]) || CartesianWithin.within(b, a.getShells()[0].getPoints()[0])) {
-            return 0;
+        //Check if one polygon is (partially) contained by the other, which is impossible for disjoint envelopes
+        if (a.getEnvelope().intersects(b.getEnvelope())) {
+            if (new CartesianMCSweepLineIntersect().doesIntersect(a, b)) {
+                return 0;
+            } else if (CartesianWithin.within(a, b.getShells()[0].getPoints()[0]) || CartesianWithin.within(b, a.getShells()[0].getPoints()[0])) {
+                return 0;
+            }
         }
 
         LineSegment[] aLS = a.toLineSegments();
         LineSegment[] bLS = b.toLineSegments();
 
-        // TODO: use the same performance optimization as coded in WGS84Distance (convex-hull and unnest loops)
         return getMinDistance(aLS, bLS);
     }
 
     @Override
     public DistanceResult distanceAndEndpoints(Polygon a, Polygon b) {
         debug("Calculating cartesian distance with end-points");
-        throw new IllegalStateException("Distance with end-points is not implemented for Cartesian data");
+        //Check if one polygon is (partially) contained by the other, which is impossible for disjoint envelopes
+        if (a.getEnvelope().intersects(b.getEnvelope())) {
+            if (new CartesianMCSweepLineIntersect().doesIntersect(a, b)) {
+                return DistanceResult.OVERLAP_RESULT.withMessage("Two polygons intersect");
+            } else if (CartesianWithin.within(a, b.getShells()[0].getPoints()[0]) || CartesianWithin.within(b, a.getShells()[0].getPoints()[0])) {
+                return DistanceResult.OVERLAP_RESULT.withMessage("One polygon is covered by the other");
+            }
+        }
+
+        LineSegment[] aLS = a.toLineSegments();
+        LineSegment[] bLS = b.toLineSegments();
+
+        return getMinDistanceAndEndpoints(aLS, bLS);
     }
 
+    @Override
+    public DistanceResult convexDistanceAndEndpoints(Polygon.SimplePolygon a, Polygon.SimplePolygon b) {
+        ConvexDistance.Contact contact = ConvexDistance.closest(a.getCoordinateSequence(), b.getCoordinateSequence());
+        if (contact.isOverlap()) {
+            return DistanceResult.OVERLAP_RESULT.withMessage("Two polygons intersect");
+        }
+        Point start = Point.point(a.getCRS(), contact.start);
+        Point end = Point.point(b.getCRS(), contact.end);
+        return new DistanceResult(contact.distance(), start, end);
+    }
+
+    /**
+     * @return The minimum distance between the line segments, starting on a and ending on b
+     */
     @Override
     protected DistanceResult distanceAndEndpoints(LineSegment a, LineSegment b) {
-        throw new IllegalStateException("Distance with end-points is not implemented for Cartesian data");
+        Point intersect = CartesianIntersect.lineSegmentIntersect(a, b);
+        if (intersect != null) {
+            return new DistanceResult(0, intersect, intersect);
+        }
+
+        DistanceResult min = DistanceResult.NO_RESULT;
+        for (Point point : a.getPoints()) {
+            Point projection = project(b, point);
+            min = min.min(new DistanceResult(distance(point, projection), point, projection));
+        }
+        for (Point point : b.getPoints()) {
+            Point projection = project(a, point);
+            min = min.min(new DistanceResult(distance(projection, point), projection, point));
+        }
+        return min;
     }
 
     @Override
-    public double distance(Polygon polygon, MultiPolyline multiPolyline) {
-        boolean intersects = new CartesianMCSweepLineIntersect().doesIntersect(polygon, multiPolyline);
+    protected SegmentTree index(LineSegment[] lineSegments) {
+        double[] min = new double[lineSegments.length * 2];
+        double[] max = new double[lineSegments.length * 2];
+        for (int i = 0; i < lineSegments.length; i++) {
+            double[] u = lineSegments[i].getPoints()[0].getCoordinate();
+            double[] v = lineSegments[i].getPoints()[1].getCoordinate();
+            for (int d = 0; d < 2; d++) {
+                min[i * 2 + d] = Math.min(u[d], v[d]);
+                max[i * 2 + d] = Math.max(u[d], v[d]);
+            }
+        }
+        return new SegmentTree(2, min, max);
+    }
 
-        //Check if the multi polyline is (partially) contained by the polygon
-        if (intersects) {
-            return 0;
-        } else  if (CartesianWithin.within(polygon, multiPolyline.getChildren()[0].getPoints()[0])) {
-            return 0;
+    /**
+     * The boxes are in the same space as the line segments, so their distance is a lower bound itself
+     */
+    @Override
+    protected double lowerBound(double boxDistance) {
+        return boxDistance;
+    }
+
+    @Override
+    public double distance(Polygon polygon, MultiPolyline multiPolyline) {
+        //Check if the multi polyline is (partially) contained by the polygon, which is impossible for disjoint envelopes
+        if (polygon.getEnvelope().intersects(multiPolyline.getEnvelope())) {
+            if (new CartesianMCSweepLineIntersect().doesIntersect(polygon, multiPolyline)) {
+                return 0;
+            } else if (CartesianWithin.within(polygon, multiPolyline.getChildren()[0].getPoints()[0])) {
+                return 0;
+            }
         }
 
         LineSegment[] aLS = polygon.toLineSegments();
@@ -61,13 +126,13 @@ public class CartesianDistance extends Distance {
 
     @Override
     public double distance(Polygon polygon, Polyline polyline) {
-        boolean intersects = new CartesianMCSweepLineIntersect().doesIntersect(polygon, polyline);
-
-        //Check if the polyline is (partially) contained by the polygon
-        if (intersects) {
-            return 0;
-        } else  if (CartesianWithin.within(polygon, polyline.getPoints()[0])) {
-            return 0;
+        //Check if the polyline is (partially) contained by the polygon, which is impossible for disjoint envelopes
+        if (polygon.getEnvelope().intersects(polyline.getEnvelope())) {
+            if (new CartesianMCSweepLineIntersect().doesIntersect(polygon, polyline)) {
+                return 0;
+            } else if (CartesianWithin.within(polygon, polyline.getPoints()[0])) {
+                return 0;
+            }
         }
 
         LineSegment[] aLS = polygon.toLineSegments();
@@ -95,7 +160,7 @@ public class CartesianDistance extends Distance {
 
     @Override
     public double distance(Polygon polygon, Point point) {
-        if (CartesianWithin.within(polygon, point)) {
+        if (polygon.getEnvelope().contains(point) && CartesianWithin.within(polygon, point)) {
             return 0;
         }
 
@@ -196,6 +261,13 @@ public class CartesianDistance extends Distance {
 
     @Override
     public double distance(LineSegment lineSegment, Point point) {
+        return distance(project(lineSegment, point), point);
+    }
+
+    /**
+     * @return The point on the line segment closest to the given point
+     */
+    private static Point project(LineSegment lineSegment, Point point) {
         Point u = lineSegment.getPoints()[0];
         Point v = lineSegment.getPoints()[1];
         double[] a = new double[]{
@@ -212,9 +284,7 @@ public class CartesianDistance extends Distance {
 
         double t = Math.max(0, Math.min(1, dotProduct/lengthSquared));
 
-        Point projection = v.subtract(u.getCoordinate()).multiply(t).add(u.getCoordinate());
-
-        return distance(projection, point);
+        return v.subtract(u.getCoordinate()).multiply(t).add(u.getCoordinate());
     }
 
     @Override
@@ -241,6 +311,45 @@ public class CartesianDistance extends Distance {
         return minDistance;
     }
 
+    @Override
+    public double distance(CoordinateSequence a, CoordinateSequence b) {
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < a.size() - 1; i++) {
+            double a0x = a.getX(i), a0y = a.getY(i), a1x = a.getX(i + 1), a1y = a.getY(i + 1);
+            for (int j = 0; j < b.size() - 1; j++) {
+                double current = segmentDistance(a0x, a0y, a1x, a1y, b.getX(j), b.getY(j), b.getX(j + 1), b.getY(j + 1));
+                if (current < minDistance) {
+                    minDistance = current;
+                }
+            }
+        }
+        return minDistance;
+    }
+
+    @Override
+    public double distance(CoordinateSequence sequence, double x, double y) {
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < sequence.size() - 1; i++) {
+            double current = CartesianUtil.distanceToSegment(sequence.getX(i), sequence.getY(i), sequence.getX(i + 1), sequence.getY(i + 1), x, y);
+            if (current < minDistance) {
+                minDistance = current;
+            }
+        }
+        return minDistance;
+    }
+
+    /**
+     * @return The minimum distance between the line segments (a0, a1) and (b0, b1)
+     */
+    static double segmentDistance(double a0x, double a0y, double a1x, double a1y, double b0x, double b0y, double b1x, double b1y) {
+        if (CartesianIntersect.lineSegmentIntersect(a0x, a0y, a1x, a1y, b0x, b0y, b1x, b1y, null)) {
+            return 0;
+        }
+        return Math.min(
+                Math.min(CartesianUtil.distanceToSegment(b0x, b0y, b1x, b1y, a0x, a0y), CartesianUtil.distanceToSegment(b0x, b0y, b1x, b1y, a1x, a1y)),
+                Math.min(CartesianUtil.distanceToSegment(a0x, a0y, a1x, a1y, b0x, b0y), CartesianUtil.distanceToSegment(a0x, a0y, a1x, a1y, b1x, b1y)));
+    }
+
     @Override
     public double distance(Point p1, Point p2) {
         return distance(p1.getCoordinate(), p2.getCoordinate());
@@ -0,0 +1,348 @@
+package org.neo4j.spatial.algo.cartesian;
+
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.PackedPolygon;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Computes convex hulls of large point sets over packed coordinates on a {@link ForkJoinPool}.
+ * <p>
+ * Points strictly inside the octagon of the extreme points in the x, y, x+y and x-y directions cannot be on the hull
+ * and are discarded first (Akl–Toussaint). The remaining points of chunks of {@link #CHUNK_SIZE} points get a partial
+ * hull with Andrew's monotone chain algorithm, and neighbouring partial hulls are merged until one hull remains.
+ */
+public class CartesianParallelConvexHull {
+    static final int CHUNK_SIZE = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public CartesianParallelConvexHull() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public CartesianParallelConvexHull(ForkJoinPool pool) {
+        this(pool, CHUNK_SIZE);
+    }
+
+    CartesianParallelConvexHull(ForkJoinPool pool, int chunkSize) {
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param points
+     * @return A polygon which is the convex hull of the input points, starting at the lowest vertex in counter-clockwise order
+     */
+    public PackedPolygon convexHull(Point[] points) {
+        double[] coordinates = new double[2 * points.length];
+        for (int i = 0; i < points.length; i++) {
+            double[] coordinate = points[i].getCoordinate();
+            coordinates[2 * i] = coordinate[0];
+            coordinates[2 * i + 1] = coordinate[1];
+        }
+        return convexHull(points[0].getCRS(), coordinates);
+    }
+
+    /**
+     * @param sequence
+     * @return A polygon which is the convex hull of the vertices of the input, starting at the lowest vertex in counter-clockwise order
+     */
+    public PackedPolygon convexHull(CoordinateSequence sequence) {
+        double[] coordinates = new double[2 * sequence.size()];
+        pack(sequence, coordinates, 0);
+        return convexHull(sequence.getCRS(), coordinates);
+    }
+
+    /**
+     * The holes of the multipolygon are inside its shells, so only the outermost shells are read
+     *
+     * @param polygon
+     * @return A polygon which is the convex hull of the input polygon, starting at the lowest vertex in counter-clockwise order
+     */
+    public PackedPolygon convexHull(MultiPolygon polygon) {
+        int size = 0;
+        for (MultiPolygon.MultiPolygonNode child : polygon.getChildren()) {
+            size += child.getPolygon().getCoordinateSequence().size();
+        }
+        double[] coordinates = new double[2 * size];
+        int offset = 0;
+        for (MultiPolygon.MultiPolygonNode child : polygon.getChildren()) {
+            offset = pack(child.getPolygon().getCoordinateSequence(), coordinates, offset);
+        }
+        return convexHull(polygon.getCRS(), coordinates);
+    }
+
+    /**
+     * @param crs
+     * @param coordinates the interleaved x and y coordinates of the points (x0,y0,x1,y1,...)
+     * @return A polygon which is the convex hull of the input points, starting at the lowest vertex in counter-clockwise order
+     */
+    public PackedPolygon convexHull(CRS crs, double[] coordinates) {
+        int[] ring = convexHullByIndex(coordinates);
+        double[] hull = new double[2 * ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            hull[2 * i] = coordinates[2 * ring[i]];
+            hull[2 * i + 1] = coordinates[2 * ring[i] + 1];
+        }
+        return Polygon.packed(crs, hull);
+    }
+
+    /**
+     * @param coordinates the interleaved x and y coordinates of the points (x0,y0,x1,y1,...)
+     * @return The indices of the points on the convex hull, starting at the lowest point in counter-clockwise order, without repeating it
+     */
+    public int[] convexHullByIndex(double[] coordinates) {
+        int n = coordinates.length / 2;
+        if (n == 0) {
+            throw new IllegalArgumentException("Cannot compute the convex hull without points");
+        }
+        HullTask task = new HullTask(coordinates, octagon(coordinates), chunkSize, 0, n);
+        int[] sorted = n <= chunkSize ? task.compute() : pool.invoke(task);
+        int[] ring = ring(coordinates, sorted, sorted.length);
+
+        int lowest = 0;
+        for (int i = 1; i < ring.length; i++) {
+            double y = coordinates[2 * ring[i] + 1];
+            double lowestY = coordinates[2 * ring[lowest] + 1];
+            if (y < lowestY || (y == lowestY && coordinates[2 * ring[i]] < coordinates[2 * ring[lowest]])) {
+                lowest = i;
+            }
+        }
+
+        int[] result = new int[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            result[i] = ring[(lowest + i) % ring.length];
+        }
+        return result;
+    }
+
+    /**
+     * @return The offset in the coordinates after the packed vertices
+     */
+    private static int pack(CoordinateSequence sequence, double[] coordinates, int offset) {
+        for (int i = 0; i < sequence.size(); i++) {
+            coordinates[offset++] = sequence.getX(i);
+            coordinates[offset++] = sequence.getY(i);
+        }
+        return offset;
+    }
+
+    /**
+     * Finds the extreme points in the eight directions of the x and y axes and their diagonals, which are in
+     * counter-clockwise order around the convex hull.
+     *
+     * @return The interleaved coordinates of the distinct extreme points, or null if they do not form a polygon
+     */
+    static double[] octagon(double[] coordinates) {
+        //Extremes of -y, x-y, x, x+y, y, y-x, -x, -x-y
+        int[] extremes = new int[8];
+        double[] values = new double[8];
+        Arrays.fill(values, Double.NEGATIVE_INFINITY);
+        for (int i = 0; i < coordinates.length / 2; i++) {
+            double x = coordinates[2 * i];
+            double y = coordinates[2 * i + 1];
+            update(extremes, values, 0, -y, i);
+            update(extremes, values, 1, x - y, i);
+            update(extremes, values, 2, x, i);
+            update(extremes, values, 3, x + y, i);
+            update(extremes, values, 4, y, i);
+            update(extremes, values, 5, y - x, i);
+            update(extremes, values, 6, -x, i);
+            update(extremes, values, 7, -x - y, i);
+        }
+
+        double[] octagon = new double[16];
+        int count = 0;
+        for (int extreme : extremes) {
+            double x = coordinates[2 * extreme];
+            double y = coordinates[2 * extreme + 1];
+            boolean repeated = count > 0 && octagon[2 * count - 2] == x && octagon[2 * count - 1] == y;
+            boolean closing = count > 0 && octagon[0] == x && octagon[1] == y;
+            if (!repeated && !closing) {
+                octagon[2 * count] = x;
+                octagon[2 * count + 1] = y;
+                count++;
+            }
+        }
+        return count < 3 ? null : Arrays.copyOf(octagon, 2 * count);
+    }
+
+    private static void update(int[] extremes, double[] values, int direction, double value, int i) {
+        if (value > values[direction]) {
+            values[direction] = value;
+            extremes[direction] = i;
+        }
+    }
+
+    /**
+     * @return True if the i-th point is strictly inside the counter-clockwise octagon, so it cannot be on the hull
+     */
+    static boolean inside(double[] octagon, double[] coordinates, int i) {
+        if (octagon == null) {
+            return false;
+        }
+        double x = coordinates[2 * i];
+        double y = coordinates[2 * i + 1];
+        int count = octagon.length / 2;
+        for (int j = 0; j < count; j++) {
+            int next = (j + 1) % count;
+            double ax = octagon[2 * j];
+            double ay = octagon[2 * j + 1];
+            if ((octagon[2 * next] - ax) * (y - ay) - (octagon[2 * next + 1] - ay) * (x - ax) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Andrew's monotone chain algorithm over the first count indices, which are sorted by x and then by y
+     *
+     * @return The indices of the hull in counter-clockwise order, starting at the first sorted index, without repeating it
+     */
+    private static int[] ring(double[] coordinates, int[] sorted, int count) {
+        if (count < 3) {
+            return count == 2 && compareXY(coordinates, sorted[0], sorted[1]) == 0 ? new int[]{sorted[0]} : Arrays.copyOf(sorted, count);
+        }
+        int[] hull = new int[2 * count];
+        int k = 0;
+        //Lower hull
+        for (int i = 0; i < count; i++) {
+            while (k >= 2 && cross(coordinates, hull[k - 2], hull[k - 1], sorted[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = sorted[i];
+        }
+        //Upper hull
+        for (int i = count - 2, lower = k + 1; i >= 0; i--) {
+            while (k >= lower && cross(coordinates, hull[k - 2], hull[k - 1], sorted[i]) <= 0) {
+                k--;
+            }
+            hull[k++] = sorted[i];
+        }
+        //The last index repeats the first one
+        return Arrays.copyOf(hull, Math.max(1, k - 1));
+    }
+
+    /**
+     * @return The indices of the hull of the first count sorted indices, sorted by x and then by y
+     */
+    private static int[] sortedHull(double[] coordinates, int[] sorted, int count) {
+        int[] ring = ring(coordinates, sorted, count);
+        if (ring.length < 3) {
+            return ring;
+        }
+        //The ring runs from the first sorted index along the lower hull to the last sorted index and back along the upper hull
+        int last = 0;
+        for (int i = 1; i < ring.length; i++) {
+            if (compareXY(coordinates, ring[i], ring[last]) > 0) {
+                last = i;
+            }
+        }
+        int[] result = new int[ring.length];
+        int lower = 0;
+        int upper = ring.length - 1;
+        int k = 0;
+        while (lower <= last || upper > last) {
+            if (upper <= last || (lower <= last && compareXY(coordinates, ring[lower], ring[upper]) <= 0)) {
+                result[k++] = ring[lower++];
+            } else {
+                result[k++] = ring[upper--];
+            }
+        }
+        return result;
+    }
+
+    private static double cross(double[] coordinates, int a, int b, int c) {
+        double ax = coordinates[2 * a];
+        double ay = coordinates[2 * a + 1];
+        return (coordinates[2 * b] - ax) * (coordinates[2 * c + 1] - ay) - (coordinates[2 * b + 1] - ay) * (coordinates[2 * c] - ax);
+    }
+
+    private static int compareXY(double[] coordinates, int a, int b) {
+        int compare = Double.compare(coordinates[2 * a], coordinates[2 * b]);
+        return compare != 0 ? compare : Double.compare(coordinates[2 * a + 1], coordinates[2 * b + 1]);
+    }
+
+    /**
+     * Merge sort of the indices in [from, to) by x and then by y of the referenced points
+     */
+    private static void sortByXY(double[] coordinates, int[] indices, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortByXY(coordinates, indices, buffer, from, middle);
+        sortByXY(coordinates, indices, buffer, middle, to);
+        merge(coordinates, indices, from, middle, indices, middle, to, buffer, from);
+        System.arraycopy(buffer, from, indices, from, to - from);
+    }
+
+    /**
+     * Merges the sorted ranges [aFrom, aTo) of a and [bFrom, bTo) of b into the target, starting at the given offset
+     */
+    private static void merge(double[] coordinates, int[] a, int aFrom, int aTo, int[] b, int bFrom, int bTo, int[] target, int offset) {
+        while (aFrom < aTo || bFrom < bTo) {
+            if (bFrom >= bTo || (aFrom < aTo && compareXY(coordinates, a[aFrom], b[bFrom]) <= 0)) {
+                target[offset++] = a[aFrom++];
+            } else {
+                target[offset++] = b[bFrom++];
+            }
+        }
+    }
+
+    /**
+     * Computes the hull of the points [from, to) by splitting the range in halves until a chunk remains, and returns
+     * the indices of its vertices sorted by x and then by y, so two partial hulls are merged in linear time
+     */
+    private static class HullTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] coordinates;
+        private final double[] octagon;
+        private final int chunkSize;
+        private final int from;
+        private final int to;
+
+        private HullTask(double[] coordinates, double[] octagon, int chunkSize, int from, int to) {
+            this.coordinates = coordinates;
+            this.octagon = octagon;
+            this.chunkSize = chunkSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= chunkSize) {
+                int[] candidates = new int[to - from];
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (!inside(octagon, coordinates, i)) {
+                        candidates[count++] = i;
+                    }
+                }
+                sortByXY(coordinates, candidates, new int[count], 0, count);
+                return sortedHull(coordinates, candidates, count);
+            }
+            int middle = (from + to) >>> 1;
+            HullTask left = new HullTask(coordinates, octagon, chunkSize, from, middle);
+            HullTask right = new HullTask(coordinates, octagon, chunkSize, middle, to);
+            left.fork();
+            int[] rightHull = right.compute();
+            int[] leftHull = left.join();
+
+            int[] merged = new int[leftHull.length + rightHull.length];
+            merge(coordinates, leftHull, 0, leftHull.length, rightHull, 0, rightHull.length, merged, 0);
+            return sortedHull(coordinates, merged, merged.length);
+        }
+    }
+}
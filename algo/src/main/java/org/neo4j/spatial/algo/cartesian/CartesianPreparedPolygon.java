@@ -0,0 +1,99 @@
+package org.neo4j.spatial.algo.cartesian;
+
+import org.neo4j.spatial.algo.PreparedPolygon;
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.Polygon;
+
+/**
+ * Prepared version of {@link CartesianWithin}. Every ring keeps its bounding box and buckets its edges by their
+ * y-extent, so the horizontal ray of a query only has to be tested against the edges of one bucket.
+ */
+public class CartesianPreparedPolygon extends PreparedPolygon {
+    private final Ring[] shells;
+    private final Ring[] holes;
+
+    public CartesianPreparedPolygon(Polygon polygon) {
+        super(polygon);
+        this.shells = prepare(polygon.getShells());
+        this.holes = prepare(polygon.getHoles());
+    }
+
+    private static Ring[] prepare(Polygon.SimplePolygon[] polygons) {
+        Ring[] rings = new Ring[polygons.length];
+        for (int i = 0; i < polygons.length; i++) {
+            rings[i] = new Ring(polygons[i].getCoordinateSequence());
+        }
+        return rings;
+    }
+
+    @Override
+    public boolean within(double x, double y) {
+        int withinShells = 0;
+        for (Ring shell : shells) {
+            if (shell.within(x, y)) {
+                withinShells++;
+            }
+        }
+        int withinHoles = 0;
+        for (Ring hole : holes) {
+            if (hole.within(x, y)) {
+                withinHoles++;
+            }
+        }
+        return withinShells > withinHoles;
+    }
+
+    private static class Ring {
+        private final double[] xs;
+        private final double[] ys;
+        private double minX = Double.POSITIVE_INFINITY;
+        private double minY = Double.POSITIVE_INFINITY;
+        private double maxX = Double.NEGATIVE_INFINITY;
+        private double maxY = Double.NEGATIVE_INFINITY;
+        private final EdgeBuckets buckets;
+
+        private Ring(CoordinateSequence ring) {
+            int n = ring.size();
+            this.xs = new double[n];
+            this.ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = ring.getX(i);
+                ys[i] = ring.getY(i);
+                minX = Math.min(minX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxX = Math.max(maxX, xs[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+
+            int[] edge = new int[n - 1];
+            double[] low = new double[n - 1];
+            double[] high = new double[n - 1];
+            for (int i = 0; i < n - 1; i++) {
+                edge[i] = i;
+                low[i] = Math.min(ys[i], ys[i + 1]);
+                high[i] = Math.max(ys[i], ys[i + 1]);
+            }
+            this.buckets = new EdgeBuckets(minY, maxY, edge, low, high, n - 1);
+        }
+
+        /**
+         * Same crossing test as {@link CartesianWithin#within(CoordinateSequence, double, double)}, restricted to
+         * the edges which overlap the y-coordinate.
+         */
+        private boolean within(double x, double y) {
+            if (x < minX || x > maxX || y < minY || y > maxY) {
+                return false;
+            }
+            boolean result = false;
+            int bucket = buckets.bucket(y);
+            for (int k = buckets.start(bucket); k < buckets.end(bucket); k++) {
+                int j = buckets.edge(k);
+                int i = j + 1;
+                if ((ys[i] > y) != (ys[j] > y) && (x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i])) {
+                    result = !result;
+                }
+            }
+            return result;
+        }
+    }
+}
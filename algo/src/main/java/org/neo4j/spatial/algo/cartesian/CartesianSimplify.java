@@ -0,0 +1,20 @@
+package org.neo4j.spatial.algo.cartesian;
+
+import org.neo4j.spatial.algo.Simplify;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Point;
+
+public class CartesianSimplify extends Simplify {
+    @Override
+    protected CRS getCRS() {
+        return CRS.Cartesian;
+    }
+
+    @Override
+    protected double area(Point a, Point b, Point c) {
+        double[] u = a.getCoordinate();
+        double[] v = b.getCoordinate();
+        double[] w = c.getCoordinate();
+        return Math.abs((v[0] - u[0]) * (w[1] - u[1]) - (w[0] - u[0]) * (v[1] - u[1])) / 2;
+    }
+}
@@ -2,9 +2,11 @@ package org.neo4j.spatial.algo.cartesian.intersect;
 
 import org.neo4j.spatial.algo.AlgoUtil;
 import org.neo4j.spatial.algo.Intersect;
-import org.neo4j.spatial.algo.LinearReference;
 import org.neo4j.spatial.core.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public abstract class CartesianIntersect implements Intersect {
     @Override
     public abstract Point[] intersect(Polygon a, Polygon b);
@@ -17,136 +19,187 @@ public abstract class CartesianIntersect implements Intersect {
         return lineSegmentIntersect(a, b);
     }
 
+    @Override
+    public boolean doesIntersect(CoordinateSequence a, CoordinateSequence b) {
+        return compareSegments(a, b, true).length > 0;
+    }
+
+    @Override
+    public Point[] intersect(CoordinateSequence a, CoordinateSequence b) {
+        return compareSegments(a, b, false);
+    }
+
+    private static Point[] compareSegments(CoordinateSequence a, CoordinateSequence b, boolean shortcut) {
+        List<Point> intersections = new ArrayList<>();
+        double[] intersection = new double[2];
+        for (int i = 0; i < a.size() - 1; i++) {
+            double a0x = a.getX(i), a0y = a.getY(i), a1x = a.getX(i + 1), a1y = a.getY(i + 1);
+            for (int j = 0; j < b.size() - 1; j++) {
+                if (lineSegmentIntersect(a0x, a0y, a1x, a1y, b.getX(j), b.getY(j), b.getX(j + 1), b.getY(j + 1), intersection)) {
+                    if (!contains(intersections, intersection)) {
+                        intersections.add(Point.point(CRS.Cartesian, intersection[0], intersection[1]));
+                    }
+                    if (shortcut) {
+                        return intersections.toArray(new Point[0]);
+                    }
+                }
+            }
+        }
+        return intersections.toArray(new Point[0]);
+    }
+
+    private static boolean contains(List<Point> intersections, double[] intersection) {
+        for (Point point : intersections) {
+            if (AlgoUtil.equal(point.getCoordinate(), intersection)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static Point lineSegmentIntersect(LineSegment a, LineSegment b) {
         Point shared = LineSegment.sharedPoint(a, b);
         if (shared != null) {
             return shared;
         }
 
-        Line l1 = new Line(a);
-        Line l2 = new Line(b);
+        double[] a0 = a.getPoints()[0].getCoordinate();
+        double[] a1 = a.getPoints()[1].getCoordinate();
+        double[] b0 = b.getPoints()[0].getCoordinate();
+        double[] b1 = b.getPoints()[1].getCoordinate();
+
+        double[] coordinates = new double[2];
+        if (lineSegmentIntersect(a0[0], a0[1], a1[0], a1[1], b0[0], b0[1], b1[0], b1[1], coordinates)) {
+            return Point.point(CRS.Cartesian, coordinates);
+        }
+        return null;
+    }
+
+    /**
+     * Allocation-free variant of {@link #lineSegmentIntersect(LineSegment, LineSegment)} on raw coordinates
+     *
+     * @param intersection receives the coordinate of the intersection if it exists, may be null
+     * @return True iff the line segments (a0, a1) and (b0, b1) intersect
+     */
+    public static boolean lineSegmentIntersect(double a0x, double a0y, double a1x, double a1y,
+                                               double b0x, double b0y, double b1x, double b1y, double[] intersection) {
+        if (sharedPoint(a0x, a0y, b0x, b0y, intersection) || sharedPoint(a0x, a0y, b1x, b1y, intersection)
+                || sharedPoint(a1x, a1y, b0x, b0y, intersection) || sharedPoint(a1x, a1y, b1x, b1y, intersection)) {
+            return true;
+        }
 
-        Point a0 = a.getPoints()[0];
-        Point a1 = a.getPoints()[1];
-        Point b0 = b.getPoints()[0];
-        Point b1 = b.getPoints()[1];
+        boolean aVertical = a0x - a1x == 0;
+        boolean bVertical = b0x - b1x == 0;
 
-        //Two vertical line segments only distance if they overlap
-        if (l1.isVertical() && l2.isVertical()) {
-            if (a0.getCoordinate()[0] == b0.getCoordinate()[0]) {
-                Double y = overlaps(
-                        new double[]{a0.getCoordinate()[1], a1.getCoordinate()[1]},
-                        new double[]{b0.getCoordinate()[1], b1.getCoordinate()[1]
-                        });
-                if (y != null) {
-                    return Point.point(CRS.Cartesian, a0.getCoordinate()[0], y);
+        //Two vertical line segments only intersect if they overlap
+        if (aVertical && bVertical) {
+            if (a0x == b0x) {
+                double y = overlaps(a0y, a1y, b0y, b1y);
+                if (!Double.isNaN(y)) {
+                    return set(intersection, a0x, y);
                 }
             }
-            return null;
+            return false;
         }
 
-        if (l1.isVertical()) {
-            return intersectionWithVertical(a0, a1, l2, b0, b1);
-        } else if (l2.isVertical()) {
-            return intersectionWithVertical(b0, b1, l1, a0, a1);
+        double aSlope = aVertical ? 0 : (a0y - a1y) / (a0x - a1x);
+        double aOffset = aVertical ? 0 : a0y - (aSlope * a0x);
+        double bSlope = bVertical ? 0 : (b0y - b1y) / (b0x - b1x);
+        double bOffset = bVertical ? 0 : b0y - (bSlope * b0x);
+
+        if (aVertical) {
+            return intersectionWithVertical(a0x, a0y, a1y, bSlope, bOffset, b0x, b0y, b1x, b1y, intersection);
+        } else if (bVertical) {
+            return intersectionWithVertical(b0x, b0y, b1y, aSlope, aOffset, a0x, a0y, a1x, a1y, intersection);
         }
 
-        if (l1.getSign(b0) * l1.getSign(b1) > 0 && l2.getSign(a0) * l2.getSign(a1) > 0) {
-            return null;
+        if (sign(aSlope, aOffset, b0x, b0y) * sign(aSlope, aOffset, b1x, b1y) > 0 && sign(bSlope, bOffset, a0x, a0y) * sign(bSlope, bOffset, a1x, a1y) > 0) {
+            return false;
         }
 
-        //Two line segments with the same slope only distance if they have the same offset and overlap (in one point)
-        if (AlgoUtil.equal(l1.getA(), l2.getA())) {
-            if (l1.getB() != l2.getB()) {
-                return null;
+        //Two line segments with the same slope only intersect if they have the same offset and overlap (in one point)
+        if (AlgoUtil.equal(aSlope, bSlope)) {
+            if (aOffset != bOffset) {
+                return false;
             }
 
-            Double x = overlaps(
-                    new double[]{a0.getCoordinate()[0], a1.getCoordinate()[0]},
-                    new double[]{b0.getCoordinate()[0], b1.getCoordinate()[0]});
-            Double y = overlaps(
-                    new double[]{a0.getCoordinate()[1], a1.getCoordinate()[1]},
-                    new double[]{b0.getCoordinate()[1], b1.getCoordinate()[1]});
+            double x = overlaps(a0x, a1x, b0x, b1x);
+            double y = overlaps(a0y, a1y, b0y, b1y);
+            if (Double.isNaN(x) || Double.isNaN(y)) {
+                return false;
+            }
+            return set(intersection, x, y);
+        }
 
-            return Point.point(CRS.Cartesian, x, y);
+        double x = (bOffset - aOffset) / (aSlope - bSlope);
+        double y = aSlope * x + aOffset;
+
+        if (!inInterval(a0x, a1x, x) || !inInterval(b0x, b1x, x) || !inInterval(a0y, a1y, y) || !inInterval(b0y, b1y, y)) {
+            return false;
         }
 
-        double[] coordinates = new double[2];
+        return set(intersection, x, y);
+    }
 
-        coordinates[0] = (l2.getB() - l1.getB())/(l1.getA() - l2.getA());
-        coordinates[1] = l1.getY(coordinates[0]);
+    private static boolean sharedPoint(double ax, double ay, double bx, double by, double[] intersection) {
+        if (AlgoUtil.equal(ax, bx) && AlgoUtil.equal(ay, by)) {
+            return set(intersection, ax, ay);
+        }
+        return false;
+    }
 
-        for (int i = 0; i < 2; i++) {
-            if (!inInterval(new double[]{a0.getCoordinate()[i], a1.getCoordinate()[i]}, coordinates[i])) {
-                return null;
-            }
-            if (!inInterval(new double[]{b0.getCoordinate()[i], b1.getCoordinate()[i]}, coordinates[i])) {
-                return null;
-            }
+    private static boolean set(double[] intersection, double x, double y) {
+        if (intersection != null) {
+            intersection[0] = x;
+            intersection[1] = y;
         }
+        return true;
+    }
 
-        return Point.point(CRS.Cartesian, coordinates);
+    private static int sign(double slope, double offset, double x, double y) {
+        return (int) Math.signum(y - slope * x - offset);
     }
 
     /**
      * Computes the intersection of one vertical and one non-vertical line segment
      *
-     * @param v0 The first point of the vertical line segment
-     * @param v1 The second point of the vertical line segment
-     * @param line The line extending from the non-vertical line segment
-     * @param other0 The first point of the other line segment
-     * @param other1 The second point of the other line segment
-     * @return The point of intersection, or null if it does not exist
+     * @param x The x-value of the vertical line segment
+     * @param v0y The y-value of the first point of the vertical line segment
+     * @param v1y The y-value of the second point of the vertical line segment
+     * @param slope The slope of the line extending from the non-vertical line segment
+     * @param offset The offset of the line extending from the non-vertical line segment
+     * @return True iff the line segments intersect
      */
-    static Point intersectionWithVertical(Point v0, Point v1, Line line, Point other0, Point other1) {
-        double x = v0.getCoordinate()[0];
-        double y = line.getY(x);
+    static boolean intersectionWithVertical(double x, double v0y, double v1y, double slope, double offset,
+                                            double other0x, double other0y, double other1x, double other1y, double[] intersection) {
+        double y = slope * x + offset;
 
-        if (!inInterval(new double[]{other0.getCoordinate()[0], other1.getCoordinate()[0]}, x)) {
-            return null;
+        if (!inInterval(other0x, other1x, x)) {
+            return false;
         }
 
-        if (!inInterval(new double[]{other0.getCoordinate()[1], other1.getCoordinate()[1]}, y)) {
-            return null;
+        if (!inInterval(other0y, other1y, y)) {
+            return false;
         }
 
-        if (!inInterval(new double[]{v0.getCoordinate()[1], v1.getCoordinate()[1]}, y)) {
-            return null;
+        if (!inInterval(v0y, v1y, y)) {
+            return false;
         }
 
-
-        return Point.point(CRS.Cartesian, x, y);
+        return set(intersection, x, y);
     }
 
     /**
-     * Takes two intervals and returns the lowest value for which they overlap, otherwise returns null.
+     * Takes two intervals and returns the lowest value for which they overlap, otherwise returns NaN.
      * The two values inside the interval do not have to be sorted.
      *
-     * @param inter1 Array of size two
-     * @param inter2 Array of size two
-     * @return The lowest value the two intervals have in common, otherwise null
+     * @return The lowest value the two intervals have in common, otherwise NaN
      */
-    static Double overlaps(double[] inter1, double[] inter2) {
-        double lowest1;
-        double lowest2;
-        double highest1;
-        double highest2;
-
-        if (inter1[0] < inter1[1]) {
-            lowest1 = inter1[0];
-            highest1 = inter1[1];
-        } else {
-            lowest1 = inter1[1];
-            highest1 = inter1[0];
-        }
-
-        if (inter2[0] < inter2[1]) {
-            lowest2 = inter2[0];
-            highest2 = inter2[1];
-        } else {
-            lowest2 = inter2[1];
-            highest2 = inter2[0];
-        }
+    static double overlaps(double inter10, double inter11, double inter20, double inter21) {
+        double lowest1 = Math.min(inter10, inter11);
+        double highest1 = Math.max(inter10, inter11);
+        double lowest2 = Math.min(inter20, inter21);
+        double highest2 = Math.max(inter20, inter21);
 
         if (lowest1 < lowest2) {
             if (highest1 >= lowest2) {
@@ -158,32 +211,21 @@ public abstract class CartesianIntersect implements Intersect {
             }
         }
 
-        return null;
+        return Double.NaN;
     }
 
     /**
      * Checks whether the value is in the given interval
      *
-     * @param inter The (unordered) interval of size 2
+     * @param inter0 One end of the (unordered) interval
+     * @param inter1 The other end of the (unordered) interval
      * @param value The value to be tested
      * @return True iff value is lower or equal than one of values of interval and higher or equal than other
      */
-    static boolean inInterval(double[] inter, double value) {
-        double lowest;
-        double highest;
+    static boolean inInterval(double inter0, double inter1, double value) {
+        double lowest = Math.min(inter0, inter1);
+        double highest = Math.max(inter0, inter1);
 
-        if (inter[0] < inter[1]) {
-            lowest = inter[0];
-            highest = inter[1];
-        } else {
-            lowest = inter[1];
-            highest = inter[0];
-        }
-
-        if (AlgoUtil.lessOrEqual(lowest, value) && AlgoUtil.lessOrEqual(value, highest)) {
-            return true;
-        }
-
-        return false;
+        return AlgoUtil.lessOrEqual(lowest, value) && AlgoUtil.lessOrEqual(value, highest);
     }
-}
\ No newline at end of file
+}
@@ -1,388 +1,257 @@
 package org.neo4j.spatial.algo.cartesian.intersect;
 
 import org.neo4j.spatial.algo.AlgoUtil;
+import org.neo4j.spatial.algo.MonotoneChainSweepLine;
 import org.neo4j.spatial.core.*;
 
-import java.util.*;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class CartesianMCSweepLineIntersect extends CartesianIntersect {
-    private List<MonotoneChain> activeChainList;
-    private List<MonotoneChain> sweepingChainList;
-    private List<Point> outputList;
-
-    private double sweepAngle;
-
-    //This variable is used to determine the origin of the monotone chains
-    private long splitId;
-
-    public CartesianMCSweepLineIntersect() {
-        initialize();
-    }
-
-    private void initialize() {
-        MonotoneChain.resetId();
-        this.activeChainList = new ArrayList<>();
-        this.sweepingChainList = new ArrayList<>();
-        this.outputList = new ArrayList<>();
+    /**
+     * All state of a single intersection lives in the returned sweep line, so one instance can be shared by threads
+     *
+     * @param sweepAngle the angle by which the input has been rotated
+     * @return A new sweep line, which reports its intersections rotated back to the original coordinates
+     */
+    private MonotoneChainSweepLine newSweepLine(double sweepAngle) {
+        return new MonotoneChainSweepLine(super::intersect, point -> Point.point(CRS.Cartesian, AlgoUtil.rotate(point.getCoordinate(), -sweepAngle)));
     }
 
     @Override
     public boolean doesIntersect(Polygon a, Polygon b) {
-        initialize();
-        Polygon.SimplePolygon[] aPolygons = getSimplePolygons(a);
-        Polygon.SimplePolygon[] bPolygons = getSimplePolygons(b);
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolygons, true));
-        inputList.addAll(getMonotoneChains(bPolygons, false));
-        return intersect(inputList, true).length > 0;
+        List<double[]> aCoordinates = rings(a);
+        List<double[]> bCoordinates = rings(b);
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolygonChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolygonChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, true).length > 0;
     }
 
     @Override
     public Point[] intersect(Polygon a, Polygon b) {
-        initialize();
-        Polygon.SimplePolygon[] aPolygons = getSimplePolygons(a);
-        Polygon.SimplePolygon[] bPolygons = getSimplePolygons(b);
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolygons, true));
-        inputList.addAll(getMonotoneChains(bPolygons, false));
-        return intersect(inputList, false);
+        List<double[]> aCoordinates = rings(a);
+        List<double[]> bCoordinates = rings(b);
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolygonChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolygonChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, false);
     }
 
     @Override
     public boolean doesIntersect(Polygon a, MultiPolyline b) {
-        initialize();
-        Polygon.SimplePolygon[] aPolygons = getSimplePolygons(a);
-        Polyline[] bPolylines = b.getChildren();
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolygons, true));
-        inputList.addAll(getMonotoneChains(bPolylines, false));
-        return intersect(inputList, true).length > 0;
+        List<double[]> aCoordinates = rings(a);
+        List<double[]> bCoordinates = lines(b.getChildren());
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolygonChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, true).length > 0;
     }
 
     @Override
     public Point[] intersect(Polygon polygon, MultiPolyline multiPolyline) {
-        initialize();
-        Polygon.SimplePolygon[] aPolygons = getSimplePolygons(polygon);
-        Polyline[] bPolylines = multiPolyline.getChildren();
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(polygon.toLineSegments()));
-        angleSet.addAll(computeAngles(multiPolyline.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolygons, true));
-        inputList.addAll(getMonotoneChains(bPolylines, false));
-        return intersect(inputList, false);
+        List<double[]> aCoordinates = rings(polygon);
+        List<double[]> bCoordinates = lines(multiPolyline.getChildren());
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolygonChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, false);
     }
 
     @Override
     public boolean doesIntersect(Polygon polygon, Polyline polyline) {
-        initialize();
-        Polygon.SimplePolygon[] aPolygons = getSimplePolygons(polygon);
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(polygon.toLineSegments()));
-        angleSet.addAll(computeAngles(polyline.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolygons, true));
-        inputList.addAll(getMonotoneChains(new Polyline[]{polyline}, false));
-        return intersect(inputList, true).length > 0;
+        List<double[]> aCoordinates = rings(polygon);
+        List<double[]> bCoordinates = lines(polyline);
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolygonChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, true).length > 0;
     }
 
     @Override
     public Point[] intersect(Polygon a, Polyline b) {
-        initialize();
-        Polygon.SimplePolygon[] aPolygons = getSimplePolygons(a);
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolygons, true));
-        inputList.addAll(getMonotoneChains(new Polyline[]{b}, false));
-        return intersect(inputList, false);
+        List<double[]> aCoordinates = rings(a);
+        List<double[]> bCoordinates = lines(b);
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolygonChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, false);
     }
 
     @Override
     public Point[] intersect(MultiPolyline a, MultiPolyline b) {
-        initialize();
-        Polyline[] aPolylines = a.getChildren();
-        Polyline[] bPolylines = b.getChildren();
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolylines, true));
-        inputList.addAll(getMonotoneChains(bPolylines, false));
-        return intersect(inputList, false);
+        List<double[]> aCoordinates = lines(a.getChildren());
+        List<double[]> bCoordinates = lines(b.getChildren());
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolylineChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, false);
     }
 
     @Override
     public Point[] intersect(MultiPolyline a, Polyline b) {
-        initialize();
-        Polyline[] aPolylines = a.getChildren();
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
-
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolylines, true));
-        inputList.addAll(getMonotoneChains(new Polyline[]{b}, false));
-        return intersect(inputList, false);
+        List<double[]> aCoordinates = lines(a.getChildren());
+        List<double[]> bCoordinates = lines(b);
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
+
+        List<MonotoneChain> aChains = getPolylineChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, false);
     }
 
     @Override
     public Point[] intersect(MultiPolyline a, LineSegment b) {
-        initialize();
-        Polyline[] aPolylines = a.getChildren();
+        List<double[]> aCoordinates = lines(a.getChildren());
+        double sweepAngle = computeSweepDirection(aCoordinates, List.of(pack(b)));
 
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(new LineSegment[]{b}));
-        computeSweepDirection(angleSet);
+        List<MonotoneChain> aChains = getPolylineChains(aCoordinates, sweepAngle);
 
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(aPolylines, true));
+        MonotoneChain bChain = createRotatedChain(b, sweepAngle);
 
-        MonotoneChain bChain = new MonotoneChain();
-        bChain.add(createRotatedLineSegment(b));
-        bChain.initialize();
-        inputList.add(bChain);
-
-        return intersect(inputList, false);
+        return newSweepLine(sweepAngle).intersect(aChains, List.of(bChain), false);
     }
 
     @Override
     public Point[] intersect(Polyline a, Polyline b) {
-        initialize();
-
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(b.toLineSegments()));
-        computeSweepDirection(angleSet);
+        List<double[]> aCoordinates = lines(a);
+        List<double[]> bCoordinates = lines(b);
+        double sweepAngle = computeSweepDirection(aCoordinates, bCoordinates);
 
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(new Polyline[]{a}, true));
-        inputList.addAll(getMonotoneChains(new Polyline[]{b}, false));
-        return intersect(inputList, false);
+        List<MonotoneChain> aChains = getPolylineChains(aCoordinates, sweepAngle);
+        List<MonotoneChain> bChains = getPolylineChains(bCoordinates, sweepAngle);
+        return newSweepLine(sweepAngle).intersect(aChains, bChains, false);
     }
 
     @Override
     public Point[] intersect(Polyline a, LineSegment b) {
-        initialize();
+        List<double[]> aCoordinates = lines(a);
+        double sweepAngle = computeSweepDirection(aCoordinates, List.of(pack(b)));
 
-        Set<Double> angleSet = new HashSet<>();
-        angleSet.addAll(computeAngles(a.toLineSegments()));
-        angleSet.addAll(computeAngles(new LineSegment[]{b}));
-        computeSweepDirection(angleSet);
+        List<MonotoneChain> aChains = getPolylineChains(aCoordinates, sweepAngle);
 
-        List<MonotoneChain> inputList = new ArrayList<>();
-        inputList.addAll(getMonotoneChains(new Polyline[]{a}, true));
+        MonotoneChain bChain = createRotatedChain(b, sweepAngle);
 
-        MonotoneChain bChain = new MonotoneChain();
-        bChain.add(createRotatedLineSegment(b));
-        bChain.initialize();
-        inputList.add(bChain);
-
-        return intersect(inputList, false);
+        return newSweepLine(sweepAngle).intersect(aChains, List.of(bChain), false);
     }
 
     /**
-     * @param polygons
-     * @param first
+     * @param rings the packed coordinates of the shells and holes, which are rotated in place
+     * @param sweepAngle
      * @return The monotone chains that make up the polygons
      */
-    private List<MonotoneChain> getMonotoneChains(Polygon.SimplePolygon[] polygons, boolean first) {
+    private List<MonotoneChain> getPolygonChains(List<double[]> rings, double sweepAngle) {
         List<MonotoneChain> result = new ArrayList<>();
-        for (Polygon.SimplePolygon polygon : polygons) {
-            Polygon.SimplePolygon rotatedPolygon = createRotatedPolygon(polygon);
-            List<MonotoneChain> partitioned = CartesianMonotoneChainPartitioner.partition(rotatedPolygon);
-            result.addAll(partitioned);
-        }
-
-        if (first) {
-            splitId = result.get(result.size() - 1).getId() + 1;
+        for (double[] ring : rings) {
+            Polygon.SimplePolygon rotatedPolygon = Polygon.packed(CRS.Cartesian, 2, rotate(ring, sweepAngle));
+            result.addAll(CartesianMonotoneChainPartitioner.partition(rotatedPolygon));
         }
-
         return result;
     }
 
     /**
-     * @param polylines
-     * @param first
+     * @param lines the packed coordinates of the polylines, which are rotated in place
+     * @param sweepAngle
      * @return The monotone chains that make up the polylines
      */
-    private List<MonotoneChain> getMonotoneChains(Polyline[] polylines, boolean first) {
+    private List<MonotoneChain> getPolylineChains(List<double[]> lines, double sweepAngle) {
         List<MonotoneChain> result = new ArrayList<>();
-        for (Polyline polyline : polylines) {
-            Polyline rotatedPolyline = createRotatedPolyline(polyline);
-            List<MonotoneChain> partitioned = CartesianMonotoneChainPartitioner.partition(rotatedPolyline);
-            result.addAll(partitioned);
+        for (double[] line : lines) {
+            Polyline rotatedPolyline = Polyline.packed(CRS.Cartesian, 2, rotate(line, sweepAngle));
+            result.addAll(CartesianMonotoneChainPartitioner.partition(rotatedPolyline));
         }
-        if (first) {
-            splitId = result.get(result.size() - 1).getId() + 1;
-        }
-
         return result;
     }
 
     /**
      * @param polygon
-     * @return List of all the shells and holes of the input polygon as simple polygons
+     * @return The packed coordinates of all the shells and holes of the input polygon, without successive collinear vertices
      */
-    private Polygon.SimplePolygon[] getSimplePolygons(Polygon polygon) {
-        Polygon.SimplePolygon[] aPolygons = Stream.concat(Arrays.stream(polygon.getShells()), Arrays.stream(polygon.getHoles()))
-                .toArray(Polygon.SimplePolygon[]::new);
-        for (int i = 0; i < aPolygons.length; i++) {
-            aPolygons[i] = filterCollinear(aPolygons[i]);
+    private List<double[]> rings(Polygon polygon) {
+        List<double[]> rings = new ArrayList<>();
+        for (Polygon.SimplePolygon shell : polygon.getShells()) {
+            rings.add(filterCollinear(shell.getCoordinateSequence()));
         }
-        return aPolygons;
+        for (Polygon.SimplePolygon hole : polygon.getHoles()) {
+            rings.add(filterCollinear(hole.getCoordinateSequence()));
+        }
+        return rings;
     }
 
     /**
-     * A monotone chain sweep line algorithm based on:
-     * Park S.C., Shin H., Choi B.K. (2001) A sweep line algorithm for polygonal chain intersection and its applications.
-     * In: Kimura F. (eds) Geometric Modelling. GEO 1998. IFIP — The International Federation for Information Processing, vol 75. Springer, Boston, MA
-     *
-     * @param inputList
-     * @param shortcut
-     * @return An array of points at which the two input polygons distance
+     * @param polylines
+     * @return The packed coordinates of the polylines
      */
-    public Point[] intersect(List<MonotoneChain> inputList, boolean shortcut) {
-        for (MonotoneChain monotoneChain : inputList) {
-            insertMonotoneChainInACL(monotoneChain);
-        }
-
-        Vertex v;
-        MonotoneChain MCa;
-        while (!this.activeChainList.isEmpty()) {
-            MCa = this.activeChainList.get(0);
-            v = MCa.getFrontVertex();
-            MCa.advance();
-            insertMonotoneChainInACL(MCa);
-
-            switch (v.getType()) {
-                case LEFT_MOST:
-                    insertInSCL(MCa, v.getPoint().getCoordinate()[0]);
-                    findIntersection(MCa, getPrevious(this.sweepingChainList, MCa));
-                    findIntersection(MCa, getNext(this.sweepingChainList, MCa));
-                    break;
-                case INTERNAL:
-                    findIntersection(MCa, getPrevious(this.sweepingChainList, MCa));
-                    findIntersection(MCa, getNext(this.sweepingChainList, MCa));
-                    break;
-                case RIGHT_MOST:
-                    MonotoneChain MCp = getPrevious(this.sweepingChainList, MCa);
-                    MonotoneChain MCn = getNext(this.sweepingChainList, MCa);
-                    this.sweepingChainList.remove(MCa);
-                    this.activeChainList.remove(MCa);
-                    findIntersection(MCp, MCn);
-                    break;
-                case INTERSECTION:
-                    MonotoneChain finalMCa = MCa;
-                    MonotoneChain MCb = v.getMonotoneChains().stream().filter(c -> !c.equals(finalMCa)).findFirst().get();
-                    MCb.advance();
-                    insertMonotoneChainInACL(MCb);
-                    swapAccordingToSCL(new ArrayList<>(Arrays.asList(MCa, MCb)), v.getPoint().getCoordinate()[0]);
-                    MonotoneChain previous = getPrevious(sweepingChainList, MCb);
-                    if (previous != null && MCa.equals(previous)) {
-                        findIntersection(MCa, getPrevious(sweepingChainList, MCa));
-                        findIntersection(MCb, getNext(sweepingChainList, MCb));
-                    } else {
-                        findIntersection(MCb, getPrevious(sweepingChainList, MCb));
-                        findIntersection(MCa, getNext(sweepingChainList, MCa));
-                    }
-                    addToOutput(v.getPoint());
-                    break;
-            }
-            if (shortcut && outputList.size() > 0) {
-                return outputList.toArray(new Point[0]);
-            }
-        }
-
-        return outputList.toArray(new Point[0]);
-    }
-
-    private void addToOutput(Point rotatedPoint) {
-        Point point = Point.point(CRS.Cartesian, AlgoUtil.rotate(rotatedPoint.getCoordinate(), -this.sweepAngle));
-        for (Point inList : outputList) {
-            if (AlgoUtil.equal(point.getCoordinate(), inList.getCoordinate())) {
-                return;
+    private List<double[]> lines(Polyline... polylines) {
+        List<double[]> lines = new ArrayList<>(polylines.length);
+        for (Polyline polyline : polylines) {
+            CoordinateSequence coordinates = polyline.getCoordinateSequence();
+            double[] packed = new double[coordinates.size() * 2];
+            for (int i = 0; i < coordinates.size(); i++) {
+                packed[2 * i] = coordinates.getX(i);
+                packed[2 * i + 1] = coordinates.getY(i);
             }
+            lines.add(packed);
         }
-        this.outputList.add(point);
+        return lines;
     }
 
-    /**
-     * @param polygon The input polygon
-     * @return A new polygon which is the input polygon, but rotated to the sweep angle
-     */
-    private Polygon.SimplePolygon createRotatedPolygon(Polygon.SimplePolygon polygon) {
-        Point[] rotatedPoints = Arrays.stream(polygon.getPoints()).map(p -> new RotatedPoint(p, this.sweepAngle)).toArray(RotatedPoint[]::new);
-        return Polygon.simple(rotatedPoints);
+    private double[] pack(LineSegment lineSegment) {
+        double[] p = lineSegment.getPoints()[0].getCoordinate();
+        double[] q = lineSegment.getPoints()[1].getCoordinate();
+        return new double[]{p[0], p[1], q[0], q[1]};
     }
 
     /**
-     * @param polyline The input polyline
-     * @return A new polyline which is the input polyline, but rotated to the sweep angle
+     * @param lineSegment The input lineSegment
+     * @return A monotone chain of the input lineSegment, but rotated to the sweep angle
      */
-    private Polyline createRotatedPolyline(Polyline polyline) {
-        Point[] rotatedPoints = Arrays.stream(polyline.getPoints()).map(p -> new RotatedPoint(p, this.sweepAngle)).toArray(RotatedPoint[]::new);
-        return Polyline.polyline(rotatedPoints);
+    private MonotoneChain createRotatedChain(LineSegment lineSegment, double sweepAngle) {
+        Point[] rotatedPoints = Arrays.stream(lineSegment.getPoints()).map(p -> new RotatedPoint(p, sweepAngle)).toArray(RotatedPoint[]::new);
+        double dx = rotatedPoints[1].getCoordinate()[0] - rotatedPoints[0].getCoordinate()[0];
+        return new MonotoneChain(CoordinateSequence.of(rotatedPoints), 0, 1, dx < 0 ? -1 : 1);
     }
 
     /**
-     * @param lineSegment The input lineSegment
-     * @return A new lineSegment which is the input lineSegment, but rotated to the sweep angle
+     * Rotates the packed coordinates in place, so the partitioning does not need a point per vertex
+     *
+     * @return The interleaved x and y coordinates of the rotated vertices
      */
-    private LineSegment createRotatedLineSegment(LineSegment lineSegment) {
-        Point[] rotatedPoints = Arrays.stream(lineSegment.getPoints()).map(p -> new RotatedPoint(p, this.sweepAngle)).toArray(RotatedPoint[]::new);
-        return LineSegment.lineSegment(rotatedPoints[0], rotatedPoints[1]);
+    private double[] rotate(double[] coordinates, double angle) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        for (int i = 0; i < coordinates.length; i += 2) {
+            double x = coordinates[i];
+            double y = coordinates[i + 1];
+            coordinates[i] = x * cos - y * sin;
+            coordinates[i + 1] = y * cos + x * sin;
+        }
+        return coordinates;
     }
 
     /**
      * Compute an angle for which no vertical line segments exist
      *
-     * @param angleSet
+     * @param a the packed coordinates of the first geometry
+     * @param b the packed coordinates of the second geometry
+     * @return The angle by which the input will be rotated
      */
-    private void computeSweepDirection(Set<Double> angleSet) {
-        List<Double> angles = new ArrayList<>(angleSet);
-        Collections.sort(angles);
+    private double computeSweepDirection(List<double[]> a, List<double[]> b) {
+        double[] angles = computeAngles(a, b);
+        Arrays.sort(angles);
 
         double maxDelta = Double.MIN_VALUE;
         double maxAngle = 0;
-        for (int i = 0; i < angles.size() - 1; i++) {
-            double currentDelta = angles.get(i + 1) - angles.get(i);
-            double currentAngle = (angles.get(i + 1) + angles.get(i)) / 2d;
+        for (int i = 0; i < angles.length - 1; i++) {
+            double currentDelta = angles[i + 1] - angles[i];
+            double currentAngle = (angles[i + 1] + angles[i]) / 2d;
 
             if (currentDelta > maxDelta) {
                 maxDelta = currentDelta;
@@ -394,215 +263,63 @@ public class CartesianMCSweepLineIntersect extends CartesianIntersect {
             }
         }
 
-        this.sweepAngle = maxAngle;
+        return maxAngle;
     }
 
     /**
-     * @param lineSegments All the line segments of the geometry
-     * @return Compute the angles of the line segments
+     * @return The angles in [0, pi] of all the line segments of both geometries, duplicates included
      */
-    private Set<Double> computeAngles(LineSegment[] lineSegments) {
-        Set<Double> angles = new HashSet<>();
-
-        for (LineSegment segment : lineSegments) {
-            Point p = segment.getPoints()[0];
-            Point q = segment.getPoints()[1];
-
-            double dx = q.getCoordinate()[0] - p.getCoordinate()[0];
-            double dy = q.getCoordinate()[1] - p.getCoordinate()[1];
-
-            double angle = Math.atan2(dy, dx);
-
-            if (angle < -0) {
-                angle += Math.PI;
-            }
-
-            angles.add(angle);
+    private double[] computeAngles(List<double[]> a, List<double[]> b) {
+        int count = 0;
+        for (double[] coordinates : a) {
+            count += coordinates.length / 2 - 1;
         }
-
-        return angles;
-    }
-
-    /**
-     * Removes all successive collinear points of the given polygon
-     *
-     * @param polygon
-     * @return New polygon without successive collinear points
-     */
-    private Polygon.SimplePolygon filterCollinear(Polygon.SimplePolygon polygon) {
-        List<Point> filteredPoints = new ArrayList<>(Arrays.asList(polygon.getPoints()));
-
-        List<Integer> toDelete = new LinkedList<>();
-        for (int i = 1; i < filteredPoints.size() - 1; i++) {
-            Point a = filteredPoints.get(i - 1);
-            Point b = filteredPoints.get(i);
-            Point c = filteredPoints.get(i + 1);
-
-            if (AlgoUtil.ccw(a, b, c) == 0) {
-                toDelete.add(i - toDelete.size());
-            }
-        }
-        for (Integer index : toDelete) {
-            filteredPoints.remove((int) index);
-        }
-
-        return Polygon.simple(filteredPoints.toArray(new Point[0]));
-    }
-
-    /**
-     * Insert the monotone chain into the active chain list based on x-values of the front vertices.
-     *
-     * @param chain The monotone chain to be inserted
-     */
-    private void insertMonotoneChainInACL(MonotoneChain chain) {
-        this.activeChainList.remove(chain);
-
-        if (chain.getFrontVertex() == null || this.activeChainList.isEmpty()) {
-            this.activeChainList.add(chain);
-            return;
+        for (double[] coordinates : b) {
+            count += coordinates.length / 2 - 1;
         }
 
+        double[] angles = new double[Math.max(count, 0)];
         int i = 0;
-        Vertex current = chain.getFrontVertex();
-        Vertex other = this.activeChainList.get(i).getFrontVertex();
-        while (other.getPoint().getCoordinate()[0] < current.getPoint().getCoordinate()[0]) {
-            i++;
-            if (i >= this.activeChainList.size()) {
-                this.activeChainList.add(chain);
-                return;
-            }
-            other = this.activeChainList.get(i).getFrontVertex();
-        }
-
-        this.activeChainList.add(i, chain);
-    }
-
-    /**
-     * Find the intersection between two monotone chains (if it exists) and create a new INTERSECTION vertex
-     * if the intersection point is not a shared point of the two chains.
-     *
-     * @param a
-     * @param b
-     */
-    private void findIntersection(MonotoneChain a, MonotoneChain b) {
-        if (a == null || b == null) {
-            return;
-        }
-
-        LineSegment aSegment = LineSegment.lineSegment(a.getFrontVertex().getPoint(), a.getPrevious(a.getFrontVertex()).getPoint());
-        LineSegment bSegment = LineSegment.lineSegment(b.getFrontVertex().getPoint(), b.getPrevious(b.getFrontVertex()).getPoint());
-
-        Point sharedPoint = LineSegment.sharedPoint(aSegment, bSegment);
-        if (sharedPoint != null) {
-            //Check if point isn't already in the output and the two chains are from different polygons by comparing signs
-            if (!outputList.contains(LineSegment.sharedPoint(aSegment, bSegment)) &&
-                    ((a.getId() - splitId ^ b.getId() - splitId) < 0)) {
-                addToOutput(sharedPoint);
-            }
-            return;
-        }
-
-        Point intersect = super.intersect(aSegment, bSegment);
-
-        if (intersect == null) {
-            return;
-        }
+        for (List<double[]> geometry : List.of(a, b)) {
+            for (double[] coordinates : geometry) {
+                for (int j = 2; j < coordinates.length; j += 2) {
+                    double angle = Math.atan2(coordinates[j + 1] - coordinates[j - 1], coordinates[j] - coordinates[j - 2]);
 
-        Vertex intersectVertex = new Vertex(intersect);
-
-        intersectVertex.setType(Vertex.Type.INTERSECTION);
-        intersectVertex.setMonotoneChains(new ArrayList<>(Arrays.asList(a, b)));
-
-        a.insertFrontVertex(intersectVertex);
-        insertMonotoneChainInACL(a);
-        b.insertFrontVertex(intersectVertex);
-        insertMonotoneChainInACL(b);
-    }
+                    if (angle < -0) {
+                        angle += Math.PI;
+                    }
 
-    /**
-     * For all the elements in the input list, which currently distance the sweep line,
-     * sort them in the sweeping chain list based on their angle at the sweep line.
-     *
-     * @param toSort The list of chains which will be re-sorted in the sweeping chain list
-     * @param x      The x-coordinate of the sweep line
-     */
-    private void swapAccordingToSCL(List<MonotoneChain> toSort, double x) {
-        toSort.sort((a, b) -> {
-            double angleA = a.getAngle(x);
-            double angleB = b.getAngle(x);
-
-            return Double.compare(angleA, angleB);
-        });
-
-        int index = this.sweepingChainList.size();
-        for (MonotoneChain chain : toSort) {
-            int i = this.sweepingChainList.indexOf(chain);
-            if (i < index) {
-                index = i;
+                    angles[i++] = angle;
+                }
             }
         }
-        this.sweepingChainList.removeAll(toSort);
-        for (int i = 0; i < toSort.size(); i++) {
-            this.sweepingChainList.add(index + i, toSort.get(i));
-        }
-
+        return angles;
     }
 
     /**
-     * Insert the monotone chain into the sweeping chain list based on its y-value at the sweep line.
-     * If this y-value coincides with another chain in the list, sort them by their angle.
+     * Removes all successive collinear points of the given ring
      *
-     * @param chain The chain to be inserted.
-     * @param x     The x-coordinate of the sweep line
+     * @param ring
+     * @return The packed coordinates of the ring without successive collinear points
      */
-    private void insertInSCL(MonotoneChain chain, double x) {
-        this.sweepingChainList.add(chain);
-        this.sweepingChainList.sort((a, b) -> {
-            double aY = a.getY(x);
-            double bY = b.getY(x);
-
-            if (AlgoUtil.equal(aY, bY)) {
-                double angleA = a.getAngle(x);
-                double angleB = b.getAngle(x);
-
-                return Double.compare(angleA, angleB);
+    private double[] filterCollinear(CoordinateSequence ring) {
+        int size = ring.size();
+        double[] filtered = new double[size * 2];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            double x = ring.getX(i);
+            double y = ring.getY(i);
+            if (i > 0 && i < size - 1) {
+                double ax = ring.getX(i - 1);
+                double ay = ring.getY(i - 1);
+                if ((x - ax) * (ring.getY(i + 1) - ay) - (y - ay) * (ring.getX(i + 1) - ax) == 0) {
+                    continue;
+                }
             }
-
-            return Double.compare(aY, bY);
-        });
-    }
-
-    /**
-     * Get the next monotone chain from the list based on the position of the input chain.
-     *
-     * @param list  The list of monotone chains to search
-     * @param chain The input chain
-     * @return The next chain in the list based on the input chain, and null if no next chain exists.
-     */
-    private MonotoneChain getNext(List<MonotoneChain> list, MonotoneChain chain) {
-        int index = list.indexOf(chain);
-
-        if (index == -1 || index == list.size() - 1) {
-            return null;
+            filtered[2 * count] = x;
+            filtered[2 * count + 1] = y;
+            count++;
         }
-
-        return list.get(index + 1);
-    }
-
-    /**
-     * Get the previous monotone chain from the list based on the position of the input chain.
-     *
-     * @param list  The list of monotone chains to search
-     * @param chain The input chain
-     * @return The previous chain in the list based on the input chain, and null if no previous chain exists.
-     */
-    private MonotoneChain getPrevious(List<MonotoneChain> list, MonotoneChain chain) {
-        int index = list.indexOf(chain);
-
-        if (index <= 0) {
-            return null;
-        }
-
-        return list.get(index - 1);
+        return count == size ? filtered : Arrays.copyOf(filtered, 2 * count);
     }
 }
@@ -1,6 +1,6 @@
 package org.neo4j.spatial.algo.cartesian.intersect;
 
-import org.neo4j.spatial.core.LineSegment;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.MonotoneChain;
 import org.neo4j.spatial.core.Polyline;
 import org.neo4j.spatial.core.Polygon;
@@ -16,59 +16,7 @@ public class CartesianMonotoneChainPartitioner {
      * @return List of x-monotone chains which together create the input polygon
      */
     public static List<MonotoneChain> partition(Polygon.SimplePolygon polygon) {
-        List<MonotoneChain> result = new ArrayList<>();
-        LineSegment[] lineSegments = polygon.toLineSegments();
-
-        //Add line segments to the current chain until a line segment has a different x-direction compared to the chain
-        MonotoneChain chain = new MonotoneChain();
-        double lastIncreasing = getXDirection(lineSegments[0]);
-        chain.add(lineSegments[0]);
-        for (int i = 1; i < lineSegments.length; i++) {
-            double currentIncreasing = getXDirection(lineSegments[i]);
-
-            if (currentIncreasing == lastIncreasing) {
-                chain.add(lineSegments[i]);
-            } else {
-                result.add(chain);
-                chain = new MonotoneChain();
-                chain.add(lineSegments[i]);
-                lastIncreasing = currentIncreasing;
-            }
-        }
-
-        //Compare the last chain with the first chain to maybe combine them
-        int lastIndex = lineSegments.length - 1;
-        double firstIncreasing = getXDirection(lineSegments[0]);
-        double currentIncreasing = getXDirection(lineSegments[lastIndex]);
-        if (currentIncreasing == lastIncreasing) {
-            chain.add(lineSegments[lastIndex]);
-
-            if (currentIncreasing == firstIncreasing) {
-                chain.add(result.get(0));
-                result.remove(0);
-                result.add(chain);
-            } else {
-                result.add(chain);
-            }
-        } else {
-            result.add(chain);
-            chain = new MonotoneChain();
-            chain.add(lineSegments[lastIndex]);
-
-            if (currentIncreasing == firstIncreasing) {
-                chain.add(result.get(0));
-                result.remove(0);
-                result.add(chain);
-            } else {
-                result.add(chain);
-            }
-        }
-
-        for (MonotoneChain monotoneChain : result) {
-            monotoneChain.initialize();
-        }
-
-        return result;
+        return partition(polygon.getCoordinateSequence(), true);
     }
 
     /**
@@ -78,36 +26,60 @@ public class CartesianMonotoneChainPartitioner {
      * @return List of x-monotone chains which together create the input polyline
      */
     public static List<MonotoneChain> partition(Polyline polyline) {
-        List<MonotoneChain> result = new ArrayList<>();
-        LineSegment[] lineSegments = polyline.toLineSegments();
+        return partition(polyline.getCoordinateSequence(), false);
+    }
 
-        //Add line segments to the current chain until a line segment has a different x-direction compared to the chain
-        MonotoneChain chain = new MonotoneChain();
-        boolean lastIncreasing = LineSegment.dX(lineSegments[0]) > 0;
-        chain.add(lineSegments[0]);
-        for (int i = 1; i < lineSegments.length; i++) {
-            boolean currentIncreasing = LineSegment.dX(lineSegments[i]) > 0;
-            if (currentIncreasing == lastIncreasing) {
-                chain.add(lineSegments[i]);
-            } else {
-                result.add(chain);
-                chain = new MonotoneChain();
-                chain.add(lineSegments[i]);
-                lastIncreasing = currentIncreasing;
+    /**
+     * Partition the coordinates in one pass, every chain is a range of indices into the coordinates. Segments without
+     * a change in x do not belong to any other chain, a vertical one is a chain of its own and an empty one is skipped.
+     *
+     * @param coordinates
+     * @param ring true if the coordinates form a closed ring, so the last chain may continue in the first one
+     * @return List of x-monotone chains which together create the input coordinates
+     */
+    private static List<MonotoneChain> partition(CoordinateSequence coordinates, boolean ring) {
+        List<MonotoneChain> result = new ArrayList<>();
+        int last = coordinates.size() - 1;
+
+        //Extend the current chain until a line segment has a different x-direction compared to the chain
+        int chainStart = 0;
+        int chainDirection = getXDirection(coordinates, 0);
+        int firstEnd = -1;
+        for (int i = 1; i < last; i++) {
+            int currentDirection = getXDirection(coordinates, i);
+            if (currentDirection == 0 || currentDirection != chainDirection) {
+                if (chainStart == 0) {
+                    firstEnd = i;
+                }
+                addChain(result, coordinates, chainStart, i, chainDirection);
+                chainStart = i;
+                chainDirection = currentDirection;
             }
         }
 
-        result.add(chain);
-
-        for (MonotoneChain monotoneChain : result) {
-            monotoneChain.initialize();
+        //The last chain of a ring continues in the first chain if both have the same x-direction
+        int firstDirection = getXDirection(coordinates, 0);
+        if (ring && firstEnd > 0 && chainDirection != 0 && chainDirection == firstDirection) {
+            result.remove(0);
+            result.add(new MonotoneChain(coordinates, chainStart, firstEnd, chainDirection));
+        } else {
+            addChain(result, coordinates, chainStart, last, chainDirection);
         }
 
         return result;
     }
 
-    private static double getXDirection(LineSegment lineSegment) {
-        double dx = LineSegment.dX(lineSegment);
-        return dx == 0 ? 0.0 : dx > 0 ? 1.0 : -1.0;
+    private static void addChain(List<MonotoneChain> result, CoordinateSequence coordinates, int start, int end, int direction) {
+        if (direction != 0 || coordinates.getY(start) != coordinates.getY(end)) {
+            result.add(new MonotoneChain(coordinates, start, end, direction));
+        }
+    }
+
+    /**
+     * @return The sign of the change in x along the line segment from the i-th vertex to the next
+     */
+    private static int getXDirection(CoordinateSequence coordinates, int i) {
+        double dx = coordinates.getX(i + 1) - coordinates.getX(i);
+        return dx == 0 ? 0 : dx > 0 ? 1 : -1;
     }
 }
@@ -1,48 +1,63 @@
 package org.neo4j.spatial.algo.wgs84;
 
 import org.neo4j.spatial.algo.Area;
-import org.neo4j.spatial.core.Polygon;
-import org.neo4j.spatial.core.Vector;
+import org.neo4j.spatial.algo.Precision;
+import org.neo4j.spatial.core.CoordinateSequence;
 
 public class WGS84Area extends Area {
+    private final Precision precision;
+
+    public WGS84Area() {
+        this(Precision.EXACT);
+    }
+
+    public WGS84Area(Precision precision) {
+        this.precision = precision;
+    }
+
     /**
-     * Computes the area of the polygon according to Girard’s theorem
-     * @param polygon
-     * @return the area of the polygon
+     * Computes the area of the ring according to Girard’s theorem
+     * @param ring the vertices of a closed ring
+     * @return the area of the ring
      */
     @Override
-    public double area(Polygon.SimplePolygon polygon) {
-        polygon.startTraversal();
-        Vector currentGC;
-        Vector prev = new Vector(polygon.getNextPoint());
-        Vector current = new Vector(polygon.getNextPoint());
-        Vector previousGC = prev.cross(current);
+    public double area(CoordinateSequence ring) {
+        double[] v = ring.toNVectors().getNVectors();
+        int size = ring.size();
 
-        prev = current;
+        //The great circle through the previous two vertices
+        double pgx = v[1] * v[5] - v[2] * v[4];
+        double pgy = v[2] * v[3] - v[0] * v[5];
+        double pgz = v[0] * v[4] - v[1] * v[3];
 
-        Vector firstGC = previousGC;
-        Vector normal = prev;
+        double fgx = pgx, fgy = pgy, fgz = pgz;
+        int prev = 3;
+        int normal = 3;
         double sumAngles = 0;
 
         int n = 0;
 
-        while (!polygon.fullyTraversed()) {
-            current = new Vector(polygon.getNextPoint());
+        for (int i = 2; i < size; i++) {
+            int current = i * 3;
 
-            if (prev.equals(current)) {
+            if (v[prev] == v[current] && v[prev + 1] == v[current + 1] && v[prev + 2] == v[current + 2]) {
                 continue;
             }
 
-            currentGC = prev.cross(current);
+            double cgx = v[prev + 1] * v[current + 2] - v[prev + 2] * v[current + 1];
+            double cgy = v[prev + 2] * v[current] - v[prev] * v[current + 2];
+            double cgz = v[prev] * v[current + 1] - v[prev + 1] * v[current];
 
-            sumAngles += WGSUtil.angleTo(previousGC, normal, currentGC);
+            sumAngles += WGSUtil.angleTo(pgx, pgy, pgz, v[normal], v[normal + 1], v[normal + 2], cgx, cgy, cgz, precision);
 
             prev = current;
-            previousGC = currentGC;
+            pgx = cgx;
+            pgy = cgy;
+            pgz = cgz;
             n++;
         }
 
-        sumAngles += WGSUtil.angleTo(previousGC, normal, firstGC);
+        sumAngles += WGSUtil.angleTo(pgx, pgy, pgz, v[normal], v[normal + 1], v[normal + 2], fgx, fgy, fgz, precision);
 
         double sumTheta = n * Math.PI - Math.abs(sumAngles);
         double sphericalExcess = sumTheta - (n-2) * Math.PI;
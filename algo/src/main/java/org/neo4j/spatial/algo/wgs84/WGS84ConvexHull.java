@@ -1,13 +1,15 @@
 package org.neo4j.spatial.algo.wgs84;
 
 import org.neo4j.spatial.algo.cartesian.CartesianConvexHull;
+import org.neo4j.spatial.algo.cartesian.CartesianParallelConvexHull;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.MultiPolygon;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.PolygonUtil;
 import org.neo4j.spatial.core.Vector;
 
-import java.net.CacheRequest;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -17,12 +19,27 @@ import java.util.stream.Stream;
 
 public class WGS84ConvexHull {
     /**
-     * Computes the convex hull of a multipolygon using Graham's scan
+     * Inputs with more vertices than this are projected onto a plane, see {@link #convexHull(CoordinateSequence...)}
+     */
+    static final int LARGE_INPUT = 64;
+
+    /**
+     * Computes the convex hull of a multipolygon using Graham's scan, or by a projection onto a plane if it is large
      *
      * @param polygon
      * @return A polygon which is the convex hull of the input polygon
      */
     public static Polygon.SimplePolygon convexHull(MultiPolygon polygon) {
+        CoordinateSequence[] shells = new CoordinateSequence[polygon.getChildren().size()];
+        int size = 0;
+        for (int i = 0; i < shells.length; i++) {
+            shells[i] = polygon.getChildren().get(i).getPolygon().getCoordinateSequence();
+            size += shells[i].size();
+        }
+        if (size > LARGE_INPUT) {
+            return convexHull(shells);
+        }
+
         Polygon.SimplePolygon[] convexHulls = new Polygon.SimplePolygon[polygon.getChildren().size()];
 
         for (int i = 0; i < polygon.getChildren().size(); i++) {
@@ -33,25 +50,37 @@ public class WGS84ConvexHull {
     }
 
     /**
-     * Computes the convex hull of a polyline polygon using Graham's scan
+     * Computes the convex hull of a polyline polygon using Graham's scan, or by a projection onto a plane if it is large
      *
      * @param polygon
      * @return A polygon which is the convex hull of the input polygon
      */
     public static Polygon.SimplePolygon convexHull(Polygon.SimplePolygon polygon) {
+        CoordinateSequence sequence = polygon.getCoordinateSequence();
+        if (sequence.size() > LARGE_INPUT) {
+            return convexHull(sequence);
+        }
         return convexHull(polygon.getPoints());
     }
 
     /**
-     * Computes the convex hull of a set
+     * Computes the convex hull of a set, using Graham's scan or by a projection onto a plane if it is large
      *
      * @param points
      * @return A polygon which is the convex hull of the input points
      */
     public static Polygon.SimplePolygon convexHull(Point[] points) {
+        if (points.length > LARGE_INPUT) {
+            return convexHull(CoordinateSequence.of(points));
+        }
+        return grahamScan(points);
+    }
+
+    private static Polygon.SimplePolygon grahamScan(Point[] points) {
+        double[] nVectors = WGSUtil.toNVectors(PolygonUtil.pack(points), points[0].dimension());
         Vector[] vectors = new Vector[points.length];
         for (int i = 0; i < points.length; i++) {
-            vectors[i] = new Vector(points[i]);
+            vectors[i] = new Vector(nVectors[i * 3], nVectors[i * 3 + 1], nVectors[i * 3 + 2]);
         }
 
         Vector pole = getPoleOfHemisphere(vectors);
@@ -68,36 +97,28 @@ public class WGS84ConvexHull {
             mappingToIndex.put(rotatedVectors[i], i);
         }
 
-        Arrays.sort(rotatedVectors, (a, b) -> {
-            double cosThetaA = Math.acos(a.getCoordinate(2) / a.magnitude());
-            double cosThetaB = Math.acos(b.getCoordinate(2) / b.magnitude());
-
-            double tanPhiA = Math.atan2(a.getCoordinate(1), a.getCoordinate(0));
-            double tanPhiB = Math.atan2(b.getCoordinate(1), b.getCoordinate(0));
-
-            int compareAzimuth = Double.compare(tanPhiA, tanPhiB);
-            int comparePolar = Double.compare(cosThetaA, cosThetaB);
-
-            return compareAzimuth != 0 ? compareAzimuth : comparePolar;
-        });
+        Arrays.sort(rotatedVectors, WGS84ConvexHull::compareAzimuthThenPolarAngle);
 
+        //The polar angle acos(z / |v|) decreases with z / |v|, so only the extremes need the inverse cosine
         int start = 0;
-        double minTheta = Double.MAX_VALUE;
-        double maxTheta = 0;
+        double minCosTheta = Double.MAX_VALUE;
+        double maxCosTheta = -Double.MAX_VALUE;
 
         for (int i = 0; i < rotatedVectors.length; i++) {
             Vector v = rotatedVectors[i];
-            double cosTheta = Math.acos(v.getCoordinate(2) / v.magnitude());
+            double cosTheta = v.getCoordinate(2) / v.magnitude();
 
-            if (maxTheta < cosTheta) {
+            if (minCosTheta > cosTheta) {
                 start = i;
-                maxTheta = cosTheta;
+                minCosTheta = cosTheta;
             }
 
-            if (minTheta > cosTheta) {
-                minTheta = cosTheta;
+            if (maxCosTheta < cosTheta) {
+                maxCosTheta = cosTheta;
             }
         }
+        double maxTheta = Math.acos(Math.max(-1, minCosTheta));
+        double minTheta = Math.acos(Math.min(1, maxCosTheta));
 
         if (maxTheta - minTheta < 0.1) {
 
@@ -137,6 +158,97 @@ public class WGS84ConvexHull {
         }
     }
 
+    /**
+     * Computes the convex hull of the vertices of the coordinate sequences over primitive arrays.
+     * <p>
+     * The hull of points in a hemisphere is the 3D convex hull of the cone spanned by their n-vectors, whose faces are
+     * planes through the center of the earth. The gnomonic projection onto the plane tangent to the pole of the
+     * hemisphere maps these planes to straight lines, so the planar hull of the projected n-vectors has the same
+     * vertices as the spherical hull. The pole is the mean n-vector, if not all points are strictly within 90 degrees
+     * of it the hemisphere is searched like for small inputs.
+     *
+     * @param sequences
+     * @return A polygon which is the convex hull of the input
+     */
+    static Polygon.SimplePolygon convexHull(CoordinateSequence... sequences) {
+        int n = 0;
+        for (CoordinateSequence sequence : sequences) {
+            n += sequence.size();
+        }
+        double[] coordinates = new double[2 * n];
+        double[] nVectors = new double[3 * n];
+        double px = 0;
+        double py = 0;
+        double pz = 0;
+        int offset = 0;
+        for (CoordinateSequence sequence : sequences) {
+            double[] sequenceNVectors = WGSUtil.toNVectors(sequence);
+            for (int i = 0; i < sequence.size(); i++, offset++) {
+                coordinates[2 * offset] = sequence.getX(i);
+                coordinates[2 * offset + 1] = sequence.getY(i);
+                System.arraycopy(sequenceNVectors, 3 * i, nVectors, 3 * offset, 3);
+                px += nVectors[3 * offset];
+                py += nVectors[3 * offset + 1];
+                pz += nVectors[3 * offset + 2];
+            }
+        }
+
+        double[] projected = WGSUtil.gnomonic(nVectors, new Vector(px, py, pz).normalize());
+        if (projected == null) {
+            Point[] points = new Point[n];
+            for (int j = 0; j < n; j++) {
+                points[j] = Point.point(CRS.WGS84, coordinates[2 * j], coordinates[2 * j + 1]);
+            }
+            return grahamScan(points);
+        }
+
+        int[] ring = new CartesianParallelConvexHull().convexHullByIndex(projected);
+        double[] hull = new double[2 * ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            hull[2 * i] = coordinates[2 * ring[i]];
+            hull[2 * i + 1] = coordinates[2 * ring[i] + 1];
+        }
+        return Polygon.packed(CRS.WGS84, hull);
+    }
+
+    /**
+     * Orders rotated points by azimuth atan2(y, x) and then by polar angle acos(z / |v|), without evaluating either
+     */
+    static int compareAzimuthThenPolarAngle(Vector a, Vector b) {
+        int compareAzimuth = compareAzimuth(a.getCoordinate(0), a.getCoordinate(1), b.getCoordinate(0), b.getCoordinate(1));
+        if (compareAzimuth != 0) {
+            return compareAzimuth;
+        }
+        return Double.compare(b.getCoordinate(2) / b.magnitude(), a.getCoordinate(2) / a.magnitude());
+    }
+
+    /**
+     * Compares the angles atan2(ay, ax) and atan2(by, bx). The angles are split into the open lower half plane, the
+     * positive x-axis (including the origin), the open upper half plane and the negative x-axis, in increasing order.
+     * Within a half plane the angles span less than pi, so the sign of the cross product orders them.
+     */
+    static int compareAzimuth(double ax, double ay, double bx, double by) {
+        int halfA = half(ax, ay);
+        int halfB = half(bx, by);
+        if (halfA != halfB) {
+            return Integer.compare(halfA, halfB);
+        } else if (halfA == 1 || halfA == 3) {
+            return 0;
+        }
+        double cross = ax * by - ay * bx;
+        return cross > 0 ? -1 : cross < 0 ? 1 : 0;
+    }
+
+    private static int half(double x, double y) {
+        if (y < 0) {
+            return 0;
+        } else if (y > 0) {
+            return 2;
+        } else {
+            return x >= 0 ? 1 : 3;
+        }
+    }
+
     /**
      * Rotate the points such that pole is the north pole
      *
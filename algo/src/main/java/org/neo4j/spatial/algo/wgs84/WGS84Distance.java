@@ -1,15 +1,23 @@
 package org.neo4j.spatial.algo.wgs84;
 
+import org.neo4j.spatial.algo.ConvexDistance;
 import org.neo4j.spatial.algo.Distance;
-import org.neo4j.spatial.algo.cartesian.CartesianConvexHull;
-import org.neo4j.spatial.algo.cartesian.intersect.CartesianIntersect;
+import org.neo4j.spatial.algo.Precision;
+import org.neo4j.spatial.algo.SegmentTree;
 import org.neo4j.spatial.algo.wgs84.intersect.WGS84MCSweepLineIntersect;
 import org.neo4j.spatial.core.*;
 
-import java.util.Arrays;
-import java.util.Comparator;
-
 public class WGS84Distance extends Distance {
+    private final Precision precision;
+
+    public WGS84Distance() {
+        this(Precision.EXACT);
+    }
+
+    public WGS84Distance(Precision precision) {
+        this.precision = precision;
+    }
+
     @Override
     public double distance(Polygon a, Polygon b) {
         debug("Calculating geographic distance");
@@ -45,42 +53,185 @@ public class WGS84Distance extends Distance {
         long start = System.currentTimeMillis();
         debug("[%d]:\tStarting polygon distance calculation", System.currentTimeMillis() - start);
 
-        Polygon.SimplePolygon convexHull1 = CartesianConvexHull.convexHull(a.getShell());
-        Polygon.SimplePolygon convexHull2 = CartesianConvexHull.convexHull(b.getShell());
-        DistanceResult simpleDistance = getMinDistanceAndEndpoints(convexHull1.toLineSegments(), convexHull2.toLineSegments());
-        debug("[%d]:\tCalculated convex hull distance: %s", System.currentTimeMillis() - start, simpleDistance);
-
-        DistanceResult minDistance = DistanceResult.NO_RESULT;
-
         LineSegment[] aLS = a.toLineSegments();
         LineSegment[] bLS = b.toLineSegments();
 
-        Arrays.sort(aLS, Comparator.comparingDouble(o -> distance(o, simpleDistance.end)));
-        debug("[%d]:\tSorted %d line segments", System.currentTimeMillis() - start, aLS.length);
-        Arrays.sort(bLS, Comparator.comparingDouble(o -> distance(o, simpleDistance.start)));
-        debug("[%d]:\tSorted %d line segments", System.currentTimeMillis() - start, bLS.length);
-
-        int depth = 1;
-        for (int ai = 0; ai < depth; ai++) {
-            LineSegment aLineSegment = aLS[ai];
-            for (int bi = 0; bi < depth; bi++) {
-                LineSegment bLineSegment = bLS[bi];
-                minDistance = minDistance.min(distanceAndEndpoints(aLineSegment, bLineSegment));
+        //The closest points of disjoint convex hulls bound the distance from below, and their closest vertices, which
+        //are vertices of the polygons, from above
+        DistanceResult bound = DistanceResult.NO_RESULT;
+        Polygon.SimplePolygon[] hulls = convexHulls(a, b);
+        DistanceResult hullDistance = hulls == null ? null : convexContact(hulls[0], hulls[1]);
+        if (hullDistance != null && hullDistance.start != null) {
+            Point vertexA = closestVertex(hulls[0], hullDistance.end);
+            Point vertexB = closestVertex(hulls[1], vertexA);
+            double upperBound = distance(vertexA, vertexB);
+            bound = new DistanceResult(upperBound, vertexA, vertexB);
+            if (upperBound <= distance(hullDistance.start, hullDistance.end) * (1 + 1e-9)) {
+                debug("[%d]:\tClosest vertices of the convex hulls are closest: %s", System.currentTimeMillis() - start, bound);
+                return bound;
             }
         }
+
+        DistanceResult minDistance = getMinDistanceAndEndpoints(aLS, bLS, bound);
         debug("[%d]:\tCalculated min distance: %s", System.currentTimeMillis() - start, minDistance);
         return minDistance;
     }
 
+    /**
+     * @return The convex hulls of the shells of both polygons, or null if the shells of a polygon do not lie within a hemisphere
+     */
+    private static Polygon.SimplePolygon[] convexHulls(Polygon a, Polygon b) {
+        try {
+            return new Polygon.SimplePolygon[]{
+                    WGS84ConvexHull.convexHull(sequences(a.getShells())),
+                    WGS84ConvexHull.convexHull(sequences(b.getShells()))
+            };
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static CoordinateSequence[] sequences(Polygon.SimplePolygon[] polygons) {
+        CoordinateSequence[] sequences = new CoordinateSequence[polygons.length];
+        for (int i = 0; i < polygons.length; i++) {
+            sequences[i] = polygons[i].getCoordinateSequence();
+        }
+        return sequences;
+    }
+
+    /**
+     * @return The vertex of the polygon with the smallest great circle distance to the point
+     */
+    private static Point closestVertex(Polygon.SimplePolygon polygon, Point point) {
+        CoordinateSequence sequence = polygon.getCoordinateSequence();
+        double[] u = WGSUtil.toNVectors(sequence);
+        double[] v = new double[3];
+        WGSUtil.toNVector(point.getCoordinate()[0], point.getCoordinate()[1], v, 0);
+        int closest = 0;
+        double maxDot = -Double.MAX_VALUE;
+        for (int i = 0; i < sequence.size(); i++) {
+            double dot = u[3 * i] * v[0] + u[3 * i + 1] * v[1] + u[3 * i + 2] * v[2];
+            if (dot > maxDot) {
+                maxDot = dot;
+                closest = i;
+            }
+        }
+        return Point.point(CRS.WGS84, sequence.getX(closest), sequence.getY(closest));
+    }
+
     @Override
-    public double distance(Polygon polygon, MultiPolyline multiPolyline) {
-        boolean intersects = new WGS84MCSweepLineIntersect().doesIntersect(polygon, multiPolyline);
+    public DistanceResult convexDistanceAndEndpoints(Polygon.SimplePolygon a, Polygon.SimplePolygon b) {
+        DistanceResult result = convexContact(a, b);
+        return result == null ? distanceAndEndpoints(a, b) : result;
+    }
 
-        //Check if the multi polyline is (partially) contained by the polygon
-        if (intersects) {
-            return 0;
-        } else if (WGS84Within.within(polygon, multiPolyline.getChildren()[0].getPoints()[0])) {
-            return 0;
+    /**
+     * Both polygons are projected gnomonically around their mean n-vector, which maps great circle arcs to straight
+     * lines and so keeps the polygons convex and their overlap unchanged. The projection does not preserve distances,
+     * so the closest edges found in the plane are only a starting point: the exact distances of the edges around them
+     * are compared, in a window which is widened as long as the closest pair lies on its border.
+     *
+     * @return The distance between the convex polygons, or null if they do not lie within a hemisphere
+     */
+    private DistanceResult convexContact(Polygon.SimplePolygon a, Polygon.SimplePolygon b) {
+        double[] nVectorsA = WGSUtil.toNVectors(a.getCoordinateSequence());
+        double[] nVectorsB = WGSUtil.toNVectors(b.getCoordinateSequence());
+        double px = 0;
+        double py = 0;
+        double pz = 0;
+        for (double[] nVectors : new double[][]{nVectorsA, nVectorsB}) {
+            for (int i = 0; i < nVectors.length; i += 3) {
+                px += nVectors[i];
+                py += nVectors[i + 1];
+                pz += nVectors[i + 2];
+            }
+        }
+        Vector pole = new Vector(px, py, pz).normalize();
+        double[] projectedA = WGSUtil.gnomonic(nVectorsA, pole);
+        double[] projectedB = WGSUtil.gnomonic(nVectorsB, pole);
+        if (projectedA == null || projectedB == null) {
+            return null;
+        }
+
+        ConvexDistance.Contact contact = ConvexDistance.closest(projectedA, projectedB);
+        if (contact.isOverlap()) {
+            return DistanceResult.OVERLAP_RESULT.withMessage("Two polygons intersect");
+        }
+
+        LineSegment[] aLS = a.toLineSegments();
+        LineSegment[] bLS = b.toLineSegments();
+        int n = aLS.length;
+        int m = bLS.length;
+        for (int window = 1; ; window *= 2) {
+            int widthA = Math.min(n, 2 * window + 1);
+            int widthB = Math.min(m, 2 * window + 1);
+            int firstA = contact.a - widthA / 2 + n;
+            int firstB = contact.b - widthB / 2 + m;
+            DistanceResult min = DistanceResult.NO_RESULT;
+            int minA = 0;
+            int minB = 0;
+            for (int i = 0; i < widthA; i++) {
+                for (int j = 0; j < widthB; j++) {
+                    DistanceResult current = distanceAndEndpoints(aLS[(firstA + i) % n], bLS[(firstB + j) % m]);
+                    if (min.min(current) != min) {
+                        min = current;
+                        minA = i;
+                        minB = j;
+                    }
+                }
+            }
+            boolean borderA = widthA < n && (minA == 0 || minA == widthA - 1);
+            boolean borderB = widthB < m && (minB == 0 || minB == widthB - 1);
+            if (!borderA && !borderB) {
+                return min;
+            }
+        }
+    }
+
+    /**
+     * Indexes the line segments by boxes around their n-vectors. The great circle arc between two n-vectors bulges
+     * out of the chord by at most the sagitta, so every box is grown by that amount to contain the whole arc.
+     */
+    @Override
+    protected SegmentTree index(LineSegment[] lineSegments) {
+        double[] min = new double[lineSegments.length * 3];
+        double[] max = new double[lineSegments.length * 3];
+        double[] n = new double[6];
+        for (int i = 0; i < lineSegments.length; i++) {
+            Point[] points = lineSegments[i].getPoints();
+            WGSUtil.toNVector(points[0].getCoordinate()[0], points[0].getCoordinate()[1], n, 0);
+            WGSUtil.toNVector(points[1].getCoordinate()[0], points[1].getCoordinate()[1], n, 3);
+            double chordSquared = 0;
+            for (int d = 0; d < 3; d++) {
+                chordSquared += (n[d] - n[d + 3]) * (n[d] - n[d + 3]);
+            }
+            double sagitta = 1 - Math.sqrt(Math.max(0, 1 - chordSquared / 4));
+            for (int d = 0; d < 3; d++) {
+                min[i * 3 + d] = Math.min(n[d], n[d + 3]) - sagitta;
+                max[i * 3 + d] = Math.max(n[d], n[d + 3]) + sagitta;
+            }
+        }
+        return new SegmentTree(3, min, max);
+    }
+
+    /**
+     * @param boxDistance the chord length between two boxes of n-vectors
+     * @return The great circle distance (in meters) belonging to that chord length
+     */
+    @Override
+    protected double lowerBound(double boxDistance) {
+        return WGSUtil.RADIUS * 2 * Math.asin(Math.min(1, boxDistance / 2));
+    }
+
+    @Override
+    public double distance(Polygon polygon, MultiPolyline multiPolyline) {
+        //Check if the multi polyline is (partially) contained by the polygon, which is impossible for disjoint envelopes
+        if (polygon.getEnvelope().intersects(multiPolyline.getEnvelope())) {
+            if (new WGS84MCSweepLineIntersect().doesIntersect(polygon, multiPolyline)) {
+                return 0;
+            } else if (WGS84Within.within(polygon, multiPolyline.getChildren()[0].getPoints()[0])) {
+                return 0;
+            }
         }
 
         LineSegment[] aLS = polygon.toLineSegments();
@@ -91,13 +242,13 @@ public class WGS84Distance extends Distance {
 
     @Override
     public double distance(Polygon polygon, Polyline polyline) {
-        boolean intersects = new WGS84MCSweepLineIntersect().doesIntersect(polygon, polyline);
-
-        //Check if the polyline is (partially) contained by the polygon
-        if (intersects) {
-            return 0;
-        } else if (WGS84Within.within(polygon, polyline.getPoints()[0])) {
-            return 0;
+        //Check if the polyline is (partially) contained by the polygon, which is impossible for disjoint envelopes
+        if (polygon.getEnvelope().intersects(polyline.getEnvelope())) {
+            if (new WGS84MCSweepLineIntersect().doesIntersect(polygon, polyline)) {
+                return 0;
+            } else if (WGS84Within.within(polygon, polyline.getPoints()[0])) {
+                return 0;
+            }
         }
 
         LineSegment[] aLS = polygon.toLineSegments();
@@ -125,19 +276,19 @@ public class WGS84Distance extends Distance {
 
     @Override
     public double distance(Polygon polygon, Point point) {
-        if (WGS84Within.within(polygon, point)) {
+        if (polygon.getEnvelope().contains(point) && WGS84Within.within(polygon, point)) {
             return 0;
         }
 
-        LineSegment[] lineSegments = polygon.toLineSegments();
-
+        double x = point.getCoordinate()[0];
+        double y = point.getCoordinate()[1];
         double minDistance = Double.MAX_VALUE;
 
-        for (LineSegment lineSegment : lineSegments) {
-            double current = distance(lineSegment, point);
-            if (current < minDistance) {
-                minDistance = current;
-            }
+        for (Polygon.SimplePolygon shell : polygon.getShells()) {
+            minDistance = Math.min(minDistance, distance(shell.getCoordinateSequence(), x, y));
+        }
+        for (Polygon.SimplePolygon hole : polygon.getHoles()) {
+            minDistance = Math.min(minDistance, distance(hole.getCoordinateSequence(), x, y));
         }
 
         return minDistance;
@@ -201,18 +352,7 @@ public class WGS84Distance extends Distance {
 
     @Override
     public double distance(Polyline polyline, Point point) {
-        double minDistance = Double.MAX_VALUE;
-
-        LineSegment[] aLS = polyline.toLineSegments();
-
-        for (LineSegment aLineSegment : aLS) {
-            double current = distance(aLineSegment, point);
-            if (current < minDistance) {
-                minDistance = current;
-            }
-        }
-
-        return minDistance;
+        return distance(polyline.getCoordinateSequence(), point.getCoordinate()[0], point.getCoordinate()[1]);
     }
 
     @Override
@@ -300,10 +440,9 @@ public class WGS84Distance extends Distance {
 
     @Override
     public double distance(LineSegment a, LineSegment b) {
-        //WGS84Intersect does NOT work! We'll use Cartesian intersection which is OK for small polygons far from the poles
-        // TODO: Fix this bug!
-        //Point intersect = WGS84Intersect.lineSegmentIntersect(a, b);
-        Point intersect = CartesianIntersect.lineSegmentIntersect(a, b);
+        //Intersect the great circle arcs, like the distances below and the lower bound of the segment tree, a crossing
+        //of the straight lon/lat lines could be far from both arcs
+        Point intersect = WGSUtil.intersect(a, b);
         if (intersect != null) {
             return 0;
         }
@@ -327,10 +466,9 @@ public class WGS84Distance extends Distance {
 
     @Override
     public DistanceResult distanceAndEndpoints(LineSegment a, LineSegment b) {
-        //WGS84Intersect does NOT work! We'll use Cartesian intersection which is OK for small polygons far from the poles
-        // TODO: Fix this bug!
-        //Point intersect = WGS84Intersect.lineSegmentIntersect(a, b);
-        Point intersect = CartesianIntersect.lineSegmentIntersect(a, b);
+        //Intersect the great circle arcs, like the distances below and the lower bound of the segment tree, a crossing
+        //of the straight lon/lat lines could be far from both arcs
+        Point intersect = WGSUtil.intersect(a, b);
         if (intersect != null) {
             return DistanceResult.OVERLAP_RESULT.withMessage("Two LineSegements intersect: " + a + " intersects " + b);
         }
@@ -346,6 +484,88 @@ public class WGS84Distance extends Distance {
         return min;
     }
 
+    @Override
+    public double distance(CoordinateSequence a, CoordinateSequence b) {
+        double[] u = a.toNVectors().getNVectors();
+        double[] v = b.toNVectors().getNVectors();
+
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < a.size() - 1; i++) {
+            for (int j = 0; j < b.size() - 1; j++) {
+                double current;
+                //Like distance(LineSegment, LineSegment) the great circle arcs are intersected
+                if (WGSUtil.intersect(u, i, i + 1, v, j, j + 1, null)) {
+                    current = 0;
+                } else {
+                    current = Math.min(
+                            Math.min(distanceToArc(v, j, j + 1, u, i, precision), distanceToArc(v, j, j + 1, u, i + 1, precision)),
+                            Math.min(distanceToArc(u, i, i + 1, v, j, precision), distanceToArc(u, i, i + 1, v, j + 1, precision)));
+                }
+                if (current < minDistance) {
+                    minDistance = current;
+                }
+            }
+        }
+        return minDistance;
+    }
+
+    @Override
+    public double distance(CoordinateSequence sequence, double x, double y) {
+        double[] u = sequence.toNVectors().getNVectors();
+        double[] v = new double[3];
+        WGSUtil.toNVector(x, y, v, 0);
+
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < sequence.size() - 1; i++) {
+            double current = distanceToArc(u, i, i + 1, v, 0, precision);
+            if (current < minDistance) {
+                minDistance = current;
+            }
+        }
+        return minDistance;
+    }
+
+    /**
+     * Allocation-free variant of {@link #distance(LineSegment, Point)} on packed n-vectors
+     *
+     * @param precision how the angle to the nearest point is evaluated
+     * @return The minimum distance between the arc from vertex s to vertex e of u and vertex p of v
+     */
+    static double distanceToArc(double[] u, int s, int e, double[] v, int p, Precision precision) {
+        int a = s * 3, b = e * 3, c = p * 3;
+        double u1x = u[a], u1y = u[a + 1], u1z = u[a + 2];
+        double u2x = u[b], u2y = u[b + 1], u2z = u[b + 2];
+        double vx = v[c], vy = v[c + 1], vz = v[c + 2];
+
+        //These dot products tell us whether the point is on the same side as a point of the line segment compared to the remaining point of the line segment
+        double extent1 = (vx - u1x) * (u2x - u1x) + (vy - u1y) * (u2y - u1y) + (vz - u1z) * (u2z - u1z);
+        double extent2 = (vx - u2x) * (u1x - u2x) + (vy - u2y) * (u1y - u2y) + (vz - u2z) * (u1z - u2z);
+
+        boolean isSameHemisphere = vx * u1x + vy * u1y + vz * u1z >= 0 && vx * u2x + vy * u2y + vz * u2z >= 0;
+
+        boolean withinExtend = extent1 >= 0 && extent2 >= 0 && isSameHemisphere;
+        boolean degenerate = u1x == u2x && u1y == u2y && u1z == u2z;
+
+        if (withinExtend && !degenerate) {
+            double c1x = u1y * u2z - u1z * u2y;
+            double c1y = u1z * u2x - u1x * u2z;
+            double c1z = u1x * u2y - u1y * u2x;
+            double c2x = vy * c1z - vz * c1y;
+            double c2y = vz * c1x - vx * c1z;
+            double c2z = vx * c1y - vy * c1x;
+            //n = c1 x c2 is the nearest point on the great circle
+            double nx = c1y * c2z - c1z * c2y;
+            double ny = c1z * c2x - c1x * c2z;
+            double nz = c1x * c2y - c1y * c2x;
+            double crossX = vy * nz - vz * ny;
+            double crossY = vz * nx - vx * nz;
+            double crossZ = vx * ny - vy * nx;
+            return WGSUtil.RADIUS * precision.atan2(Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ), vx * nx + vy * ny + vz * nz);
+        } else {
+            return Math.min(WGSUtil.distance(v, p, u, s, precision), WGSUtil.distance(v, p, u, e, precision));
+        }
+    }
+
     @Override
     public double distance(Point p1, Point p2) {
         Vector u = new Vector(p1);
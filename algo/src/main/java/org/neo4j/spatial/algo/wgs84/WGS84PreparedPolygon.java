@@ -0,0 +1,120 @@
+package org.neo4j.spatial.algo.wgs84;
+
+import org.neo4j.spatial.algo.PreparedPolygon;
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.Polygon;
+
+/**
+ * Prepared version of {@link WGS84Within}. The course delta of every ring is computed once to know whether it contains
+ * a pole, and the edges are bucketed by their longitude extent, so the meridian ray of a query only has to be tested
+ * against the edges of one bucket.
+ */
+public class WGS84PreparedPolygon extends PreparedPolygon {
+    /**
+     * Margin in degrees added to the longitude extent of each edge, covering the tolerance of the arc intersection
+     */
+    private static final double MARGIN = 0.00001;
+
+    private final Ring[] shells;
+    private final Ring[] holes;
+
+    public WGS84PreparedPolygon(Polygon polygon) {
+        super(polygon);
+        this.shells = prepare(polygon.getShells());
+        this.holes = prepare(polygon.getHoles());
+    }
+
+    private static Ring[] prepare(Polygon.SimplePolygon[] polygons) {
+        Ring[] rings = new Ring[polygons.length];
+        for (int i = 0; i < polygons.length; i++) {
+            rings[i] = new Ring(polygons[i].getCoordinateSequence());
+        }
+        return rings;
+    }
+
+    @Override
+    public boolean within(double x, double y) {
+        double[] ray = new double[6];
+        WGSUtil.toNVector(x, y, ray, 0);
+        WGSUtil.toNVector(x, 90, ray, 3);
+
+        int withinShells = 0;
+        for (Ring shell : shells) {
+            if (shell.within(x, ray)) {
+                withinShells++;
+            }
+        }
+        int withinHoles = 0;
+        for (Ring hole : holes) {
+            if (hole.within(x, ray)) {
+                withinHoles++;
+            }
+        }
+        return withinShells > withinHoles;
+    }
+
+    private static class Ring {
+        private final double[] nVectors;
+        private final boolean containsPole;
+        private final EdgeBuckets buckets;
+
+        private Ring(CoordinateSequence ring) {
+            int n = ring.size();
+            this.nVectors = ring.toNVectors().getNVectors();
+            double courseDelta = WGSUtil.courseDelta(nVectors, n);
+            this.containsPole = !(courseDelta > 270 || courseDelta < -270);
+
+            //An edge crossing the antimeridian is split in two entries
+            int[] edge = new int[2 * (n - 1)];
+            double[] low = new double[2 * (n - 1)];
+            double[] high = new double[2 * (n - 1)];
+            int size = 0;
+            for (int i = 0; i < n - 1; i++) {
+                double lon1 = ring.getX(i);
+                double lon2 = ring.getX(i + 1);
+                double cosLat = Math.min(Math.cos(Math.toRadians(ring.getY(i))), Math.cos(Math.toRadians(ring.getY(i + 1))));
+                double margin = MARGIN / cosLat;
+                double west = Math.min(lon1, lon2);
+                double east = Math.max(lon1, lon2);
+
+                if (!(margin < 180) || east - west == 180) {
+                    //Close to a pole or through a pole the longitude extent is unbounded
+                    edge[size] = i;
+                    low[size] = -180;
+                    high[size++] = 180;
+                } else if (east - west < 180) {
+                    edge[size] = i;
+                    low[size] = west - margin;
+                    high[size++] = east + margin;
+                } else {
+                    edge[size] = i;
+                    low[size] = east - margin;
+                    high[size++] = 180;
+                    edge[size] = i;
+                    low[size] = -180;
+                    high[size++] = west + margin;
+                }
+            }
+            this.buckets = new EdgeBuckets(-180, 180, edge, low, high, size);
+        }
+
+        /**
+         * Same crossing test as {@link WGS84Within#within(CoordinateSequence, double, double)}, restricted to the
+         * edges which overlap the longitude of the ray.
+         */
+        private boolean within(double x, double[] ray) {
+            if (containsPole) {
+                throw new IllegalArgumentException("Polygon contains at least one pole");
+            }
+            boolean result = false;
+            int bucket = buckets.bucket(x);
+            for (int k = buckets.start(bucket); k < buckets.end(bucket); k++) {
+                int i = buckets.edge(k);
+                if (WGSUtil.intersect(nVectors, i, i + 1, ray, 0, 1, null)) {
+                    result = !result;
+                }
+            }
+            return result;
+        }
+    }
+}
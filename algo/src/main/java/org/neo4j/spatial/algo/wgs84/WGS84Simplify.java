@@ -0,0 +1,29 @@
+package org.neo4j.spatial.algo.wgs84;
+
+import org.neo4j.spatial.algo.Simplify;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Point;
+
+public class WGS84Simplify extends Simplify {
+    @Override
+    protected CRS getCRS() {
+        return CRS.WGS84;
+    }
+
+    /**
+     * The spherical excess of the triangle from the n-vectors of its corners, tan(E/2) = |a·(b×c)| / (1 + a·b + b·c + c·a)
+     */
+    @Override
+    protected double area(Point a, Point b, Point c) {
+        double[] n = new double[9];
+        WGSUtil.toNVector(a.getCoordinate()[0], a.getCoordinate()[1], n, 0);
+        WGSUtil.toNVector(b.getCoordinate()[0], b.getCoordinate()[1], n, 3);
+        WGSUtil.toNVector(c.getCoordinate()[0], c.getCoordinate()[1], n, 6);
+        double triple = n[0] * (n[4] * n[8] - n[5] * n[7]) + n[1] * (n[5] * n[6] - n[3] * n[8]) + n[2] * (n[3] * n[7] - n[4] * n[6]);
+        double ab = n[0] * n[3] + n[1] * n[4] + n[2] * n[5];
+        double bc = n[3] * n[6] + n[4] * n[7] + n[5] * n[8];
+        double ca = n[6] * n[0] + n[7] * n[1] + n[8] * n[2];
+        double excess = 2 * Math.atan2(Math.abs(triple), 1 + ab + bc + ca);
+        return excess * WGSUtil.RADIUS * WGSUtil.RADIUS;
+    }
+}
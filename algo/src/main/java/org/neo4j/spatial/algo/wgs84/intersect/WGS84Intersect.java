@@ -1,10 +1,16 @@
 package org.neo4j.spatial.algo.wgs84.intersect;
 
+import org.neo4j.spatial.algo.AlgoUtil;
 import org.neo4j.spatial.algo.Intersect;
 import org.neo4j.spatial.algo.wgs84.WGSUtil;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Vector;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class WGS84Intersect implements Intersect {
     @Override
@@ -21,4 +27,45 @@ public abstract class WGS84Intersect implements Intersect {
     public static Point lineSegmentIntersect(LineSegment a, LineSegment b) {
         return WGSUtil.intersect(a, b);
     }
+
+    @Override
+    public boolean doesIntersect(CoordinateSequence a, CoordinateSequence b) {
+        return compareSegments(a, b, true).length > 0;
+    }
+
+    @Override
+    public Point[] intersect(CoordinateSequence a, CoordinateSequence b) {
+        return compareSegments(a, b, false);
+    }
+
+    private static Point[] compareSegments(CoordinateSequence a, CoordinateSequence b, boolean shortcut) {
+        double[] u = a.toNVectors().getNVectors();
+        double[] v = b.toNVectors().getNVectors();
+
+        List<Point> intersections = new ArrayList<>();
+        double[] intersection = new double[3];
+        for (int i = 0; i < a.size() - 1; i++) {
+            for (int j = 0; j < b.size() - 1; j++) {
+                if (WGSUtil.intersect(u, i, i + 1, v, j, j + 1, intersection)) {
+                    Point point = new Vector(intersection.clone()).toPoint();
+                    if (!contains(intersections, point)) {
+                        intersections.add(point);
+                    }
+                    if (shortcut) {
+                        return intersections.toArray(new Point[0]);
+                    }
+                }
+            }
+        }
+        return intersections.toArray(new Point[0]);
+    }
+
+    private static boolean contains(List<Point> intersections, Point intersection) {
+        for (Point point : intersections) {
+            if (AlgoUtil.equal(point.getCoordinate(), intersection.getCoordinate())) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,6 +1,6 @@
 package org.neo4j.spatial.algo.wgs84.intersect;
 
-import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.MonotoneChain;
 import org.neo4j.spatial.core.Point;
@@ -24,75 +24,7 @@ public class WGS84MonotoneChainPartitioner {
      * @return List of x-monotone chains which together create the input polygon
      */
     public List<MonotoneChain> partition(Polygon.SimplePolygon polygon) {
-        List<MonotoneChain> result = new ArrayList<>();
-        LineSegment[] lineSegments = polygon.toLineSegments();
-
-        //Add line segments to the current chain until a line segment has a different x-direction compared to the chain
-        MonotoneChain chain = new MonotoneChain();
-        double lastIncreasing = getXDirection(lineSegments[0]);
-        if (lastIncreasing == 0) {
-            verticals.add(lineSegments[0]);
-        } else {
-            chain.add(lineSegments[0]);
-        }
-        for (int i = 1; i < lineSegments.length; i++) {
-            double currentIncreasing = getXDirection(lineSegments[i]);
-
-            if (currentIncreasing == 0.0) {
-                verticals.add(lineSegments[i]);
-
-                if (!chain.getVertices().isEmpty()) {
-                    result.add(chain);
-                    chain = new MonotoneChain();
-                }
-
-                lastIncreasing = currentIncreasing;
-            } else if (lastIncreasing == 0.0 ||currentIncreasing == lastIncreasing) {
-                chain.add(lineSegments[i]);
-                lastIncreasing = currentIncreasing;
-            } else {
-                result.add(chain);
-                chain = new MonotoneChain();
-                chain.add(lineSegments[i]);
-                lastIncreasing = currentIncreasing;
-            }
-        }
-
-        //Compare the last chain with the first chain to maybe combine them
-        int lastIndex = lineSegments.length - 1;
-        double firstIncreasing = getXDirection(lineSegments[0]);
-        double currentIncreasing = getXDirection(lineSegments[lastIndex]);
-        if (currentIncreasing == 0.0 || lastIncreasing == 0.0) {
-            //Skip
-        } else if (currentIncreasing == lastIncreasing) {
-            chain.add(lineSegments[lastIndex]);
-
-            if (currentIncreasing == firstIncreasing) {
-                chain.add(result.get(0));
-                result.remove(0);
-                result.add(chain);
-            } else {
-                result.add(chain);
-            }
-        } else {
-            result.add(chain);
-            chain = new MonotoneChain();
-            chain.add(lineSegments[lastIndex]);
-
-            if (currentIncreasing == firstIncreasing) {
-                chain.add(result.get(0));
-                result.remove(0);
-                result.add(chain);
-            } else {
-                result.add(chain);
-            }
-        }
-
-        for (MonotoneChain monotoneChain : result) {
-            monotoneChain.initialize();
-        }
-
-        return result;
+        return partition(polygon.getCoordinateSequence(), true);
     }
 
     /**
@@ -102,42 +34,65 @@ public class WGS84MonotoneChainPartitioner {
      * @return List of x-monotone chains which together create the input polyline
      */
     public List<MonotoneChain> partition(Polyline polyline) {
-        List<MonotoneChain> result = new ArrayList<>();
-        LineSegment[] lineSegments = polyline.toLineSegments();
+        return partition(polyline.getCoordinateSequence(), false);
+    }
 
-        //Add line segments to the current chain until a line segment has a different x-direction compared to the chain
-        MonotoneChain chain = new MonotoneChain();
-        double lastIncreasing = getXDirection(lineSegments[0]);
-        if (lastIncreasing == 0) {
-            verticals.add(lineSegments[0]);
-        } else {
-            chain.add(lineSegments[0]);
+    /**
+     * Partition the coordinates in one pass, every chain is a range of indices into the coordinates. Segments along a
+     * meridian are collected as verticals instead, and split the chains around them.
+     *
+     * @param coordinates
+     * @param ring true if the coordinates form a closed ring, so the last chain may continue in the first one
+     * @return List of x-monotone chains which together create the input coordinates, without the verticals
+     */
+    private List<MonotoneChain> partition(CoordinateSequence coordinates, boolean ring) {
+        List<MonotoneChain> result = new ArrayList<>();
+        int last = coordinates.size() - 1;
+
+        //Extend the current chain until a line segment has a different x-direction compared to the chain
+        int chainStart = 0;
+        int chainDirection = getXDirection(coordinates, 0);
+        int firstEnd = -1;
+        for (int i = 1; i < last; i++) {
+            int currentDirection = getXDirection(coordinates, i);
+            if (currentDirection == 0 || currentDirection != chainDirection) {
+                if (chainStart == 0) {
+                    firstEnd = i;
+                }
+                addChain(result, coordinates, chainStart, i, chainDirection);
+                chainStart = i;
+                chainDirection = currentDirection;
+            }
         }
-        for (int i = 1; i < lineSegments.length; i++) {
-            double currentIncreasing = getXDirection(lineSegments[i]);
 
-            if (currentIncreasing == 0.0) {
-                verticals.add(lineSegments[i]);
-                result.add(chain);
-                chain = new MonotoneChain();
-                lastIncreasing = currentIncreasing;
-            } else if (lastIncreasing == 0.0 ||currentIncreasing == lastIncreasing) {
-                chain.add(lineSegments[i]);
-            } else {
-                result.add(chain);
-                chain = new MonotoneChain();
-                chain.add(lineSegments[i]);
-                lastIncreasing = currentIncreasing;
-            }
+        //The last chain of a ring continues in the first chain if both have the same x-direction
+        int firstDirection = getXDirection(coordinates, 0);
+        if (ring && firstEnd > 0 && chainDirection != 0 && chainDirection == firstDirection) {
+            result.remove(0);
+            result.add(new MonotoneChain(coordinates, chainStart, firstEnd, chainDirection));
+        } else {
+            addChain(result, coordinates, chainStart, last, chainDirection);
         }
 
-        result.add(chain);
+        return result;
+    }
 
-        for (MonotoneChain monotoneChain : result) {
-            monotoneChain.initialize();
+    private void addChain(List<MonotoneChain> result, CoordinateSequence coordinates, int start, int end, int direction) {
+        if (direction != 0) {
+            result.add(new MonotoneChain(coordinates, start, end, direction));
+        } else {
+            Point a = Point.point(coordinates.getCRS(), coordinates.getX(start), coordinates.getY(start));
+            Point b = Point.point(coordinates.getCRS(), coordinates.getX(end), coordinates.getY(end));
+            verticals.add(LineSegment.lineSegment(a, b));
         }
+    }
 
-        return result;
+    /**
+     * @return The sign of the change in longitude along the line segment from the i-th vertex to the next
+     */
+    private static int getXDirection(CoordinateSequence coordinates, int i) {
+        double dx = coordinates.getX(i + 1) - coordinates.getX(i);
+        return dx == 0 ? 0 : dx > 0 ? 1 : -1;
     }
 
     public static double getXDirection(LineSegment lineSegment) {
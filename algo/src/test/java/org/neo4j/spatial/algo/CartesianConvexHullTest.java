@@ -147,6 +147,18 @@ public class CartesianConvexHullTest {
         assertThat("expected convex hull", Polygon.SimplePolygon.areEqual(convexHull, expected), equalTo(true));
     }
 
+    @Test
+    public void convexHullOfCoordinateSequence() {
+        Polygon.SimplePolygon[] polygons = new Polygon.SimplePolygon[]{makeSimpleTestPolygon(), makeStar(), makeHardTestPolygon(), makeCollinearPolygon(), makeCollinearPolygonFromReference()};
+        for (Polygon.SimplePolygon polygon : polygons) {
+            Polygon.SimplePolygon expected = CartesianConvexHull.convexHull(polygon);
+            Polygon.SimplePolygon actual = CartesianConvexHull.convexHull(Polygon.packed(polygon.getPoints()).getCoordinateSequence());
+
+            assertThat("expected the same convex hull as Graham's scan", actual, equalTo(expected));
+            assertThat("expected to start at the lowest point", actual.getPoints()[0], equalTo(expected.getPoints()[0]));
+        }
+    }
+
     private MultiPolygon makeMultiPolygon() {
         Point[][] input = new Point[][]{
                 {
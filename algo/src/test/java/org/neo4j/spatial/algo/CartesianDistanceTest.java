@@ -1,10 +1,14 @@
 package org.neo4j.spatial.algo;
 
+import org.neo4j.spatial.algo.cartesian.CartesianConvexHull;
 import org.neo4j.spatial.core.*;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.Map;
+import java.util.Random;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
@@ -129,4 +133,113 @@ public class CartesianDistanceTest {
         assertThat(calculator.distance(a, Point.point(CRS.Cartesian, 8, 0)), equalTo(0.0));
         assertThat(calculator.distance(a, Point.point(CRS.Cartesian, 8.5, 0)), equalTo(0.5));
     }
+
+    @Test
+    public void shouldWorkWithCoordinateSequences() {
+        Distance calculator = DistanceCalculator.getCalculator(CRS.Cartesian);
+        Polyline a = Polyline.polyline(Point.point(CRS.Cartesian, 0, 0), Point.point(CRS.Cartesian, 10, 10), Point.point(CRS.Cartesian, 20, 0));
+        Polyline b = Polyline.packed(CRS.Cartesian, new double[]{0, 20, 10, 15, 20, 20});
+        Polyline c = Polyline.packed(CRS.Cartesian, new double[]{0, 10, 20, 10});
+
+        assertThat(calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence()), equalTo(calculator.distance(a, b)));
+        assertThat(calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence()), equalTo(5.0));
+        assertThat(calculator.distance(a.getCoordinateSequence(), c.getCoordinateSequence()), equalTo(0.0));
+        assertThat(calculator.distance(a.getCoordinateSequence(), 10, 0), closeTo(7.07106781186547, 0.0001));
+    }
+
+    @Test
+    public void shouldFindSameDistanceAsBruteForceForLargePolylines() {
+        Distance calculator = DistanceCalculator.getCalculator(CRS.Cartesian);
+        Random random = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            Polyline a = randomWalk(random, 0, 0, 500);
+            Polyline b = randomWalk(random, 30, random.nextDouble() * 30, 500);
+
+            assertThat(calculator.distance(a, b), equalTo(calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence())));
+        }
+    }
+
+    @Test
+    public void shouldFindDistanceAndEndpointsBetweenPolygons() {
+        Distance calculator = DistanceCalculator.getCalculator(CRS.Cartesian);
+        Polygon a = Polygon.simple(
+                Point.point(CRS.Cartesian, -1, 1),
+                Point.point(CRS.Cartesian, 1, 1),
+                Point.point(CRS.Cartesian, 1, 2),
+                Point.point(CRS.Cartesian, -1, 2));
+        Polygon b = Polygon.simple(
+                Point.point(CRS.Cartesian, -1, -1),
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 1, -1),
+                Point.point(CRS.Cartesian, 0, -2));
+        Polygon c = Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 1.5),
+                Point.point(CRS.Cartesian, 5, 1.5),
+                Point.point(CRS.Cartesian, 5, 5));
+
+        Map<String, Object> result = calculator.distanceAndEndpoints(a, b).asMap();
+
+        assertThat((Double) result.get("distance"), closeTo(1, 0.0000001));
+        assertThat(result.get("start"), equalTo(Point.point(CRS.Cartesian, 0, 1)));
+        assertThat(result.get("end"), equalTo(Point.point(CRS.Cartesian, 0, 0)));
+        assertThat((Double) calculator.distanceAndEndpoints(a, c).asMap().get("distance"), equalTo(0.0));
+    }
+
+    @Test
+    public void convexDistanceShouldMatchDistanceBetweenConvexPolygons() {
+        Distance calculator = DistanceCalculator.getCalculator(CRS.Cartesian);
+        Random random = new Random(13);
+        for (int i = 0; i < 50; i++) {
+            Polygon.SimplePolygon a = randomConvexPolygon(random, 0, 0);
+            Polygon.SimplePolygon b = randomConvexPolygon(random, random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20);
+
+            Distance.DistanceResult result = calculator.convexDistanceAndEndpoints(a, b);
+            double expected = calculator.distance(a, b);
+
+            assertThat(calculator.convexDistance(a, b), closeTo(expected, 0.0000001));
+            assertThat(calculator.convexDistance(b, a), closeTo(expected, 0.0000001));
+            if (expected > 0) {
+                assertThat(calculator.distance(result.start, result.end), closeTo(expected, 0.0000001));
+                assertThat(calculator.distance(a, result.start), closeTo(0, 0.0000001));
+                assertThat(calculator.distance(b, result.end), closeTo(0, 0.0000001));
+            }
+        }
+    }
+
+    @Test
+    public void convexDistanceShouldBeZeroForContainedPolygons() {
+        Distance calculator = DistanceCalculator.getCalculator(CRS.Cartesian);
+        Polygon.SimplePolygon outer = Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 10, 0),
+                Point.point(CRS.Cartesian, 10, 10),
+                Point.point(CRS.Cartesian, 0, 10));
+        Polygon.SimplePolygon inner = Polygon.simple(
+                Point.point(CRS.Cartesian, 4, 4),
+                Point.point(CRS.Cartesian, 4, 6),
+                Point.point(CRS.Cartesian, 6, 5));
+
+        assertThat(calculator.convexDistance(outer, inner), equalTo(0.0));
+        assertThat(calculator.convexDistance(inner, outer), equalTo(0.0));
+        assertThat(calculator.convexDistanceAndEndpoints(inner, outer).start, equalTo(null));
+    }
+
+    private static Polygon.SimplePolygon randomConvexPolygon(Random random, double x, double y) {
+        Point[] points = new Point[20];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = Point.point(CRS.Cartesian, x + random.nextGaussian() * 3, y + random.nextGaussian() * 3);
+        }
+        return CartesianConvexHull.convexHull(points);
+    }
+
+    private static Polyline randomWalk(Random random, double x, double y, int size) {
+        double[] coordinates = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            x += random.nextDouble() - 0.5;
+            y += random.nextDouble() - 0.5;
+            coordinates[i * 2] = x;
+            coordinates[i * 2 + 1] = y;
+        }
+        return Polyline.packed(CRS.Cartesian, coordinates);
+    }
 }
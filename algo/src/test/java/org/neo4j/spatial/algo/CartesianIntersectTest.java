@@ -5,8 +5,13 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.neo4j.spatial.core.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.number.IsCloseTo.closeTo;
@@ -18,7 +23,7 @@ public class CartesianIntersectTest {
 
     @Parameterized.Parameters
     public static Collection data() {
-        IntersectCalculator.AlgorithmVariant[] variants = new IntersectCalculator.AlgorithmVariant[]{IntersectCalculator.AlgorithmVariant.Naive, IntersectCalculator.AlgorithmVariant.MCSweepLine};
+        IntersectCalculator.AlgorithmVariant[] variants = new IntersectCalculator.AlgorithmVariant[]{IntersectCalculator.AlgorithmVariant.Naive, IntersectCalculator.AlgorithmVariant.MCSweepLine, IntersectCalculator.AlgorithmVariant.Parallel};
         return Arrays.asList(variants);
     }
 
@@ -416,6 +421,24 @@ public class CartesianIntersectTest {
         assertThat(calculator.intersect(a, b), org.hamcrest.Matchers.emptyArray());
     }
 
+    @Test
+    public void shouldFindIntersectionsBetweenCoordinateSequences() {
+        Polygon.SimplePolygon a = Polygon.simple(
+                Point.point(CRS.Cartesian, -10, -10),
+                Point.point(CRS.Cartesian, 10, -10),
+                Point.point(CRS.Cartesian, 20, 10),
+                Point.point(CRS.Cartesian, -0, 10)
+        );
+        Polyline b = Polyline.packed(CRS.Cartesian, new double[]{-15, 0, 25, 0, 26, 15, -14, 15});
+
+        matchPoints(calculator.intersect(a.getCoordinateSequence(), b.getCoordinateSequence()), calculator.intersect(a, b));
+        assertThat(calculator.doesIntersect(a.getCoordinateSequence(), b.getCoordinateSequence()), is(true));
+
+        Polyline c = Polyline.packed(CRS.Cartesian, new double[]{30, 30, 40, 40});
+        assertThat(calculator.intersect(a.getCoordinateSequence(), c.getCoordinateSequence()).length, equalTo(0));
+        assertThat(calculator.doesIntersect(a.getCoordinateSequence(), c.getCoordinateSequence()), is(false));
+    }
+
     private void matchPoints(Point[] actual, Point[] expected) {
         assertThat(actual.length, equalTo(expected.length));
 
@@ -431,4 +454,69 @@ public class CartesianIntersectTest {
             assertThat("Point " + i + " is not present", flag, is(true));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindAllIntersectionsOfLongZigzag() {
+        int n = 500;
+        Polygon.SimplePolygon band = Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, n + 1, 0),
+                Point.point(CRS.Cartesian, n + 1, 10),
+                Point.point(CRS.Cartesian, 0, 10));
+        Point[] zigzag = new Point[n + 1];
+        for (int i = 0; i <= n; i++) {
+            zigzag[i] = Point.point(CRS.Cartesian, i + 0.25, i % 2 == 0 ? -5 : 15);
+        }
+
+        assertThat(calculator.intersect(band, Polyline.polyline(zigzag)).length, equalTo(2 * n));
+    }
+
+    @Test
+    public void shouldFindAllIntersectionsOfMultiPolylineWithLongChildren() {
+        int n = 5000;
+        Polygon.SimplePolygon band = Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, n + 1, 0),
+                Point.point(CRS.Cartesian, n + 1, 10),
+                Point.point(CRS.Cartesian, 0, 10));
+        MultiPolyline multiPolyline = new MultiPolyline();
+        for (int child = 0; child < 3; child++) {
+            Point[] zigzag = new Point[n + 1];
+            for (int i = 0; i <= n; i++) {
+                zigzag[i] = Point.point(CRS.Cartesian, i + 0.25 + 0.125 * child, i % 2 == 0 ? -5 : 15);
+            }
+            multiPolyline.insertPolyline(Polyline.polyline(zigzag));
+        }
+
+        assertThat(calculator.intersect(band, multiPolyline).length, equalTo(3 * 2 * n));
+    }
+
+    @Test
+    public void shouldBeSafeToShareBetweenThreads() throws Exception {
+        int n = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int task = 0; task < 64; task++) {
+                double offset = task;
+                results.add(executor.submit(() -> {
+                    Polygon.SimplePolygon band = Polygon.simple(
+                            Point.point(CRS.Cartesian, offset, 0),
+                            Point.point(CRS.Cartesian, offset + n + 1, 0),
+                            Point.point(CRS.Cartesian, offset + n + 1, 10),
+                            Point.point(CRS.Cartesian, offset, 10));
+                    Point[] zigzag = new Point[n + 1];
+                    for (int i = 0; i <= n; i++) {
+                        zigzag[i] = Point.point(CRS.Cartesian, offset + i + 0.25, i % 2 == 0 ? -5 : 15);
+                    }
+                    return calculator.intersect(band, Polyline.polyline(zigzag)).length;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertThat(result.get(), equalTo(2 * n));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
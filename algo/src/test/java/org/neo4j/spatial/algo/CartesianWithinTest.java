@@ -2,6 +2,7 @@ package org.neo4j.spatial.algo;
 
 import org.neo4j.spatial.algo.cartesian.CartesianWithin;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 import org.junit.Test;
@@ -23,6 +24,15 @@ public class CartesianWithinTest {
         assertThat(CartesianWithin.within(square, Point.point(CRS.Cartesian, 0, 20)), equalTo(false));
     }
 
+    @Test
+    public void shouldBeWithinSquareCoordinateSequence() {
+        CoordinateSequence square = Polygon.packed(CRS.Cartesian, new double[]{-10, -10, 10, -10, 10, 10, -10, 10});
+        assertThat(CartesianWithin.within(square, 0, 0), equalTo(true));
+        assertThat(CartesianWithin.within(square, -20, 0), equalTo(false));
+        assertThat(CartesianWithin.within(square, 0, 20), equalTo(false));
+        assertThat(WithinCalculator.within(square, 9, 9), equalTo(true));
+    }
+
     private static double[] move(double[] coords, int dim, double move) {
         double[] moved = Arrays.copyOf(coords, coords.length);
         moved[dim] += move;
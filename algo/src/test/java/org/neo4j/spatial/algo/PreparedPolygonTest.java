@@ -0,0 +1,69 @@
+package org.neo4j.spatial.algo;
+
+import org.junit.Test;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PreparedPolygonTest {
+    @Test
+    public void shouldMatchCartesianWithin() {
+        MultiPolygon polygon = new MultiPolygon();
+        polygon.insertPolygon(makeStar(CRS.Cartesian, 0, 0, 100, 500));
+        polygon.insertPolygon(makeStar(CRS.Cartesian, 0, 0, 20, 50));
+
+        assertSameAsWithinCalculator(polygon, 0, 0, 120);
+    }
+
+    @Test
+    public void shouldMatchWGS84Within() {
+        MultiPolygon polygon = new MultiPolygon();
+        polygon.insertPolygon(makeStar(CRS.WGS84, 10, 50, 5, 500));
+        polygon.insertPolygon(makeStar(CRS.WGS84, 10, 50, 1, 50));
+
+        assertSameAsWithinCalculator(polygon, 10, 50, 6);
+    }
+
+    @Test
+    public void shouldMatchWGS84WithinAcrossDateLine() {
+        Polygon.SimplePolygon polygon = Polygon.simple(
+                Point.point(CRS.WGS84, 175, -20),
+                Point.point(CRS.WGS84, -175, -20),
+                Point.point(CRS.WGS84, -175, -15),
+                Point.point(CRS.WGS84, 179, -16),
+                Point.point(CRS.WGS84, 175, -15)
+        );
+        PreparedPolygon prepared = PreparedPolygon.prepare(polygon);
+
+        assertThat(prepared.within(Point.point(CRS.WGS84, 178, -18)), equalTo(true));
+        assertThat(prepared.within(Point.point(CRS.WGS84, -178, -18)), equalTo(true));
+        assertThat(prepared.within(Point.point(CRS.WGS84, 170, -18)), equalTo(false));
+        assertThat(prepared.within(Point.point(CRS.WGS84, 0, -18)), equalTo(false));
+    }
+
+    private static void assertSameAsWithinCalculator(Polygon polygon, double cx, double cy, double extent) {
+        PreparedPolygon prepared = PreparedPolygon.prepare(polygon);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            Point point = Point.point(polygon.getCRS(), cx + (random.nextDouble() * 2 - 1) * extent, cy + (random.nextDouble() * 2 - 1) * extent);
+            assertThat("within " + point, prepared.within(point), equalTo(WithinCalculator.within(polygon, point)));
+        }
+    }
+
+    private static Polygon.SimplePolygon makeStar(CRS crs, double cx, double cy, double radius, int n) {
+        Random random = new Random(n);
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = radius * (0.5 + random.nextDouble() / 2);
+            points[i] = Point.point(crs, cx + r * Math.cos(angle), cy + r * Math.sin(angle));
+        }
+        return Polygon.simple(points);
+    }
+}
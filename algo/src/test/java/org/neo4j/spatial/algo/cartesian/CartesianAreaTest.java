@@ -33,4 +33,18 @@ public class CartesianAreaTest {
         expected = 200;
         assertThat(actual, equalTo(expected));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void areaOfPackedPolygon() {
+        Polygon.SimplePolygon simple = Polygon.simple(
+                Point.point(CRS.Cartesian, 1, 1),
+                Point.point(CRS.Cartesian, 1, 5),
+                Point.point(CRS.Cartesian, 3, 5),
+                Point.point(CRS.Cartesian, 3, 1),
+                Point.point(CRS.Cartesian, 2, 3)
+        );
+        Polygon.SimplePolygon packed = Polygon.packed(simple.getPoints());
+
+        assertThat(new CartesianArea().area(packed), equalTo(new CartesianArea().area(simple)));
+    }
+}
@@ -0,0 +1,99 @@
+package org.neo4j.spatial.algo.cartesian;
+
+import org.junit.Test;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class CartesianParallelConvexHullTest {
+    @Test
+    public void shouldMatchSequentialHullOverManyChunks() {
+        Random random = new Random(7);
+        double[] coordinates = new double[2 * 100_000];
+        for (int i = 0; i < coordinates.length; i++) {
+            coordinates[i] = random.nextGaussian() * 1000;
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Polygon.SimplePolygon actual = new CartesianParallelConvexHull(pool, 1000).convexHull(CRS.Cartesian, coordinates);
+            Polygon.SimplePolygon expected = CartesianConvexHull.convexHull(Polygon.packed(CRS.Cartesian, coordinates).getCoordinateSequence());
+
+            assertThat(actual, equalTo(expected));
+            assertThat(actual.getPoints()[0], equalTo(expected.getPoints()[0]));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldSkipCollinearAndInteriorPoints() {
+        Point[] points = new Point[]{
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 5, 0),
+                Point.point(CRS.Cartesian, 10, 0),
+                Point.point(CRS.Cartesian, 10, 10),
+                Point.point(CRS.Cartesian, 3, 4),
+                Point.point(CRS.Cartesian, 0, 10),
+                Point.point(CRS.Cartesian, 0, 10),
+                Point.point(CRS.Cartesian, 0, 5)
+        };
+        Polygon.SimplePolygon actual = new CartesianParallelConvexHull(ForkJoinPool.commonPool(), 2).convexHull(points);
+
+        assertThat(actual, equalTo(Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 10, 0),
+                Point.point(CRS.Cartesian, 10, 10),
+                Point.point(CRS.Cartesian, 0, 10)
+        )));
+    }
+
+    @Test
+    public void shouldDiscardMostPointsOfADiscBeforeTheHull() {
+        Random random = new Random(11);
+        int n = 10_000;
+        double[] coordinates = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double radius = Math.sqrt(random.nextDouble());
+            coordinates[2 * i] = radius * Math.cos(angle);
+            coordinates[2 * i + 1] = radius * Math.sin(angle);
+        }
+        double[] octagon = CartesianParallelConvexHull.octagon(coordinates);
+        int inside = 0;
+        for (int i = 0; i < n; i++) {
+            if (CartesianParallelConvexHull.inside(octagon, coordinates, i)) {
+                inside++;
+            }
+        }
+
+        //A regular octagon covers 90% of its circumscribed disc
+        assertThat(inside, greaterThan(n * 8 / 10));
+    }
+
+    @Test
+    public void shouldComputeHullOfMultiPolygon() {
+        MultiPolygon multiPolygon = new MultiPolygon();
+        multiPolygon.insertPolygon(Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 4, 0),
+                Point.point(CRS.Cartesian, 2, 3)
+        ));
+        multiPolygon.insertPolygon(Polygon.simple(
+                Point.point(CRS.Cartesian, 10, 10),
+                Point.point(CRS.Cartesian, 12, 10),
+                Point.point(CRS.Cartesian, 11, 14)
+        ));
+
+        Polygon.SimplePolygon actual = new CartesianParallelConvexHull().convexHull(multiPolygon);
+
+        assertThat(Polygon.SimplePolygon.areEqual(actual, CartesianConvexHull.convexHull(multiPolygon)), equalTo(true));
+    }
+}
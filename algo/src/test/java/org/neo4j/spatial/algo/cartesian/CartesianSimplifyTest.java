@@ -0,0 +1,155 @@
+package org.neo4j.spatial.algo.cartesian;
+
+import org.junit.Test;
+import org.neo4j.spatial.algo.Distance;
+import org.neo4j.spatial.algo.DistanceCalculator;
+import org.neo4j.spatial.algo.IntersectCalculator;
+import org.neo4j.spatial.algo.Simplify;
+import org.neo4j.spatial.algo.SimplifyCalculator;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.hasItemInArray;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class CartesianSimplifyTest {
+    private final Simplify calculator = SimplifyCalculator.getCalculator(CRS.Cartesian);
+
+    @Test
+    public void shouldSimplifyPolylineWithDouglasPeucker() {
+        Polyline polyline = Polyline.polyline(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 1, 0.1),
+                Point.point(CRS.Cartesian, 2, -0.1),
+                Point.point(CRS.Cartesian, 3, 5),
+                Point.point(CRS.Cartesian, 4, 6),
+                Point.point(CRS.Cartesian, 5, 7),
+                Point.point(CRS.Cartesian, 6, 8.1),
+                Point.point(CRS.Cartesian, 7, 9)
+        );
+
+        Polyline simplified = calculator.simplify(polyline, 0.5, Simplify.Method.DouglasPeucker);
+
+        assertThat(simplified.getPoints(), arrayContaining(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 2, -0.1),
+                Point.point(CRS.Cartesian, 3, 5),
+                Point.point(CRS.Cartesian, 7, 9)
+        ));
+        Distance distance = DistanceCalculator.getCalculator(CRS.Cartesian);
+        for (Point point : polyline.getPoints()) {
+            assertThat(distance.distance(simplified, point), lessThanOrEqualTo(0.5));
+        }
+    }
+
+    @Test
+    public void shouldSimplifyPolylineWithVisvalingam() {
+        Polyline polyline = Polyline.polyline(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 1, 0.1),
+                Point.point(CRS.Cartesian, 2, 0),
+                Point.point(CRS.Cartesian, 3, 3),
+                Point.point(CRS.Cartesian, 4, 0)
+        );
+
+        //The triangle at (1, 0.1) has an area of 0.1, after removing it the others have an area of at least 3
+        Polyline simplified = calculator.simplify(polyline, 1, Simplify.Method.Visvalingam);
+
+        assertThat(simplified.getPoints(), arrayContaining(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 2, 0),
+                Point.point(CRS.Cartesian, 3, 3),
+                Point.point(CRS.Cartesian, 4, 0)
+        ));
+    }
+
+    @Test
+    public void shouldKeepTriangleOfSmallRing() {
+        Polygon.SimplePolygon polygon = Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 1, 0),
+                Point.point(CRS.Cartesian, 1, 1),
+                Point.point(CRS.Cartesian, 0.5, 1.1),
+                Point.point(CRS.Cartesian, 0, 1)
+        );
+
+        for (Simplify.Method method : Simplify.Method.values()) {
+            Polygon.SimplePolygon simplified = calculator.simplify(polygon, 100, method);
+            assertThat(simplified.getPoints().length, equalTo(4));
+            assertThat(simplified.getPoints()[0], equalTo(Point.point(CRS.Cartesian, 0, 0)));
+        }
+    }
+
+    @Test
+    public void shouldNotLetShellCrossHole() {
+        Polygon.SimplePolygon shell = Polygon.simple(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 10, 0),
+                Point.point(CRS.Cartesian, 10, 10),
+                Point.point(CRS.Cartesian, 5.5, 10),
+                Point.point(CRS.Cartesian, 5, 10.5),
+                Point.point(CRS.Cartesian, 4.5, 10),
+                Point.point(CRS.Cartesian, 0, 10)
+        );
+        Polygon.SimplePolygon hole = Polygon.simple(
+                Point.point(CRS.Cartesian, 4.8, 9.8),
+                Point.point(CRS.Cartesian, 5.2, 9.8),
+                Point.point(CRS.Cartesian, 5, 10.3)
+        );
+
+        Polygon.SimplePolygon alone = calculator.simplify(shell, 1, Simplify.Method.DouglasPeucker);
+        assertThat(IntersectCalculator.getCalculator(CRS.Cartesian).doesIntersect(alone, hole), equalTo(true));
+
+        MultiPolygon multiPolygon = new MultiPolygon();
+        multiPolygon.insertPolygon(shell);
+        multiPolygon.insertPolygon(hole);
+        MultiPolygon simplified = calculator.simplify(multiPolygon, 1, Simplify.Method.DouglasPeucker);
+
+        assertThat(simplified.getShells().length, equalTo(1));
+        assertThat(simplified.getHoles().length, equalTo(1));
+        assertThat(simplified.getShells()[0].getPoints(), hasItemInArray(Point.point(CRS.Cartesian, 5, 10.5)));
+        assertThat(simplified.getShells()[0].getPoints().length, lessThanOrEqualTo(6));
+        assertThat(IntersectCalculator.getCalculator(CRS.Cartesian).doesIntersect(simplified.getShells()[0], simplified.getHoles()[0]), equalTo(false));
+    }
+
+    @Test
+    public void shouldRepairManyCrossingsAtOnce() {
+        int bumps = 20;
+        List<Point> shellPoints = new ArrayList<>();
+        shellPoints.add(Point.point(CRS.Cartesian, 0, 0));
+        shellPoints.add(Point.point(CRS.Cartesian, 4 * bumps, 0));
+        shellPoints.add(Point.point(CRS.Cartesian, 4 * bumps, 10));
+        Polygon.SimplePolygon[] rings = new Polygon.SimplePolygon[bumps + 1];
+        for (int k = bumps - 1; k >= 0; k--) {
+            double x = 4 * k + 2;
+            shellPoints.add(Point.point(CRS.Cartesian, x + 0.5, 10));
+            shellPoints.add(Point.point(CRS.Cartesian, x, 10.5));
+            shellPoints.add(Point.point(CRS.Cartesian, x - 0.5, 10));
+            rings[k + 1] = Polygon.simple(
+                    Point.point(CRS.Cartesian, x - 0.2, 9.8),
+                    Point.point(CRS.Cartesian, x + 0.2, 9.8),
+                    Point.point(CRS.Cartesian, x, 10.3));
+        }
+        shellPoints.add(Point.point(CRS.Cartesian, 0, 10));
+        rings[0] = Polygon.simple(shellPoints.toArray(new Point[0]));
+
+        Polygon.SimplePolygon alone = calculator.simplify(rings[0], 1, Simplify.Method.DouglasPeucker);
+        assertThat(IntersectCalculator.getCalculator(CRS.Cartesian).doesIntersect(alone, rings[bumps]), equalTo(true));
+
+        Polygon.SimplePolygon[] simplified = calculator.simplify(rings, 1, Simplify.Method.DouglasPeucker);
+
+        for (int k = 0; k < bumps; k++) {
+            assertThat(simplified[0].getPoints(), hasItemInArray(Point.point(CRS.Cartesian, 4 * k + 2, 10.5)));
+            assertThat(IntersectCalculator.getCalculator(CRS.Cartesian).doesIntersect(simplified[0], simplified[k + 1]), equalTo(false));
+        }
+    }
+}
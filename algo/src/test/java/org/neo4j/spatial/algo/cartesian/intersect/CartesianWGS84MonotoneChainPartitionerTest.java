@@ -2,17 +2,64 @@ package org.neo4j.spatial.algo.cartesian.intersect;
 
 import org.junit.Test;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.MonotoneChain;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
 
 import java.util.List;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
 public class CartesianWGS84MonotoneChainPartitionerTest {
     @Test
     public void shouldPartitionPolygon() {
         Polygon.SimplePolygon testPolygon = makeTestPolygon();
         List<MonotoneChain> actual = CartesianMonotoneChainPartitioner.partition(testPolygon);
+
+        assertThat(actual.size(), equalTo(6));
+        assertThat(segmentCount(actual), equalTo(14));
+        assertMonotone(actual);
+
+        //The last chain continues in the first one across the closing vertex of the ring
+        MonotoneChain wrapped = actual.get(actual.size() - 1);
+        assertThat(wrapped.getMinX(), equalTo(-27.0));
+        assertThat(wrapped.getMaxX(), equalTo(18.0));
+        assertThat(wrapped.getLineSegments().size(), equalTo(4));
+    }
+
+    @Test
+    public void shouldPartitionPolyline() {
+        Polyline polyline = Polyline.polyline(
+                Point.point(CRS.Cartesian, 0, 0),
+                Point.point(CRS.Cartesian, 1, 1),
+                Point.point(CRS.Cartesian, 2, 0),
+                Point.point(CRS.Cartesian, 1, -1),
+                Point.point(CRS.Cartesian, 0, -2),
+                Point.point(CRS.Cartesian, 3, -3)
+        );
+        List<MonotoneChain> actual = CartesianMonotoneChainPartitioner.partition(polyline);
+
+        assertThat(actual.size(), equalTo(3));
+        assertThat(segmentCount(actual), equalTo(5));
+        assertMonotone(actual);
+        assertThat(actual.get(1).getMinX(), equalTo(0.0));
+        assertThat(actual.get(1).getMaxX(), equalTo(2.0));
+    }
+
+    private static int segmentCount(List<MonotoneChain> chains) {
+        return chains.stream().mapToInt(chain -> chain.getLineSegments().size()).sum();
+    }
+
+    private static void assertMonotone(List<MonotoneChain> chains) {
+        for (MonotoneChain chain : chains) {
+            for (LineSegment segment : chain.getLineSegments()) {
+                assertThat(segment.getPoints()[0].getCoordinate()[0], lessThan(segment.getPoints()[1].getCoordinate()[0]));
+            }
+        }
     }
 
     private Polygon.SimplePolygon makeTestPolygon() {
@@ -1,10 +1,12 @@
 package org.neo4j.spatial.algo.wgs84;
 
 import org.junit.Test;
+import org.neo4j.spatial.algo.Precision;
 import org.neo4j.spatial.core.CRS;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
+import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.closeTo;
 
@@ -90,4 +92,34 @@ public class WGS84AreaTest {
         expected = Math.PI/4 * WGSUtil.RADIUS * WGSUtil.RADIUS;
         assertThat(actual, closeTo(expected, 0.1e12));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void areaOfPackedPolygon() {
+        Polygon.SimplePolygon simple = Polygon.simple(
+                Point.point(CRS.WGS84, 1, 1),
+                Point.point(CRS.WGS84, 1, 5),
+                Point.point(CRS.WGS84, 3, 5),
+                Point.point(CRS.WGS84, 3, 1),
+                Point.point(CRS.WGS84, 2, 3)
+        );
+        Polygon.SimplePolygon packed = Polygon.packed(simple.getPoints());
+
+        assertThat(new WGS84Area().area(packed), equalTo(new WGS84Area().area(simple)));
+    }
+
+    @Test
+    public void fastAreaShouldMatchExactArea() {
+        Polygon.SimplePolygon simple = Polygon.simple(
+                Point.point(CRS.WGS84, 1, 1),
+                Point.point(CRS.WGS84, 1, 5),
+                Point.point(CRS.WGS84, 3, 5),
+                Point.point(CRS.WGS84, 3, 1),
+                Point.point(CRS.WGS84, 2, 3)
+        );
+
+        double exact = new WGS84Area().area(simple);
+        double tolerance = 5 * Precision.FAST_MAX_ERROR * WGSUtil.RADIUS * WGSUtil.RADIUS;
+        assertThat(new WGS84Area(Precision.FAST).area(simple), closeTo(exact, tolerance));
+        assertThat(new WGS84Area(Precision.EXACT).area(simple), equalTo(exact));
+    }
+}
@@ -3,13 +3,19 @@ package org.neo4j.spatial.algo.wgs84;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+
+import java.util.Random;
+
 import org.neo4j.spatial.algo.cartesian.CartesianConvexHull;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 import org.neo4j.spatial.core.Vector;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.junit.Assert.*;
 
 public class WGS84ConvexHullTest {
@@ -188,4 +194,63 @@ public class WGS84ConvexHullTest {
         exceptionGrabber.expectMessage("Points do not lie all on the same hemisphere");
         WGS84ConvexHull.convexHull(points);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldOrderAzimuthLikeAtan2() {
+        Random random = new Random(42);
+        double[][] points = new double[200][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = i % 10 == 0
+                    ? new double[]{random.nextInt(3) - 1, random.nextInt(3) - 1}
+                    : new double[]{random.nextDouble() - 0.5, random.nextDouble() - 0.5};
+        }
+        for (double[] a : points) {
+            for (double[] b : points) {
+                int expected = Integer.signum(Double.compare(Math.atan2(a[1], a[0]), Math.atan2(b[1], b[0])));
+                assertThat(WGS84ConvexHull.compareAzimuth(a[0], a[1], b[0], b[1]), equalTo(expected));
+            }
+        }
+    }
+
+    @Test
+    public void projectedHullShouldMatchGrahamScan() {
+        Random random = new Random(3);
+        for (int run = 0; run < 5; run++) {
+            Point[] points = randomPoints(random, WGS84ConvexHull.LARGE_INPUT, -40 + 30 * run, 10 * run, 35);
+
+            Polygon.SimplePolygon expected = WGS84ConvexHull.convexHull(points);
+            Polygon.SimplePolygon actual = WGS84ConvexHull.convexHull(CoordinateSequence.of(points));
+
+            assertThat(Polygon.SimplePolygon.areEqual(actual, expected), equalTo(true));
+        }
+    }
+
+    @Test
+    public void largeHullShouldContainAllPoints() {
+        Point[] points = randomPoints(new Random(5), 20_000, 100, -20, 60);
+
+        Polygon.SimplePolygon hull = WGS84ConvexHull.convexHull(points);
+
+        Point[] vertices = hull.getPoints();
+        assertThat(vertices.length, greaterThan(4));
+        for (int i = 0; i < vertices.length - 1; i++) {
+            Vector edge = toNVector(vertices[i]).cross(toNVector(vertices[i + 1]));
+            for (Point point : points) {
+                assertThat(edge.dot(toNVector(point)), greaterThanOrEqualTo(-1e-12));
+            }
+        }
+    }
+
+    private static Point[] randomPoints(Random random, int count, double longitude, double latitude, double spread) {
+        Point[] points = new Point[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = Point.point(CRS.WGS84, longitude + (random.nextDouble() - 0.5) * spread, latitude + (random.nextDouble() - 0.5) * spread);
+        }
+        return points;
+    }
+
+    private static Vector toNVector(Point point) {
+        double[] nVector = WGSUtil.toNVectors(point.getCoordinate(), 2);
+        return new Vector(nVector[0], nVector[1], nVector[2]);
+    }
+}
@@ -4,13 +4,16 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Random;
 
 import org.neo4j.spatial.algo.Distance;
 import org.neo4j.spatial.algo.DistanceCalculator;
+import org.neo4j.spatial.algo.Precision;
 import org.neo4j.spatial.core.CRS;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
 
 import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -156,4 +159,143 @@ public class WGS84DistanceTest {
         assertThat(result.get("end"), equalTo(Point.point(CRS.WGS84, 0, 0)));
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void shouldCalculateDistanceBetweenCoordinateSequences() {
+        Polyline a = Polyline.polyline(Point.point(CRS.WGS84, 0, 0), Point.point(CRS.WGS84, 1, 1), Point.point(CRS.WGS84, 2, 0));
+        Polyline b = Polyline.packed(CRS.WGS84, new double[]{0, 3, 1, 2, 2, 3});
+
+        assertThat(calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence()), closeTo(calculator.distance(a, b), 0.001));
+        assertThat(calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence()), closeTo(oneDegreeDistance, 1000));
+        assertThat(calculator.distance(a.getCoordinateSequence(), 1, 2), closeTo(calculator.distance(a, Point.point(CRS.WGS84, 1, 2)), 0.001));
+    }
+
+    @Test
+    public void shouldFindSameDistanceAsBruteForceForLargePolylines() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            Polyline a = randomWalk(random, 10, 50, 500);
+            Polyline b = randomWalk(random, 11, 50 + random.nextDouble(), 500);
+
+            assertThat(calculator.distance(a, b), closeTo(calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence()), 0.001));
+        }
+    }
+
+    @Test
+    public void fastDistanceShouldMatchExactDistance() {
+        Distance fast = DistanceCalculator.getCalculator(CRS.WGS84, Precision.FAST);
+        Random random = new Random(42);
+        for (int i = 0; i < 10; i++) {
+            Polyline a = randomWalk(random, 10, 50, 500);
+            Polyline b = randomWalk(random, 11, 50 + random.nextDouble(), 500);
+            Point point = Point.point(CRS.WGS84, 10 + random.nextDouble(), 50 + random.nextDouble());
+
+            assertThat(fast.distance(a, b), closeTo(calculator.distance(a, b), 0.01));
+            assertThat(fast.distance(a, point), closeTo(calculator.distance(a, point), 0.01));
+        }
+    }
+
+    @Test
+    public void distanceAndEndpointLargePolygons() {
+        Polygon a = Polygon.packed(CRS.WGS84, ring(10, 50, 1, 2000));
+        Polygon b = Polygon.packed(CRS.WGS84, ring(13, 50.5, 1, 2000));
+
+        double bruteForce = calculator.distance(a.getShell().getCoordinateSequence(), b.getShell().getCoordinateSequence());
+        Distance.DistanceResult result = calculator.distanceAndEndpoints(a, b);
+
+        assertThat((Double) result.asMap().get("distance"), closeTo(bruteForce, 0.001));
+        assertThat(calculator.distance(result.start, result.end), closeTo(bruteForce, 1));
+    }
+
+    @Test
+    public void shouldNotTreatCrossingLonLatLinesAsIntersectingArcs() {
+        //The arc between the two points at 60 degrees north bulges to about 60.38 degrees at the meridian, so it passes
+        //above the meridian segment although their straight lon/lat lines cross
+        LineSegment arc = LineSegment.lineSegment(Point.point(CRS.WGS84, -10, 60), Point.point(CRS.WGS84, 10, 60));
+        LineSegment meridian = LineSegment.lineSegment(Point.point(CRS.WGS84, 0, 59.5), Point.point(CRS.WGS84, 0, 60.3));
+        double expected = calculator.distance(arc, Point.point(CRS.WGS84, 0, 60.3));
+
+        assertThat(expected, greaterThan(5000.0));
+        assertThat(calculator.distance(arc, meridian), closeTo(expected, 0.001));
+
+        //Enough segments for the segment tree, which has to agree with comparing all pairs
+        double[] a = new double[2 * 42];
+        double[] b = new double[2 * 42];
+        a[0] = -10;
+        a[1] = 60;
+        a[2] = 10;
+        a[3] = 60;
+        b[0] = 0;
+        b[1] = 60.3;
+        b[2] = 0;
+        b[3] = 59.5;
+        for (int i = 2; i < 42; i++) {
+            a[2 * i] = 10 + 0.01 * i;
+            a[2 * i + 1] = 60 + 0.5 * i;
+            b[2 * i] = 0.01 * i;
+            b[2 * i + 1] = 59.5 - 0.5 * i;
+        }
+        Polyline lineA = Polyline.packed(CRS.WGS84, a);
+        Polyline lineB = Polyline.packed(CRS.WGS84, b);
+
+        assertThat(calculator.distance(lineA, lineB), closeTo(calculator.distance(lineA.getCoordinateSequence(), lineB.getCoordinateSequence()), 0.001));
+        assertThat(calculator.distance(lineA, lineB), closeTo(expected, 0.001));
+    }
+
+    @Test
+    public void convexDistanceShouldMatchDistanceBetweenConvexPolygons() {
+        Random random = new Random(17);
+        for (int i = 0; i < 20; i++) {
+            Polygon.SimplePolygon a = randomConvexPolygon(random, 10, 50);
+            Polygon.SimplePolygon b = randomConvexPolygon(random, 10 + random.nextDouble() * 4 - 2, 50 + random.nextDouble() * 4 - 2);
+
+            double boundary = calculator.distance(a.getCoordinateSequence(), b.getCoordinateSequence());
+            Distance.DistanceResult result = calculator.convexDistanceAndEndpoints(a, b);
+
+            if (result.start != null) {
+                assertThat(calculator.convexDistance(a, b), closeTo(boundary, 0.001));
+                assertThat(calculator.distance(result.start, result.end), closeTo(boundary, 1));
+            } else {
+                assertThat(calculator.convexDistance(a, b), equalTo(0.0));
+            }
+        }
+    }
+
+    @Test
+    public void convexDistanceShouldBeZeroForContainedPolygons() {
+        Polygon.SimplePolygon outer = Polygon.packed(CRS.WGS84, ring(10, 50, 2, 100));
+        Polygon.SimplePolygon inner = Polygon.packed(CRS.WGS84, ring(10.5, 50, 0.5, 100));
+
+        assertThat(calculator.convexDistance(outer, inner), equalTo(0.0));
+        assertThat(calculator.convexDistance(inner, outer), equalTo(0.0));
+    }
+
+    private static Polygon.SimplePolygon randomConvexPolygon(Random random, double x, double y) {
+        Point[] points = new Point[100];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = Point.point(CRS.WGS84, x + random.nextGaussian() * 0.3, y + random.nextGaussian() * 0.3);
+        }
+        return WGS84ConvexHull.convexHull(points);
+    }
+
+    private static double[] ring(double x, double y, double radius, int size) {
+        double[] coordinates = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            double angle = 2 * Math.PI * i / size;
+            coordinates[i * 2] = x + radius * Math.cos(angle) * (1 + 0.1 * Math.sin(7 * angle));
+            coordinates[i * 2 + 1] = y + radius * Math.sin(angle);
+        }
+        return coordinates;
+    }
+
+    private static Polyline randomWalk(Random random, double x, double y, int size) {
+        double[] coordinates = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            x += (random.nextDouble() - 0.5) * 0.01;
+            y += (random.nextDouble() - 0.5) * 0.01;
+            coordinates[i * 2] = x;
+            coordinates[i * 2 + 1] = y;
+        }
+        return Polyline.packed(CRS.WGS84, coordinates);
+    }
+}
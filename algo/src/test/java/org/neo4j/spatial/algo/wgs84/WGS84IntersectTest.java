@@ -10,6 +10,7 @@ import org.neo4j.spatial.core.*;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Random;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -21,7 +22,7 @@ public class WGS84IntersectTest {
 
     @Parameterized.Parameters
     public static Collection data() {
-        IntersectCalculator.AlgorithmVariant[] variants = new IntersectCalculator.AlgorithmVariant[]{IntersectCalculator.AlgorithmVariant.Naive, IntersectCalculator.AlgorithmVariant.MCSweepLine};
+        IntersectCalculator.AlgorithmVariant[] variants = new IntersectCalculator.AlgorithmVariant[]{IntersectCalculator.AlgorithmVariant.Naive, IntersectCalculator.AlgorithmVariant.MCSweepLine, IntersectCalculator.AlgorithmVariant.Parallel};
         return Arrays.asList(variants);
     }
 
@@ -426,6 +427,20 @@ public class WGS84IntersectTest {
         matchPoints(actual, new Point[]{Point.point(CRS.WGS84, 165, 0), Point.point(CRS.WGS84, -175, 0)});
     }
 
+    @Test
+    public void shouldFindIntersectionsBetweenCoordinateSequences() {
+        Polygon.SimplePolygon a = Polygon.packed(CRS.WGS84, new double[]{-10, -10, 10, -10, 20, 10, -0, 10});
+        Polyline b = Polyline.polyline(
+                Point.point(CRS.WGS84, -15, 0),
+                Point.point(CRS.WGS84, 25, 0),
+                Point.point(CRS.WGS84, 26, 15),
+                Point.point(CRS.WGS84, -14, 15)
+        );
+
+        matchPoints(calculator.intersect(a.getCoordinateSequence(), b.getCoordinateSequence()), calculator.intersect(a, b));
+        assertThat(calculator.doesIntersect(a.getCoordinateSequence(), b.getCoordinateSequence()), is(true));
+    }
+
     private void matchPoints(Point[] actual, Point[] expected) {
         assertThat(actual.length, equalTo(expected.length));
 
@@ -441,4 +456,50 @@ public class WGS84IntersectTest {
             assertThat("Point " + i + " is not present", flag, is(true));
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldFindAllIntersectionsOfLongZigzag() {
+        int n = 200;
+        Polygon.SimplePolygon band = Polygon.simple(
+                Point.point(CRS.WGS84, 0, 0),
+                Point.point(CRS.WGS84, (n + 1) * 0.01, 0),
+                Point.point(CRS.WGS84, (n + 1) * 0.01, 0.1),
+                Point.point(CRS.WGS84, 0, 0.1));
+        Point[] zigzag = new Point[n + 1];
+        for (int i = 0; i <= n; i++) {
+            zigzag[i] = Point.point(CRS.WGS84, (i + 0.25) * 0.01, i % 2 == 0 ? -0.05 : 0.15);
+        }
+
+        assertThat(calculator.intersect(band, Polyline.polyline(zigzag)).length, equalTo(2 * n));
+    }
+
+    @Test(timeout = 60_000)
+    public void shouldTerminateOnRandomWalksThroughStar() {
+        Random random = new Random(2000);
+        int n = 2000;
+        Point[] star = new Point[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double r = 1.5 * (0.5 + random.nextDouble() / 2);
+            star[i] = Point.point(CRS.WGS84, r * Math.cos(angle), r * Math.sin(angle));
+        }
+        Polygon.SimplePolygon polygon = Polygon.simple(star);
+
+        random = new Random(29);
+        MultiPolyline walks = new MultiPolyline();
+        for (int w = 0; w < 5; w++) {
+            Point[] walk = new Point[500];
+            double x = 0;
+            double y = 0;
+            for (int i = 0; i < walk.length; i++) {
+                walk[i] = Point.point(CRS.WGS84, x, y);
+                x += (random.nextDouble() * 2 - 1) * 0.3;
+                y += (random.nextDouble() * 2 - 1) * 0.3;
+            }
+            walks.insertPolyline(Polyline.polyline(walk));
+        }
+
+        Point[] expected = IntersectCalculator.getCalculator(CRS.WGS84, IntersectCalculator.AlgorithmVariant.Naive).intersect(polygon, walks);
+        assertThat(calculator.intersect(polygon, walks).length, equalTo(expected.length));
+    }
+}
@@ -0,0 +1,64 @@
+package org.neo4j.spatial.algo.wgs84;
+
+import org.junit.Test;
+import org.neo4j.spatial.algo.AreaCalculator;
+import org.neo4j.spatial.algo.Distance;
+import org.neo4j.spatial.algo.DistanceCalculator;
+import org.neo4j.spatial.algo.Simplify;
+import org.neo4j.spatial.algo.SimplifyCalculator;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Point;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class WGS84SimplifyTest {
+    private final Simplify calculator = SimplifyCalculator.getCalculator(CRS.WGS84);
+
+    @Test
+    public void shouldCalculateTriangleArea() {
+        Point a = Point.point(CRS.WGS84, 10, 50);
+        Point b = Point.point(CRS.WGS84, 11, 50.2);
+        Point c = Point.point(CRS.WGS84, 10.3, 51);
+
+        double expected = AreaCalculator.getCalculator(CRS.WGS84).area(Polygon.simple(a, b, c));
+        assertThat(new WGS84Simplify().area(a, b, c), closeTo(expected, expected * 1e-6));
+    }
+
+    @Test
+    public void shouldKeepEveryVertexWithinToleranceWithDouglasPeucker() {
+        Polygon.SimplePolygon ring = Polygon.packed(CRS.WGS84, ring(10, 50, 1, 2000));
+        Polygon.SimplePolygon simplified = calculator.simplify(ring, 1000, Simplify.Method.DouglasPeucker);
+
+        assertThat(simplified.getPoints().length, lessThan(200));
+        Distance distance = DistanceCalculator.getCalculator(CRS.WGS84);
+        Polyline boundary = Polyline.polyline(simplified.getPoints());
+        for (Point point : ring.getPoints()) {
+            assertThat(distance.distance(boundary, point), lessThanOrEqualTo(1000.001));
+        }
+    }
+
+    @Test
+    public void shouldKeepAreaWithVisvalingam() {
+        Polygon.SimplePolygon ring = Polygon.packed(CRS.WGS84, ring(10, 50, 1, 2000));
+        Polygon.SimplePolygon simplified = calculator.simplify(ring, 1000, Simplify.Method.Visvalingam);
+
+        assertThat(simplified.getPoints().length, lessThan(400));
+        double area = AreaCalculator.getCalculator(CRS.WGS84).area(ring);
+        assertThat(AreaCalculator.getCalculator(CRS.WGS84).area(simplified), closeTo(area, area * 0.01));
+    }
+
+    private static double[] ring(double x, double y, double radius, int size) {
+        double[] coordinates = new double[size * 2];
+        for (int i = 0; i < size; i++) {
+            double angle = 2 * Math.PI * i / size;
+            coordinates[i * 2] = x + radius * Math.cos(angle) * (1 + 0.1 * Math.sin(7 * angle));
+            coordinates[i * 2 + 1] = y + radius * Math.sin(angle);
+        }
+        return coordinates;
+    }
+}
@@ -192,4 +192,52 @@ public class IntersectMacroBenchmarks {
             tx.commit();
         }
     }
+
+    @Benchmark
+    public  void testCartesianIntersectNaiveRelations(Blackhole bh) {
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < nodes.length; i++) {
+                MultiPolygon a = UserDefinedFunctions.getArrayPolygon(nodes[i]);
+                MultiPolygon b = UserDefinedFunctions.getArrayPolygon(nodes[(i + 1) % nodes.length]);
+                bh.consume(cartesianNaiveCalculator.intersect(a, b));
+            }
+            tx.commit();
+        }
+    }
+
+    @Benchmark
+    public  void testCartesianIntersectSweepRelations(Blackhole bh) {
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < nodes.length; i++) {
+                MultiPolygon a = UserDefinedFunctions.getArrayPolygon(nodes[i]);
+                MultiPolygon b = UserDefinedFunctions.getArrayPolygon(nodes[(i + 1) % nodes.length]);
+                bh.consume(cartesianSweepCalculator.intersect(a, b));
+            }
+            tx.commit();
+        }
+    }
+
+    @Benchmark
+    public  void testGeographicIntersectNaiveRelations(Blackhole bh) {
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < nodes.length; i++) {
+                MultiPolygon a = UserDefinedFunctions.getArrayPolygon(nodes[i]);
+                MultiPolygon b = UserDefinedFunctions.getArrayPolygon(nodes[(i + 1) % nodes.length]);
+                bh.consume(geographicNaiveCalculator.intersect(a, b));
+            }
+            tx.commit();
+        }
+    }
+
+    @Benchmark
+    public  void testGeographicIntersectSweepRelations(Blackhole bh) {
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < nodes.length; i++) {
+                MultiPolygon a = UserDefinedFunctions.getArrayPolygon(nodes[i]);
+                MultiPolygon b = UserDefinedFunctions.getArrayPolygon(nodes[(i + 1) % nodes.length]);
+                bh.consume(geographicSweepCalculator.intersect(a, b));
+            }
+            tx.commit();
+        }
+    }
 }
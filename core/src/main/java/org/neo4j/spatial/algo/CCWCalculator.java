@@ -7,20 +7,14 @@ import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
 public class CCWCalculator {
-    private static CartesianCCW cartesian;
-    private static WGS84CCW wgs84;
+    private static final CartesianCCW cartesian = new CartesianCCW();
+    private static final WGS84CCW wgs84 = new WGS84CCW();
 
     private static CCW getCartesian() {
-        if (cartesian == null) {
-            cartesian = new CartesianCCW();
-        }
         return cartesian;
     }
 
     private static CCW getWGS84() {
-        if (wgs84 == null) {
-            wgs84 = new WGS84CCW();
-        }
         return wgs84;
     }
 
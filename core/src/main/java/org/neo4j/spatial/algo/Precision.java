@@ -0,0 +1,77 @@
+package org.neo4j.spatial.algo;
+
+/**
+ * How the WGS84 algorithms evaluate the inverse trigonometric functions of their hot loops, like the angle between
+ * two n-vectors in distance calculations or between two great circles in area calculations.
+ * <p>
+ * Predicates like point-in-arc and the ordering of the convex hull do not use this setting, they are computed
+ * without trigonometric functions in both modes.
+ */
+public enum Precision {
+    /**
+     * Uses {@link Math#atan2(double, double)}
+     */
+    EXACT {
+        @Override
+        public double atan2(double y, double x) {
+            return Math.atan2(y, x);
+        }
+    },
+    /**
+     * Uses a polynomial approximation with an absolute error of at most {@link #FAST_MAX_ERROR} radians, about a
+     * millimeter on the surface of the earth
+     */
+    FAST {
+        @Override
+        public double atan2(double y, double x) {
+            return fastAtan2(y, x);
+        }
+    };
+
+    public static final double FAST_MAX_ERROR = 1e-10;
+
+    private static final double TAN_PI_8 = 0.41421356237309503;
+    private static final double PI_4 = Math.PI / 4;
+    private static final double PI_2 = Math.PI / 2;
+
+    /**
+     * @return The angle of the vector (x, y) in radians, between -pi and pi like {@link Math#atan2(double, double)}
+     */
+    public abstract double atan2(double y, double x);
+
+    private static double fastAtan2(double y, double x) {
+        double ax = Math.abs(x);
+        double ay = Math.abs(y);
+        if (ax == 0 && ay == 0) {
+            return Math.atan2(y, x);
+        }
+        if (Double.isNaN(ax) || Double.isNaN(ay) || Double.isInfinite(ax) || Double.isInfinite(ay)) {
+            return Math.atan2(y, x);
+        }
+        //Reduce to the first octant, then to |t| <= tan(pi/8) where the series converges quickly
+        double t = Math.min(ax, ay) / Math.max(ax, ay);
+        double angle;
+        if (t > TAN_PI_8) {
+            angle = PI_4 + atanSeries((t - 1) / (t + 1));
+        } else {
+            angle = atanSeries(t);
+        }
+        if (ay > ax) {
+            angle = PI_2 - angle;
+        }
+        if (x < 0 || (x == 0 && 1 / x < 0)) {
+            angle = Math.PI - angle;
+        }
+        return y < 0 || (y == 0 && 1 / y < 0) ? -angle : angle;
+    }
+
+    /**
+     * Taylor series of atan up to the 21st power, the remainder is below |t|^23 / 23 which is less than 7e-11 for
+     * |t| <= tan(pi/8)
+     */
+    private static double atanSeries(double t) {
+        double t2 = t * t;
+        return t * (1 + t2 * (-1.0 / 3 + t2 * (1.0 / 5 + t2 * (-1.0 / 7 + t2 * (1.0 / 9 + t2 * (-1.0 / 11
+                + t2 * (1.0 / 13 + t2 * (-1.0 / 15 + t2 * (1.0 / 17 + t2 * (-1.0 / 19 + t2 * (1.0 / 21)))))))))));
+    }
+}
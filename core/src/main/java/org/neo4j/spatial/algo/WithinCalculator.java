@@ -3,11 +3,19 @@ package org.neo4j.spatial.algo;
 import org.neo4j.spatial.algo.cartesian.CartesianWithin;
 import org.neo4j.spatial.algo.wgs84.WGS84Within;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
+/**
+ * Dispatches to the within algorithm of the coordinate reference system, after rejecting points outside the envelope
+ * of the polygon.
+ */
 public class WithinCalculator {
     public static boolean within(Polygon polygon, Point point) {
+        if (!polygon.getEnvelope().contains(point)) {
+            return false;
+        }
         if (polygon.getCRS() == CRS.Cartesian) {
             return CartesianWithin.within(polygon, point);
         } else {
@@ -16,10 +24,30 @@ public class WithinCalculator {
     }
 
     public static boolean within(Polygon.SimplePolygon polygon, Point point) {
+        if (!polygon.getEnvelope().contains(point)) {
+            return false;
+        }
         if (polygon.getCRS() == CRS.Cartesian) {
             return CartesianWithin.within(polygon, point);
         } else {
             return WGS84Within.within(polygon, point);
         }
     }
+
+    /**
+     * @param ring the vertices of a closed ring
+     * @param x
+     * @param y
+     * @return True iff the coordinate is inside the ring
+     */
+    public static boolean within(CoordinateSequence ring, double x, double y) {
+        if (!ring.getEnvelope().contains(x, y)) {
+            return false;
+        }
+        if (ring.getCRS() == CRS.Cartesian) {
+            return CartesianWithin.within(ring, x, y);
+        } else {
+            return WGS84Within.within(ring, x, y);
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package org.neo4j.spatial.algo.cartesian;
 
 import org.neo4j.spatial.algo.CCW;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
@@ -46,4 +47,17 @@ public class CartesianCCW implements CCW {
         }
         return sum;
     }
+
+    /**
+     * @param ring the vertices of the closed ring
+     * @return Twice the area of the ring using the shoelace algorithm
+     */
+    public static double shoelace(CoordinateSequence ring) {
+        double sum = 0;
+
+        for (int i = 0; i < ring.size() - 1; i++) {
+            sum += (ring.getX(i) * ring.getY(i + 1)) - (ring.getX(i + 1) * ring.getY(i));
+        }
+        return sum;
+    }
 }
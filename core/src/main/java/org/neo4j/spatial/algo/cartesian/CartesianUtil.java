@@ -14,4 +14,18 @@ public class CartesianUtil {
         }
         return Math.sqrt(dsqr);
     }
+
+    /**
+     * @return The minimum distance between the line segment (u, v) and the point p
+     */
+    public static double distanceToSegment(double ux, double uy, double vx, double vy, double px, double py) {
+        double ax = vx - ux;
+        double ay = vy - uy;
+        double lengthSquared = ax * ax + ay * ay;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (ax * (px - ux) + ay * (py - uy)) / lengthSquared));
+
+        double dx = ux + ax * t - px;
+        double dy = uy + ay * t - py;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
 }
@@ -1,5 +1,6 @@
 package org.neo4j.spatial.algo.cartesian;
 
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
@@ -29,11 +30,27 @@ public class CartesianWithin {
      * @return True iff the points is inside the polygon (not on the edge)
      */
     public static boolean within(Polygon.SimplePolygon polygon, Point point) {
-        Point[] points = polygon.getPoints();
+        return within(polygon.getCoordinateSequence(), point.getCoordinate()[0], point.getCoordinate()[1]);
+    }
+
+    /**
+     * Checks if a coordinate is inside the closed ring described by the sequence, using the same logic as
+     * {@link #within(Polygon.SimplePolygon, Point)} without allocating any objects.
+     *
+     * @param ring the vertices of the closed ring
+     * @param x
+     * @param y
+     * @return True iff the coordinate is inside the ring (not on the edge)
+     */
+    public static boolean within(CoordinateSequence ring, double x, double y) {
+        int n = ring.size();
         boolean result = false;
-        for (int i = 0, j = points.length - 1; i < points.length; j = i++) {
-            if ((points[i].getCoordinate()[1] > point.getCoordinate()[1]) != (points[j].getCoordinate()[1] > point.getCoordinate()[1]) &&
-                    (point.getCoordinate()[0] < (points[j].getCoordinate()[0] - points[i].getCoordinate()[0]) * (point.getCoordinate()[1] - points[i].getCoordinate()[1]) / (points[j].getCoordinate()[1] - points[i].getCoordinate()[1]) + points[i].getCoordinate()[0])) {
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double xi = ring.getX(i);
+            double yi = ring.getY(i);
+            double xj = ring.getX(j);
+            double yj = ring.getY(j);
+            if ((yi > y) != (yj > y) && (x < (xj - xi) * (y - yi) / (yj - yi) + xi)) {
                 result = !result;
             }
         }
@@ -1,7 +1,6 @@
 package org.neo4j.spatial.algo.wgs84;
 
-import org.neo4j.spatial.core.CRS;
-import org.neo4j.spatial.core.LineSegment;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
@@ -15,18 +14,32 @@ public class WGS84Within {
     }
 
     public static boolean within(Polygon.SimplePolygon polygon, Point point) {
-        Point[] points = polygon.getPoints();
+        return within(polygon.getCoordinateSequence(), point.getCoordinate()[0], point.getCoordinate()[1]);
+    }
+
+    /**
+     * Checks if a coordinate is inside the closed ring by casting a ray along the meridian to the north pole
+     *
+     * @param ring the vertices of the closed ring
+     * @param x longitude
+     * @param y latitude
+     * @return True iff the coordinate is inside the ring
+     */
+    public static boolean within(CoordinateSequence ring, double x, double y) {
+        double[] nVectors = ring.toNVectors().getNVectors();
+        int n = ring.size();
 
-        double courseDelta = WGSUtil.courseDelta(polygon.getPoints());
+        double courseDelta = WGSUtil.courseDelta(nVectors, n);
 
         if (courseDelta > 270 || courseDelta < -270) {
             //The polygon does not contain a pole
-            boolean result = false;
-            for (int i = 0; i < points.length - 1; i++) {
-                Point a = points[i];
-                Point b = points[i+1];
+            double[] ray = new double[6];
+            WGSUtil.toNVector(x, y, ray, 0);
+            WGSUtil.toNVector(x, 90, ray, 3);
 
-                if (WGSUtil.intersect(LineSegment.lineSegment(a, b), LineSegment.lineSegment(point, Point.point(CRS.WGS84, point.getCoordinate()[0], 90))) != null) {
+            boolean result = false;
+            for (int i = 0; i < n - 1; i++) {
+                if (WGSUtil.intersect(nVectors, i, i + 1, ray, 0, 1, null)) {
                     result = !result;
                 }
             }
@@ -1,11 +1,15 @@
 package org.neo4j.spatial.algo.wgs84;
 
 import org.neo4j.spatial.algo.AlgoUtil;
+import org.neo4j.spatial.algo.Precision;
+import org.neo4j.spatial.core.CoordinateSequence;
 import org.neo4j.spatial.core.LineSegment;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 import org.neo4j.spatial.core.Vector;
 
+import static java.lang.String.format;
+
 public class WGSUtil {
     public final static Vector NORTH_POLE = new Vector(0, 0, 1);
     public final static Vector SOUTH_POLE = new Vector(0, 0, -1);
@@ -30,19 +34,49 @@ public class WGSUtil {
         return Math.atan2(sinTheta, cosTheta);
     }
 
+    /**
+     * Allocation-free variant of {@link #angleTo(Vector, Vector, Vector)}
+     */
+    public static double angleTo(double c1x, double c1y, double c1z, double px, double py, double pz, double c2x, double c2y, double c2z) {
+        return angleTo(c1x, c1y, c1z, px, py, pz, c2x, c2y, c2z, Precision.EXACT);
+    }
+
+    /**
+     * Like {@link #angleTo(double, double, double, double, double, double, double, double, double)}, evaluating the
+     * angle with the given precision
+     */
+    public static double angleTo(double c1x, double c1y, double c1z, double px, double py, double pz, double c2x, double c2y, double c2z, Precision precision) {
+        double crossX = c1y * c2z - c1z * c2y;
+        double crossY = c1z * c2x - c1x * c2z;
+        double crossZ = c1x * c2y - c1y * c2x;
+        double sign = Math.signum(crossX * px + crossY * py + crossZ * pz);
+        double sinTheta = magnitude(crossX, crossY, crossZ) * sign;
+        double cosTheta = c1x * c2x + c1y * c2y + c1z * c2z;
+        return precision.atan2(sinTheta, cosTheta);
+    }
+
     public static double finalBearing(Point start, Point end) {
         return (WGSUtil.initialBearing(end, start) + 180) % 360;
     }
 
     public static double courseDelta(Point[] points) {
+        return courseDelta(toNVectors(CoordinateSequence.of(points)), points.length);
+    }
+
+    /**
+     * @param nVectors packed n-vectors of the vertices of a closed ring, see {@link #toNVectors(CoordinateSequence)}
+     * @param size number of vertices of the ring
+     * @return The sum of all changes of course when traversing the ring
+     */
+    public static double courseDelta(double[] nVectors, int size) {
         double sum = 0;
         double previous = 0;
         boolean first = true;
-        for (int i = 0; i < points.length - 1; i++) {
+        for (int i = 0; i < size - 1; i++) {
             int j = i + 1;
 
-            double initialBearing = WGSUtil.initialBearing(points[i], points[j]);
-            double finalBearing = WGSUtil.finalBearing(points[i], points[j]);
+            double initialBearing = initialBearing(nVectors, i, j);
+            double finalBearing = (initialBearing(nVectors, j, i) + 180) % 360;
 
             if (first) {
                 first = false;
@@ -55,10 +89,40 @@ public class WGSUtil {
             previous = finalBearing;
 
         }
-        double initialBearing = WGSUtil.initialBearing(points[0], points[1]);
+        double initialBearing = initialBearing(nVectors, 0, 1);
         return sum + angleDelta(initialBearing, previous);
     }
 
+    /**
+     * Allocation-free variant of {@link #initialBearing(Point, Point)} on packed n-vectors
+     *
+     * @return The initial bearing in degrees when travelling from vertex start to vertex end
+     */
+    public static double initialBearing(double[] nVectors, int start, int end) {
+        int a = start * 3;
+        int b = end * 3;
+        double ax = nVectors[a], ay = nVectors[a + 1], az = nVectors[a + 2];
+        double bx = nVectors[b], by = nVectors[b + 1], bz = nVectors[b + 2];
+
+        //c1 = a x b, c2 = a x NORTH_POLE
+        double c1x = ay * bz - az * by;
+        double c1y = az * bx - ax * bz;
+        double c1z = ax * by - ay * bx;
+        double c2x = ay;
+        double c2y = -ax;
+        double c2z = 0;
+
+        double crossX = c1y * c2z - c1z * c2y;
+        double crossY = c1z * c2x - c1x * c2z;
+        double crossZ = c1x * c2y - c1y * c2x;
+
+        double sign = Math.signum(crossX * ax + crossY * ay + crossZ * az);
+        double sinTheta = Math.sqrt(crossX * crossX + crossY * crossY + crossZ * crossZ) * sign;
+        double cosTheta = c1x * c2x + c1y * c2y + c1z * c2z;
+
+        return (Math.atan2(sinTheta, cosTheta) * 180) / Math.PI;
+    }
+
     private static double angleDelta(double a, double b) {
         if (b < a) {
             b += 360;
@@ -95,29 +159,117 @@ public class WGSUtil {
     }
 
     public static Vector intersect(Vector u1, Vector u2, Vector v1, Vector v2) {
+        double[] u = new double[6];
+        double[] v = new double[6];
+        System.arraycopy(u1.getCoordinates(), 0, u, 0, 3);
+        System.arraycopy(u2.getCoordinates(), 0, u, 3, 3);
+        System.arraycopy(v1.getCoordinates(), 0, v, 0, 3);
+        System.arraycopy(v2.getCoordinates(), 0, v, 3, 3);
+
+        double[] intersection = new double[3];
+        return intersect(u, 0, 1, v, 0, 1, intersection) ? new Vector(intersection) : null;
+    }
+
+    /**
+     * Allocation-free variant of {@link #intersect(Vector, Vector, Vector, Vector)} on packed n-vectors
+     *
+     * @param u packed n-vectors containing the first arc
+     * @param u1 index of the start of the first arc
+     * @param u2 index of the end of the first arc
+     * @param v packed n-vectors containing the second arc
+     * @param v1 index of the start of the second arc
+     * @param v2 index of the end of the second arc
+     * @param intersection receives the n-vector of the intersection if it exists, may be null
+     * @return True iff the two arcs intersect
+     */
+    public static boolean intersect(double[] u, int u1, int u2, double[] v, int v1, int v2, double[] intersection) {
+        int a = u1 * 3, b = u2 * 3, c = v1 * 3, d = v2 * 3;
+
         //Great circles
-        Vector gc1 = u1.cross(u2).normalize();
-        Vector gc2 = v1.cross(v2).normalize();
+        double gc1x = u[a + 1] * u[b + 2] - u[a + 2] * u[b + 1];
+        double gc1y = u[a + 2] * u[b] - u[a] * u[b + 2];
+        double gc1z = u[a] * u[b + 1] - u[a + 1] * u[b];
+        double m1 = magnitude(gc1x, gc1y, gc1z);
+        if (m1 != 0 && m1 != 1) {
+            gc1x /= m1;
+            gc1y /= m1;
+            gc1z /= m1;
+        }
+        double gc2x = v[c + 1] * v[d + 2] - v[c + 2] * v[d + 1];
+        double gc2y = v[c + 2] * v[d] - v[c] * v[d + 2];
+        double gc2z = v[c] * v[d + 1] - v[c + 1] * v[d];
+        double m2 = magnitude(gc2x, gc2y, gc2z);
+        if (m2 != 0 && m2 != 1) {
+            gc2x /= m2;
+            gc2y /= m2;
+            gc2z /= m2;
+        }
 
-        //Intersection
-        Vector i1 = gc1.cross(gc2).normalize();
-        Vector i2 = gc2.cross(gc1).normalize();
+        //Intersection, the other candidate is the antipode
+        double ix = gc1y * gc2z - gc1z * gc2y;
+        double iy = gc1z * gc2x - gc1x * gc2z;
+        double iz = gc1x * gc2y - gc1y * gc2x;
+        double mi = magnitude(ix, iy, iz);
+        if (mi != 0 && mi != 1) {
+            ix /= mi;
+            iy /= mi;
+            iz /= mi;
+        }
 
-        if (inArc(i1, u1, u2) && inArc(i1, v1, v2)) {
-            return i1;
-        } else if (inArc(i2, u1, u2) && inArc(i2, v1, v2)) {
-            return i2;
+        for (int sign = 1; sign >= -1; sign -= 2) {
+            double x = sign * ix, y = sign * iy, z = sign * iz;
+            if (inArc(x, y, z, u, a, b) && inArc(x, y, z, v, c, d)) {
+                if (intersection != null) {
+                    intersection[0] = x;
+                    intersection[1] = y;
+                    intersection[2] = z;
+                }
+                return true;
+            }
         }
 
-        return null;
+        return false;
     }
 
-    private static boolean inArc(Vector i, Vector s, Vector e) {
-        double thetaSI = Math.acos(s.dot(i) / (s.magnitude() * i.magnitude()));
-        double thetaIE = Math.acos(i.dot(e) / (i.magnitude() * e.magnitude()));
-        double thetaSE = Math.acos(s.dot(e) / (s.magnitude() * e.magnitude()));
+    /**
+     * Tests whether a point of the great circle through s and e lies on the arc between them. The point is on the arc
+     * iff it is on the side of e seen from s and on the side of s seen from e, which is tested through the signs of
+     * (s x i) . (s x e) and (i x e) . (s x e), each the sine of an angle scaled by |s x e|. This is equivalent to
+     * comparing the angles s-i plus i-e with s-e, without the three inverse cosines.
+     */
+    private static boolean inArc(double ix, double iy, double iz, double[] nVectors, int s, int e) {
+        double sx = nVectors[s], sy = nVectors[s + 1], sz = nVectors[s + 2];
+        double ex = nVectors[e], ey = nVectors[e + 1], ez = nVectors[e + 2];
+        double iMagnitude = magnitude(ix, iy, iz);
+        if (iMagnitude == 0) {
+            return false;
+        }
+
+        double ss = sx * sx + sy * sy + sz * sz;
+        double ee = ex * ex + ey * ey + ez * ez;
+        double se = sx * ex + sy * ey + sz * ez;
+        double si = sx * ix + sy * iy + sz * iz;
+        double ie = ix * ex + iy * ey + iz * ez;
+
+        //|s x e| by Lagrange's identity, then the tolerance of the angle comparison as a scaled sine
+        double arc = Math.sqrt(Math.max(0, ss * ee - se * se));
+        if (arc <= AlgoUtil.EPSILON * Math.sqrt(ss * ee)) {
+            //Degenerate arc, only its end point is on it
+            double dx = sx / Math.sqrt(ss) - ix / iMagnitude;
+            double dy = sy / Math.sqrt(ss) - iy / iMagnitude;
+            double dz = sz / Math.sqrt(ss) - iz / iMagnitude;
+            return magnitude(dx, dy, dz) < AlgoUtil.EPSILON;
+        }
+        double tolerance = AlgoUtil.EPSILON / 2 * arc * iMagnitude;
 
-        return AlgoUtil.equal(thetaSI + thetaIE, thetaSE);
+        //(s x i) . (s x e) and (i x e) . (s x e) by the Binet-Cauchy identity
+        double fromStart = ss * ie - se * si;
+        double toEnd = si * ee - ie * se;
+        return fromStart >= -tolerance * Math.sqrt(ss) && toEnd >= -tolerance * Math.sqrt(ee);
+    }
+
+    private static double magnitude(double x, double y, double z) {
+        return Math.sqrt(x * x + y * y + z * z);
     }
 
     /**
@@ -129,4 +281,117 @@ public class WGSUtil {
         //Distance (in meters)
         return WGSUtil.RADIUS * Math.atan2(u.cross(v).magnitude(), u.dot(v));
     }
+
+    /**
+     * Allocation-free variant of {@link #distance(Vector, Vector)} on packed n-vectors
+     *
+     * @return The distance in meters between vertex i of u and vertex j of v
+     */
+    public static double distance(double[] u, int i, double[] v, int j) {
+        return distance(u, i, v, j, Precision.EXACT);
+    }
+
+    /**
+     * Like {@link #distance(double[], int, double[], int)}, evaluating the angle with the given precision
+     */
+    public static double distance(double[] u, int i, double[] v, int j, Precision precision) {
+        int a = i * 3;
+        int b = j * 3;
+        double cx = u[a + 1] * v[b + 2] - u[a + 2] * v[b + 1];
+        double cy = u[a + 2] * v[b] - u[a] * v[b + 2];
+        double cz = u[a] * v[b + 1] - u[a + 1] * v[b];
+        return WGSUtil.RADIUS * precision.atan2(magnitude(cx, cy, cz), u[a] * v[b] + u[a + 1] * v[b + 1] + u[a + 2] * v[b + 2]);
+    }
+
+    /**
+     * Converts the lon/lat vertices of the sequence into packed n-vectors (x0,y0,z0,x1,y1,z1,...)
+     *
+     * @param sequence vertices in degrees
+     * @return Array holding three coordinates per vertex
+     */
+    public static double[] toNVectors(CoordinateSequence sequence) {
+        int n = sequence.size();
+        double[] nVectors = new double[n * 3];
+        for (int i = 0; i < n; i++) {
+            toNVector(sequence.getX(i), sequence.getY(i), nVectors, i * 3);
+        }
+        return nVectors;
+    }
+
+    /**
+     * Converts packed lon/lat vertices into packed n-vectors in one pass over both arrays. Used for whole rings and
+     * lines stored as packed coordinates, avoiding the per vertex accessor calls of {@link #toNVectors(CoordinateSequence)}.
+     *
+     * @param coordinates interleaved vertices in degrees, longitude and latitude first
+     * @param dimension number of ordinates per vertex, ordinates after the latitude are ignored
+     * @return Array holding three coordinates per vertex
+     */
+    public static double[] toNVectors(double[] coordinates, int dimension) {
+        double[] nVectors = new double[coordinates.length / dimension * 3];
+        toNVectors(coordinates, dimension, nVectors);
+        return nVectors;
+    }
+
+    /**
+     * Like {@link #toNVectors(double[], int)}, writing into the given array which needs room for three coordinates per
+     * vertex
+     */
+    public static void toNVectors(double[] coordinates, int dimension, double[] nVectors) {
+        int n = coordinates.length / dimension;
+        if (nVectors.length < n * 3) {
+            throw new IllegalArgumentException(format("Array of length %d cannot hold the n-vectors of %d vertices", nVectors.length, n));
+        }
+        for (int c = 0, v = 0; v < n * 3; c += dimension, v += 3) {
+            double lambda = coordinates[c] * Math.PI / 180;
+            double phi = coordinates[c + 1] * Math.PI / 180;
+            double cosPhi = Math.cos(phi);
+            nVectors[v] = cosPhi * Math.cos(lambda);
+            nVectors[v + 1] = cosPhi * Math.sin(lambda);
+            nVectors[v + 2] = Math.sin(phi);
+        }
+    }
+
+    /**
+     * Writes the n-vector of the given longitude and latitude (in degrees) into the array at the given offset
+     */
+    public static void toNVector(double lon, double lat, double[] nVectors, int offset) {
+        double lambda = lon * Math.PI / 180;
+        double phi = lat * Math.PI / 180;
+        double cosPhi = Math.cos(phi);
+        nVectors[offset] = cosPhi * Math.cos(lambda);
+        nVectors[offset + 1] = cosPhi * Math.sin(lambda);
+        nVectors[offset + 2] = Math.sin(phi);
+    }
+
+    /**
+     * Projects packed n-vectors from the centre of the earth onto the plane touching the sphere at the pole. Great
+     * circle arcs become straight lines in this projection, so convexity and intersections are preserved.
+     *
+     * @param nVectors three coordinates per vertex
+     * @param pole unit vector of the point where the plane touches the sphere
+     * @return Interleaved x and y coordinates per vertex, or null if a vertex is not within the open hemisphere around the pole
+     */
+    public static double[] gnomonic(double[] nVectors, Vector pole) {
+        double px = pole.getCoordinate(0), py = pole.getCoordinate(1), pz = pole.getCoordinate(2);
+        //Axes of the plane, with y pointing north unless the pole is one of the poles of the earth
+        Vector xAxis = Math.abs(pz) == 1 ? new Vector(1, 0, 0) : pole.cross(NORTH_POLE).normalize();
+        Vector yAxis = pole.cross(xAxis).normalize();
+        double xx = xAxis.getCoordinate(0), xy = xAxis.getCoordinate(1), xz = xAxis.getCoordinate(2);
+        double yx = yAxis.getCoordinate(0), yy = yAxis.getCoordinate(1), yz = yAxis.getCoordinate(2);
+
+        int n = nVectors.length / 3;
+        double[] projected = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            double x = nVectors[3 * i];
+            double y = nVectors[3 * i + 1];
+            double z = nVectors[3 * i + 2];
+            double height = x * px + y * py + z * pz;
+            if (!(height > 0)) {
+                return null;
+            }
+            projected[2 * i] = (x * xx + y * xy + z * xz) / height;
+            projected[2 * i + 1] = (x * yx + y * yy + z * yz) / height;
+        }
+        return projected;
+    }
 }
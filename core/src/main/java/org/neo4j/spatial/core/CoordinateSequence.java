@@ -0,0 +1,112 @@
+package org.neo4j.spatial.core;
+
+/**
+ * Index based, read-only access to the vertices of a geometry, allowing algorithms to iterate over coordinates without
+ * creating Point, Vector or LineSegment objects per vertex. For polygons the sequence describes the closed ring, so the
+ * last vertex equals the first one.
+ */
+public interface CoordinateSequence extends HasCRS {
+    static CoordinateSequence of(Point... points) {
+        return new PointArraySequence(points);
+    }
+
+    /**
+     * @return The number of vertices in the sequence
+     */
+    int size();
+
+    double getX(int i);
+
+    double getY(int i);
+
+    /**
+     * @return The third ordinate of the i-th vertex, or NaN if the sequence has only two dimensions
+     */
+    default double getZ(int i) {
+        return Double.NaN;
+    }
+
+    /**
+     * Computes the n-vectors of all vertices, interpreting the coordinates as WGS84 longitude and latitude.
+     * Immutable implementations may keep the result so repeated calls are free.
+     *
+     * @return The sequence together with the n-vectors of its vertices
+     */
+    default NVectorSequence toNVectors() {
+        return NVectorSequence.of(this);
+    }
+
+    /**
+     * Immutable implementations may keep the result so repeated calls are free.
+     *
+     * @return The envelope of all vertices
+     */
+    default Envelope getEnvelope() {
+        return Envelope.of(this);
+    }
+
+    /**
+     * Adapts an existing array of points, reading the coordinates of the points directly
+     */
+    class PointArraySequence implements CoordinateSequence {
+        private final Point[] points;
+        private final CRS crs;
+        private NVectorSequence nVectors;
+        private Envelope envelope;
+
+        private PointArraySequence(Point... points) {
+            if (points.length < 1) {
+                throw new IllegalArgumentException("Cannot create coordinate sequence without points");
+            }
+            this.points = points;
+            this.crs = points[0].getCRS();
+        }
+
+        @Override
+        public NVectorSequence toNVectors() {
+            if (nVectors == null) {
+                nVectors = NVectorSequence.of(this);
+            }
+            return nVectors;
+        }
+
+        @Override
+        public Envelope getEnvelope() {
+            if (envelope == null) {
+                envelope = Envelope.of(this);
+            }
+            return envelope;
+        }
+
+        @Override
+        public int size() {
+            return points.length;
+        }
+
+        @Override
+        public double getX(int i) {
+            return points[i].getCoordinate()[0];
+        }
+
+        @Override
+        public double getY(int i) {
+            return points[i].getCoordinate()[1];
+        }
+
+        @Override
+        public double getZ(int i) {
+            double[] coordinate = points[i].getCoordinate();
+            return coordinate.length > 2 ? coordinate[2] : Double.NaN;
+        }
+
+        @Override
+        public CRS getCRS() {
+            return crs;
+        }
+
+        @Override
+        public int dimension() {
+            return points[0].dimension();
+        }
+    }
+}
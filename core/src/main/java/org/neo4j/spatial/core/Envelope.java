@@ -0,0 +1,504 @@
+package org.neo4j.spatial.core;
+
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
+import static java.lang.String.format;
+
+/**
+ * A cheap bounding shape of a geometry, used to reject pairs of geometries before looking at their edges.
+ * Cartesian geometries are bounded by an axis aligned box, WGS84 geometries by a spherical cap (a center n-vector
+ * and an angular radius) which is not affected by the antimeridian.
+ */
+public abstract class Envelope {
+    /**
+     * @param sequence
+     * @return The envelope of all vertices of the sequence
+     */
+    public static Envelope of(CoordinateSequence sequence) {
+        if (sequence.getCRS() == CRS.Cartesian) {
+            return Cartesian.bounding(sequence);
+        } else {
+            return Spherical.bounding(sequence.toNVectors());
+        }
+    }
+
+    public static Envelope of(Point... points) {
+        return of(CoordinateSequence.of(points));
+    }
+
+    /**
+     * @param sequences the rings or lines of a geometry, all in the same CRS
+     * @return The envelope of all vertices of the sequences. WGS84 envelopes also bound the latitudes of the edges,
+     * which bulge towards the poles, tighter than the cap alone
+     */
+    public static Envelope bounding(CoordinateSequence... sequences) {
+        if (sequences[0].getCRS() == CRS.Cartesian) {
+            Envelope envelope = Cartesian.bounding(sequences[0]);
+            for (int i = 1; i < sequences.length; i++) {
+                envelope = envelope.union(Cartesian.bounding(sequences[i]));
+            }
+            return envelope;
+        } else {
+            return Spherical.boundingEdges(sequences);
+        }
+    }
+
+    /**
+     * @param crs
+     * @return An envelope which intersects and contains everything, disabling any filtering
+     */
+    public static Envelope everything(CRS crs) {
+        if (crs == CRS.Cartesian) {
+            return Cartesian.EVERYTHING;
+        } else {
+            return Spherical.EVERYTHING;
+        }
+    }
+
+    public abstract CRS getCRS();
+
+    /**
+     * @param other
+     * @return False if the geometries bounded by the envelopes can not have a point in common
+     */
+    public abstract boolean intersects(Envelope other);
+
+    /**
+     * @param x
+     * @param y
+     * @return False if the coordinate can not be inside a geometry bounded by the envelope
+     */
+    public abstract boolean contains(double x, double y);
+
+    public boolean contains(Point point) {
+        return contains(point.getCoordinate()[0], point.getCoordinate()[1]);
+    }
+
+    /**
+     * @param other
+     * @return A value which is never larger than the distance between the geometries bounded by the envelopes
+     */
+    public abstract double lowerBoundDistance(Envelope other);
+
+    /**
+     * @param other
+     * @return An envelope bounding the geometries of both envelopes
+     */
+    public abstract Envelope union(Envelope other);
+
+    /**
+     * @param distance in the units of the CRS, meters for WGS84
+     * @return An envelope containing every point within the distance of the geometries bounded by this envelope
+     */
+    public abstract Envelope expand(double distance);
+
+    /**
+     * @return The larger extent of the envelope in the units of the CRS, meters for WGS84
+     */
+    public abstract double span();
+
+    /**
+     * @return True iff the envelope contains every possible point
+     */
+    public abstract boolean isEverything();
+
+    public static class Cartesian extends Envelope {
+        private static final Cartesian EVERYTHING = new Cartesian(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+        private final double minX;
+        private final double minY;
+        private final double maxX;
+        private final double maxY;
+
+        public Cartesian(double minX, double minY, double maxX, double maxY) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        private static Cartesian bounding(CoordinateSequence sequence) {
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < sequence.size(); i++) {
+                double x = sequence.getX(i);
+                double y = sequence.getY(i);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            return new Cartesian(minX, minY, maxX, maxY);
+        }
+
+        public double getMinX() {
+            return minX;
+        }
+
+        public double getMinY() {
+            return minY;
+        }
+
+        public double getMaxX() {
+            return maxX;
+        }
+
+        public double getMaxY() {
+            return maxY;
+        }
+
+        @Override
+        public CRS getCRS() {
+            return CRS.Cartesian;
+        }
+
+        @Override
+        public boolean intersects(Envelope other) {
+            if (!(other instanceof Cartesian)) {
+                return true;
+            }
+            Cartesian that = (Cartesian) other;
+            return minX <= that.maxX && that.minX <= maxX && minY <= that.maxY && that.minY <= maxY;
+        }
+
+        @Override
+        public boolean contains(double x, double y) {
+            return minX <= x && x <= maxX && minY <= y && y <= maxY;
+        }
+
+        @Override
+        public double lowerBoundDistance(Envelope other) {
+            if (!(other instanceof Cartesian)) {
+                return 0;
+            }
+            Cartesian that = (Cartesian) other;
+            double dx = Math.max(0, Math.max(that.minX - maxX, minX - that.maxX));
+            double dy = Math.max(0, Math.max(that.minY - maxY, minY - that.maxY));
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
+        @Override
+        public Envelope union(Envelope other) {
+            if (!(other instanceof Cartesian)) {
+                return EVERYTHING;
+            }
+            Cartesian that = (Cartesian) other;
+            return new Cartesian(Math.min(minX, that.minX), Math.min(minY, that.minY), Math.max(maxX, that.maxX), Math.max(maxY, that.maxY));
+        }
+
+        @Override
+        public Envelope expand(double distance) {
+            return new Cartesian(minX - distance, minY - distance, maxX + distance, maxY + distance);
+        }
+
+        @Override
+        public double span() {
+            return Math.max(maxX - minX, maxY - minY);
+        }
+
+        @Override
+        public boolean isEverything() {
+            return minX == Double.NEGATIVE_INFINITY && minY == Double.NEGATIVE_INFINITY && maxX == Double.POSITIVE_INFINITY && maxY == Double.POSITIVE_INFINITY;
+        }
+
+        @Override
+        public String toString() {
+            return format("Envelope.Cartesian[%f %f, %f %f]", minX, minY, maxX, maxY);
+        }
+    }
+
+    /**
+     * A spherical cap around the normalized mean of the n-vectors of the vertices. Caps are only used while they are
+     * smaller than a hemisphere, because only then do they contain the arcs between the bounded vertices as well.
+     * Larger geometries get the cap covering the whole sphere. Envelopes made by {@link Envelope#bounding} also keep
+     * the latitude band of the edges, which stays useful for geometries too large for a cap.
+     */
+    public static class Spherical extends Envelope {
+        /**
+         * Tolerance in radians added to the radius, covering rounding errors of the n-vector conversion
+         */
+        private static final double TOLERANCE = 0.000000001;
+        private static final Spherical EVERYTHING = new Spherical(0, 0, 1, Math.PI);
+
+        private final double x;
+        private final double y;
+        private final double z;
+        private final double radius;
+        private final double cosRadius;
+        private final double minLatitude;
+        private final double maxLatitude;
+
+        /**
+         * @param x x of the center n-vector
+         * @param y y of the center n-vector
+         * @param z z of the center n-vector
+         * @param radius angular radius in radians
+         */
+        public Spherical(double x, double y, double z, double radius) {
+            this(x, y, z, radius, latitude(x, y, z) - Math.toDegrees(radius), latitude(x, y, z) + Math.toDegrees(radius));
+        }
+
+        private Spherical(double x, double y, double z, double radius, double minLatitude, double maxLatitude) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+            this.cosRadius = Math.cos(radius);
+            this.minLatitude = Math.max(-90, minLatitude);
+            this.maxLatitude = Math.min(90, maxLatitude);
+        }
+
+        private static double latitude(double x, double y, double z) {
+            return Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)));
+        }
+
+        private static Spherical bounding(NVectorSequence sequence) {
+            double[] nVectors = sequence.getNVectors();
+            int n = sequence.size();
+            double sx = 0, sy = 0, sz = 0;
+            for (int i = 0; i < n * 3; i += 3) {
+                sx += nVectors[i];
+                sy += nVectors[i + 1];
+                sz += nVectors[i + 2];
+            }
+            double magnitude = Math.sqrt(sx * sx + sy * sy + sz * sz);
+            if (magnitude == 0) {
+                return EVERYTHING;
+            }
+            sx /= magnitude;
+            sy /= magnitude;
+            sz /= magnitude;
+
+            double minDot = 1;
+            for (int i = 0; i < n * 3; i += 3) {
+                minDot = Math.min(minDot, sx * nVectors[i] + sy * nVectors[i + 1] + sz * nVectors[i + 2]);
+            }
+            return cap(sx, sy, sz, Math.acos(Math.max(-1, minDot)) + TOLERANCE);
+        }
+
+        private static Spherical cap(double x, double y, double z, double radius) {
+            return radius < Math.PI / 2 ? new Spherical(x, y, z, radius) : EVERYTHING;
+        }
+
+        private static Spherical boundingEdges(CoordinateSequence[] sequences) {
+            double sx = 0, sy = 0, sz = 0;
+            for (CoordinateSequence sequence : sequences) {
+                double[] nVectors = sequence.toNVectors().getNVectors();
+                for (int i = 0; i < sequence.size() * 3; i += 3) {
+                    sx += nVectors[i];
+                    sy += nVectors[i + 1];
+                    sz += nVectors[i + 2];
+                }
+            }
+            double magnitude = Math.sqrt(sx * sx + sy * sy + sz * sz);
+            Spherical cap = EVERYTHING;
+            if (magnitude > 0) {
+                sx /= magnitude;
+                sy /= magnitude;
+                sz /= magnitude;
+                double minDot = 1;
+                for (CoordinateSequence sequence : sequences) {
+                    double[] nVectors = sequence.toNVectors().getNVectors();
+                    for (int i = 0; i < sequence.size() * 3; i += 3) {
+                        minDot = Math.min(minDot, sx * nVectors[i] + sy * nVectors[i + 1] + sz * nVectors[i + 2]);
+                    }
+                }
+                cap = cap(sx, sy, sz, Math.acos(Math.max(-1, minDot)) + TOLERANCE);
+            }
+
+            double minLatitude = Double.POSITIVE_INFINITY;
+            double maxLatitude = Double.NEGATIVE_INFINITY;
+            for (CoordinateSequence sequence : sequences) {
+                double[] nVectors = sequence.toNVectors().getNVectors();
+                for (int i = 0; i < sequence.size(); i++) {
+                    minLatitude = Math.min(minLatitude, sequence.getY(i));
+                    maxLatitude = Math.max(maxLatitude, sequence.getY(i));
+                    if (i > 0) {
+                        double[] latitudes = edgeLatitudes(nVectors, (i - 1) * 3, i * 3);
+                        minLatitude = Math.min(minLatitude, latitudes[0]);
+                        maxLatitude = Math.max(maxLatitude, latitudes[1]);
+                    }
+                }
+            }
+            //The inside of a polygon only reaches past its edges towards a pole inside the cap
+            double tolerance = Math.toDegrees(TOLERANCE);
+            if (!cap.isFullCap()) {
+                minLatitude = cap.contains(0, -90) ? -90 : Math.max(cap.minLatitude, minLatitude);
+                maxLatitude = cap.contains(0, 90) ? 90 : Math.min(cap.maxLatitude, maxLatitude);
+            }
+            return new Spherical(cap.x, cap.y, cap.z, cap.radius, minLatitude - tolerance, maxLatitude + tolerance);
+        }
+
+        /**
+         * @return The lowest and highest latitude of the great circle arc between the two n-vectors
+         */
+        private static double[] edgeLatitudes(double[] nVectors, int a, int b) {
+            double ax = nVectors[a], ay = nVectors[a + 1], az = nVectors[a + 2];
+            double bx = nVectors[b], by = nVectors[b + 1], bz = nVectors[b + 2];
+            double nx = ay * bz - az * by;
+            double ny = az * bx - ax * bz;
+            double nz = ax * by - ay * bx;
+            double[] latitudes = {Math.toDegrees(Math.asin(Math.min(az, bz))), Math.toDegrees(Math.asin(Math.max(az, bz)))};
+            double magnitude = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            double horizontal = Math.sqrt(nx * nx + ny * ny);
+            if (magnitude < 1e-12 || horizontal < 1e-12) {
+                return latitudes;
+            }
+            //The northernmost point of the great circle, the southernmost is its antipode
+            double vx = -nx * nz / (magnitude * horizontal);
+            double vy = -ny * nz / (magnitude * horizontal);
+            double vz = horizontal / magnitude;
+            if (onArc(ax, ay, az, bx, by, bz, nx, ny, nz, vx, vy, vz)) {
+                latitudes[1] = Math.toDegrees(Math.asin(vz));
+            }
+            if (onArc(ax, ay, az, bx, by, bz, nx, ny, nz, -vx, -vy, -vz)) {
+                latitudes[0] = Math.toDegrees(Math.asin(-vz));
+            }
+            return latitudes;
+        }
+
+        private static boolean onArc(double ax, double ay, double az, double bx, double by, double bz, double nx, double ny, double nz, double vx, double vy, double vz) {
+            double av = (ay * vz - az * vy) * nx + (az * vx - ax * vz) * ny + (ax * vy - ay * vx) * nz;
+            double vb = (vy * bz - vz * by) * nx + (vz * bx - vx * bz) * ny + (vx * by - vy * bx) * nz;
+            return av > 0 && vb > 0;
+        }
+
+        public double getRadius() {
+            return radius;
+        }
+
+        public double getMinLatitude() {
+            return minLatitude;
+        }
+
+        public double getMaxLatitude() {
+            return maxLatitude;
+        }
+
+        /**
+         * @return The smallest and largest longitude of the cap, beyond -180 or 180 if it crosses the antimeridian, or
+         * -180 and 180 if it covers a pole
+         */
+        public double[] getLongitudes() {
+            double latitude = latitude(x, y, z);
+            double sin = Math.sin(radius) / Math.cos(Math.toRadians(latitude));
+            if (isFullCap() || Math.abs(latitude) + Math.toDegrees(radius) >= 90 || sin >= 1) {
+                return new double[]{-180, 180};
+            }
+            double longitude = Math.toDegrees(Math.atan2(y, x));
+            double delta = Math.toDegrees(Math.asin(sin)) + Math.toDegrees(TOLERANCE);
+            return new double[]{longitude - delta, longitude + delta};
+        }
+
+        @Override
+        public boolean isEverything() {
+            return isFullCap() && minLatitude <= -90 && maxLatitude >= 90;
+        }
+
+        private boolean isFullCap() {
+            return radius >= Math.PI;
+        }
+
+        private double angleTo(Spherical that) {
+            double cx = y * that.z - z * that.y;
+            double cy = z * that.x - x * that.z;
+            double cz = x * that.y - y * that.x;
+            return Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), x * that.x + y * that.y + z * that.z);
+        }
+
+        @Override
+        public CRS getCRS() {
+            return CRS.WGS84;
+        }
+
+        @Override
+        public boolean intersects(Envelope other) {
+            if (isFullCap() || !(other instanceof Spherical) || ((Spherical) other).isFullCap()) {
+                return true;
+            }
+            Spherical that = (Spherical) other;
+            return angleTo(that) <= radius + that.radius;
+        }
+
+        @Override
+        public boolean contains(double lon, double lat) {
+            if (lat < minLatitude || lat > maxLatitude) {
+                return false;
+            }
+            if (isFullCap()) {
+                return true;
+            }
+            double[] v = new double[3];
+            WGSUtil.toNVector(lon, lat, v, 0);
+            return x * v[0] + y * v[1] + z * v[2] >= cosRadius;
+        }
+
+        /**
+         * @return The lower bound in meters
+         */
+        @Override
+        public double lowerBoundDistance(Envelope other) {
+            if (isFullCap() || !(other instanceof Spherical) || ((Spherical) other).isFullCap()) {
+                return 0;
+            }
+            Spherical that = (Spherical) other;
+            return Math.max(0, angleTo(that) - radius - that.radius) * WGSUtil.RADIUS;
+        }
+
+        @Override
+        public Envelope union(Envelope other) {
+            if (isFullCap() || !(other instanceof Spherical) || ((Spherical) other).isFullCap()) {
+                return EVERYTHING;
+            }
+            Spherical that = (Spherical) other;
+            double angle = angleTo(that);
+            if (angle + that.radius <= radius) {
+                return this;
+            } else if (angle + radius <= that.radius) {
+                return that;
+            }
+
+            //The smallest cap containing both caps has its center on the arc between both centers
+            double unionRadius = (angle + radius + that.radius) / 2;
+            double sinAngle = Math.sin(angle);
+            if (unionRadius >= Math.PI / 2 || sinAngle == 0) {
+                return EVERYTHING;
+            }
+            double t = unionRadius - radius;
+            double a = Math.sin(angle - t) / sinAngle;
+            double b = Math.sin(t) / sinAngle;
+            double cx = a * x + b * that.x;
+            double cy = a * y + b * that.y;
+            double cz = a * z + b * that.z;
+            double magnitude = Math.sqrt(cx * cx + cy * cy + cz * cz);
+            return cap(cx / magnitude, cy / magnitude, cz / magnitude, unionRadius + TOLERANCE);
+        }
+
+        @Override
+        public Envelope expand(double distance) {
+            double angle = distance / WGSUtil.RADIUS;
+            double minLat = minLatitude - Math.toDegrees(angle);
+            double maxLat = maxLatitude + Math.toDegrees(angle);
+            if (isFullCap() || radius + angle >= Math.PI / 2) {
+                return new Spherical(0, 0, 1, Math.PI, minLat, maxLat);
+            }
+            return new Spherical(x, y, z, radius + angle, minLat, maxLat);
+        }
+
+        /**
+         * @return The span in meters
+         */
+        @Override
+        public double span() {
+            double angle = isFullCap() ? Math.toRadians(maxLatitude - minLatitude) : 2 * radius;
+            return angle * WGSUtil.RADIUS;
+        }
+
+        @Override
+        public String toString() {
+            return format("Envelope.Spherical[%f %f %f, %f]", x, y, z, radius);
+        }
+    }
+}
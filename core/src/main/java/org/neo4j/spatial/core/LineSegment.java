@@ -14,6 +14,10 @@ public interface LineSegment extends HasCRS {
 
     Point[] getPoints();
 
+    default Envelope getEnvelope() {
+        return Envelope.of(getPoints());
+    }
+
     /**
      * Returns a copy of the shared point of the two line segments if it exists, else returns null
      *
@@ -1,162 +1,319 @@
 package org.neo4j.spatial.core;
 
+import org.neo4j.spatial.algo.AlgoUtil;
+
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.StringJoiner;
-import java.util.stream.Collectors;
 
+/**
+ * An x-monotone part of a ring or line, stored as a range of indices into the coordinates of that ring or line instead
+ * of a copy of its vertices. The chain is walked in the order of increasing x-coordinates, and intersection vertices
+ * found by a sweep line are kept in front of the walk until they are passed.
+ */
 public class MonotoneChain {
-    private static long nextId = 0L;
+    private final CoordinateSequence coordinates;
+    private final int start;
+    private final int end;
+    private final int direction;
+    //The number of distinct vertices of a closed ring, used to wrap chains around its closing vertex
+    private final int period;
+    private final int count;
 
-    private List<Vertex> vertices;
+    //Position of the front vertex in the walk, from 0 for the left most vertex to count when the chain is finished
+    private int front;
+    private Point frontPoint;
     private Vertex frontVertex;
+    private Point previousPoint;
+    //Intersection vertices in front of the walk, in x-order
+    private List<Vertex> intersections;
     private long id;
 
-    public MonotoneChain() {
-        this.vertices = new ArrayList<>();
-        this.id = nextId++;
+    /**
+     * @param coordinates the vertices of the ring or line the chain is part of
+     * @param start the index of the first vertex of the chain in the coordinates
+     * @param end the index of the last vertex of the chain, smaller than start if the chain wraps around the closing vertex of a ring
+     * @param direction 1 if the x-coordinates increase from start to end, -1 if they decrease
+     */
+    public MonotoneChain(CoordinateSequence coordinates, int start, int end, int direction) {
+        this.coordinates = coordinates;
+        this.start = start;
+        this.end = end;
+        this.direction = direction;
+        int size = coordinates.size();
+        boolean closed = size > 2 && coordinates.getX(0) == coordinates.getX(size - 1) && coordinates.getY(0) == coordinates.getY(size - 1);
+        this.period = closed ? size - 1 : size;
+        this.count = (end >= start ? end - start : end + period - start) + 1;
+        if (count < 2) {
+            throw new IllegalArgumentException("Monotone chain cannot have less than 2 vertices");
+        }
     }
 
-    public static void resetId() {
-        MonotoneChain.nextId = 0L;
+    /**
+     * @return The index in the coordinates of the vertex at the given position of the walk in x-order
+     */
+    private int index(int position) {
+        int i = direction < 0 ? end - position : start + position;
+        if (i >= period) {
+            return i - period;
+        }
+        return i < 0 ? i + period : i;
     }
 
-    public void add(LineSegment segment) {
-        this.vertices.add(new Vertex(segment.getPoints()[0]));
-        this.vertices.add(new Vertex(segment.getPoints()[1]));
+    private double getX(int position) {
+        return coordinates.getX(index(position));
     }
 
-    public void add(MonotoneChain chain) {
-        vertices.addAll(chain.getVertices());
+    private double getY(int position) {
+        return coordinates.getY(index(position));
     }
 
-    public void initialize() {
-        this.vertices.sort(Comparator.comparingDouble(a -> a.getPoint().getCoordinate()[0]));
-        this.vertices = this.vertices.stream().distinct().collect(Collectors.toList());
-        this.frontVertex = vertices.get(0);
-        this.frontVertex.setType(Vertex.Type.LEFT_MOST);
-
-        for (int i = 1; i <=vertices.size() - 1; i++) {
-            vertices.get(i).setType(Vertex.Type.INTERNAL);
-        }
-
-        vertices.get(vertices.size() - 1).setType(Vertex.Type.RIGHT_MOST);
+    private Point getPoint(int position) {
+        int i = index(position);
+        return Point.point(coordinates.getCRS(), coordinates.getX(i), coordinates.getY(i));
     }
 
     public String toWKT() {
         StringJoiner joiner = new StringJoiner(",", "LINESTRING(", ")");
-        for (Vertex vertex: vertices) {
-            joiner.add(vertex.getPoint().getCoordinate()[0] + " " + vertex.getPoint().getCoordinate()[1]);
+        for (int i = 0; i < count; i++) {
+            joiner.add(getX(i) + " " + getY(i));
         }
         return joiner.toString();
     }
 
-    public List<Vertex> getVertices() {
-        return vertices;
-    }
-
+    /**
+     * @return The line segments between the vertices of the chain in x-order, without the intersection vertices
+     */
     public List<LineSegment> getLineSegments() {
-        List<LineSegment> segments = new ArrayList<>();
-        for (int i = 0; i < vertices.size() - 1; i++) {
-            Point a = vertices.get(i).getPoint();
-            Point b = vertices.get(i+1).getPoint();
-
+        List<LineSegment> segments = new ArrayList<>(count - 1);
+        Point a = getPoint(0);
+        for (int i = 1; i < count; i++) {
+            Point b = getPoint(i);
             segments.add(LineSegment.lineSegment(a, b));
+            a = b;
         }
         return segments;
     }
 
     public double getMinX() {
-        double x1 = vertices.get(0).getPoint().getCoordinate()[0];
-        double x2 = vertices.get(vertices.size() - 1).getPoint().getCoordinate()[0];
-        return x1 < x2 ? x1 : x2;
+        return getX(0);
     }
 
     public double getMaxX() {
-        double x1 = vertices.get(0).getPoint().getCoordinate()[0];
-        double x2 = vertices.get(vertices.size() - 1).getPoint().getCoordinate()[0];
-        return x1 > x2 ? x1 : x2;
+        return getX(count - 1);
     }
 
+    /**
+     * @return The front vertex, which is the first intersection vertex in front of the walk if there is one, or null if the chain is finished
+     */
     public Vertex getFrontVertex() {
-        return this.frontVertex;
+        if (intersections != null && !intersections.isEmpty()) {
+            return intersections.get(0);
+        }
+        if (front == count) {
+            return null;
+        }
+        if (frontVertex == null) {
+            frontVertex = new Vertex(getFrontPoint());
+            frontVertex.setType(getFrontType());
+        }
+        return frontVertex;
     }
 
-    public Vertex getPrevious(Vertex vertex) {
-        int index = vertices.indexOf(vertex);
+    /**
+     * @return The type of the front vertex, or null if the chain is finished
+     */
+    public Vertex.Type getFrontType() {
+        if (intersections != null && !intersections.isEmpty()) {
+            return Vertex.Type.INTERSECTION;
+        }
+        if (front == count) {
+            return null;
+        }
+        return front == 0 ? Vertex.Type.LEFT_MOST : front == count - 1 ? Vertex.Type.RIGHT_MOST : Vertex.Type.INTERNAL;
+    }
 
-        if (index <= 0) {
+    /**
+     * @return The x-coordinate of the front vertex, or NaN if the chain is finished
+     */
+    public double getFrontX() {
+        if (intersections != null && !intersections.isEmpty()) {
+            return intersections.get(0).getPoint().getCoordinate()[0];
+        }
+        return front == count ? Double.NaN : getX(front);
+    }
+
+    /**
+     * @return The point of the front vertex, or null if the chain is finished
+     */
+    public Point getFrontPoint() {
+        if (intersections != null && !intersections.isEmpty()) {
+            return intersections.get(0).getPoint();
+        }
+        if (front == count) {
             return null;
         }
+        if (frontPoint == null) {
+            frontPoint = getPoint(front);
+        }
+        return frontPoint;
+    }
 
-        return vertices.get(index - 1);
+    /**
+     * @return The point of the last vertex the walk has passed, which together with the front point forms the
+     * segment of the chain at the sweep line, or null if the walk has not passed the left most vertex yet
+     */
+    public Point getPreviousPoint() {
+        return previousPoint;
     }
 
     /**
      * Advance the monotone chain to the next point
      */
     public void advance() {
-        int index = this.vertices.indexOf(this.frontVertex);
-        if (index == this.vertices.size() - 1) {
-            this.frontVertex = null;
+        if (intersections != null && !intersections.isEmpty()) {
+            previousPoint = intersections.remove(0).getPoint();
             return;
         }
-        this.frontVertex = vertices.get(index + 1);
+        if (front == count) {
+            return;
+        }
+        previousPoint = getFrontPoint();
+        front++;
+        frontPoint = null;
+        frontVertex = null;
     }
 
-    public void insertFrontVertex(Vertex vertex) {
-        int index = this.vertices.indexOf(this.frontVertex);
-        if (this.frontVertex.getType() == Vertex.Type.RIGHT_MOST && vertex.getPoint().equals(this.frontVertex.getPoint())) {
-            this.frontVertex = vertex;
-            this.vertices.set(index, vertex);
-        }
-        if (index > 0) {
-            this.vertices.add(index, vertex);
-        } else {
-            this.vertices.add(0, vertex);
+    /**
+     * Advance the monotone chain past the given intersection vertex, which is in front of the walk but not necessarily
+     * the front vertex if other intersection vertices share its x-coordinate
+     *
+     * @param vertex
+     */
+    public void advance(Vertex vertex) {
+        if (intersections == null || !intersections.remove(vertex)) {
+            advance();
+            return;
         }
-        this.frontVertex = vertex;
+        previousPoint = vertex.getPoint();
     }
 
-    private Point[] getInterval(double x) {
+    /**
+     * Inserts an intersection vertex between the previous point and the front vertex, keeping the intersection
+     * vertices in front of the walk in x-order
+     *
+     * @param vertex
+     */
+    public void insertFrontVertex(Vertex vertex) {
+        if (intersections == null) {
+            intersections = new ArrayList<>(2);
+        }
+        double x = vertex.getPoint().getCoordinate()[0];
         int i = 0;
-        while (vertices.get(i).getPoint().getCoordinate()[0] <= x) {
+        while (i < intersections.size() && intersections.get(i).getPoint().getCoordinate()[0] <= x) {
             i++;
         }
-        if (i >= vertices.size()) {
-            i = vertices.size() - 1;
+        intersections.add(i, vertex);
+    }
+
+    /**
+     * @return True if the point equals, within AlgoUtil.EPSILON, the previous point or one of the intersection
+     * vertices in front of the walk, so it has already been found by the sweep line
+     */
+    public boolean isKnownIntersection(Point point) {
+        double[] coordinate = point.getCoordinate();
+        if (previousPoint != null && AlgoUtil.equal(coordinate, previousPoint.getCoordinate())) {
+            return true;
+        }
+        if (intersections != null) {
+            for (Vertex vertex : intersections) {
+                if (AlgoUtil.equal(coordinate, vertex.getPoint().getCoordinate())) {
+                    return true;
+                }
+            }
         }
-        return new Point[]{vertices.get(i-1).getPoint(), vertices.get(i).getPoint()};
+        return false;
+    }
+
+    /**
+     * @return The slope and offset of the segment around the given x-coordinate, usually the segment at the sweep line,
+     * otherwise found by a binary search over the x-sorted vertices
+     */
+    private double[] getLine(double x) {
+        double x0;
+        double y0;
+        double x1;
+        double y1;
+        if (previousPoint != null && getFrontType() != null
+                && previousPoint.getCoordinate()[0] <= x && x < getFrontX()) {
+            Point frontPoint = getFrontPoint();
+            x0 = previousPoint.getCoordinate()[0];
+            y0 = previousPoint.getCoordinate()[1];
+            x1 = frontPoint.getCoordinate()[0];
+            y1 = frontPoint.getCoordinate()[1];
+        } else {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (getX(mid) <= x) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int i = Math.max(1, Math.min(low, count - 1));
+            x0 = getX(i - 1);
+            y0 = getY(i - 1);
+            x1 = getX(i);
+            y1 = getY(i);
+        }
+        if (x0 == x1) {
+            //Like a vertical Line
+            return new double[]{0, 0};
+        }
+        double a = (y0 - y1) / (x0 - x1);
+        return new double[]{a, y0 - a * x0};
     }
 
     public double getY(double x) {
-        Point[] interval = getInterval(x);
-        Line line = new Line(interval[0], interval[1]);
-        return line.getY(x);
+        double[] line = getLine(x);
+        return line[0] * x + line[1];
     }
 
     public double getAngle(double x) {
-        Point[] interval = getInterval(x);
-        Line line = new Line(interval[0], interval[1]);
-        return line.getA();
+        return getLine(x)[0];
     }
 
     public long getId() {
         return id;
     }
 
+    /**
+     * Ids are assigned by the sweep line which uses the chain, and are only unique within that sweep
+     *
+     * @param id
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     @Override
     public String toString() {
-        return "MC" + id + "(" + this.frontVertex + ")";
+        return "MC" + id + "(" + getFrontVertex() + ")";
     }
 
     public boolean equals(MonotoneChain other) {
-        return this.id == other.getId();
+        return this == other;
     }
 
     @Override
     public boolean equals(Object other) {
         return other instanceof MonotoneChain && this.equals((MonotoneChain) other);
     }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
 }
@@ -6,6 +6,7 @@ import java.util.*;
 
 public class MultiPolygon implements Polygon {
     private List<MultiPolygonNode> children;
+    private Envelope envelope;
 
     public MultiPolygon() {
         this.children = new ArrayList<>();
@@ -55,10 +56,27 @@ public class MultiPolygon implements Polygon {
         this.children.add(other);
         other.setParent(this);
         other.setType(PolygonType.SHELL);
+        invalidateEnvelope();
     }
 
     void removeChild(MultiPolygonNode other) {
         this.children.remove(other);
+        invalidateEnvelope();
+    }
+
+    /**
+     * Forget the cached envelope, as the shells below this polygon have changed
+     */
+    void invalidateEnvelope() {
+        this.envelope = null;
+    }
+
+    @Override
+    public Envelope getEnvelope() {
+        if (envelope == null) {
+            envelope = Polygon.super.getEnvelope();
+        }
+        return envelope;
     }
 
     @Override
@@ -187,12 +205,21 @@ public class MultiPolygon implements Polygon {
             this.parent = parent;
         }
 
+        @Override
+        void invalidateEnvelope() {
+            super.invalidateEnvelope();
+            if (parent != null) {
+                parent.invalidateEnvelope();
+            }
+        }
+
         public PolygonType getType() {
             return type;
         }
 
         private void setType(PolygonType type) {
             this.type = type;
+            invalidateEnvelope();
             for (MultiPolygonNode child : getChildren()) {
                 child.setType(PolygonType.getOther(type));
             }
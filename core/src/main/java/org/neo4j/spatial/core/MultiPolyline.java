@@ -35,6 +35,17 @@ public class MultiPolyline implements HasCRS {
         return lineSegments.toArray(new LineSegment[0]);
     }
 
+    /**
+     * @return The envelope of all children
+     */
+    public Envelope getEnvelope() {
+        Envelope envelope = null;
+        for (Polyline child : children) {
+            envelope = envelope == null ? child.getEnvelope() : envelope.union(child.getEnvelope());
+        }
+        return envelope == null ? Envelope.everything(getCRS()) : envelope;
+    }
+
     @Override
     public CRS getCRS() {
         return children.isEmpty() ? CRS.Cartesian : children.get(0).getCRS();
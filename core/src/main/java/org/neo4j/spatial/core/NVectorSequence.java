@@ -0,0 +1,107 @@
+package org.neo4j.spatial.core;
+
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
+/**
+ * A WGS84 coordinate sequence together with the n-vectors (unit vectors on the sphere) of all its vertices. The
+ * n-vectors are computed once when the sequence is created and stored in one array (x0,y0,z0,x1,y1,z1,...), so
+ * algorithms that touch the same vertices repeatedly do not pay for the trigonometric conversion on every call.
+ */
+public class NVectorSequence implements CoordinateSequence {
+    private final CoordinateSequence sequence;
+    private final double[] nVectors;
+    private Envelope envelope;
+
+    private NVectorSequence(CoordinateSequence sequence) {
+        this(sequence, WGSUtil.toNVectors(sequence));
+    }
+
+    /**
+     * @param sequence vertices with longitude and latitude in degrees
+     * @param nVectors the n-vectors of the vertices, three coordinates per vertex
+     */
+    NVectorSequence(CoordinateSequence sequence, double[] nVectors) {
+        this.sequence = sequence;
+        this.nVectors = nVectors;
+    }
+
+    /**
+     * @param sequence vertices with longitude and latitude in degrees
+     * @return The n-vector form of the sequence, or the sequence itself if it already is one
+     */
+    public static NVectorSequence of(CoordinateSequence sequence) {
+        if (sequence instanceof NVectorSequence) {
+            return (NVectorSequence) sequence;
+        }
+        return new NVectorSequence(sequence);
+    }
+
+    @Override
+    public NVectorSequence toNVectors() {
+        return this;
+    }
+
+    @Override
+    public Envelope getEnvelope() {
+        if (envelope == null) {
+            envelope = Envelope.of(this);
+        }
+        return envelope;
+    }
+
+    @Override
+    public int size() {
+        return sequence.size();
+    }
+
+    @Override
+    public double getX(int i) {
+        return sequence.getX(i);
+    }
+
+    @Override
+    public double getY(int i) {
+        return sequence.getY(i);
+    }
+
+    @Override
+    public double getZ(int i) {
+        return sequence.getZ(i);
+    }
+
+    public double getNX(int i) {
+        return nVectors[i * 3];
+    }
+
+    public double getNY(int i) {
+        return nVectors[i * 3 + 1];
+    }
+
+    public double getNZ(int i) {
+        return nVectors[i * 3 + 2];
+    }
+
+    public Vector getNVector(int i) {
+        return new Vector(getNX(i), getNY(i), getNZ(i));
+    }
+
+    /**
+     * Exposes the backing array for the primitive routines in {@link WGSUtil}. The array is shared, so it must not be
+     * modified.
+     *
+     * @return Three coordinates per vertex
+     */
+    public double[] getNVectors() {
+        return nVectors;
+    }
+
+    @Override
+    public CRS getCRS() {
+        return sequence.getCRS();
+    }
+
+    @Override
+    public int dimension() {
+        return sequence.dimension();
+    }
+}
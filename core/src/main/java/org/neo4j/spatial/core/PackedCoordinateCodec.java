@@ -0,0 +1,298 @@
+package org.neo4j.spatial.core;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * Encodes a coordinate sequence as one compact byte array, suitable for storing a whole ring or polyline in a single
+ * property, and decodes it straight into packed coordinates.
+ * <p>
+ * Layout, all multi-byte numbers big-endian:
+ * <pre>
+ * byte    version
+ * byte    CRS (0 = WGS84, 1 = Cartesian)
+ * byte    dimension
+ * byte    encoding (0 = raw doubles, 1 = quantized deltas)
+ * varint  number of vertices
+ * double  minX, minY, maxX, maxY
+ * raw:        count * dimension doubles
+ * quantized:  double scale, then per vertex and ordinate the zigzag varint of the difference between
+ *             round(ordinate * scale) and the same ordinate of the previous vertex
+ * </pre>
+ * Neighbouring vertices of real geometries are close, so the quantized differences usually take one to three bytes
+ * instead of eight. OSM stores coordinates with seven decimals, so {@link #WGS84_SCALE} is lossless for OSM data.
+ */
+public final class PackedCoordinateCodec {
+    public static final double WGS84_SCALE = 1e7;
+
+    private static final byte VERSION = 1;
+    private static final byte RAW = 0;
+    private static final byte QUANTIZED = 1;
+    private static final int BBOX_OFFSET = 4;
+    private static final double MAX_QUANTIZED = (double) (1L << 62);
+
+    private PackedCoordinateCodec() {
+    }
+
+    /**
+     * @return The scale which keeps the coordinates of the CRS without loss in practice: OSM precision for WGS84, and
+     * raw doubles for Cartesian coordinates, which have no common precision
+     */
+    public static double defaultScale(CRS crs) {
+        return crs == CRS.WGS84 ? WGS84_SCALE : 0;
+    }
+
+    /**
+     * Encodes the coordinates without loss as raw doubles
+     */
+    public static byte[] encode(CoordinateSequence sequence) {
+        return encode(sequence, 0);
+    }
+
+    /**
+     * @param sequence
+     * @param scale the coordinates are rounded to multiples of 1 / scale, or stored as raw doubles if scale is 0
+     * @return The encoded sequence
+     */
+    public static byte[] encode(CoordinateSequence sequence, double scale) {
+        if (scale < 0 || Double.isNaN(scale) || Double.isInfinite(scale)) {
+            throw new IllegalArgumentException(format("Invalid scale %f, should be positive or 0", scale));
+        }
+        int size = sequence.size();
+        int dimension = sequence.dimension();
+
+        Writer writer = new Writer(4 + 5 + 32 + 8 + size * dimension * (scale > 0 ? 3 : 8));
+        writer.writeByte(VERSION);
+        writer.writeByte(sequence.getCRS() == CRS.WGS84 ? 0 : 1);
+        writer.writeByte(dimension);
+        writer.writeByte(scale > 0 ? QUANTIZED : RAW);
+        writer.writeVarLong(size);
+
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            minX = Math.min(minX, sequence.getX(i));
+            minY = Math.min(minY, sequence.getY(i));
+            maxX = Math.max(maxX, sequence.getX(i));
+            maxY = Math.max(maxY, sequence.getY(i));
+        }
+        writer.writeDouble(minX);
+        writer.writeDouble(minY);
+        writer.writeDouble(maxX);
+        writer.writeDouble(maxY);
+
+        if (scale > 0) {
+            writer.writeDouble(scale);
+            long[] previous = new long[dimension];
+            for (int i = 0; i < size; i++) {
+                for (int d = 0; d < dimension; d++) {
+                    long quantized = quantize(ordinate(sequence, i, d), scale);
+                    writer.writeVarLong(zigzag(quantized - previous[d]));
+                    previous[d] = quantized;
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                for (int d = 0; d < dimension; d++) {
+                    writer.writeDouble(ordinate(sequence, i, d));
+                }
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    public static PackedPolygon decodePolygon(byte[] encoded) {
+        Reader reader = header(encoded);
+        return Polygon.packed(crs(encoded), encoded[2], coordinates(reader, encoded));
+    }
+
+    public static PackedPolyline decodePolyline(byte[] encoded) {
+        Reader reader = header(encoded);
+        return Polyline.packed(crs(encoded), encoded[2], coordinates(reader, encoded));
+    }
+
+    /**
+     * @return The interleaved coordinates of all vertices
+     */
+    public static double[] decodeCoordinates(byte[] encoded) {
+        return coordinates(header(encoded), encoded);
+    }
+
+    public static CRS crs(byte[] encoded) {
+        header(encoded);
+        return encoded[1] == 0 ? CRS.WGS84 : CRS.Cartesian;
+    }
+
+    /**
+     * @return The number of vertices, read from the header
+     */
+    public static int size(byte[] encoded) {
+        return (int) header(encoded).readVarLong();
+    }
+
+    /**
+     * @return The bounding box {minX, minY, maxX, maxY} of the vertices, read from the header
+     */
+    public static double[] bbox(byte[] encoded) {
+        Reader reader = header(encoded);
+        reader.readVarLong();
+        return new double[]{reader.readDouble(), reader.readDouble(), reader.readDouble(), reader.readDouble()};
+    }
+
+    private static Reader header(byte[] encoded) {
+        if (encoded.length < BBOX_OFFSET || encoded[0] != VERSION) {
+            throw new IllegalArgumentException("Not an encoded coordinate sequence of version " + VERSION);
+        }
+        if (encoded[2] < 2 || (encoded[3] != RAW && encoded[3] != QUANTIZED)) {
+            throw new IllegalArgumentException(format("Invalid header, dimension %d and encoding %d", encoded[2], encoded[3]));
+        }
+        return new Reader(encoded, BBOX_OFFSET);
+    }
+
+    private static double[] coordinates(Reader reader, byte[] encoded) {
+        int dimension = encoded[2];
+        long size = reader.readVarLong();
+        reader.skip(4 * Double.BYTES);
+        //Every ordinate takes at least one byte, so a corrupt size is rejected before allocating for it
+        if (size < 0 || size > reader.remaining() || size * dimension * (encoded[3] == RAW ? Double.BYTES : 1) > reader.remaining()) {
+            throw new IllegalArgumentException(format("Truncated encoded coordinate sequence, %d vertices do not fit in %d bytes", size, reader.remaining()));
+        }
+
+        double[] coordinates = new double[(int) size * dimension];
+        if (encoded[3] == QUANTIZED) {
+            double scale = reader.readDouble();
+            long[] previous = new long[dimension];
+            for (int c = 0; c < coordinates.length; ) {
+                for (int d = 0; d < dimension; d++, c++) {
+                    previous[d] += unzigzag(reader.readVarLong());
+                    coordinates[c] = previous[d] / scale;
+                }
+            }
+        } else {
+            for (int c = 0; c < coordinates.length; c++) {
+                coordinates[c] = reader.readDouble();
+            }
+        }
+        return coordinates;
+    }
+
+    private static double ordinate(CoordinateSequence sequence, int i, int d) {
+        switch (d) {
+            case 0:
+                return sequence.getX(i);
+            case 1:
+                return sequence.getY(i);
+            case 2:
+                return sequence.getZ(i);
+            default:
+                throw new IllegalArgumentException(format("Cannot encode ordinate %d, at most 3 dimensions are supported", d));
+        }
+    }
+
+    private static long quantize(double value, double scale) {
+        double scaled = Math.rint(value * scale);
+        if (Double.isNaN(scaled) || Math.abs(scaled) >= MAX_QUANTIZED) {
+            throw new IllegalArgumentException(format("Cannot quantize %f with scale %f", value, scale));
+        }
+        return (long) scaled;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static class Writer {
+        private byte[] bytes;
+        private int size;
+
+        private Writer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeDouble(double value) {
+            ensure(Double.BYTES);
+            ByteBuffer.wrap(bytes, size, Double.BYTES).putDouble(value);
+            size += Double.BYTES;
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+
+    private static class Reader {
+        private final ByteBuffer buffer;
+
+        private Reader(byte[] bytes, int position) {
+            this.buffer = ByteBuffer.wrap(bytes);
+            this.buffer.position(position);
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (!buffer.hasRemaining()) {
+                    throw truncated(null);
+                }
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private double readDouble() {
+            try {
+                return buffer.getDouble();
+            } catch (BufferUnderflowException e) {
+                throw truncated(e);
+            }
+        }
+
+        private void skip(int bytes) {
+            if (bytes > buffer.remaining()) {
+                throw truncated(null);
+            }
+            buffer.position(buffer.position() + bytes);
+        }
+
+        private int remaining() {
+            return buffer.remaining();
+        }
+
+        private static IllegalArgumentException truncated(Exception cause) {
+            return new IllegalArgumentException("Truncated encoded coordinate sequence", cause);
+        }
+    }
+}
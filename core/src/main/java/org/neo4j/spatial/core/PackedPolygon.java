@@ -0,0 +1,196 @@
+package org.neo4j.spatial.core;
+
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * A simple polygon whose vertices are stored in one interleaved coordinate array (x0,y0,x1,y1,...) sharing a single CRS,
+ * instead of one Point object per vertex. Like {@link Polygon.InMemorySimplePolygon} the ring is stored closed, so the
+ * last vertex equals the first one.
+ */
+public class PackedPolygon implements Polygon.SimplePolygon, CoordinateSequence {
+    private final double[] coordinates;
+    private final int dimension;
+    private final CRS crs;
+    private NVectorSequence nVectors;
+    private Envelope envelope;
+
+    private int pointer;
+    private int start;
+    private int direction;
+    private boolean traversing;
+
+    PackedPolygon(CRS crs, int dimension, double[] coordinates) {
+        PolygonUtil.assertValidPacking(dimension, coordinates);
+        this.coordinates = PolygonUtil.closeRing(dimension, coordinates);
+        this.dimension = dimension;
+        this.crs = crs;
+        if (size() < 4) {
+            throw new IllegalArgumentException("Polygon cannot have less than 4 points");
+        }
+        this.pointer = 0;
+        this.start = 0;
+        this.traversing = false;
+    }
+
+    @Override
+    public CoordinateSequence getCoordinateSequence() {
+        return this;
+    }
+
+    @Override
+    public NVectorSequence toNVectors() {
+        if (nVectors == null) {
+            nVectors = new NVectorSequence(this, WGSUtil.toNVectors(coordinates, dimension));
+        }
+        return nVectors;
+    }
+
+    @Override
+    public Envelope getEnvelope() {
+        if (envelope == null) {
+            envelope = Envelope.of(this);
+        }
+        return envelope;
+    }
+
+    /**
+     * @return The number of vertices of the closed ring, including the repeated first vertex
+     */
+    @Override
+    public int size() {
+        return coordinates.length / dimension;
+    }
+
+    @Override
+    public double getX(int i) {
+        return coordinates[i * dimension];
+    }
+
+    @Override
+    public double getY(int i) {
+        return coordinates[i * dimension + 1];
+    }
+
+    @Override
+    public double getZ(int i) {
+        return dimension > 2 ? coordinates[i * dimension + 2] : Double.NaN;
+    }
+
+    /**
+     * @param i index of the vertex
+     * @param d index of the ordinate, between 0 and dimension - 1
+     * @return The d-th ordinate of the i-th vertex
+     */
+    public double getOrdinate(int i, int d) {
+        return coordinates[i * dimension + d];
+    }
+
+    public Point getPoint(int i) {
+        return Point.point(crs, Arrays.copyOfRange(coordinates, i * dimension, (i + 1) * dimension));
+    }
+
+    /**
+     * Materializes the vertices as points. Prefer {@link #getX(int)} and {@link #getY(int)} in loops.
+     */
+    @Override
+    public Point[] getPoints() {
+        Point[] points = new Point[size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = getPoint(i);
+        }
+        return points;
+    }
+
+    @Override
+    public Point getNextPoint() {
+        if (pointer == start) {
+            this.traversing = true;
+        }
+        pointer = nextIndex(pointer, direction);
+        return getPoint(pointer);
+    }
+
+    private int nextIndex(int idx, int direction) {
+        int n = size() - 1;
+        return ((idx + direction) % n + n) % n;
+    }
+
+    @Override
+    public void startTraversal(Point startPoint, Point directionPoint) {
+        this.traversing = false;
+        int n = size();
+        double minDistance = Double.MAX_VALUE;
+        int minIdx = 0;
+        for (int i = 0; i < n; i++) {
+            double currentDistance = PolygonUtil.distance(crs, startPoint, getX(i), getY(i));
+            if (currentDistance < minDistance) {
+                minDistance = currentDistance;
+                minIdx = i;
+            }
+        }
+
+        this.start = minIdx;
+
+        int forwardIdx = (minIdx + 1) % n;
+        double forwardDistance = PolygonUtil.distance(crs, directionPoint, getX(forwardIdx), getY(forwardIdx));
+        int backwardsIdx = nextIndex(minIdx, -1);
+        double backwardDistance = PolygonUtil.distance(crs, directionPoint, getX(backwardsIdx), getY(backwardsIdx));
+        if (forwardDistance < backwardDistance) {
+            this.direction = 1;
+        } else {
+            this.direction = -1;
+        }
+        this.pointer = nextIndex(minIdx, -direction);
+    }
+
+    @Override
+    public void startTraversal() {
+        this.traversing = false;
+        this.start = 0;
+        this.pointer = -1;
+        this.direction = 1;
+    }
+
+    @Override
+    public boolean fullyTraversed() {
+        return pointer == start && this.traversing;
+    }
+
+    @Override
+    public CRS getCRS() {
+        return crs;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public boolean isSimple() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return format("PackedPolygon%s", Arrays.toString(getPoints()));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Polygon.SimplePolygon && this.equals((Polygon.SimplePolygon) other);
+    }
+
+    public boolean equals(Polygon.SimplePolygon other) {
+        return Polygon.SimplePolygon.areEqual(this, other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coordinates);
+    }
+}
@@ -0,0 +1,195 @@
+package org.neo4j.spatial.core;
+
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * A polyline whose vertices are stored in one interleaved coordinate array (x0,y0,x1,y1,...) sharing a single CRS,
+ * instead of one Point object per vertex.
+ */
+public class PackedPolyline implements Polyline, CoordinateSequence {
+    private final double[] coordinates;
+    private final int dimension;
+    private final CRS crs;
+    private NVectorSequence nVectors;
+    private Envelope envelope;
+
+    private int pointer;
+    private int direction;
+    private boolean traversing;
+
+    PackedPolyline(CRS crs, int dimension, double[] coordinates) {
+        PolygonUtil.assertValidPacking(dimension, coordinates);
+        this.coordinates = coordinates;
+        this.dimension = dimension;
+        this.crs = crs;
+        if (size() < 2) {
+            throw new IllegalArgumentException("Polyline cannot have less than 2 points");
+        }
+    }
+
+    @Override
+    public CoordinateSequence getCoordinateSequence() {
+        return this;
+    }
+
+    @Override
+    public NVectorSequence toNVectors() {
+        if (nVectors == null) {
+            nVectors = new NVectorSequence(this, WGSUtil.toNVectors(coordinates, dimension));
+        }
+        return nVectors;
+    }
+
+    @Override
+    public Envelope getEnvelope() {
+        if (envelope == null) {
+            envelope = Envelope.of(this);
+        }
+        return envelope;
+    }
+
+    /**
+     * @return The number of vertices of the polyline
+     */
+    @Override
+    public int size() {
+        return coordinates.length / dimension;
+    }
+
+    @Override
+    public double getX(int i) {
+        return coordinates[i * dimension];
+    }
+
+    @Override
+    public double getY(int i) {
+        return coordinates[i * dimension + 1];
+    }
+
+    @Override
+    public double getZ(int i) {
+        return dimension > 2 ? coordinates[i * dimension + 2] : Double.NaN;
+    }
+
+    /**
+     * @param i index of the vertex
+     * @param d index of the ordinate, between 0 and dimension - 1
+     * @return The d-th ordinate of the i-th vertex
+     */
+    public double getOrdinate(int i, int d) {
+        return coordinates[i * dimension + d];
+    }
+
+    public Point getPoint(int i) {
+        return Point.point(crs, Arrays.copyOfRange(coordinates, i * dimension, (i + 1) * dimension));
+    }
+
+    @Override
+    public CRS getCRS() {
+        return crs;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Materializes the vertices as points. Prefer {@link #getX(int)} and {@link #getY(int)} in loops.
+     */
+    @Override
+    public Point[] getPoints() {
+        Point[] points = new Point[size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = getPoint(i);
+        }
+        return points;
+    }
+
+    @Override
+    public Point getNextPoint() {
+        this.traversing = true;
+        Point point = getPoint(pointer);
+        pointer = pointer + direction;
+        return point;
+    }
+
+    @Override
+    public void startTraversal(Point startPoint, Point directionPoint) {
+        this.traversing = false;
+        int n = size();
+        double minDistance = Double.MAX_VALUE;
+        int minIdx = 0;
+        for (int i = 0; i < n; i++) {
+            double currentDistance = PolygonUtil.distance(crs, startPoint, getX(i), getY(i));
+            if (currentDistance < minDistance) {
+                minDistance = currentDistance;
+                minIdx = i;
+            }
+        }
+
+        this.pointer = minIdx;
+
+        int forwardIdx = minIdx + 1;
+        int backwardsIdx = minIdx - 1;
+        double forwardDistance = Double.MAX_VALUE;
+        double backwardDistance = Double.MAX_VALUE;
+
+        if (forwardIdx < n) {
+            forwardDistance = PolygonUtil.distance(crs, directionPoint, getX(forwardIdx), getY(forwardIdx));
+        }
+
+        if (backwardsIdx >= 0) {
+            backwardDistance = PolygonUtil.distance(crs, directionPoint, getX(backwardsIdx), getY(backwardsIdx));
+        }
+        if (forwardDistance < backwardDistance) {
+            this.direction = 1;
+        } else {
+            this.direction = -1;
+        }
+    }
+
+    @Override
+    public void startTraversal() {
+        this.traversing = false;
+        this.pointer = 0;
+        this.direction = 1;
+    }
+
+    @Override
+    public boolean fullyTraversed() {
+        return (pointer < 0 || pointer >= size()) && this.traversing;
+    }
+
+    @Override
+    public String toString() {
+        return format("PackedPolyline%s", Arrays.toString(getPoints()));
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Polyline && this.equals((Polyline) other);
+    }
+
+    public boolean equals(Polyline other) {
+        Point[] otherPoints = other.getPoints();
+        if (size() != otherPoints.length) {
+            return false;
+        }
+        for (int i = 0; i < otherPoints.length; i++) {
+            if (!getPoint(i).equals(otherPoints[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(coordinates);
+    }
+}
@@ -18,6 +18,29 @@ public interface Polygon extends HasCRS {
         return new InMemorySimplePolygon(points);
     }
 
+    /**
+     * @param crs coordinate reference system of all vertices
+     * @param coordinates interleaved 2D coordinates (x0,y0,x1,y1,...), the ring is closed if needed
+     */
+    static PackedPolygon packed(CRS crs, double[] coordinates) {
+        return new PackedPolygon(crs, 2, coordinates);
+    }
+
+    /**
+     * @param crs coordinate reference system of all vertices
+     * @param dimension number of ordinates per vertex
+     * @param coordinates interleaved coordinates, the ring is closed if needed
+     */
+    static PackedPolygon packed(CRS crs, int dimension, double[] coordinates) {
+        return new PackedPolygon(crs, dimension, coordinates);
+    }
+
+    static PackedPolygon packed(Point... points) {
+        int dimension = assertAllSameDimension(points);
+        CRS crs = assertAllSameCRS(points);
+        return new PackedPolygon(crs, dimension, PolygonUtil.pack(points));
+    }
+
     static int assertAllSameDimension(Point... points) {
         for (int i = 1; i < points.length; i++) {
             if (points[0].dimension() != points[i].dimension()) {
@@ -57,6 +80,17 @@ public interface Polygon extends HasCRS {
 
     SimplePolygon[] getHoles();
 
+    /**
+     * @return The envelope of all shells of the polygon
+     */
+    default Envelope getEnvelope() {
+        Envelope envelope = null;
+        for (SimplePolygon shell : getShells()) {
+            envelope = envelope == null ? shell.getEnvelope() : envelope.union(shell.getEnvelope());
+        }
+        return envelope == null ? Envelope.everything(getCRS()) : envelope;
+    }
+
     boolean isSimple();
 
     /**
@@ -141,6 +175,18 @@ public interface Polygon extends HasCRS {
 
         Point[] getPoints();
 
+        /**
+         * @return The vertices of the closed ring as a coordinate sequence
+         */
+        default CoordinateSequence getCoordinateSequence() {
+            return CoordinateSequence.of(getPoints());
+        }
+
+        @Override
+        default Envelope getEnvelope() {
+            return getCoordinateSequence().getEnvelope();
+        }
+
         @Override
         default LineSegment[] toLineSegments() {
             List<LineSegment> lineSegments = new ArrayList<>();
@@ -216,6 +262,7 @@ public interface Polygon extends HasCRS {
     class InMemorySimplePolygon implements SimplePolygon {
         private final Point[] points;
         private final CRS crs;
+        private CoordinateSequence sequence;
 
         private int pointer;
         private int start;
@@ -234,6 +281,14 @@ public interface Polygon extends HasCRS {
             this.traversing = false;
         }
 
+        @Override
+        public CoordinateSequence getCoordinateSequence() {
+            if (sequence == null) {
+                sequence = CoordinateSequence.of(points);
+            }
+            return sequence;
+        }
+
         @Override
         public Point getNextPoint() {
             if (pointer == start ) {
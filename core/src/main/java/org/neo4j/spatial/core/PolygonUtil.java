@@ -1,9 +1,13 @@
 package org.neo4j.spatial.core;
 
 import org.neo4j.spatial.algo.AlgoUtil;
+import org.neo4j.spatial.algo.cartesian.CartesianUtil;
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
 
 import java.util.Arrays;
 
+import static java.lang.String.format;
+
 public class PolygonUtil {
     public static Point[] closeRing(Point... points) {
         if (points.length < 2) {
@@ -24,4 +28,54 @@ public class PolygonUtil {
         Point[] copy = Arrays.copyOf(points, points.length - 1);
         return copy;
     }
+
+    /**
+     * Closes a ring of interleaved coordinates by appending the first vertex if it differs from the last one
+     *
+     * @param dimension number of ordinates per vertex
+     * @param coordinates interleaved coordinates (x0,y0,x1,y1,...)
+     * @return The given array if the ring was already closed, otherwise a closed copy
+     */
+    public static double[] closeRing(int dimension, double[] coordinates) {
+        if (coordinates.length < 2 * dimension) {
+            throw new IllegalArgumentException("Cannot close ring of less than 2 points");
+        }
+        int last = coordinates.length - dimension;
+        if (AlgoUtil.equal(coordinates[0], coordinates[last]) && AlgoUtil.equal(coordinates[1], coordinates[last + 1])) {
+            return coordinates;
+        } else {
+            double[] closed = Arrays.copyOf(coordinates, coordinates.length + dimension);
+            System.arraycopy(coordinates, 0, closed, coordinates.length, dimension);
+            return closed;
+        }
+    }
+
+    /**
+     * Copies the coordinates of the points into one interleaved array (x0,y0,x1,y1,...)
+     */
+    public static double[] pack(Point... points) {
+        int dimension = points[0].dimension();
+        double[] coordinates = new double[points.length * dimension];
+        for (int i = 0; i < points.length; i++) {
+            System.arraycopy(points[i].getCoordinate(), 0, coordinates, i * dimension, dimension);
+        }
+        return coordinates;
+    }
+
+    static void assertValidPacking(int dimension, double[] coordinates) {
+        if (dimension < 2) {
+            throw new IllegalArgumentException(format("Packed coordinates need at least 2 dimensions, got %d", dimension));
+        }
+        if (coordinates.length % dimension != 0) {
+            throw new IllegalArgumentException(format("Number of coordinates %d is not a multiple of the dimension %d", coordinates.length, dimension));
+        }
+    }
+
+    static double distance(CRS crs, Point point, double x, double y) {
+        if (crs == CRS.Cartesian) {
+            return CartesianUtil.distance(point.getCoordinate(), new double[]{x, y});
+        } else {
+            return WGSUtil.distance(new Vector(point), new Vector(true, x, y));
+        }
+    }
 }
@@ -15,6 +15,29 @@ public interface Polyline extends HasCRS {
         return new InMemoryPolyline(points);
     }
 
+    /**
+     * @param crs coordinate reference system of all vertices
+     * @param coordinates interleaved 2D coordinates (x0,y0,x1,y1,...)
+     */
+    static PackedPolyline packed(CRS crs, double[] coordinates) {
+        return new PackedPolyline(crs, 2, coordinates);
+    }
+
+    /**
+     * @param crs coordinate reference system of all vertices
+     * @param dimension number of ordinates per vertex
+     * @param coordinates interleaved coordinates
+     */
+    static PackedPolyline packed(CRS crs, int dimension, double[] coordinates) {
+        return new PackedPolyline(crs, dimension, coordinates);
+    }
+
+    static PackedPolyline packed(Point... points) {
+        int dimension = assertAllSameDimension(points);
+        CRS crs = assertAllSameCRS(points);
+        return new PackedPolyline(crs, dimension, PolygonUtil.pack(points));
+    }
+
     static int assertAllSameDimension(Point... points) {
         for (int i = 1; i < points.length; i++) {
             if (points[0].dimension() != points[i].dimension()) {
@@ -54,6 +77,17 @@ public interface Polyline extends HasCRS {
 
     Point[] getPoints();
 
+    /**
+     * @return The vertices of the polyline as a coordinate sequence
+     */
+    default CoordinateSequence getCoordinateSequence() {
+        return CoordinateSequence.of(getPoints());
+    }
+
+    default Envelope getEnvelope() {
+        return getCoordinateSequence().getEnvelope();
+    }
+
     Point getNextPoint();
 
     void startTraversal(Point startPoint, Point directionPoint);
@@ -89,6 +123,7 @@ public interface Polyline extends HasCRS {
         private int direction;
         private boolean traversing;
         private CRS crs;
+        private CoordinateSequence sequence;
 
         private InMemoryPolyline(Point... points) {
             this.points = points;
@@ -99,6 +134,14 @@ public interface Polyline extends HasCRS {
             crs = Polyline.assertAllSameCRS(this.points);
         }
 
+        @Override
+        public CoordinateSequence getCoordinateSequence() {
+            if (sequence == null) {
+                sequence = CoordinateSequence.of(points);
+            }
+            return sequence;
+        }
+
         @Override
         public CRS getCRS() {
             return crs;
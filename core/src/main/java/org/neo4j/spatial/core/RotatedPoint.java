@@ -9,10 +9,13 @@ import static java.lang.String.format;
 public class RotatedPoint implements Point {
     private final Point point;
     private final double angle;
+    //The sweep line algorithms read the coordinates of every vertex many times, so they are only rotated once
+    private final double[] coordinate;
 
     public RotatedPoint(Point point, double angle) {
         this.point = point;
         this.angle = angle;
+        this.coordinate = AlgoUtil.rotate(point.getCoordinate(), angle);
     }
 
     @Override
@@ -22,7 +25,7 @@ public class RotatedPoint implements Point {
 
     @Override
     public double[] getCoordinate() {
-        return AlgoUtil.rotate(point.getCoordinate(), angle);
+        return coordinate;
     }
 
     @Override
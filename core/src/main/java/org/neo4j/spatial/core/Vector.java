@@ -1,5 +1,7 @@
 package org.neo4j.spatial.core;
 
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
 import java.util.Arrays;
 import java.util.StringJoiner;
 
@@ -11,8 +13,7 @@ public class Vector {
     }
 
     public Vector(boolean asPoint, double... coordinates) {
-        double[] p = Arrays.stream(coordinates).map(q -> q * Math.PI/180).toArray();
-        this.coordinates = new double[]{Math.cos(p[1]) * Math.cos(p[0]), Math.cos(p[1]) * Math.sin(p[0]), Math.sin(p[1])};
+        this.coordinates = pointCoordinatesToVectorCoordinates(coordinates);
     }
 
     /**
@@ -24,8 +25,9 @@ public class Vector {
     }
 
     public static double[] pointCoordinatesToVectorCoordinates(double[] point) {
-        double[] p = Arrays.stream(point).map(q -> q * Math.PI/180).toArray();
-        return new double[]{Math.cos(p[1]) * Math.cos(p[0]), Math.cos(p[1]) * Math.sin(p[0]), Math.sin(p[1])};
+        double[] nVector = new double[3];
+        WGSUtil.toNVector(point[0], point[1], nVector, 0);
+        return nVector;
     }
 
     public double getCoordinate(int i) {
@@ -0,0 +1,35 @@
+package org.neo4j.spatial.algo;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class PrecisionTest {
+    @Test
+    public void shouldMatchMathAtan2() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double scale = Math.pow(10, random.nextInt(10) - 5);
+            double y = (random.nextDouble() - 0.5) * scale;
+            double x = (random.nextDouble() - 0.5) * scale;
+            assertThat(Precision.FAST.atan2(y, x), closeTo(Math.atan2(y, x), Precision.FAST_MAX_ERROR));
+            assertThat(Precision.EXACT.atan2(y, x), equalTo(Math.atan2(y, x)));
+        }
+    }
+
+    @Test
+    public void shouldMatchMathAtan2OnAxesAndDiagonals() {
+        double[] values = new double[]{0.0, -0.0, 1, -1, 1e-300, -1e-300, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (double y : values) {
+            for (double x : values) {
+                assertThat(Precision.FAST.atan2(y, x), closeTo(Math.atan2(y, x), Precision.FAST_MAX_ERROR));
+                assertThat(Math.copySign(1, Precision.FAST.atan2(y, x)), equalTo(Math.copySign(1, Math.atan2(y, x))));
+            }
+        }
+        assertThat(Double.isNaN(Precision.FAST.atan2(Double.NaN, 1)), equalTo(true));
+    }
+}
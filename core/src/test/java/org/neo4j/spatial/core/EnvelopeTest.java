@@ -0,0 +1,185 @@
+package org.neo4j.spatial.core;
+
+import org.junit.Test;
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+public class EnvelopeTest {
+    @Test
+    public void shouldBoundCartesianGeometries() {
+        PackedPolygon a = Polygon.packed(CRS.Cartesian, new double[]{0, 0, 10, 0, 10, 10, 0, 10});
+        PackedPolygon b = Polygon.packed(CRS.Cartesian, new double[]{13, 14, 20, 14, 20, 20});
+        PackedPolygon c = Polygon.packed(CRS.Cartesian, new double[]{5, 5, 20, 5, 20, 20});
+
+        assertThat(a.getEnvelope(), sameInstance(a.getEnvelope()));
+        assertThat(a.getEnvelope().intersects(b.getEnvelope()), equalTo(false));
+        assertThat(a.getEnvelope().intersects(c.getEnvelope()), equalTo(true));
+        assertThat(a.getEnvelope().lowerBoundDistance(b.getEnvelope()), closeTo(5, 0.0000001));
+        assertThat(a.getEnvelope().lowerBoundDistance(c.getEnvelope()), equalTo(0.0));
+        assertThat(a.getEnvelope().contains(10, 0), equalTo(true));
+        assertThat(a.getEnvelope().contains(10.5, 0), equalTo(false));
+        assertThat(a.getEnvelope().union(b.getEnvelope()).contains(15, 5), equalTo(true));
+    }
+
+    @Test
+    public void shouldKeepEnvelopesOfPolygons() {
+        Polygon.SimplePolygon simple = Polygon.simple(Point.point(CRS.Cartesian, 0, 0), Point.point(CRS.Cartesian, 10, 0), Point.point(CRS.Cartesian, 10, 10));
+        assertThat(simple.getEnvelope(), sameInstance(simple.getEnvelope()));
+
+        CountingPolygon square = new CountingPolygon(Polygon.simple(Point.point(CRS.Cartesian, 0, 0), Point.point(CRS.Cartesian, 10, 0), Point.point(CRS.Cartesian, 10, 10), Point.point(CRS.Cartesian, 0, 10)));
+        CountingPolygon other = new CountingPolygon(Polygon.simple(Point.point(CRS.Cartesian, 20, 0), Point.point(CRS.Cartesian, 30, 0), Point.point(CRS.Cartesian, 30, 10)));
+        MultiPolygon multiPolygon = new MultiPolygon();
+        multiPolygon.insertPolygon(square);
+        square.reads = 0;
+
+        Envelope envelope = multiPolygon.getEnvelope();
+        assertThat(multiPolygon.getEnvelope(), sameInstance(envelope));
+        assertThat(square.reads, equalTo(1));
+        assertThat(envelope.contains(25, 5), equalTo(false));
+
+        multiPolygon.insertPolygon(other);
+        assertThat(multiPolygon.getEnvelope().contains(25, 5), equalTo(true));
+    }
+
+    @Test
+    public void shouldBoundWGS84Geometries() {
+        Polygon.SimplePolygon a = Polygon.packed(CRS.WGS84, new double[]{10, 50, 11, 50, 11, 51, 10, 51});
+        Polygon.SimplePolygon b = Polygon.packed(CRS.WGS84, new double[]{14, 50, 15, 50, 15, 51, 14, 51});
+
+        double distance = WGSUtil.distance(new Vector(true, 11, 50.5), new Vector(true, 14, 50.5));
+        double lowerBound = a.getEnvelope().lowerBoundDistance(b.getEnvelope());
+
+        assertThat(a.getEnvelope().intersects(b.getEnvelope()), equalTo(false));
+        assertThat(lowerBound, greaterThan(0.0));
+        assertThat(lowerBound, lessThan(distance));
+        assertThat(a.getEnvelope().contains(10.5, 50.5), equalTo(true));
+        assertThat(a.getEnvelope().contains(14.5, 50.5), equalTo(false));
+        assertThat(a.getEnvelope().union(b.getEnvelope()).contains(12.5, 50.5), equalTo(true));
+    }
+
+    @Test
+    public void shouldBoundWGS84GeometriesAcrossDateLine() {
+        Polygon.SimplePolygon a = Polygon.packed(CRS.WGS84, new double[]{179, -18, -179, -18, -179, -16, 179, -16});
+        Polygon.SimplePolygon b = Polygon.packed(CRS.WGS84, new double[]{-179.5, -17.5, -178, -17.5, -178, -15});
+
+        assertThat(a.getEnvelope().intersects(b.getEnvelope()), equalTo(true));
+        assertThat(a.getEnvelope().contains(180, -17), equalTo(true));
+        assertThat(a.getEnvelope().contains(0, -17), equalTo(false));
+    }
+
+    @Test
+    public void shouldNotFilterWithHugeGeometries() {
+        Polygon.SimplePolygon huge = Polygon.packed(CRS.WGS84, new double[]{-170, -60, 0, -60, 170, -60, 170, 60, 0, 60, -170, 60});
+        Polygon.SimplePolygon small = Polygon.packed(CRS.WGS84, new double[]{179, 0, 179.5, 0, 179.5, 1});
+
+        assertThat(huge.getEnvelope().intersects(small.getEnvelope()), equalTo(true));
+        assertThat(huge.getEnvelope().lowerBoundDistance(small.getEnvelope()), equalTo(0.0));
+    }
+
+    @Test
+    public void shouldBoundLatitudesOfWGS84Edges() {
+        PackedPolyline line = Polyline.packed(CRS.WGS84, new double[]{-10, 60, 10, 60});
+        Envelope.Spherical envelope = (Envelope.Spherical) Envelope.bounding(line.getCoordinateSequence());
+
+        //The arc bulges to about 60.38 degrees at the meridian, the cap alone reaches much further
+        assertThat(envelope.getMaxLatitude(), closeTo(60.38, 0.01));
+        assertThat(envelope.getMinLatitude(), closeTo(60, 0.000001));
+        assertThat(((Envelope.Spherical) Envelope.of(line.getCoordinateSequence())).getMaxLatitude(), greaterThan(65.0));
+        assertThat(envelope.contains(0, 60.3), equalTo(true));
+        assertThat(envelope.contains(0, 59.9), equalTo(false));
+        assertThat(envelope.getLongitudes()[0], lessThan(-10.0));
+        assertThat(envelope.getLongitudes()[1], greaterThan(10.0));
+    }
+
+    @Test
+    public void shouldBoundLatitudesOfHugeWGS84Geometries() {
+        Polygon.SimplePolygon band = Polygon.packed(CRS.WGS84, new double[]{-170, 10, 0, 10, 170, 10, 170, 20, 0, 20, -170, 20});
+        Envelope envelope = Envelope.bounding(band.getCoordinateSequence());
+
+        assertThat(envelope.isEverything(), equalTo(false));
+        assertThat(envelope.contains(0, 15), equalTo(true));
+        assertThat(envelope.contains(0, -30), equalTo(false));
+        assertThat(envelope.expand(WGSUtil.RADIUS * Math.PI).isEverything(), equalTo(true));
+    }
+
+    @Test
+    public void shouldBoundPolesInsideWGS84Rings() {
+        Polygon.SimplePolygon ring = Polygon.packed(CRS.WGS84, new double[]{0, 80, 90, 80, 180, 80, -90, 80});
+        Envelope.Spherical envelope = (Envelope.Spherical) Envelope.bounding(ring.getCoordinateSequence());
+
+        assertThat(envelope.getMaxLatitude(), equalTo(90.0));
+        assertThat(envelope.getLongitudes()[0], equalTo(-180.0));
+        assertThat(envelope.getLongitudes()[1], equalTo(180.0));
+    }
+
+    @Test
+    public void shouldExpandEnvelopes() {
+        Envelope box = Envelope.bounding(Polygon.packed(CRS.Cartesian, new double[]{0, 0, 10, 0, 10, 10, 0, 10}).getCoordinateSequence());
+        assertThat(box.span(), equalTo(10.0));
+        assertThat(box.expand(2).contains(-2, 12), equalTo(true));
+        assertThat(box.expand(2).contains(-2.1, 5), equalTo(false));
+
+        Envelope cap = Envelope.bounding(Polygon.packed(CRS.WGS84, new double[]{179, -18, -179, -18, -179, -16, 179, -16}).getCoordinateSequence());
+        double distance = WGSUtil.distance(new Vector(true, -179, -17), new Vector(true, -178, -17));
+        assertThat(cap.contains(-178, -17), equalTo(false));
+        assertThat(cap.expand(distance).contains(-178, -17), equalTo(true));
+        assertThat(cap.expand(distance).contains(-175, -17), equalTo(false));
+        assertThat(cap.span(), greaterThan(distance));
+    }
+
+    private static class CountingPolygon implements Polygon.SimplePolygon {
+        private final Polygon.SimplePolygon polygon;
+        private int reads;
+
+        private CountingPolygon(Polygon.SimplePolygon polygon) {
+            this.polygon = polygon;
+        }
+
+        @Override
+        public Point[] getPoints() {
+            reads++;
+            return polygon.getPoints();
+        }
+
+        @Override
+        public Point getNextPoint() {
+            return polygon.getNextPoint();
+        }
+
+        @Override
+        public void startTraversal(Point startPoint, Point directionPoint) {
+            polygon.startTraversal(startPoint, directionPoint);
+        }
+
+        @Override
+        public void startTraversal() {
+            polygon.startTraversal();
+        }
+
+        @Override
+        public boolean fullyTraversed() {
+            return polygon.fullyTraversed();
+        }
+
+        @Override
+        public boolean isSimple() {
+            return true;
+        }
+
+        @Override
+        public CRS getCRS() {
+            return polygon.getCRS();
+        }
+
+        @Override
+        public int dimension() {
+            return polygon.dimension();
+        }
+    }
+}
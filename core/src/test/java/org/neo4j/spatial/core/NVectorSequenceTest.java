@@ -0,0 +1,61 @@
+package org.neo4j.spatial.core;
+
+import org.junit.Test;
+import org.neo4j.spatial.algo.wgs84.WGSUtil;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+
+public class NVectorSequenceTest {
+    @Test
+    public void shouldMatchVectorConversion() {
+        Point[] points = new Point[]{
+                Point.point(CRS.WGS84, 12.5, 55.7),
+                Point.point(CRS.WGS84, -73.9, 40.7),
+                Point.point(CRS.WGS84, 151.2, -33.9)
+        };
+        NVectorSequence sequence = CoordinateSequence.of(points).toNVectors();
+
+        assertThat(sequence.size(), equalTo(3));
+        for (int i = 0; i < points.length; i++) {
+            Vector expected = new Vector(points[i]);
+            assertThat(sequence.getX(i), equalTo(points[i].getCoordinate()[0]));
+            assertThat(sequence.getNX(i), closeTo(expected.getCoordinate(0), 1e-15));
+            assertThat(sequence.getNY(i), closeTo(expected.getCoordinate(1), 1e-15));
+            assertThat(sequence.getNZ(i), closeTo(expected.getCoordinate(2), 1e-15));
+        }
+    }
+
+    @Test
+    public void shouldConvertPackedCoordinatesInBulk() {
+        double[] coordinates = new double[]{12.5, 55.7, 100, -73.9, 40.7, 200, 151.2, -33.9, 300, 180, 90, 0};
+        PackedPolyline packed = Polyline.packed(CRS.WGS84, 3, coordinates);
+        NVectorSequence bulk = packed.toNVectors();
+        NVectorSequence perVertex = CoordinateSequence.of(packed.getPoints()).toNVectors();
+
+        assertThat(bulk.size(), equalTo(4));
+        for (int i = 0; i < bulk.size(); i++) {
+            assertThat(bulk.getNX(i), equalTo(perVertex.getNX(i)));
+            assertThat(bulk.getNY(i), equalTo(perVertex.getNY(i)));
+            assertThat(bulk.getNZ(i), equalTo(perVertex.getNZ(i)));
+        }
+
+        double[] nVectors = new double[15];
+        WGSUtil.toNVectors(coordinates, 3, nVectors);
+        assertThat(nVectors[9], equalTo(bulk.getNX(3)));
+        assertThat(nVectors[12], equalTo(0.0));
+    }
+
+    @Test
+    public void shouldComputeVectorsOnlyOnce() {
+        PackedPolygon packed = Polygon.packed(CRS.WGS84, new double[]{-10, -10, 10, -10, 10, 10, -10, 10});
+        assertThat(packed.toNVectors(), sameInstance(packed.toNVectors()));
+        assertThat(packed.toNVectors().toNVectors(), sameInstance(packed.toNVectors()));
+        assertThat(packed.toNVectors().getNVectors().length, equalTo(15));
+
+        Polygon.SimplePolygon inMemory = Polygon.simple(packed.getPoints());
+        assertThat(inMemory.getCoordinateSequence().toNVectors(), sameInstance(inMemory.getCoordinateSequence().toNVectors()));
+    }
+}
@@ -0,0 +1,110 @@
+package org.neo4j.spatial.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.fail;
+
+public class PackedCoordinateCodecTest {
+    @Test
+    public void shouldRoundTripPolygonWithoutLoss() {
+        PackedPolygon polygon = Polygon.packed(CRS.Cartesian, 2, new double[]{0.1, -0.3, 10.123456789, 0, 10, 10, 0, 10});
+
+        byte[] encoded = PackedCoordinateCodec.encode(polygon);
+        PackedPolygon decoded = PackedCoordinateCodec.decodePolygon(encoded);
+
+        assertThat(decoded.getCRS(), equalTo(CRS.Cartesian));
+        assertThat(decoded.size(), equalTo(5));
+        for (int i = 0; i < polygon.size(); i++) {
+            assertThat(decoded.getX(i), equalTo(polygon.getX(i)));
+            assertThat(decoded.getY(i), equalTo(polygon.getY(i)));
+        }
+    }
+
+    @Test
+    public void shouldReadHeaderWithoutDecoding() {
+        PackedPolyline polyline = Polyline.packed(CRS.WGS84, new double[]{12.5, 55.6, 12.6, 55.7, 12.4, 55.9});
+
+        byte[] encoded = PackedCoordinateCodec.encode(polyline, PackedCoordinateCodec.WGS84_SCALE);
+
+        assertThat(PackedCoordinateCodec.crs(encoded), equalTo(CRS.WGS84));
+        assertThat(PackedCoordinateCodec.size(encoded), equalTo(3));
+        double[] bbox = PackedCoordinateCodec.bbox(encoded);
+        assertThat(bbox[0], equalTo(12.4));
+        assertThat(bbox[1], equalTo(55.6));
+        assertThat(bbox[2], equalTo(12.6));
+        assertThat(bbox[3], equalTo(55.9));
+    }
+
+    @Test
+    public void shouldQuantizeCoordinatesCompactly() {
+        int n = 1000;
+        double[] coordinates = new double[n * 2];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            coordinates[i * 2] = Math.rint((12.5 + 0.01 * Math.cos(angle)) * 1e7) / 1e7;
+            coordinates[i * 2 + 1] = Math.rint((55.6 + 0.01 * Math.sin(angle)) * 1e7) / 1e7;
+        }
+        PackedPolygon polygon = Polygon.packed(CRS.WGS84, 2, coordinates);
+
+        byte[] encoded = PackedCoordinateCodec.encode(polygon, PackedCoordinateCodec.WGS84_SCALE);
+        PackedPolygon decoded = PackedCoordinateCodec.decodePolygon(encoded);
+
+        assertThat(encoded.length, lessThan(polygon.size() * 2 * Double.BYTES / 2));
+        assertThat(decoded.size(), equalTo(polygon.size()));
+        for (int i = 0; i < polygon.size(); i++) {
+            assertThat(decoded.getX(i), closeTo(polygon.getX(i), 1e-9));
+            assertThat(decoded.getY(i), closeTo(polygon.getY(i), 1e-9));
+        }
+    }
+
+    @Test
+    public void shouldKeepThirdDimension() {
+        PackedPolyline polyline = Polyline.packed(CRS.Cartesian, 3, new double[]{1, 2, 3, 4, 5, 6});
+
+        PackedPolyline decoded = PackedCoordinateCodec.decodePolyline(PackedCoordinateCodec.encode(polyline, 1000));
+
+        assertThat(decoded.dimension(), equalTo(3));
+        assertThat(decoded.getZ(1), equalTo(6.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownVersion() {
+        PackedCoordinateCodec.decodePolygon(new byte[]{42, 0, 2, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnknownEncoding() {
+        byte[] encoded = PackedCoordinateCodec.encode(Polyline.packed(CRS.Cartesian, new double[]{1, 2, 3, 4}));
+        encoded[3] = 7;
+        PackedCoordinateCodec.decodePolyline(encoded);
+    }
+
+    @Test
+    public void shouldRejectTruncatedEncoding() {
+        PackedPolyline polyline = Polyline.packed(CRS.WGS84, new double[]{12.5, 55.6, 12.6, 55.7, 12.4, 55.9});
+        for (double scale : new double[]{0, PackedCoordinateCodec.WGS84_SCALE}) {
+            byte[] encoded = PackedCoordinateCodec.encode(polyline, scale);
+            for (int length = 4; length < encoded.length; length++) {
+                try {
+                    PackedCoordinateCodec.decodePolyline(Arrays.copyOf(encoded, length));
+                    fail("Expected a truncated encoding of " + length + " bytes to be rejected");
+                } catch (IllegalArgumentException e) {
+                    assertThat(e.getMessage(), containsString("Truncated"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldDefaultToLosslessScale() {
+        assertThat(PackedCoordinateCodec.defaultScale(CRS.Cartesian), equalTo(0.0));
+        assertThat(PackedCoordinateCodec.defaultScale(CRS.WGS84), equalTo(PackedCoordinateCodec.WGS84_SCALE));
+    }
+}
@@ -0,0 +1,88 @@
+package org.neo4j.spatial.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PackedPolygonTest {
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void shouldCloseRingAndExposeCoordinates() {
+        PackedPolygon polygon = Polygon.packed(CRS.Cartesian, new double[]{-10, -10, 10, -10, 10, 10, -10, 10});
+
+        assertThat(polygon.size(), equalTo(5));
+        assertThat(polygon.dimension(), equalTo(2));
+        assertThat(polygon.getCRS(), equalTo(CRS.Cartesian));
+        assertThat(polygon.getX(2), equalTo(10.0));
+        assertThat(polygon.getY(3), equalTo(10.0));
+        assertThat(polygon.getX(4), equalTo(-10.0));
+        assertThat(polygon.getY(4), equalTo(-10.0));
+        assertThat(polygon.getPoint(1), equalTo(Point.point(CRS.Cartesian, 10, -10)));
+    }
+
+    @Test
+    public void shouldBeEqualToInMemoryPolygon() {
+        Point[] points = new Point[]{
+                Point.point(CRS.WGS84, -10, -10),
+                Point.point(CRS.WGS84, 10, -10),
+                Point.point(CRS.WGS84, 10, 10),
+                Point.point(CRS.WGS84, -10, 10)
+        };
+        PackedPolygon packed = Polygon.packed(points);
+        Polygon.SimplePolygon inMemory = Polygon.simple(points);
+
+        assertThat(packed.getCRS(), equalTo(CRS.WGS84));
+        assertThat(packed, equalTo(inMemory));
+        assertThat(inMemory, equalTo(packed));
+        assertThat(packed.toWKT(), equalTo(inMemory.toWKT()));
+        assertThat(packed.toLineSegments().length, equalTo(4));
+    }
+
+    @Test
+    public void shouldTraverseLikeInMemoryPolygon() {
+        int n = 10;
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = i < n / 2 ? Point.point(CRS.Cartesian, 5, i * 2) : Point.point(CRS.Cartesian, 0, n - (i + 1 - n / 2) * 2);
+        }
+        Polygon.SimplePolygon inMemory = Polygon.simple(points);
+        PackedPolygon packed = Polygon.packed(points);
+
+        inMemory.startTraversal(Point.point(CRS.Cartesian, 0, 8), Point.point(CRS.Cartesian, 5, 8));
+        packed.startTraversal(Point.point(CRS.Cartesian, 0, 8), Point.point(CRS.Cartesian, 5, 8));
+        int count = 0;
+        while (!inMemory.fullyTraversed()) {
+            assertThat(packed.fullyTraversed(), equalTo(false));
+            assertThat(packed.getNextPoint(), equalTo(inMemory.getNextPoint()));
+            count++;
+        }
+        assertThat(packed.fullyTraversed(), equalTo(true));
+        assertThat(count, equalTo(n + 1));
+    }
+
+    @Test
+    public void shouldSupportThreeDimensions() {
+        PackedPolygon polygon = Polygon.packed(CRS.Cartesian, 3, new double[]{0, 0, 1, 1, 0, 2, 1, 1, 3});
+
+        assertThat(polygon.size(), equalTo(4));
+        assertThat(polygon.getOrdinate(2, 2), equalTo(3.0));
+        assertThat(polygon.getPoint(3), equalTo(Point.point(CRS.Cartesian, 0, 0, 1)));
+    }
+
+    @Test
+    public void shouldNotAcceptIncompleteCoordinates() {
+        thrown.expect(IllegalArgumentException.class);
+        Polygon.packed(CRS.Cartesian, new double[]{0, 0, 1, 0, 1});
+    }
+
+    @Test
+    public void shouldNotAcceptTooFewPoints() {
+        thrown.expect(IllegalArgumentException.class);
+        Polygon.packed(CRS.Cartesian, new double[]{0, 0, 1, 0, 0, 0});
+    }
+}
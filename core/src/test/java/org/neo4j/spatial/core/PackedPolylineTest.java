@@ -0,0 +1,44 @@
+package org.neo4j.spatial.core;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PackedPolylineTest {
+    @Test
+    public void shouldExposeCoordinates() {
+        PackedPolyline polyline = Polyline.packed(CRS.WGS84, new double[]{1, 2, 3, 4, 5, 6});
+
+        assertThat(polyline.size(), equalTo(3));
+        assertThat(polyline.getCRS(), equalTo(CRS.WGS84));
+        assertThat(polyline.getX(1), equalTo(3.0));
+        assertThat(polyline.getY(2), equalTo(6.0));
+        assertThat(polyline, equalTo(Polyline.polyline(
+                Point.point(CRS.WGS84, 1, 2),
+                Point.point(CRS.WGS84, 3, 4),
+                Point.point(CRS.WGS84, 5, 6))));
+    }
+
+    @Test
+    public void shouldTraverseLikeInMemoryPolyline() {
+        int n = 10;
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = i < n / 2 ? Point.point(CRS.Cartesian, 5, i * 2) : Point.point(CRS.Cartesian, 0, n - (i + 1 - n / 2) * 2);
+        }
+        Polyline inMemory = Polyline.polyline(points);
+        PackedPolyline packed = Polyline.packed(points);
+
+        inMemory.startTraversal(Point.point(CRS.Cartesian, 0, 8), Point.point(CRS.Cartesian, 5, 8));
+        packed.startTraversal(Point.point(CRS.Cartesian, 0, 8), Point.point(CRS.Cartesian, 5, 8));
+        int count = 0;
+        while (!inMemory.fullyTraversed()) {
+            assertThat(packed.getNextPoint(), equalTo(inMemory.getNextPoint()));
+            count++;
+        }
+        assertThat(packed.fullyTraversed(), equalTo(true));
+        assertThat(count, equalTo(6));
+        assertThat(packed.toLineSegments().length, equalTo(n - 1));
+    }
+}
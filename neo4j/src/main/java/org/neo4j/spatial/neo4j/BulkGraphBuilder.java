@@ -0,0 +1,170 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.TransientFailureException;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.logging.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * Builds the polygon and polyline structures of many OSM relations, see
+ * {@link UserDefinedFunctions#createOSMGraphGeometries(org.neo4j.graphdb.Node, double)}, in worker threads with their
+ * own transactions. The relations are split into batches which are committed as one transaction each.
+ * <p>
+ * If a batch fails it is rolled back and its relations are retried one per transaction, so a broken relation only
+ * loses itself. Relations sharing ways update the same NEXT_IN_POLYGON/NEXT_IN_POLYLINE relationships, the builders
+ * write lock the way nodes before touching them, so such relations are built one after the other. A single relation
+ * failing with a transient error, like a deadlock between the other locks of two batches, is retried up to the given
+ * number of times before it counts as failed.
+ */
+class BulkGraphBuilder {
+    private static final int MAX_ERRORS = 100;
+
+    private final GraphDatabaseService db;
+    private final Log log;
+    private final double proximityThreshold;
+    private final int batchSize;
+    private final int concurrency;
+    private final int retries;
+
+    private final AtomicLong succeeded = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+    private long total;
+    private long start;
+
+    BulkGraphBuilder(GraphDatabaseService db, Log log, double proximityThreshold, int batchSize, int concurrency, int retries) {
+        if (batchSize < 1 || concurrency < 1 || retries < 0) {
+            throw new IllegalArgumentException(format("Invalid batchSize %d or concurrency %d, should be positive, or retries %d, should not be negative", batchSize, concurrency, retries));
+        }
+        this.db = db;
+        this.log = log;
+        this.proximityThreshold = proximityThreshold;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.retries = retries;
+    }
+
+    /**
+     * @param elementIds the element ids of the OSM relation nodes
+     * @return A summary of the build
+     */
+    Summary build(List<String> elementIds) {
+        total = elementIds.size();
+        start = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < elementIds.size(); i += batchSize) {
+                List<String> batch = elementIds.subList(i, Math.min(i + batchSize, elementIds.size()));
+                futures.add(executor.submit(() -> buildBatch(batch)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building geometries", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to build geometries: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return new Summary(total, succeeded.get(), failed.get(), batches.get(), System.currentTimeMillis() - start, new ArrayList<>(errors));
+    }
+
+    private void buildBatch(List<String> batch) {
+        if (batch.size() == 1 || !tryBatch(batch)) {
+            for (String elementId : batch) {
+                buildSingle(elementId);
+            }
+        }
+        batches.incrementAndGet();
+
+        long done = succeeded.get() + failed.get();
+        long time = Math.max(1, System.currentTimeMillis() - start);
+        log.info(format("Built geometries for %d/%d relations (%d failed) in %d ms, %.1f relations/s", done, total, failed.get(), time, done * 1000.0 / time));
+    }
+
+    private boolean tryBatch(List<String> batch) {
+        try (Transaction tx = db.beginTx()) {
+            for (String elementId : batch) {
+                UserDefinedFunctions.rebuildOSMGraphGeometries(tx, tx.getNodeByElementId(elementId), proximityThreshold);
+            }
+            tx.commit();
+            succeeded.addAndGet(batch.size());
+            return true;
+        } catch (Exception e) {
+            log.warn(format("Batch of %d relations failed, retrying them one by one: %s", batch.size(), e.getMessage()));
+            return false;
+        }
+    }
+
+    private void buildSingle(String elementId) {
+        Exception failure = null;
+        for (int attempt = 0; attempt <= retries; attempt++) {
+            try (Transaction tx = db.beginTx()) {
+                UserDefinedFunctions.rebuildOSMGraphGeometries(tx, tx.getNodeByElementId(elementId), proximityThreshold);
+                tx.commit();
+                succeeded.incrementAndGet();
+                return;
+            } catch (Exception e) {
+                failure = e;
+                if (!isTransient(e)) {
+                    break;
+                }
+            }
+        }
+        failed.incrementAndGet();
+        log.error(format("Failed to build geometries for relation elementId=%s: %s", elementId, failure.getMessage()));
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(elementId + ": " + failure.getMessage());
+            }
+        }
+    }
+
+    private static boolean isTransient(Throwable e) {
+        for (; e != null; e = e.getCause()) {
+            if (e instanceof TransientFailureException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static class Summary {
+        final long relations;
+        final long succeeded;
+        final long failed;
+        final long batches;
+        final long timeMillis;
+        final List<String> errors;
+
+        private Summary(long relations, long succeeded, long failed, long batches, long timeMillis, List<String> errors) {
+            this.relations = relations;
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.batches = batches;
+            this.timeMillis = timeMillis;
+            this.errors = errors;
+        }
+
+        double relationsPerSecond() {
+            return (succeeded + failed) * 1000.0 / Math.max(1, timeMillis);
+        }
+    }
+}
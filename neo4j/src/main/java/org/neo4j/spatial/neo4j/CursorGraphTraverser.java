@@ -0,0 +1,265 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.spatial.algo.CCWCalculator;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.PackedPolygon;
+import org.neo4j.spatial.core.PackedPolyline;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.Polyline;
+import org.neo4j.storageengine.api.RelationshipSelection;
+import org.neo4j.values.storable.LongArray;
+import org.neo4j.values.storable.PointValue;
+import org.neo4j.values.storable.Value;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Walks the way nodes of a graph polygon or polyline directly with kernel cursors, as an alternative to the
+ * traversal framework used by {@link Neo4jSimpleGraphPolygon} and {@link Neo4jSimpleGraphPolyline}. No paths or
+ * node objects are created, the coordinates of the location nodes are appended to a primitive buffer which becomes a
+ * {@link PackedPolygon} or {@link PackedPolyline}.
+ * <p>
+ * The walk follows the same rules as the way evaluators: along a way the NEXT relationships are followed in one
+ * direction, a NEXT_IN_POLYGON or NEXT_IN_POLYLINE relationship is only followed if it belongs to the OSM relation, and
+ * consecutive way nodes with the same location node produce a single vertex. The cursors are allocated once and reused
+ * for every geometry until the traverser is closed.
+ */
+public class CursorGraphTraverser implements AutoCloseable {
+    private static final int ANY = 0;
+    private static final int OUTGOING = 1;
+    private static final int INCOMING = -1;
+
+    private final KernelTransaction ktx;
+    private final long osmRelationId;
+
+    private final int next;
+    private final int nextInPolygon;
+    private final int nextInPolyline;
+    private final int node;
+    private final int relationIds;
+    private final int location;
+
+    private final NodeCursor nodeCursor;
+    private final RelationshipTraversalCursor relationshipCursor;
+    private final PropertyCursor propertyCursor;
+
+    private CRS crs;
+    private int dimension;
+    private double[] buffer = new double[256];
+    private int size;
+
+    public CursorGraphTraverser(KernelTransaction ktx, long osmRelationId) {
+        this.ktx = ktx;
+        this.osmRelationId = osmRelationId;
+
+        TokenRead tokenRead = ktx.tokenRead();
+        this.next = tokenRead.relationshipType(Relation.NEXT.name());
+        this.nextInPolygon = tokenRead.relationshipType(Relation.NEXT_IN_POLYGON.name());
+        this.nextInPolyline = tokenRead.relationshipType(Relation.NEXT_IN_POLYLINE.name());
+        this.node = tokenRead.relationshipType(Relation.NODE.name());
+        this.relationIds = tokenRead.propertyKey("relation_osm_ids");
+        this.location = tokenRead.propertyKey("location");
+
+        this.nodeCursor = ktx.cursors().allocateNodeCursor(CursorContext.NULL_CONTEXT);
+        this.relationshipCursor = ktx.cursors().allocateRelationshipTraversalCursor(CursorContext.NULL_CONTEXT, EmptyMemoryTracker.INSTANCE);
+        this.propertyCursor = ktx.cursors().allocatePropertyCursor(CursorContext.NULL_CONTEXT, EmptyMemoryTracker.INSTANCE);
+    }
+
+    /**
+     * @param firstWayNode id of a way node on the ring
+     * @return The ring through the way node in counter-clockwise order
+     */
+    public PackedPolygon polygon(long firstWayNode) {
+        walk(firstWayNode, nextInPolygon, true);
+
+        PackedPolygon polygon = Polygon.packed(crs, dimension, Arrays.copyOf(buffer, size));
+        if (CCWCalculator.getCalculator(crs).isCCW(polygon)) {
+            return polygon;
+        }
+        return Polygon.packed(crs, dimension, reversed());
+    }
+
+    /**
+     * @param startWayNode id of the way node the polyline starts at
+     * @return The polyline from the way node onwards
+     */
+    public PackedPolyline polyline(long startWayNode) {
+        walk(startWayNode, nextInPolyline, false);
+        return Polyline.packed(crs, dimension, Arrays.copyOf(buffer, size));
+    }
+
+    /**
+     * Walks from the way node until the ring is closed or the polyline ends, collecting the coordinates in the buffer
+     *
+     * @param start id of the first way node
+     * @param link the relationship type connecting the ways of the geometry
+     * @param ring true for polygons, which may be walked in both directions and end at the first location
+     * @throws IllegalArgumentException if the walk visits a way node twice before it ends
+     */
+    private void walk(long start, int link, boolean ring) {
+        size = 0;
+        crs = null;
+
+        long firstLocation = locationNode(start);
+        long previousLocation = firstLocation;
+        appendLocation(firstLocation);
+
+        long previous = -1;
+        long current = start;
+        Set<Long> visited = new HashSet<>();
+        visited.add(start);
+        int lastNextDirection = ring ? ANY : OUTGOING;
+        while (true) {
+            long following = -1;
+            boolean followingIsLink = false;
+            int followingDirection = ANY;
+
+            ktx.dataRead().singleNode(current, nodeCursor);
+            if (!nodeCursor.next()) {
+                throw new IllegalArgumentException("Broken graph structure, way node " + current + " does not exist");
+            }
+            nodeCursor.relationships(relationshipCursor, RelationshipSelection.selection(new int[]{next, link}, Direction.BOTH));
+            while (relationshipCursor.next()) {
+                long other = relationshipCursor.otherNodeReference();
+                if (other == previous || other == current) {
+                    continue;
+                }
+                int direction = relationshipCursor.sourceNodeReference() == current ? OUTGOING : INCOMING;
+                if (relationshipCursor.type() == link) {
+                    //Links between ways are preferred, they are only created where the geometry leaves a way
+                    if ((ring || direction == OUTGOING) && partOfRelation()) {
+                        following = other;
+                        followingIsLink = true;
+                        break;
+                    }
+                } else if (following == -1 && (lastNextDirection == ANY || lastNextDirection == direction)) {
+                    following = other;
+                    followingDirection = direction;
+                }
+            }
+
+            if (following == -1) {
+                if (ring) {
+                    throw new IllegalArgumentException("Broken polygon structure, the ring is not closed at way node " + current);
+                }
+                return;
+            }
+            if (!ring && following == start) {
+                return;
+            }
+
+            previous = current;
+            current = following;
+            lastNextDirection = followingIsLink ? ANY : followingDirection;
+
+            long currentLocation = locationNode(current);
+            if (currentLocation != previousLocation) {
+                appendLocation(currentLocation);
+                if (ring && currentLocation == firstLocation) {
+                    return;
+                }
+                previousLocation = currentLocation;
+            }
+            //A cycle which does not return to the first location would be walked forever
+            if (!visited.add(current)) {
+                throw new IllegalArgumentException(format("Broken graph structure, the walk from way node %d returns to way node %d without %s",
+                        start, current, ring ? "closing the ring" : "ending the polyline"));
+            }
+        }
+    }
+
+    /**
+     * @return True iff the relationship at the relationship cursor is part of the OSM relation
+     */
+    private boolean partOfRelation() {
+        relationshipCursor.properties(propertyCursor);
+        while (propertyCursor.next()) {
+            if (propertyCursor.propertyKey() == relationIds) {
+                LongArray ids = (LongArray) propertyCursor.propertyValue();
+                for (int i = 0; i < ids.length(); i++) {
+                    if (ids.longValue(i) == osmRelationId) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param wayNode
+     * @return The id of the location node of the way node
+     */
+    private long locationNode(long wayNode) {
+        ktx.dataRead().singleNode(wayNode, nodeCursor);
+        if (nodeCursor.next()) {
+            nodeCursor.relationships(relationshipCursor, RelationshipSelection.selection(node, Direction.OUTGOING));
+            if (relationshipCursor.next()) {
+                return relationshipCursor.targetNodeReference();
+            }
+        }
+        throw new IllegalArgumentException("Broken graph structure, way node " + wayNode + " has no :NODE relationship");
+    }
+
+    private void appendLocation(long locationNode) {
+        ktx.dataRead().singleNode(locationNode, nodeCursor);
+        if (nodeCursor.next()) {
+            nodeCursor.properties(propertyCursor);
+            while (propertyCursor.next()) {
+                if (propertyCursor.propertyKey() == location) {
+                    Value value = propertyCursor.propertyValue();
+                    if (value instanceof PointValue point) {
+                        append(point);
+                        return;
+                    }
+                }
+            }
+        }
+        throw new IllegalArgumentException("Broken graph structure, node " + locationNode + " has no 'location' point");
+    }
+
+    private void append(PointValue point) {
+        double[] coordinate = point.coordinate();
+        if (crs == null) {
+            crs = CRSConverter.toInMemoryCRS(point.getCRS());
+            dimension = coordinate.length;
+        }
+        if (size + dimension > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        System.arraycopy(coordinate, 0, buffer, size, dimension);
+        size += dimension;
+    }
+
+    /**
+     * @return The vertices in the buffer in reverse order
+     */
+    private double[] reversed() {
+        double[] result = new double[size];
+        int vertices = size / dimension;
+        for (int i = 0; i < vertices; i++) {
+            System.arraycopy(buffer, i * dimension, result, (vertices - 1 - i) * dimension, dimension);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        nodeCursor.close();
+        relationshipCursor.close();
+        propertyCursor.close();
+    }
+}
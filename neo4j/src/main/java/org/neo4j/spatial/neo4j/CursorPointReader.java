@@ -0,0 +1,89 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Point;
+
+import java.util.Map;
+
+/**
+ * Reads the 'location' property of nodes through one node and one property cursor, which are allocated once and
+ * reused for every node until the reader is closed. The coordinate and the CRS are read together in a single pass
+ * over the properties of the node.
+ */
+class CursorPointReader implements AutoCloseable {
+    private static final String PROPERTY = "location";
+
+    private final KernelTransaction ktx;
+    private final Map<Long, Point> cache;
+    private final int propertyId;
+    private NodeCursor nodeCursor;
+    private PropertyCursor propertyCursor;
+
+    /**
+     * @param ktx
+     * @param cache points already read, keyed by node id, which is filled by this reader. May be null
+     */
+    CursorPointReader(KernelTransaction ktx, Map<Long, Point> cache) {
+        this.ktx = ktx;
+        this.cache = cache;
+        this.propertyId = ktx.tokenRead().propertyKey(PROPERTY);
+    }
+
+    /**
+     * @param nodeId
+     * @return The point stored in the 'location' property of the node
+     */
+    Point read(long nodeId) {
+        if (cache != null) {
+            Point cached = cache.get(nodeId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        if (propertyId == TokenRead.NO_TOKEN) {
+            throw new IllegalArgumentException("No node has a '" + PROPERTY + "' property");
+        }
+        if (nodeCursor == null) {
+            nodeCursor = ktx.cursors().allocateNodeCursor(CursorContext.NULL_CONTEXT);
+            propertyCursor = ktx.cursors().allocatePropertyCursor(CursorContext.NULL_CONTEXT, EmptyMemoryTracker.INSTANCE);
+        }
+
+        Point point = null;
+        ktx.dataRead().singleNode(nodeId, nodeCursor);
+        if (nodeCursor.next()) {
+            nodeCursor.properties(propertyCursor);
+            while (propertyCursor.next()) {
+                if (propertyCursor.propertyKey() == propertyId) {
+                    org.neo4j.graphdb.spatial.Point location = (org.neo4j.graphdb.spatial.Point) propertyCursor.propertyValue();
+                    CRS crs = CRSConverter.toInMemoryCRS(location.getCRS());
+                    point = Point.point(crs, location.getCoordinate().getCoordinate().clone());
+                    break;
+                }
+            }
+        }
+        if (point == null) {
+            throw new IllegalArgumentException("Node " + nodeId + " has no '" + PROPERTY + "' property");
+        }
+
+        if (cache != null) {
+            cache.put(nodeId, point);
+        }
+        return point;
+    }
+
+    @Override
+    public void close() {
+        if (nodeCursor != null) {
+            nodeCursor.close();
+            propertyCursor.close();
+            nodeCursor = null;
+            propertyCursor = null;
+        }
+    }
+}
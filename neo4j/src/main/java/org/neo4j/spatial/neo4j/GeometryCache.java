@@ -0,0 +1,288 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.Polygon;
+import org.neo4j.spatial.core.PolygonUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the multipolygons read by the procedures across calls and transactions, so repeated calls on the same OSM
+ * relation do not walk the graph or properties and nest the shells and holes again.
+ * <p>
+ * Entries are keyed by the source of the geometry and the element id of the relation node. The rings are detached from
+ * the transaction as packed coordinates, every lookup gets its own {@link MultiPolygon} tree over the shared arrays.
+ * The cache is bounded by the total number of cached vertices and evicts the least recently used entries first.
+ * <p>
+ * Entries are invalidated by {@link GeometryCacheExtensionFactory}, which listens to the commits of every database it
+ * is {@link #register(String) registered} for. Each entry remembers the element ids of the nodes it was read from. An
+ * invalidation bumps the generation of the cache, and geometries read before the bump are not stored, so a read
+ * overlapping a commit cannot put stale data in the cache.
+ */
+public class GeometryCache {
+    public enum Source {
+        Property, Graph, Blob
+    }
+
+    public static final long DEFAULT_MAX_VERTICES = Long.getLong("spatial.geometry.cache.maxVertices", 10_000_000L);
+
+    private static final GeometryCache INSTANCE = new GeometryCache(DEFAULT_MAX_VERTICES);
+
+    private final long maxVertices;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> dependents = new HashMap<>();
+    private final Set<String> databases = ConcurrentHashMap.newKeySet();
+    private long vertices;
+    private long generation;
+
+    GeometryCache(long maxVertices) {
+        this.maxVertices = maxVertices;
+    }
+
+    public static GeometryCache getInstance() {
+        return INSTANCE;
+    }
+
+    void register(String database) {
+        databases.add(database);
+    }
+
+    void unregister(String database) {
+        databases.remove(database);
+        clear();
+    }
+
+    /**
+     * @return True iff commits of the database invalidate the cache, otherwise it must not be used
+     */
+    public boolean isEnabled(String database) {
+        return databases.contains(database);
+    }
+
+    /**
+     * @param source how the geometry is stored
+     * @param main the relation node
+     * @param loader reads the geometry if it is not cached
+     * @return The cached geometry, or the geometry read by the loader which is then cached
+     */
+    public MultiPolygon get(Source source, Node main, Function<Node, MultiPolygon> loader) {
+        Key key = new Key(source, main.getElementId());
+        Entry entry;
+        long readGeneration;
+        synchronized (this) {
+            entry = entries.get(key);
+            readGeneration = generation;
+        }
+        if (entry == null) {
+            entry = new Entry(key, loader.apply(main), structure(main));
+            put(entry, readGeneration);
+        }
+        return entry.toMultiPolygon();
+    }
+
+    private synchronized void put(Entry entry, long readGeneration) {
+        if (readGeneration != generation || entry.vertices > maxVertices) {
+            return;
+        }
+        remove(entry.key);
+        entries.put(entry.key, entry);
+        vertices += entry.vertices;
+        for (String elementId : entry.dependencies) {
+            dependents.computeIfAbsent(elementId, k -> new HashSet<>()).add(entry.key);
+        }
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (vertices > maxVertices && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            forget(evicted);
+        }
+    }
+
+    /**
+     * Removes every entry read from one of the nodes
+     */
+    public synchronized void invalidate(Collection<String> elementIds) {
+        generation++;
+        for (String elementId : elementIds) {
+            Set<Key> keys = dependents.remove(elementId);
+            if (keys != null) {
+                for (Key key : keys) {
+                    remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every entry of the source
+     */
+    public synchronized void invalidate(Source source) {
+        generation++;
+        List<Key> keys = new ArrayList<>();
+        for (Key key : entries.keySet()) {
+            if (key.source == source) {
+                keys.add(key);
+            }
+        }
+        for (Key key : keys) {
+            remove(key);
+        }
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        dependents.clear();
+        vertices = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long vertices() {
+        return vertices;
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            forget(entry);
+        }
+    }
+
+    private void forget(Entry entry) {
+        vertices -= entry.vertices;
+        for (String elementId : entry.dependencies) {
+            Set<Key> keys = dependents.get(elementId);
+            if (keys != null) {
+                keys.remove(entry.key);
+                if (keys.isEmpty()) {
+                    dependents.remove(elementId);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The element ids of the relation node and every polygon node below it
+     */
+    private static List<String> structure(Node main) {
+        List<String> result = new ArrayList<>();
+        result.add(main.getElementId());
+        for (Relationship polygonStructure : main.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
+            result.addAll(structure(polygonStructure.getEndNode()));
+        }
+        return result;
+    }
+
+    private static class Key {
+        private final Source source;
+        private final String elementId;
+
+        private Key(Source source, String elementId) {
+            this.source = source;
+            this.elementId = elementId;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && source == key.source && elementId.equals(key.elementId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, elementId);
+        }
+    }
+
+    private static class Entry {
+        private final Key key;
+        private final Ring[] rings;
+        private final List<String> dependencies;
+        private final long vertices;
+
+        private Entry(Key key, MultiPolygon polygon, List<String> dependencies) {
+            this.key = key;
+            this.rings = Ring.of(polygon);
+            this.dependencies = dependencies;
+            this.vertices = Ring.vertices(rings);
+        }
+
+        private MultiPolygon toMultiPolygon() {
+            MultiPolygon result = new MultiPolygon();
+            for (Ring ring : rings) {
+                result.addChild(ring.toMultiPolygonNode());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * A detached polygon of the tree, the children are nested inside it
+     */
+    private static class Ring {
+        private final CRS crs;
+        private final int dimension;
+        private final double[] coordinates;
+        private final Ring[] children;
+
+        private Ring(Polygon.SimplePolygon polygon, Ring[] children) {
+            CoordinateSequence sequence = polygon.getCoordinateSequence();
+            this.crs = polygon.getCRS();
+            this.dimension = polygon.dimension();
+            double[] coordinates = new double[sequence.size() * dimension];
+            for (int i = 0; i < sequence.size(); i++) {
+                coordinates[i * dimension] = sequence.getX(i);
+                coordinates[i * dimension + 1] = sequence.getY(i);
+                if (dimension > 2) {
+                    coordinates[i * dimension + 2] = sequence.getZ(i);
+                }
+            }
+            this.coordinates = PolygonUtil.closeRing(dimension, coordinates);
+            this.children = children;
+        }
+
+        private static Ring[] of(MultiPolygon polygon) {
+            List<MultiPolygon.MultiPolygonNode> nodes = polygon.getChildren();
+            Ring[] rings = new Ring[nodes.size()];
+            for (int i = 0; i < rings.length; i++) {
+                rings[i] = new Ring(nodes.get(i).getPolygon(), of(nodes.get(i)));
+            }
+            return rings;
+        }
+
+        private static long vertices(Ring[] rings) {
+            long vertices = 0;
+            for (Ring ring : rings) {
+                vertices += ring.coordinates.length / ring.dimension + vertices(ring.children);
+            }
+            return vertices;
+        }
+
+        private MultiPolygon.MultiPolygonNode toMultiPolygonNode() {
+            MultiPolygon.MultiPolygonNode node = new MultiPolygon.MultiPolygonNode(Polygon.packed(crs, dimension, coordinates));
+            for (Ring child : children) {
+                node.addChild(child.toMultiPolygonNode());
+            }
+            return node;
+        }
+    }
+}
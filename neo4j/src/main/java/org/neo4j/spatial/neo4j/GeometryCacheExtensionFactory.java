@@ -0,0 +1,154 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListenerAdapter;
+import org.neo4j.kernel.extension.ExtensionFactory;
+import org.neo4j.kernel.extension.ExtensionType;
+import org.neo4j.kernel.extension.context.ExtensionContext;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Registers a transaction listener per database which invalidates the {@link GeometryCache} entries read from nodes
+ * changed by a commit. Changes to the stored polygons or the polygon structure invalidate the entries of the nodes
+ * involved. Changes to the way graph itself, locations, NEXT/NODE relationships or the relation_osm_ids of
+ * NEXT_IN_POLYGON, cannot be traced back to a relation cheaply, they invalidate every geometry read from the graph.
+ */
+public class GeometryCacheExtensionFactory extends ExtensionFactory<GeometryCacheExtensionFactory.Dependencies> {
+    private static final Set<String> POLYGON_PROPERTIES = Set.of(
+            Neo4jArrayToInMemoryConverter.POLYGON_PROPERTY,
+            Neo4jBlobToInMemoryConverter.POLYGON_PROPERTY,
+            "relation_osm_id");
+    private static final Set<String> STRUCTURE_RELATIONS = Set.of(
+            Relation.POLYGON_STRUCTURE.name(),
+            Relation.POLYGON_START.name());
+    private static final Set<String> GRAPH_RELATIONS = Set.of(
+            Relation.NEXT.name(),
+            Relation.NEXT_IN_POLYGON.name(),
+            Relation.NODE.name(),
+            Relation.FIRST_NODE.name());
+
+    public interface Dependencies {
+        GraphDatabaseAPI graphDatabaseAPI();
+
+        DatabaseManagementService databaseManagementService();
+    }
+
+    public GeometryCacheExtensionFactory() {
+        super(ExtensionType.DATABASE, "spatialGeometryCache");
+    }
+
+    @Override
+    public Lifecycle newInstance(ExtensionContext context, Dependencies dependencies) {
+        String database = dependencies.graphDatabaseAPI().databaseName();
+        if (database.equals(GraphDatabaseSettings.SYSTEM_DATABASE_NAME)) {
+            //The system database holds no geometries and does not support transaction listeners
+            return new LifecycleAdapter();
+        }
+        DatabaseManagementService managementService = dependencies.databaseManagementService();
+        Listener listener = new Listener(GeometryCache.getInstance());
+
+        return new LifecycleAdapter() {
+            @Override
+            public void start() {
+                managementService.registerTransactionEventListener(database, listener);
+                GeometryCache.getInstance().register(database);
+            }
+
+            @Override
+            public void stop() {
+                GeometryCache.getInstance().unregister(database);
+                managementService.unregisterTransactionEventListener(database, listener);
+            }
+        };
+    }
+
+    /**
+     * Collects the invalidations before the commit, while the deleted entities can still be read, and applies them
+     * after it
+     */
+    static class Listener extends TransactionEventListenerAdapter<Listener.Invalidation> {
+        private final GeometryCache cache;
+
+        Listener(GeometryCache cache) {
+            this.cache = cache;
+        }
+
+        static class Invalidation {
+            private final Set<String> elementIds = new HashSet<>();
+            private boolean graph;
+
+            private boolean isEmpty() {
+                return elementIds.isEmpty() && !graph;
+            }
+        }
+
+        @Override
+        public Invalidation beforeCommit(TransactionData data, Transaction transaction, GraphDatabaseService databaseService) {
+            Invalidation invalidation = new Invalidation();
+            for (Node node : data.deletedNodes()) {
+                invalidation.elementIds.add(node.getElementId());
+            }
+            collectProperties(data.assignedNodeProperties(), invalidation);
+            collectProperties(data.removedNodeProperties(), invalidation);
+            collectRelationshipProperties(data.assignedRelationshipProperties(), invalidation);
+            collectRelationshipProperties(data.removedRelationshipProperties(), invalidation);
+            collectRelationships(data.createdRelationships(), invalidation);
+            collectRelationships(data.deletedRelationships(), invalidation);
+            return invalidation.isEmpty() ? null : invalidation;
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, Invalidation invalidation, GraphDatabaseService databaseService) {
+            if (invalidation == null) {
+                return;
+            }
+            if (invalidation.graph) {
+                cache.invalidate(GeometryCache.Source.Graph);
+            }
+            cache.invalidate(invalidation.elementIds);
+        }
+
+        private static void collectProperties(Iterable<PropertyEntry<Node>> properties, Invalidation invalidation) {
+            for (PropertyEntry<Node> property : properties) {
+                if (POLYGON_PROPERTIES.contains(property.key())) {
+                    invalidation.elementIds.add(property.entity().getElementId());
+                } else if (property.key().equals("location")) {
+                    invalidation.graph = true;
+                }
+            }
+        }
+
+        private static void collectRelationshipProperties(Iterable<PropertyEntry<Relationship>> properties, Invalidation invalidation) {
+            for (PropertyEntry<Relationship> property : properties) {
+                //The relations sharing a NEXT_IN_POLYGON decide which ways the graph walk follows
+                if (property.key().equals("relation_osm_ids") && property.entity().isType(Relation.NEXT_IN_POLYGON)) {
+                    invalidation.graph = true;
+                }
+            }
+        }
+
+        private static void collectRelationships(Iterable<Relationship> relationships, Invalidation invalidation) {
+            for (Relationship relationship : relationships) {
+                String type = relationship.getType().name();
+                if (STRUCTURE_RELATIONS.contains(type)) {
+                    invalidation.elementIds.add(relationship.getStartNode().getElementId());
+                    invalidation.elementIds.add(relationship.getEndNode().getElementId());
+                } else if (GRAPH_RELATIONS.contains(type)) {
+                    invalidation.graph = true;
+                }
+            }
+        }
+    }
+}
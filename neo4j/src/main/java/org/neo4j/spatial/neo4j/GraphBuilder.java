@@ -5,6 +5,7 @@ import org.neo4j.graphdb.*;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.TreeMap;
 
 public abstract class GraphBuilder {
     protected Node main;
@@ -20,10 +21,15 @@ public abstract class GraphBuilder {
     abstract void build();
 
     /**
-     * Connect unconnected way nodes of a polygon/polyline via a special relation relating to the OSMRelation
+     * Connect unconnected way nodes of a polygon/polyline via a special relation relating to the OSMRelation.
+     * Relations sharing ways update the same relationships, so the way nodes are write locked first.
+     *
+     * @param direction the direction in which an existing relationship is reused, polygon rings are walked both ways
+     *                  but polylines only along outgoing relationships
      */
-    protected void connectPolylines(RelationshipType nextPolyRelType, int offset) {
+    protected void connectPolylines(RelationshipType nextPolyRelType, Direction direction, int offset) {
         long relationOsmId = (long) main.getProperty("relation_osm_id");
+        lockWayNodes();
 
         for (List<Node> polyline : polylines) {
 
@@ -36,7 +42,7 @@ public abstract class GraphBuilder {
                 }
 
                 // If we already have a nextPolyRel relationship to the other node, update it
-                Relationship nextPolyRel = findPolyRel(a, b, nextPolyRelType);
+                Relationship nextPolyRel = findPolyRel(a, b, nextPolyRelType, direction);
                 if (nextPolyRel != null) {
 
                     // If the relationship does not contain this relation ID, add it
@@ -48,7 +54,7 @@ public abstract class GraphBuilder {
 
                         nextPolyRel.setProperty("relation_osm_ids", idsModified);
                     }
-                    break;
+                    continue;
                 }
 
                 // If we have no NEXT relationship, make a NEXT_IN_POLYGON relationship instead
@@ -61,10 +67,25 @@ public abstract class GraphBuilder {
         }
     }
 
-    private Relationship findPolyRel(Node from, Node to, RelationshipType relType) {
+    /**
+     * Write lock all way nodes of the polylines, in a fixed order so concurrent builders do not deadlock on them
+     */
+    private void lockWayNodes() {
+        TreeMap<String, Node> wayNodes = new TreeMap<>();
+        for (List<Node> polyline : polylines) {
+            for (Node node : polyline) {
+                wayNodes.put(node.getElementId(), node);
+            }
+        }
+        for (Node node : wayNodes.values()) {
+            tx.acquireWriteLock(node);
+        }
+    }
+
+    private Relationship findPolyRel(Node from, Node to, RelationshipType relType, Direction direction) {
         Relationship found = null;
-        for (Relationship relationship : from.getRelationships(Direction.OUTGOING, relType)) {
-            if (to == relationship.getOtherNode(from)) {
+        for (Relationship relationship : from.getRelationships(direction, relType)) {
+            if (to.equals(relationship.getOtherNode(from))) {
                 found = relationship;
             }
         }
@@ -74,7 +95,7 @@ public abstract class GraphBuilder {
     private Relationship findNextRelationship(Node from, Node to) {
         Relationship found = null;
         for (Relationship relationship : from.getRelationships(Relation.NEXT)) {
-            if (to == relationship.getOtherNode(from)) {
+            if (to.equals(relationship.getOtherNode(from))) {
                 found = relationship;
             }
         }
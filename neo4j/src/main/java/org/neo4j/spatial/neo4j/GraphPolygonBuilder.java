@@ -18,7 +18,7 @@ public class GraphPolygonBuilder extends GraphBuilder {
     }
 
     public void build() {
-        connectPolylines(Relation.NEXT_IN_POLYGON, 0);
+        connectPolylines(Relation.NEXT_IN_POLYGON, Direction.BOTH, 0);
         MultiPolygon root = buildMultiPolygon();
 
         for (MultiPolygon.MultiPolygonNode child : root.getChildren()) {
@@ -13,7 +13,7 @@ public class GraphPolylineBuilder extends GraphBuilder {
 
     public void build() {
         // TODO: Figure out why the polyline builder needs this offset=1
-        connectPolylines(Relation.NEXT_IN_POLYLINE, 1);
+        connectPolylines(Relation.NEXT_IN_POLYLINE, Direction.OUTGOING, 1);
         connectToMain();
     }
 
@@ -7,24 +7,63 @@ import org.neo4j.spatial.core.Polygon;
 import org.neo4j.spatial.core.Polyline;
 
 public class Neo4jArrayToInMemoryConverter {
-    private static final String POLYGON_PROPERTY = "polygon";
-    private static final String POLYLINE_PROPERTY = "polyline";
+    public static final String POLYGON_PROPERTY = "polygon";
+    public static final String POLYLINE_PROPERTY = "polyline";
+    /**
+     * Suffix of the double[] property holding the ascending tolerances of the simplified levels of a geometry property
+     */
+    public static final String LEVELS_SUFFIX = "_levels";
+    /**
+     * Infix between the geometry property and the number of a simplified level, like 'polygon_level_0'
+     */
+    public static final String LEVEL_INFIX = "_level_";
 
     public static Polygon.SimplePolygon convertToInMemoryPolygon(Node node) {
-        org.neo4j.graphdb.spatial.Point[] neo4jPoints = (org.neo4j.graphdb.spatial.Point[]) node.getProperty(POLYGON_PROPERTY);
-
-        Point[] result = new Point[neo4jPoints.length];
-        for (int i = 0; i < neo4jPoints.length; i++) {
-            CRS neo4jCRS = neo4jPoints[i].getCRS();
-            org.neo4j.spatial.core.CRS crs = CRSConverter.toInMemoryCRS(neo4jCRS);
-            result[i] = Point.point(crs, neo4jPoints[i].getCoordinate().getCoordinate().clone());
-        }
+        return convertToInMemoryPolygon(node, 0);
+    }
 
-        return Polygon.simple(result);
+    /**
+     * @param node
+     * @param tolerance the largest simplification tolerance which is acceptable, 0 for the full geometry
+     * @return The polygon of the coarsest level within the tolerance, or the full polygon if there is none
+     */
+    public static Polygon.SimplePolygon convertToInMemoryPolygon(Node node, double tolerance) {
+        return Polygon.simple(convertToInMemoryPoints(node, levelProperty(node, POLYGON_PROPERTY, tolerance)));
     }
 
     public static Polyline convertToInMemoryPolyline(Node node) {
-        org.neo4j.graphdb.spatial.Point[] neo4jPoints = (org.neo4j.graphdb.spatial.Point[]) node.getProperty(POLYLINE_PROPERTY);
+        return convertToInMemoryPolyline(node, 0);
+    }
+
+    /**
+     * @param node
+     * @param tolerance the largest simplification tolerance which is acceptable, 0 for the full geometry
+     * @return The polyline of the coarsest level within the tolerance, or the full polyline if there is none
+     */
+    public static Polyline convertToInMemoryPolyline(Node node, double tolerance) {
+        return Polyline.polyline(convertToInMemoryPoints(node, levelProperty(node, POLYLINE_PROPERTY, tolerance)));
+    }
+
+    /**
+     * @param node
+     * @param property the property with the full geometry
+     * @param tolerance the largest simplification tolerance which is acceptable
+     * @return The property of the coarsest level with at most the given tolerance, or the given property if there is none
+     */
+    public static String levelProperty(Node node, String property, double tolerance) {
+        if (tolerance > 0 && node.hasProperty(property + LEVELS_SUFFIX)) {
+            double[] tolerances = (double[]) node.getProperty(property + LEVELS_SUFFIX);
+            for (int level = tolerances.length - 1; level >= 0; level--) {
+                if (tolerances[level] <= tolerance) {
+                    return property + LEVEL_INFIX + level;
+                }
+            }
+        }
+        return property;
+    }
+
+    private static Point[] convertToInMemoryPoints(Node node, String property) {
+        org.neo4j.graphdb.spatial.Point[] neo4jPoints = (org.neo4j.graphdb.spatial.Point[]) node.getProperty(property);
 
         Point[] result = new Point[neo4jPoints.length];
         for (int i = 0; i < neo4jPoints.length; i++) {
@@ -32,7 +71,6 @@ public class Neo4jArrayToInMemoryConverter {
             org.neo4j.spatial.core.CRS crs = CRSConverter.toInMemoryCRS(neo4jCRS);
             result[i] = Point.point(crs, neo4jPoints[i].getCoordinate().getCoordinate().clone());
         }
-
-        return Polyline.polyline(result);
+        return result;
     }
 }
@@ -0,0 +1,24 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.spatial.core.PackedCoordinateCodec;
+import org.neo4j.spatial.core.PackedPolygon;
+import org.neo4j.spatial.core.PackedPolyline;
+
+/**
+ * Reads geometries stored as a single byte[] property encoded by {@link PackedCoordinateCodec}. Compared to the
+ * Point[] properties read by {@link Neo4jArrayToInMemoryConverter} no point values are created, the property is decoded
+ * straight into packed coordinates.
+ */
+public class Neo4jBlobToInMemoryConverter {
+    public static final String POLYGON_PROPERTY = "polygon_blob";
+    public static final String POLYLINE_PROPERTY = "polyline_blob";
+
+    public static PackedPolygon convertToInMemoryPolygon(Node node) {
+        return PackedCoordinateCodec.decodePolygon((byte[]) node.getProperty(POLYGON_PROPERTY));
+    }
+
+    public static PackedPolyline convertToInMemoryPolyline(Node node) {
+        return PackedCoordinateCodec.decodePolyline((byte[]) node.getProperty(POLYLINE_PROPERTY));
+    }
+}
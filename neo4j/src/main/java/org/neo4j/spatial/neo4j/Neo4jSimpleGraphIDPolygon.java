@@ -9,12 +9,27 @@ import org.neo4j.spatial.algo.CCWCalculator;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.PolygonUtil;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class Neo4jSimpleGraphIDPolygon extends Neo4jSimpleGraphPolygon {
-    private KernelTransaction ktx;
+    private final KernelTransaction ktx;
+    private final Map<Long, Point> cache;
 
     public Neo4jSimpleGraphIDPolygon(Node main, long osmRelationId, KernelTransaction ktx) {
+        this(main, osmRelationId, ktx, true);
+    }
+
+    /**
+     * @param main
+     * @param osmRelationId
+     * @param ktx
+     * @param memoize keep the points read per node id, so vertices visited again are not read from the store
+     */
+    public Neo4jSimpleGraphIDPolygon(Node main, long osmRelationId, KernelTransaction ktx, boolean memoize) {
         super(main, osmRelationId);
         this.ktx = ktx;
+        this.cache = memoize ? new HashMap<>() : null;
     }
 
     @Override
@@ -36,16 +51,21 @@ public class Neo4jSimpleGraphIDPolygon extends Neo4jSimpleGraphPolygon {
 
     private Point[] extractPoints(Node[] wayNodes) {
         Point[] points = new Point[wayNodes.length];
-        for (int i = 0; i < points.length; i++) {
-            points[i] = extractPoint(wayNodes[i]);
+        try (CursorPointReader reader = new CursorPointReader(ktx, cache)) {
+            for (int i = 0; i < points.length; i++) {
+                points[i] = reader.read(locationNodeId(wayNodes[i]));
+            }
         }
         return points;
     }
 
     @Override
     Point extractPoint(Node wayNode) {
-        Node node = wayNode.getSingleRelationship(Relation.NODE, Direction.OUTGOING).getEndNode();
-        return new Neo4jIDPoint(node.getId(), ktx);
+        return new Neo4jIDPoint(locationNodeId(wayNode), ktx, cache);
+    }
+
+    private static long locationNodeId(Node wayNode) {
+        return UserDefinedFunctions.nodeReference(wayNode.getSingleRelationship(Relation.NODE, Direction.OUTGOING).getEndNode());
     }
 
     @Override
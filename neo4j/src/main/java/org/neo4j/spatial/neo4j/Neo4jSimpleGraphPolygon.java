@@ -11,6 +11,7 @@ import org.neo4j.kernel.impl.traversal.MonoDirectionalTraversalDescription;
 import org.neo4j.spatial.algo.Distance;
 import org.neo4j.spatial.algo.DistanceCalculator;
 import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Envelope;
 import org.neo4j.spatial.core.Point;
 import org.neo4j.spatial.core.Polygon;
 
@@ -20,21 +21,34 @@ import static java.lang.String.format;
 
 public abstract class Neo4jSimpleGraphPolygon implements Polygon.SimplePolygon {
     final private long osmRelationId;
-    final private CRS crs;
+    private CRS crs;
+    private Envelope envelope;
     private Iterator<Node> nodeIterator;
     Node firstWayNode;
 
     public Neo4jSimpleGraphPolygon(Node firstWayNode, long osmRelationId) {
         this.osmRelationId = osmRelationId;
         this.firstWayNode = firstWayNode;
-        crs = extractPoint(firstWayNode).getCRS();
     }
 
     @Override
     public CRS getCRS() {
+        //Read on first use, subclasses may not be fully constructed yet while this constructor runs
+        if (crs == null) {
+            crs = extractPoint(firstWayNode).getCRS();
+        }
         return crs;
     }
 
+    @Override
+    public Envelope getEnvelope() {
+        //Every call of getPoints traverses the whole polygon in the graph
+        if (envelope == null) {
+            envelope = Polygon.SimplePolygon.super.getEnvelope();
+        }
+        return envelope;
+    }
+
     @Override
     public int dimension() {
         return extractPoint(this.firstWayNode).dimension();
@@ -53,7 +53,8 @@ public abstract class Neo4jSimpleGraphPolyline implements Polyline {
         return new MonoDirectionalTraversalDescription()
                 .depthFirst()
                 .relationships(Relation.NEXT, Direction.BOTH)
-                .relationships(Relation.NEXT_IN_POLYLINE)
+                //Only outgoing links, so a reversed link of another relation does not visit the next way node first
+                .relationships(Relation.NEXT_IN_POLYLINE, Direction.OUTGOING)
                 .uniqueness(Uniqueness.NODE_GLOBAL)
                 .evaluator(new WayEvaluator(osmRelationId, Relation.NEXT, Direction.OUTGOING)).traverse(start);
     }
@@ -5,7 +5,6 @@ import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.spatial.algo.AlgoUtil;
 import org.neo4j.spatial.algo.wgs84.WGSUtil;
-import org.neo4j.spatial.core.Vector;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -92,7 +91,8 @@ public class OSMTraverser {
     }
 
     /**
-     * Connect neighboring ways to create polygons by common nodes.
+     * Connect neighboring ways to create polygons by common nodes. The candidates are indexed by the OSM nodes at their
+     * ends, so each join only looks at the ways ending at the current ends of the growing way.
      *
      * @param candidates List of candidate ways
      * @return First list contains enriched ways which describe full polygons
@@ -102,21 +102,33 @@ public class OSMTraverser {
         List<EnrichedWay> polygons = new ArrayList<>();
         List<EnrichedWay> notPolygons = new ArrayList<>();
 
-        while (!candidates.isEmpty()) {
-            boolean joinedSome;
-            EnrichedWay way = candidates.remove(0);
-
-            do {
-                joinedSome = false;
-                ListIterator<EnrichedWay> wayIter = candidates.listIterator();
-                while (wayIter.hasNext()) {
-                    EnrichedWay candidate = wayIter.next();
-                    if (way.joinByCommonNode(candidate)) {
-                        wayIter.remove();
-                        joinedSome = true;
-                    }
+        Map<Node, List<Integer>> byFirst = new HashMap<>();
+        Map<Node, List<Integer>> byLast = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            byFirst.computeIfAbsent(candidates.get(i).first.node, k -> new ArrayList<>()).add(i);
+            byLast.computeIfAbsent(candidates.get(i).last.node, k -> new ArrayList<>()).add(i);
+        }
+        boolean[] used = new boolean[candidates.size()];
+
+        for (int i = 0; i < candidates.size(); i++) {
+            if (used[i]) {
+                continue;
+            }
+            used[i] = true;
+            EnrichedWay way = candidates.get(i);
+
+            while (true) {
+                int next = firstUnused(used,
+                        byLast.get(way.first.node),
+                        byFirst.get(way.last.node),
+                        byFirst.get(way.first.node),
+                        byLast.get(way.last.node));
+                if (next < 0) {
+                    break;
                 }
-            } while (joinedSome);
+                used[next] = true;
+                way.joinByCommonNode(candidates.get(next));
+            }
 
             if (way.isClosed()) {
                 polygons.add(way);
@@ -129,71 +141,175 @@ public class OSMTraverser {
     }
 
     /**
-     * Connect neighboring ways to create polygons by proximity of the end nodes.
+     * @return The lowest index in the lists which is not used yet, or -1
+     */
+    @SafeVarargs
+    private static int firstUnused(boolean[] used, List<Integer>... indices) {
+        int result = -1;
+        for (List<Integer> list : indices) {
+            if (list == null) {
+                continue;
+            }
+            list.removeIf(i -> used[i]);
+            if (!list.isEmpty() && (result < 0 || list.get(0) < result)) {
+                result = list.get(0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Connect neighboring ways to create polygons by proximity of the end nodes. The ends of the open polylines are kept
+     * in a grid over their n-vectors, so finding the closest polyline only compares the ends within the threshold.
      *
      * @param candidates List of candidate ways
      * @return List of enriched ways where each enriched way describes a polygon
      */
     private static Pair<List<EnrichedWay>, List<EnrichedWay>> connectWaysByProximity(List<EnrichedWay> candidates, double proximityThreshold) {
         List<EnrichedWay> polygons = new ArrayList<>();
-        List<EnrichedWay> polylines = new ArrayList<>();
+        Set<EnrichedWay> polylines = new LinkedHashSet<>();
+        EndpointGrid grid = new EndpointGrid(proximityThreshold);
 
-        polylines.add(candidates.remove(0));
+        EnrichedWay firstWay = candidates.remove(0);
+        polylines.add(firstWay);
+        grid.add(firstWay);
 
-        while (candidates.size() > 0) {
-            EnrichedWay wayToAdd = candidates.remove(0);
+        for (EnrichedWay wayToAdd : candidates) {
+            EndpointGrid.Match match = grid.closest(wayToAdd);
 
-            double minDistance = Double.MAX_VALUE;
-            int bestIndex = -1;
-            EnrichedWay.JoinDirection joinDirection = null;
+            // Closest polyline is close enough to merge
+            if (match != null && match.distance <= proximityThreshold) {
+                EnrichedWay wayToAddTo = match.way;
+                grid.remove(wayToAddTo);
+                wayToAddTo.join(wayToAdd, match.direction);
 
-            for (int i = 0; i < polylines.size(); i++) {
-                EnrichedWay candidateWayToAddTo = polylines.get(i);
+                //The polyline closes itself
+                if (AlgoUtil.lessOrEqual(wayToAddTo.endDistance(), proximityThreshold)) {
+                    polygons.add(wayToAddTo);
+                    polylines.remove(wayToAddTo);
+                } else {
+                    grid.add(wayToAddTo);
+                }
+            } else if (AlgoUtil.lessOrEqual(wayToAdd.endDistance(), proximityThreshold)) {
+                //The polyline closes itself
+                polygons.add(wayToAdd);
+            } else {
+                polylines.add(wayToAdd);
+                grid.add(wayToAdd);
+            }
+        }
 
-                Pair<Double, EnrichedWay.JoinDirection> distanceDirection = candidateWayToAddTo.distanceTo(wayToAdd);
+        return Pair.of(polygons, new ArrayList<>(polylines));
+    }
 
-                if (distanceDirection.first() < minDistance) {
-                    minDistance = distanceDirection.first();
-                    joinDirection = distanceDirection.other();
-                    bestIndex = i;
-                }
+    /**
+     * The ends of open polylines, hashed into cubic cells of the unit sphere. Points within the threshold of each other
+     * have a chord shorter than the cell size, so they lie in the same or a neighbouring cell.
+     */
+    private static class EndpointGrid {
+        private final double cellSize;
+        private final Map<Long, List<EnrichedWay>> cells = new HashMap<>();
+        private final Map<EnrichedWay, Integer> order = new IdentityHashMap<>();
+        private int added;
+
+        static class Match {
+            final EnrichedWay way;
+            final EnrichedWay.JoinDirection direction;
+            final double distance;
+
+            private Match(EnrichedWay way, EnrichedWay.JoinDirection direction, double distance) {
+                this.way = way;
+                this.direction = direction;
+                this.distance = distance;
             }
+        }
 
-            // Closest polyline is close enough to merge
-            if (minDistance <= proximityThreshold) {
-                EnrichedWay wayToAddTo = polylines.get(bestIndex);
-                wayToAddTo.join(wayToAdd, joinDirection);
+        EndpointGrid(double threshold) {
+            this.cellSize = Math.max(threshold / WGSUtil.RADIUS, 1e-12);
+        }
+
+        void add(EnrichedWay way) {
+            order.putIfAbsent(way, added++);
+            cell(way.first.nVector, 0, 0, 0, true).add(way);
+            cell(way.last.nVector, 0, 0, 0, true).add(way);
+        }
 
-                Vector first = new Vector(true, wayToAddTo.first.other());
-                Vector last = new Vector(true, wayToAddTo.last.other());
-                double distance = WGSUtil.distance(first, last);
+        void remove(EnrichedWay way) {
+            removeFrom(cell(way.first.nVector, 0, 0, 0, false), way);
+            removeFrom(cell(way.last.nVector, 0, 0, 0, false), way);
+        }
 
-                //The polyline closes itself
-                if (AlgoUtil.lessOrEqual(distance, proximityThreshold)) {
-                    polygons.add(wayToAddTo);
-                    polylines.remove(wayToAddTo);
+        /**
+         * @return The polyline with an end closest to an end of the way, preferring the earliest added polyline on
+         * ties, or null if no end is in a neighbouring cell
+         */
+        Match closest(EnrichedWay way) {
+            Match best = null;
+            for (Endpoint end : new Endpoint[]{way.first, way.last}) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            List<EnrichedWay> cell = cell(end.nVector, dx, dy, dz, false);
+                            if (cell == null) {
+                                continue;
+                            }
+                            for (EnrichedWay candidate : cell) {
+                                Match match = candidate.distanceTo(way);
+                                if (best == null || match.distance < best.distance
+                                        || (match.distance == best.distance && order.get(candidate) < order.get(best.way))) {
+                                    best = match;
+                                }
+                            }
+                        }
+                    }
                 }
-            } else {
-                Vector first = new Vector(true, wayToAdd.first.other());
-                Vector last = new Vector(true, wayToAdd.last.other());
-                double distance = WGSUtil.distance(first, last);
+            }
+            return best;
+        }
 
-                //The polyline closes itself
-                if (AlgoUtil.lessOrEqual(distance, proximityThreshold)) {
-                    polygons.add(wayToAdd);
-                    polylines.remove(wayToAdd);
-                } else {
-                    polylines.add(wayToAdd);
+        private List<EnrichedWay> cell(double[] nVector, int dx, int dy, int dz, boolean create) {
+            long x = (long) Math.floor(nVector[0] / cellSize) + dx;
+            long y = (long) Math.floor(nVector[1] / cellSize) + dy;
+            long z = (long) Math.floor(nVector[2] / cellSize) + dz;
+            long key = ((x & 0x1FFFFF) << 42) | ((y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+            return create ? cells.computeIfAbsent(key, k -> new ArrayList<>(2)) : cells.get(key);
+        }
+
+        private static void removeFrom(List<EnrichedWay> cell, EnrichedWay way) {
+            if (cell != null) {
+                //Remove a single occurrence, a way with both ends in the cell is listed twice
+                for (int i = 0; i < cell.size(); i++) {
+                    if (cell.get(i) == way) {
+                        cell.remove(i);
+                        return;
+                    }
                 }
             }
         }
+    }
+
+    /**
+     * An end of a way: the OSM node, its coordinate and n-vector
+     */
+    private static class Endpoint {
+        final Node node;
+        final double[] coordinate;
+        final double[] nVector = new double[3];
+
+        private Endpoint(Node node, double[] coordinate) {
+            this.node = node;
+            this.coordinate = coordinate;
+            WGSUtil.toNVector(coordinate[0], coordinate[1], nVector, 0);
+        }
 
-        return Pair.of(polygons, polylines);
+        double distanceTo(Endpoint other) {
+            return WGSUtil.distance(nVector, 0, other.nVector, 0);
+        }
     }
 
     private static class EnrichedWay {
-        Pair<Node, double[]> first;
-        Pair<Node, double[]> last;
+        Endpoint first;
+        Endpoint last;
         private List<Node> wayNodes;
 
         enum JoinDirection {
@@ -211,16 +327,16 @@ public class OSMTraverser {
         }
 
         boolean joinByCommonNode(EnrichedWay other) {
-            if (first.first().equals(other.last.first())) {
+            if (first.node.equals(other.last.node)) {
                 join(other, JoinDirection.FL);
                 return true;
-            } else if (last.first().equals(other.first.first())) {
+            } else if (last.node.equals(other.first.node)) {
                 join(other, JoinDirection.LF);
                 return true;
-            } else if (first.first().equals(other.first.first())) {
+            } else if (first.node.equals(other.first.node)) {
                 join(other, JoinDirection.FF);
                 return true;
-            } else if (last.first().equals(other.last.first())) {
+            } else if (last.node.equals(other.last.node)) {
                 join(other, JoinDirection.LL);
                 return true;
             }
@@ -252,46 +368,58 @@ public class OSMTraverser {
             }
         }
 
-        Pair<Double, JoinDirection> distanceTo(EnrichedWay other) {
-            double[] tf = this.first.other();
-            double[] tl = this.last.other();
-            double[] of = other.first.other();
-            double[] ol = other.last.other();
-
-            List<Pair<Double, JoinDirection>> options = new ArrayList<>();
-            options.add(Pair.of(distance(tf, of), JoinDirection.FF));
-            options.add(Pair.of(distance(tf, ol), JoinDirection.FL));
-            options.add(Pair.of(distance(tl, of), JoinDirection.LF));
-            options.add(Pair.of(distance(tl, ol), JoinDirection.LL));
-
-            return options.stream().min(Comparator.comparingDouble(Pair::first)).get();
+        /**
+         * @return The closest pair of ends of the two ways, as the direction to join the other way to this one
+         */
+        EndpointGrid.Match distanceTo(EnrichedWay other) {
+            double ff = first.distanceTo(other.first);
+            double fl = first.distanceTo(other.last);
+            double lf = last.distanceTo(other.first);
+            double ll = last.distanceTo(other.last);
+
+            JoinDirection direction = JoinDirection.FF;
+            double min = ff;
+            if (fl < min) {
+                direction = JoinDirection.FL;
+                min = fl;
+            }
+            if (lf < min) {
+                direction = JoinDirection.LF;
+                min = lf;
+            }
+            if (ll < min) {
+                direction = JoinDirection.LL;
+                min = ll;
+            }
+            return new EndpointGrid.Match(this, direction, min);
         }
 
-        private double distance(double[] a, double[] b) {
-            Vector u = new Vector(true, a);
-            Vector v = new Vector(true, b);
-            return WGSUtil.distance(u, v);
+        /**
+         * @return The distance between the first and last node of the way
+         */
+        double endDistance() {
+            return first.distanceTo(last);
         }
 
         boolean isClosed() {
-            return first.first().equals(last.first());
+            return first.node.equals(last.node);
         }
 
         @Override
         public String toString() {
-            return "EW[" + Arrays.toString(first.other()) + ", " + Arrays.toString(last.other()) + "]";
+            return "EW[" + Arrays.toString(first.coordinate) + ", " + Arrays.toString(last.coordinate) + "]";
         }
 
         /**
          * @param wayNode
-         * @return The coordinate belonging to the OSMWayNode
+         * @return The OSM node belonging to the OSMWayNode together with its coordinate
          */
-        static Pair<Node, double[]> getOSMNode(Node wayNode) {
+        static Endpoint getOSMNode(Node wayNode) {
             Node node = wayNode.getSingleRelationship(Relation.NODE, Direction.OUTGOING).getEndNode();
 
             Point point = (Point) node.getProperty("location");
 
-            return Pair.of(node, point.getCoordinate().getCoordinate().clone());
+            return new Endpoint(node, point.getCoordinate().getCoordinate().clone());
         }
     }
 }
@@ -0,0 +1,122 @@
+package org.neo4j.spatial.neo4j;
+
+import org.neo4j.exceptions.KernelException;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.IndexQueryConstraints;
+import org.neo4j.internal.kernel.api.IndexReadSession;
+import org.neo4j.internal.kernel.api.NodeValueIndexCursor;
+import org.neo4j.internal.kernel.api.PropertyIndexQuery;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.internal.schema.IndexDescriptor;
+import org.neo4j.internal.schema.IndexType;
+import org.neo4j.internal.schema.SchemaDescriptors;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.spatial.core.CRS;
+import org.neo4j.spatial.core.Envelope;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.Values;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Finds the nodes with a label whose point property lies inside an {@link Envelope}, through the POINT index on the
+ * label and property. This is the filter step of the index backed procedures, the boxes seeked cover the envelope,
+ * which is a superset of the search area, and the nodes still need to be tested exactly against the geometry.
+ */
+class PointIndexSeeker {
+    private final Transaction tx;
+    private final KernelTransaction ktx;
+    private final String property;
+    private final int labelId;
+    private final int propertyKey;
+    private final IndexDescriptor index;
+
+    PointIndexSeeker(Transaction tx, KernelTransaction ktx, String label, String property) {
+        this.tx = tx;
+        this.ktx = ktx;
+        this.property = property;
+        this.labelId = ktx.tokenRead().nodeLabel(label);
+        this.propertyKey = ktx.tokenRead().propertyKey(property);
+        IndexDescriptor index = IndexDescriptor.NO_INDEX;
+        if (labelId != TokenRead.NO_TOKEN && propertyKey != TokenRead.NO_TOKEN) {
+            index = ktx.schemaRead().index(SchemaDescriptors.forLabel(labelId, propertyKey), IndexType.POINT);
+        }
+        if (index == IndexDescriptor.NO_INDEX) {
+            throw new IllegalArgumentException(format("No POINT index on :%s(%s), create one with: CREATE POINT INDEX FOR (n:%s) ON (n.%s)", label, property, label, property));
+        }
+        this.index = index;
+    }
+
+    String getProperty() {
+        return property;
+    }
+
+    /**
+     * @return The number of nodes with the label, an upper bound of the number of nodes in the index
+     */
+    long count() {
+        return ktx.dataRead().countsForNode(labelId);
+    }
+
+    /**
+     * @param envelope the search area, see {@link Envelope#bounding}
+     * @return The nodes whose point lies inside the envelope, and some outside of it
+     */
+    List<Node> seek(Envelope envelope) {
+        List<Node> result = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        try (NodeValueIndexCursor cursor = ktx.cursors().allocateNodeValueIndexCursor(ktx.cursorContext(), ktx.memoryTracker())) {
+            IndexReadSession session = ktx.dataRead().indexReadSession(index);
+            CoordinateReferenceSystem crs = envelope.getCRS() == CRS.WGS84 ? CoordinateReferenceSystem.WGS_84 : CoordinateReferenceSystem.CARTESIAN;
+            for (double[] range : ranges(envelope)) {
+                PropertyIndexQuery query = PropertyIndexQuery.boundingBox(propertyKey,
+                        Values.pointValue(crs, range[0], range[1]),
+                        Values.pointValue(crs, range[2], range[3]));
+                ktx.dataRead().nodeIndexSeek(ktx.queryContext(), session, cursor, IndexQueryConstraints.unconstrained(), query);
+                while (cursor.next()) {
+                    if (seen.add(cursor.nodeReference())) {
+                        result.add(((InternalTransaction) tx).newNodeEntity(cursor.nodeReference()));
+                    }
+                }
+            }
+        } catch (KernelException e) {
+            throw new IllegalStateException(format("Failed to seek the POINT index %s: %s", index.getName(), e.getMessage()), e);
+        }
+        return result;
+    }
+
+    /**
+     * @return The boxes {minX, minY, maxX, maxY} covering the envelope, WGS84 boxes wrapping around the antimeridian
+     * are split in two
+     */
+    private static List<double[]> ranges(Envelope envelope) {
+        List<double[]> ranges = new ArrayList<>();
+        if (envelope instanceof Envelope.Cartesian box) {
+            ranges.add(new double[]{box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY()});
+            return ranges;
+        }
+        Envelope.Spherical cap = (Envelope.Spherical) envelope;
+        double minY = cap.getMinLatitude();
+        double maxY = cap.getMaxLatitude();
+        double[] longitudes = cap.getLongitudes();
+        if (longitudes[1] - longitudes[0] >= 360) {
+            ranges.add(new double[]{-180, minY, 180, maxY});
+        } else if (longitudes[0] < -180) {
+            ranges.add(new double[]{longitudes[0] + 360, minY, 180, maxY});
+            ranges.add(new double[]{-180, minY, longitudes[1], maxY});
+        } else if (longitudes[1] > 180) {
+            ranges.add(new double[]{longitudes[0], minY, 180, maxY});
+            ranges.add(new double[]{-180, minY, longitudes[1] - 360, maxY});
+        } else {
+            ranges.add(new double[]{longitudes[0], minY, longitudes[1], maxY});
+        }
+        return ranges;
+    }
+}
@@ -5,22 +5,32 @@ import org.neo4j.graphdb.spatial.CRS;
 import org.neo4j.graphdb.spatial.Coordinate;
 import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.util.ValueUtils;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
 import org.neo4j.spatial.algo.*;
 import org.neo4j.spatial.algo.cartesian.CartesianConvexHull;
+import org.neo4j.spatial.algo.cartesian.CartesianParallelConvexHull;
 import org.neo4j.spatial.algo.cartesian.intersect.CartesianMCSweepLineIntersect;
 import org.neo4j.spatial.algo.cartesian.intersect.CartesianNaiveIntersect;
-import org.neo4j.spatial.algo.cartesian.CartesianWithin;
 import org.neo4j.spatial.algo.wgs84.WGS84ConvexHull;
+import org.neo4j.spatial.core.CoordinateSequence;
+import org.neo4j.spatial.core.Envelope;
 import org.neo4j.spatial.core.MultiPolygon;
 import org.neo4j.spatial.core.MultiPolyline;
+import org.neo4j.spatial.core.PackedCoordinateCodec;
+import org.neo4j.spatial.core.PackedPolygon;
+import org.neo4j.spatial.core.PackedPolyline;
 import org.neo4j.spatial.core.Polygon;
 import org.neo4j.spatial.core.Polyline;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.Values;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import static org.neo4j.spatial.neo4j.CRSConverter.toNeo4jCRS;
@@ -33,6 +43,9 @@ public class UserDefinedFunctions {
     @Context
     public Transaction tx;
 
+    @Context
+    public GraphDatabaseService db;
+
     @UserFunction("spatial.polygon")
     public List<Point> makePolygon(@Name("points") List<Point> points) {
         if (points == null || points.size() < 3) {
@@ -47,75 +60,254 @@ public class UserDefinedFunctions {
         }
     }
 
-    // TODO write tests
-    @Description( "Creates a polygon as a Point[] property named 'polygon' on the node" )
+    @Description("Creates a polygon as a Point[] property named 'polygon' on the node, returning a row per polygon as soon as it is written. With onePass all rings of the relation are walked with the same kernel cursors")
     @Procedure(name = "spatial.osm.property.createPolygon", mode = Mode.WRITE)
-    public Stream<PointArraySizeResult> createArrayCache(@Name("main") Node main) {
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("main", main.getElementId());
+    public Stream<PointArraySizeResult> createArrayCache(
+            @Name("main") Node main,
+            @Name(value = "onePass", defaultValue = "false") boolean onePass) {
         long relation_osm_id = (long) main.getProperty("relation_osm_id");
 
-        Result mainResult = tx.execute("MATCH (p:Polygon)<-[:POLYGON_STRUCTURE*]-(m:OSMRelation) WHERE elementId(m)=$main RETURN p AS polygonNode", parameters);
-        if (!mainResult.hasNext()) {
+        List<Node> polygonNodes = structureNodes(main, Relation.POLYGON_STRUCTURE);
+        if (polygonNodes.isEmpty()) {
             throw new IllegalArgumentException("No polygon structure found - does " + main + " really have :POLYGON_STRUCTURE relationships? Perhaps you have not run spatial.osm.graph.createPolygon(" + main + ") yet?");
         }
 
-        List<PointArraySizeResult> result = new ArrayList<>();
-        while (mainResult.hasNext()) {
-            Node polygonNode = (Node) mainResult.next().get("polygonNode");
+        if (onePass) {
+            CursorGraphTraverser traverser = new CursorGraphTraverser(kernelTransaction(), relation_osm_id);
+            return polygonNodes.stream()
+                    .map(polygonNode -> writeGeometry(polygonNode, Neo4jArrayToInMemoryConverter.POLYGON_PROPERTY, traverser.polygon(nodeReference(polygonStartNode(polygonNode))).getPoints()))
+                    .onClose(traverser::close);
+        }
+        return polygonNodes.stream()
+                .map(polygonNode -> writeGeometry(polygonNode, Neo4jArrayToInMemoryConverter.POLYGON_PROPERTY, new Neo4jSimpleGraphNodePolygon(polygonStartNode(polygonNode), relation_osm_id).getPoints()));
+    }
+
+    @Description("Creates a polyline as a Point[] property named 'polyline' on the node, returning a row per polyline as soon as it is written. With onePass all polylines of the relation are walked with the same kernel cursors")
+    @Procedure(name = "spatial.osm.property.createPolyline", mode = Mode.WRITE)
+    public Stream<PointArraySizeResult> createArrayLine(
+            @Name("main") Node main,
+            @Name(value = "onePass", defaultValue = "false") boolean onePass) {
+        long relation_osm_id = (long) main.getProperty("relation_osm_id");
 
-            parameters = new HashMap<>();
-            parameters.put("polygonNode", polygonNode.getElementId());
-            Result startNodeResult = tx.execute("MATCH (p:Polygon)-[:POLYGON_START]->(:OSMWay)-[:FIRST_NODE]->(n:OSMWayNode) WHERE elementId(p)=$polygonNode RETURN n AS startNode", parameters);
+        List<Node> polylineNodes = structureNodes(main, Relation.POLYLINE_STRUCTURE);
+        if (polylineNodes.isEmpty()) {
+            throw new IllegalArgumentException("No polyline structure found - does " + main + " really have :POLYLINE_STRUCTURE relationships? Perhaps you have not run spatial.osm.graph.createPolygon(" + main + ") yet?");
+        }
 
-            if (!startNodeResult.hasNext()) {
-                throw new IllegalArgumentException("Broken polygon structure found - polygon " + polygonNode + " is missing a ':POLYGON_START' relationship to an 'OSMWay' node");
+        CursorGraphTraverser traverser = onePass ? new CursorGraphTraverser(kernelTransaction(), relation_osm_id) : null;
+        Stream<PointArraySizeResult> result = polylineNodes.stream().map(polylineNode -> {
+            Node startNode = polylineStartNode(polylineNode);
+            try {
+                org.neo4j.spatial.core.Point[] points = traverser != null
+                        ? traverser.polyline(nodeReference(startNode)).getPoints()
+                        : new Neo4jSimpleGraphNodePolyline(startNode, relation_osm_id).getPoints();
+                return writeGeometry(polylineNode, Neo4jArrayToInMemoryConverter.POLYLINE_PROPERTY, points);
+            } catch (Exception e) {
+                log.error("Failed to create polyline at " + polylineNode + ": " + e.getMessage());
+                return null;
             }
+        }).filter(Objects::nonNull);
+        return traverser != null ? result.onClose(traverser::close) : result;
+    }
 
-            Node startNode = (Node) startNodeResult.next().get("startNode");
-            Neo4jSimpleGraphNodePolygon polygon = new Neo4jSimpleGraphNodePolygon(startNode, relation_osm_id);
-            Point[] polygonPoints = Arrays.stream(polygon.getPoints()).map(p -> Values.pointValue(CoordinateReferenceSystem.WGS_84, p.getCoordinate())).toArray(Point[]::new);
-            result.add(new PointArraySizeResult(polygonNode.getElementId(), polygonPoints.length));
-            polygonNode.setProperty("polygon", polygonPoints);
+    @Description("Stores simplified levels of the 'polygon' and 'polyline' properties below the relation, one Point[] property per tolerance (meters for WGS84). All rings of the relation are simplified together so they do not cross. Read functions with a tolerance use the coarsest level within it")
+    @Procedure(name = "spatial.osm.property.createPyramid", mode = Mode.WRITE)
+    public Stream<PyramidResult> createPyramid(
+            @Name("main") Node main,
+            @Name(value = "tolerances", defaultValue = "[10.0, 100.0, 1000.0, 10000.0]") List<Double> tolerances,
+            @Name(value = "method", defaultValue = "DouglasPeucker") String methodString) {
+        Simplify.Method method;
+        try {
+            method = Simplify.Method.valueOf(methodString);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Illegal simplification method. Choose 'DouglasPeucker' or 'Visvalingam'");
         }
-        return result.stream();
+        double[] levels = tolerances.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        if (levels.length == 0 || levels[0] <= 0) {
+            throw new IllegalArgumentException("Invalid 'tolerances', should be a non-empty list of positive values, but was: " + tolerances);
+        }
+
+        List<Node> polygonNodes = structureNodes(main, Relation.POLYGON_STRUCTURE).stream()
+                .filter(node -> node.hasProperty(Neo4jArrayToInMemoryConverter.POLYGON_PROPERTY)).toList();
+        List<Node> polylineNodes = structureNodes(main, Relation.POLYLINE_STRUCTURE).stream()
+                .filter(node -> node.hasProperty(Neo4jArrayToInMemoryConverter.POLYLINE_PROPERTY)).toList();
+        if (polygonNodes.isEmpty() && polylineNodes.isEmpty()) {
+            throw new IllegalArgumentException("No 'polygon' or 'polyline' properties found below " + main + " - perhaps you have not run spatial.osm.property.createPolygon(" + main + ") yet?");
+        }
+
+        List<PyramidResult> results = new ArrayList<>();
+        if (!polygonNodes.isEmpty()) {
+            Polygon.SimplePolygon[] rings = polygonNodes.stream().map(Neo4jArrayToInMemoryConverter::convertToInMemoryPolygon).toArray(Polygon.SimplePolygon[]::new);
+            Simplify calculator = SimplifyCalculator.getCalculator(rings[0]);
+            org.neo4j.spatial.core.Point[][][] simplified = new org.neo4j.spatial.core.Point[levels.length][][];
+            for (int level = 0; level < levels.length; level++) {
+                simplified[level] = Arrays.stream(calculator.simplify(rings, levels[level], method))
+                        .map(Polygon.SimplePolygon::getPoints).toArray(org.neo4j.spatial.core.Point[][]::new);
+            }
+            for (int i = 0; i < rings.length; i++) {
+                org.neo4j.spatial.core.Point[][] pyramid = new org.neo4j.spatial.core.Point[levels.length][];
+                for (int level = 0; level < levels.length; level++) {
+                    pyramid[level] = simplified[level][i];
+                }
+                results.add(writePyramid(polygonNodes.get(i), Neo4jArrayToInMemoryConverter.POLYGON_PROPERTY, rings[i].getPoints().length, levels, pyramid));
+            }
+        }
+        for (Node polylineNode : polylineNodes) {
+            Polyline polyline = Neo4jArrayToInMemoryConverter.convertToInMemoryPolyline(polylineNode);
+            Simplify calculator = SimplifyCalculator.getCalculator(polyline);
+            org.neo4j.spatial.core.Point[][] pyramid = new org.neo4j.spatial.core.Point[levels.length][];
+            for (int level = 0; level < levels.length; level++) {
+                pyramid[level] = calculator.simplify(polyline, levels[level], method).getPoints();
+            }
+            results.add(writePyramid(polylineNode, Neo4jArrayToInMemoryConverter.POLYLINE_PROPERTY, polyline.getPoints().length, levels, pyramid));
+        }
+        return results.stream();
     }
 
-    // TODO write tests
-    @Description( "Creates a polyline as a Point[] property named 'polyline' on the node" )
-    @Procedure(name = "spatial.osm.property.createPolyline", mode = Mode.WRITE)
-    public Stream<PointArraySizeResult> createArrayLine(@Name("main") Node main) {
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("main", main.getElementId());
-        long relation_osm_id = (long) main.getProperty("relation_osm_id");
+    /**
+     * Replaces the simplified levels of the geometry property, removing the levels of an earlier pyramid
+     */
+    private PyramidResult writePyramid(Node node, String property, long count, double[] levels, org.neo4j.spatial.core.Point[][] pyramid) {
+        removePyramid(node, property);
+        List<Long> counts = new ArrayList<>();
+        for (int level = 0; level < pyramid.length; level++) {
+            counts.add(writePointArray(node, property + Neo4jArrayToInMemoryConverter.LEVEL_INFIX + level, pyramid[level]).count);
+        }
+        node.setProperty(property + Neo4jArrayToInMemoryConverter.LEVELS_SUFFIX, levels);
+        return new PyramidResult(node.getElementId(), property, count, counts);
+    }
 
-        Result mainResult = tx.execute("MATCH (p:Polyline)<-[:POLYLINE_STRUCTURE*]-(m:OSMRelation) WHERE elementId(m)=$main RETURN p AS polylineNode", parameters);
-        if (!mainResult.hasNext()) {
-            throw new IllegalArgumentException("No polyline structure found - does " + main + " really have :POLYLINE_STRUCTURE relationships? Perhaps you have not run spatial.osm.graph.createPolygon(" + main + ") yet?");
+    /**
+     * Removes the simplified levels of the geometry property, if there are any
+     */
+    private static void removePyramid(Node node, String property) {
+        String levelsProperty = property + Neo4jArrayToInMemoryConverter.LEVELS_SUFFIX;
+        if (node.hasProperty(levelsProperty)) {
+            int previous = ((double[]) node.getProperty(levelsProperty)).length;
+            for (int level = 0; level < previous; level++) {
+                node.removeProperty(property + Neo4jArrayToInMemoryConverter.LEVEL_INFIX + level);
+            }
+            node.removeProperty(levelsProperty);
+        }
+    }
+
+    /**
+     * @return The polygon or polyline nodes below the node, found by following the structure relationships depth first
+     */
+    private static List<Node> structureNodes(Node node, Relation structure) {
+        List<Node> result = new ArrayList<>();
+        for (Relationship relationship : node.getRelationships(Direction.OUTGOING, structure)) {
+            Node child = relationship.getEndNode();
+            result.add(child);
+            result.addAll(structureNodes(child, structure));
+        }
+        return result;
+    }
+
+    private static Node polygonStartNode(Node polygonNode) {
+        Relationship polygonStart = polygonNode.getSingleRelationship(Relation.POLYGON_START, Direction.OUTGOING);
+        if (polygonStart == null) {
+            throw new IllegalArgumentException("Broken polygon structure found - polygon " + polygonNode + " is missing a ':POLYGON_START' relationship to an 'OSMWay' node");
+        }
+        Relationship firstNode = polygonStart.getEndNode().getSingleRelationship(Relation.FIRST_NODE, Direction.OUTGOING);
+        if (firstNode == null) {
+            throw new IllegalArgumentException("Broken polygon structure found - way " + polygonStart.getEndNode() + " of polygon " + polygonNode + " is missing a ':FIRST_NODE' relationship");
+        }
+        return firstNode.getEndNode();
+    }
+
+    /**
+     * @return The id by which the kernel cursors read the node
+     */
+    static long nodeReference(Node node) {
+        return ValueUtils.fromNodeEntity(node).id();
+    }
+
+    private static Node polylineStartNode(Node polylineNode) {
+        Relationship polylineStart = polylineNode.getSingleRelationship(Relation.POLYLINE_START, Direction.OUTGOING);
+        if (polylineStart == null) {
+            throw new IllegalArgumentException("Broken polyline structure found - polyline " + polylineNode + " is missing a ':POLYLINE_START' relationship to an 'OSMWayNode' node");
+        }
+        return polylineStart.getEndNode();
+    }
+
+    /**
+     * Writes the geometry property, removing its pyramid, which was simplified from the previous geometry together
+     * with the other rings of the relation and would no longer match
+     */
+    private PointArraySizeResult writeGeometry(Node node, String property, org.neo4j.spatial.core.Point[] points) {
+        removePyramid(node, property);
+        return writePointArray(node, property, points);
+    }
+
+    private PointArraySizeResult writePointArray(Node node, String property, org.neo4j.spatial.core.Point[] points) {
+        Point[] neo4jPoints = new Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            neo4jPoints[i] = Values.pointValue((CoordinateReferenceSystem) toNeo4jCRS(points[i].getCRS()), points[i].getCoordinate());
+        }
+        node.setProperty(property, neo4jPoints);
+        return new PointArraySizeResult(node.getElementId(), neo4jPoints.length);
+    }
+
+    @Description("Creates every polygon of the relation as a compact byte[] property named 'polygon_blob' on its Polygon node, with coordinates rounded to multiples of 1/scale, or stored without loss if scale is 0. By default WGS84 coordinates are rounded to the seven decimals of OSM and Cartesian coordinates are stored without loss")
+    @Procedure(name = "spatial.osm.blob.createPolygon", mode = Mode.WRITE)
+    public Stream<PointArraySizeResult> createBlobPolygon(
+            @Name("main") Node main,
+            @Name(value = "scale", defaultValue = "-1.0") double scale) {
+        long relationId = (long) main.getProperty("relation_osm_id");
+        if (!main.hasRelationship(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
+            throw new IllegalArgumentException("No polygon structure found - does " + main + " really have :POLYGON_STRUCTURE relationships? Perhaps you have not run spatial.osm.graph.createPolygon(" + main + ") yet?");
         }
 
-        // TODO: We could stream results from this iterator with a mapping function rather than building state
         List<PointArraySizeResult> result = new ArrayList<>();
-        while (mainResult.hasNext()) {
-            Node polylineNode = (Node) mainResult.next().get("polylineNode");
+        try (CursorGraphTraverser traverser = new CursorGraphTraverser(kernelTransaction(), relationId)) {
+            createBlobPolygons(main, traverser, scale, result);
+        }
+        return result.stream();
+    }
 
-            parameters = new HashMap<>();
-            parameters.put("polylineNode", polylineNode.getElementId());
-            Result startNodeResult = tx.execute("MATCH (p:Polyline)-[:POLYLINE_START]->(n:OSMWayNode) WHERE elementId(p)=$polylineNode RETURN n AS startNode", parameters);
+    private void createBlobPolygons(Node node, CursorGraphTraverser traverser, double scale, List<PointArraySizeResult> result) {
+        for (Relationship polygonStructure : node.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
+            Node child = polygonStructure.getEndNode();
+            Node start = child.getSingleRelationship(Relation.POLYGON_START, Direction.OUTGOING).getEndNode().getSingleRelationship(Relation.FIRST_NODE, Direction.OUTGOING).getEndNode();
 
-            if (!startNodeResult.hasNext()) {
-                throw new IllegalArgumentException("Broken polyline structure found - polyline " + polylineNode + " is missing a ':POLYLINE_START' relationship to an 'OSMWayNode' node");
-            }
+            PackedPolygon polygon = traverser.polygon(nodeReference(start));
+            child.setProperty(Neo4jBlobToInMemoryConverter.POLYGON_PROPERTY, PackedCoordinateCodec.encode(polygon, blobScale(polygon, scale)));
+            result.add(new PointArraySizeResult(child.getElementId(), polygon.size()));
 
-            try {
-                Node startNode = (Node) startNodeResult.next().get("startNode");
-                Neo4jSimpleGraphNodePolyline polyline = new Neo4jSimpleGraphNodePolyline(startNode, relation_osm_id);
-                Point[] polylinePoints = Arrays.stream(polyline.getPoints()).map(p -> Values.pointValue(CoordinateReferenceSystem.WGS_84, p.getCoordinate())).toArray(Point[]::new);
-                result.add(new PointArraySizeResult(polylineNode.getElementId(), polylinePoints.length));
-                polylineNode.setProperty("polyline", polylinePoints);
-            } catch (Exception e) {
-                log.error("Failed to create polyline at " + polylineNode + ": " + e.getMessage());
-                e.printStackTrace();
+            createBlobPolygons(child, traverser, scale, result);
+        }
+    }
+
+    /**
+     * @param scale the scale given to the procedure, negative for the default of the CRS of the sequence
+     */
+    private static double blobScale(CoordinateSequence sequence, double scale) {
+        return scale < 0 ? PackedCoordinateCodec.defaultScale(sequence.getCRS()) : scale;
+    }
+
+    @Description("Creates every polyline of the relation as a compact byte[] property named 'polyline_blob' on its Polyline node, with coordinates rounded to multiples of 1/scale, or stored without loss if scale is 0. By default WGS84 coordinates are rounded to the seven decimals of OSM and Cartesian coordinates are stored without loss")
+    @Procedure(name = "spatial.osm.blob.createPolyline", mode = Mode.WRITE)
+    public Stream<PointArraySizeResult> createBlobPolyline(
+            @Name("main") Node main,
+            @Name(value = "scale", defaultValue = "-1.0") double scale) {
+        long relationId = (long) main.getProperty("relation_osm_id");
+        if (!main.hasRelationship(Direction.OUTGOING, Relation.POLYLINE_STRUCTURE)) {
+            throw new IllegalArgumentException("No polyline structure found - does " + main + " really have :POLYLINE_STRUCTURE relationships? Perhaps you have not run spatial.osm.graph.createPolygon(" + main + ") yet?");
+        }
+
+        List<PointArraySizeResult> result = new ArrayList<>();
+        try (CursorGraphTraverser traverser = new CursorGraphTraverser(kernelTransaction(), relationId)) {
+            for (Relationship polylineStructure : main.getRelationships(Direction.OUTGOING, Relation.POLYLINE_STRUCTURE)) {
+                Node polylineNode = polylineStructure.getEndNode();
+                try {
+                    Node start = polylineNode.getSingleRelationship(Relation.POLYLINE_START, Direction.OUTGOING).getEndNode();
+                    PackedPolyline polyline = traverser.polyline(nodeReference(start));
+                    polylineNode.setProperty(Neo4jBlobToInMemoryConverter.POLYLINE_PROPERTY, PackedCoordinateCodec.encode(polyline, blobScale(polyline, scale)));
+                    result.add(new PointArraySizeResult(polylineNode.getElementId(), polyline.size()));
+                } catch (Exception e) {
+                    log.error("Failed to create polyline at " + polylineNode + ": " + e.getMessage());
+                }
             }
         }
         return result.stream();
@@ -133,15 +325,7 @@ public class UserDefinedFunctions {
             @Name("main") Node main,
             @Name(value = "proximityThreshold", defaultValue = "250") double proximityThreshold) {
         long id = (long) main.getProperty("relation_osm_id");
-
-        HashMap<String, Object> parameters = new HashMap<>();
-        parameters.put("id", id);
-        tx.execute("MATCH (m:OSMRelation)-[:POLYGON_STRUCTURE*]->(p:Polygon) WHERE m.relation_osm_id = $id DETACH DELETE p", parameters);
-        tx.execute("MATCH (m:OSMRelation)-[:POLYLINE_STRUCTURE*]->(p:Polyline) WHERE m.relation_osm_id = $id DETACH DELETE p", parameters);
-        //TODO fix this by deleting id from array (NEXT_IN_... & END_OF_POLYLINE)
-//        tx.execute("MATCH (:OSMWayNode)-[n:NEXT_IN_POLYGON]->(:OSMWayNode) DELETE n");
-//        tx.execute("MATCH (:OSMWayNode)-[n:NEXT_IN_POLYLINE]->(:OSMWayNode) DELETE n");
-//        tx.execute("MATCH (:OSMWayNode)-[n:END_OF_POLYLINE]->(:OSMWayNode) DELETE n");
+        deleteOSMGraphGeometries(tx, id);
 
         Pair<List<List<Node>>, List<List<Node>>> geometries = OSMTraverser.traverseOSMGraph(tx, main, proximityThreshold);
         List<List<Node>> polygons = geometries.first();
@@ -169,6 +353,77 @@ public class UserDefinedFunctions {
         }
     }
 
+    @Description("Creates the polygon and polyline structures of many OSM relations, given as a label or a list of relation nodes or relation_osm_id values, in parallel worker threads committing batches of relations in their own transactions")
+    @Procedure(name = "spatial.osm.graph.createPolygons", mode = Mode.WRITE)
+    public Stream<BulkBuildResult> createOSMGraphGeometriesBulk(
+            @Name("relations") Object relations,
+            @Name(value = "batchSize", defaultValue = "100") long batchSize,
+            @Name(value = "concurrency", defaultValue = "4") long concurrency,
+            @Name(value = "proximityThreshold", defaultValue = "250") double proximityThreshold) {
+        List<String> elementIds = asRelationIds(relations);
+        log.info("Building polygons and polylines for " + elementIds.size() + " relations in batches of " + batchSize + " with " + concurrency + " threads");
+
+        BulkGraphBuilder.Summary summary = new BulkGraphBuilder(db, log, proximityThreshold, (int) batchSize, (int) concurrency, 3).build(elementIds);
+        return Stream.of(new BulkBuildResult(summary));
+    }
+
+    /**
+     * Replaces the polygon and polyline structures of the relation like {@link #createOSMGraphGeometries(Node, double)},
+     * but fails on the first error instead of logging it
+     */
+    static void rebuildOSMGraphGeometries(Transaction tx, Node main, double proximityThreshold) {
+        deleteOSMGraphGeometries(tx, (long) main.getProperty("relation_osm_id"));
+
+        Pair<List<List<Node>>, List<List<Node>>> geometries = OSMTraverser.traverseOSMGraph(tx, main, proximityThreshold);
+        if (!geometries.first().isEmpty()) {
+            new GraphPolygonBuilder(tx, main, geometries.first()).build();
+        }
+        if (!geometries.other().isEmpty()) {
+            new GraphPolylineBuilder(tx, main, geometries.other()).build();
+        }
+    }
+
+    private static void deleteOSMGraphGeometries(Transaction tx, long id) {
+        HashMap<String, Object> parameters = new HashMap<>();
+        parameters.put("id", id);
+        tx.execute("MATCH (m:OSMRelation)-[:POLYGON_STRUCTURE*]->(p:Polygon) WHERE m.relation_osm_id = $id DETACH DELETE p", parameters);
+        tx.execute("MATCH (m:OSMRelation)-[:POLYLINE_STRUCTURE*]->(p:Polyline) WHERE m.relation_osm_id = $id DETACH DELETE p", parameters);
+        //TODO fix this by deleting id from array (NEXT_IN_... & END_OF_POLYLINE)
+//        tx.execute("MATCH (:OSMWayNode)-[n:NEXT_IN_POLYGON]->(:OSMWayNode) DELETE n");
+//        tx.execute("MATCH (:OSMWayNode)-[n:NEXT_IN_POLYLINE]->(:OSMWayNode) DELETE n");
+//        tx.execute("MATCH (:OSMWayNode)-[n:END_OF_POLYLINE]->(:OSMWayNode) DELETE n");
+    }
+
+    /**
+     * @param relations a label name, or a list of relation nodes or relation_osm_id values
+     * @return The element ids of the relation nodes
+     */
+    private List<String> asRelationIds(Object relations) {
+        List<String> result = new ArrayList<>();
+        if (relations instanceof String label) {
+            try (ResourceIterator<Node> nodes = tx.findNodes(Label.label(label))) {
+                nodes.forEachRemaining(node -> result.add(node.getElementId()));
+            }
+        } else if (relations instanceof List<?> list) {
+            for (Object relation : list) {
+                if (relation instanceof Node node) {
+                    result.add(node.getElementId());
+                } else if (relation instanceof Number osmId) {
+                    Node node = tx.findNode(Label.label("OSMRelation"), "relation_osm_id", osmId.longValue());
+                    if (node == null) {
+                        throw new IllegalArgumentException("No OSMRelation found with relation_osm_id " + osmId);
+                    }
+                    result.add(node.getElementId());
+                } else {
+                    throw new IllegalArgumentException("Invalid 'relations', should be a list of nodes or relation_osm_id values, but contained: " + relation);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Invalid 'relations', should be a label or a list, but was: " + relations);
+        }
+        return result;
+    }
+
     public static MultiPolygon getGraphNodePolygon(Node main) {
         long relationId = (long) main.getProperty("relation_osm_id");
         MultiPolygon multiPolygon = new MultiPolygon();
@@ -177,10 +432,34 @@ public class UserDefinedFunctions {
         return multiPolygon;
     }
 
+    /**
+     * Like {@link #getGraphNodePolygon(Node)}, but reads the vertex locations through kernel cursors
+     */
+    public static MultiPolygon getGraphIDPolygon(Node main, KernelTransaction ktx) {
+        long relationId = (long) main.getProperty("relation_osm_id");
+        MultiPolygon multiPolygon = new MultiPolygon();
+        insertChildrenGraphID(main, multiPolygon, relationId, ktx);
+
+        return multiPolygon;
+    }
+
+    /**
+     * Like {@link #getGraphNodePolygon(Node)}, but walks the rings with a {@link CursorGraphTraverser} into packed polygons
+     */
+    public static MultiPolygon getGraphCursorPolygon(Node main, KernelTransaction ktx) {
+        long relationId = (long) main.getProperty("relation_osm_id");
+        MultiPolygon multiPolygon = new MultiPolygon();
+        try (CursorGraphTraverser traverser = new CursorGraphTraverser(ktx, relationId)) {
+            insertChildrenGraphCursor(main, multiPolygon, traverser);
+        }
+
+        return multiPolygon;
+    }
+
     // TODO write tests
     @UserFunction(name = "spatial.osm.graph.polygonAsWKT")
     public String getGraphPolygonWKT(@Name("main") Node main) {
-        return getGraphNodePolygon(main).toWKT();
+        return cachedPolygon(GeometryCache.Source.Graph, main, UserDefinedFunctions::getGraphNodePolygon).toWKT();
     }
 
     public static MultiPolygon getArrayPolygon(Node main) {
@@ -190,33 +469,92 @@ public class UserDefinedFunctions {
         return multiPolygon;
     }
 
+    /**
+     * @param tolerance the largest simplification tolerance which is acceptable, see spatial.osm.property.createPyramid
+     * @return The polygon built from the coarsest stored levels within the tolerance
+     */
+    public static MultiPolygon getArrayPolygon(Node main, double tolerance) {
+        MultiPolygon multiPolygon = new MultiPolygon();
+        insertChildrenArray(main, multiPolygon, tolerance);
+
+        return multiPolygon;
+    }
+
+    /**
+     * The full polygon is read through the cache, simplified levels are small enough to be read directly
+     */
+    private MultiPolygon arrayPolygon(Node main, double tolerance) {
+        if (tolerance > 0) {
+            return getArrayPolygon(main, tolerance);
+        }
+        return cachedPolygon(GeometryCache.Source.Property, main, UserDefinedFunctions::getArrayPolygon);
+    }
+
     // TODO write tests
     @UserFunction(name = "spatial.osm.property.polygonAsWKT")
-    public String getArrayPolygonWKT(@Name("main") Node main) {
-        return getArrayPolygon(main).toWKT();
+    public String getArrayPolygonWKT(
+            @Name("main") Node main,
+            @Name(value = "tolerance", defaultValue = "0.0") double tolerance) {
+        return arrayPolygon(main, tolerance).toWKT();
     }
 
-    // TODO write tests
     @UserFunction(name = "spatial.osm.property.polygonShell")
-    public List<Point> getArrayPolygonShell(@Name("main") Node main) {
-        org.neo4j.spatial.core.Point[] mainPoints = getArrayPolygon(main).getShell().getPoints();
+    public List<Point> getArrayPolygonShell(
+            @Name("main") Node main,
+            @Name(value = "tolerance", defaultValue = "0.0") double tolerance) {
+        org.neo4j.spatial.core.Point[] mainPoints = arrayPolygon(main, tolerance).getShell().getPoints();
         return asNeo4jPoints(toNeo4jCRS(mainPoints[0].getCRS()), mainPoints);
     }
 
     // TODO write tests
     @UserFunction(name = "spatial.osm.graph.polygonShell")
     public List<Point> getGraphPolygonShell(@Name("main") Node main) {
-        org.neo4j.spatial.core.Point[] mainPoints = getGraphNodePolygon(main).getShell().getPoints();
+        org.neo4j.spatial.core.Point[] mainPoints = cachedPolygon(GeometryCache.Source.Graph, main, UserDefinedFunctions::getGraphNodePolygon).getShell().getPoints();
         return asNeo4jPoints(toNeo4jCRS(mainPoints[0].getCRS()), mainPoints);
     }
 
+    public static MultiPolygon getBlobPolygon(Node main) {
+        MultiPolygon multiPolygon = new MultiPolygon();
+        insertChildrenBlob(main, multiPolygon);
+
+        return multiPolygon;
+    }
+
+    @UserFunction(name = "spatial.osm.blob.polygonAsWKT")
+    public String getBlobPolygonWKT(@Name("main") Node main) {
+        return cachedPolygon(GeometryCache.Source.Blob, main, UserDefinedFunctions::getBlobPolygon).toWKT();
+    }
+
+    @UserFunction(name = "spatial.osm.blob.area")
+    public double getBlobPolygonArea(@Name("main") Node main) {
+        MultiPolygon multiPolygon = cachedPolygon(GeometryCache.Source.Blob, main, UserDefinedFunctions::getBlobPolygon);
+        return AreaCalculator.getCalculator(multiPolygon.getCRS()).area(multiPolygon);
+    }
+
+    public static MultiPolyline getBlobPolyline(Node main) {
+        MultiPolyline multiPolyline = new MultiPolyline();
+
+        for (Relationship relationship : main.getRelationships(Direction.OUTGOING, Relation.POLYLINE_STRUCTURE)) {
+            multiPolyline.insertPolyline(Neo4jBlobToInMemoryConverter.convertToInMemoryPolyline(relationship.getEndNode()));
+        }
+
+        return multiPolyline;
+    }
+
     public static MultiPolyline getArrayPolyline(Node main) {
-        long relationId = (long) main.getProperty("relation_osm_id");
+        return getArrayPolyline(main, 0);
+    }
+
+    /**
+     * @param tolerance the largest simplification tolerance which is acceptable, see spatial.osm.property.createPyramid
+     * @return The polylines of the coarsest stored levels within the tolerance
+     */
+    public static MultiPolyline getArrayPolyline(Node main, double tolerance) {
         MultiPolyline multiPolyline = new MultiPolyline();
 
         for (Relationship relationship : main.getRelationships(Direction.OUTGOING, Relation.POLYLINE_STRUCTURE)) {
             Node start = relationship.getEndNode();
-            Polyline polyline = Neo4jArrayToInMemoryConverter.convertToInMemoryPolyline(start);
+            Polyline polyline = Neo4jArrayToInMemoryConverter.convertToInMemoryPolyline(start, tolerance);
             multiPolyline.insertPolyline(polyline);
         }
 
@@ -236,6 +574,23 @@ public class UserDefinedFunctions {
         return multiPolyline;
     }
 
+    /**
+     * Like {@link #getGraphNodePolyline(Node)}, but walks the polylines with a {@link CursorGraphTraverser} into packed polylines
+     */
+    public static MultiPolyline getGraphCursorPolyline(Node main, KernelTransaction ktx) {
+        long relationId = (long) main.getProperty("relation_osm_id");
+        MultiPolyline multiPolyline = new MultiPolyline();
+
+        try (CursorGraphTraverser traverser = new CursorGraphTraverser(ktx, relationId)) {
+            for (Relationship relationship : main.getRelationships(Direction.OUTGOING, Relation.POLYLINE_STRUCTURE)) {
+                Node start = relationship.getEndNode().getSingleRelationship(Relation.POLYLINE_START, Direction.OUTGOING).getEndNode();
+                multiPolyline.insertPolyline(traverser.polyline(nodeReference(start)));
+            }
+        }
+
+        return multiPolyline;
+    }
+
     @UserFunction(name = "spatial.osm.graph.polylineAsWKT")
     public String getGraphPolylineWKT(@Name("main") Node main) {
         return getGraphNodePolyline(main).toWKT();
@@ -254,15 +609,57 @@ public class UserDefinedFunctions {
         }
     }
 
+    public static void insertChildrenGraphID(Node node, MultiPolygon multiPolygon, long relationId, KernelTransaction ktx) {
+        for (Relationship polygonStructure : node.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
+            Node child = polygonStructure.getEndNode();
+            Node start = child.getSingleRelationship(Relation.POLYGON_START, Direction.OUTGOING).getEndNode().getSingleRelationship(Relation.FIRST_NODE, Direction.OUTGOING).getEndNode();
+
+            Polygon.SimplePolygon polygon = new Neo4jSimpleGraphIDPolygon(start, relationId, ktx);
+            MultiPolygon.MultiPolygonNode childNode = new MultiPolygon.MultiPolygonNode(polygon);
+            multiPolygon.addChild(childNode);
+
+            insertChildrenGraphID(child, childNode, relationId, ktx);
+        }
+    }
+
+    public static void insertChildrenGraphCursor(Node node, MultiPolygon multiPolygon, CursorGraphTraverser traverser) {
+        for (Relationship polygonStructure : node.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
+            Node child = polygonStructure.getEndNode();
+            Node start = child.getSingleRelationship(Relation.POLYGON_START, Direction.OUTGOING).getEndNode().getSingleRelationship(Relation.FIRST_NODE, Direction.OUTGOING).getEndNode();
+
+            Polygon.SimplePolygon polygon = traverser.polygon(nodeReference(start));
+            MultiPolygon.MultiPolygonNode childNode = new MultiPolygon.MultiPolygonNode(polygon);
+            multiPolygon.addChild(childNode);
+
+            insertChildrenGraphCursor(child, childNode, traverser);
+        }
+    }
+
     public static void insertChildrenArray(Node node, MultiPolygon multiPolygon) {
+        insertChildrenArray(node, multiPolygon, 0);
+    }
+
+    public static void insertChildrenArray(Node node, MultiPolygon multiPolygon, double tolerance) {
+        for (Relationship polygonStructure : node.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
+            Node child = polygonStructure.getEndNode();
+
+            Polygon.SimplePolygon polygon = Neo4jArrayToInMemoryConverter.convertToInMemoryPolygon(child, tolerance);
+            MultiPolygon.MultiPolygonNode childNode = new MultiPolygon.MultiPolygonNode(polygon);
+            multiPolygon.addChild(childNode);
+
+            insertChildrenArray(child, childNode, tolerance);
+        }
+    }
+
+    public static void insertChildrenBlob(Node node, MultiPolygon multiPolygon) {
         for (Relationship polygonStructure : node.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE)) {
             Node child = polygonStructure.getEndNode();
 
-            Polygon.SimplePolygon polygon = Neo4jArrayToInMemoryConverter.convertToInMemoryPolygon(child);
+            Polygon.SimplePolygon polygon = Neo4jBlobToInMemoryConverter.convertToInMemoryPolygon(child);
             MultiPolygon.MultiPolygonNode childNode = new MultiPolygon.MultiPolygonNode(polygon);
             multiPolygon.addChild(childNode);
 
-            insertChildrenArray(child, childNode);
+            insertChildrenBlob(child, childNode);
         }
     }
 
@@ -285,18 +682,25 @@ public class UserDefinedFunctions {
             variant = IntersectCalculator.AlgorithmVariant.Naive;
         } else if (variantString.equals("MCSweepLine")) {
             variant = IntersectCalculator.AlgorithmVariant.MCSweepLine;
+        } else if (variantString.equals("Parallel")) {
+            variant = IntersectCalculator.AlgorithmVariant.Parallel;
         } else {
-            throw new IllegalArgumentException("Illegal algorithm variant. Choose 'Naive' or 'MCSweepLine'");
+            throw new IllegalArgumentException("Illegal algorithm variant. Choose 'Naive', 'MCSweepLine' or 'Parallel'");
         }
 
         List<org.neo4j.spatial.core.Point> result = new ArrayList<>();
-        Polygon polygon = getGraphNodePolygon(polygonMain);
+        Polygon polygon = cachedPolygon(GeometryCache.Source.Graph, polygonMain, UserDefinedFunctions::getGraphNodePolygon);
         MultiPolyline multiPolyline = getGraphNodePolyline(polylineMain);
 
         Intersect calculator = IntersectCalculator.getCalculator(polygon, variant);
 
-        for (Polyline polyline : multiPolyline.getChildren()) {
-            Collections.addAll(result, calculator.intersect(polygon, polyline));
+        if (variant == IntersectCalculator.AlgorithmVariant.Parallel) {
+            //The parallel variant splits the polylines itself and removes intersections found twice
+            Collections.addAll(result, calculator.intersect(polygon, multiPolyline));
+        } else {
+            for (Polyline polyline : multiPolyline.getChildren()) {
+                Collections.addAll(result, calculator.intersect(polygon, polyline));
+            }
         }
         return result.stream().map(a -> new PointResult(asNeo4jPoint(a)));
     }
@@ -331,34 +735,251 @@ public class UserDefinedFunctions {
 
     @UserFunction("spatial.algo.withinPolygon")
     public boolean withinPolygon(@Name("point") Point point, @Name("polygon") List<Point> polygon) {
-        if (polygon == null || polygon.size() < 4) {
-            throw new IllegalArgumentException("Invalid 'polygon', should be a list of at least 4, but was: " + polygon.size());
-        } else if (!polygon.get(0).equals(polygon.get(polygon.size() - 1))) {
-            throw new IllegalArgumentException("Invalid 'polygon', first and last point should be the same, but were: " + polygon.get(0) + " and " + polygon.get(polygon.size() - 1));
+        validatePolygon(polygon);
+        CRS polyCrs = polygon.get(0).getCRS();
+        CRS pointCrs = point.getCRS();
+        if (!polyCrs.equals(pointCrs)) {
+            throw new IllegalArgumentException("Cannot compare geometries of different CRS: " + polyCrs + " !+ " + pointCrs);
         } else {
-            CRS polyCrs = polygon.get(0).getCRS();
-            CRS pointCrs = point.getCRS();
-            if (!polyCrs.equals(pointCrs)) {
-                throw new IllegalArgumentException("Cannot compare geometries of different CRS: " + polyCrs + " !+ " + pointCrs);
+            Polygon.SimplePolygon geometry = Polygon.simple(asInMemoryPoints(polygon));
+            return WithinCalculator.within(geometry, asInMemoryPoint(point));
+        }
+    }
+
+    @Description("Streams the nodes whose point property lies inside the polygon. The polygon is a list of points or a " +
+            "node with a 'polygon' property or polygon structure, the nodes are given as a label or a list of nodes")
+    @Procedure("spatial.algo.withinPolygon.nodes")
+    public Stream<NodeResult> withinPolygonNodes(
+            @Name("polygon") Object polygon,
+            @Name("nodes") Object nodes,
+            @Name(value = "property", defaultValue = "location") String property) {
+        Polygon geometry = asInMemoryPolygon(polygon);
+        PreparedPolygon prepared = PreparedPolygon.prepare(geometry);
+        Envelope envelope = geometry.getEnvelope();
+        CRS crs = toNeo4jCRS(geometry.getCRS());
+
+        //The transaction is bound to this thread, so the properties are read here and only the tests run in parallel
+        List<Node> candidates = new ArrayList<>();
+        double[] xs = new double[16];
+        double[] ys = new double[16];
+        for (Node node : asNodes(nodes)) {
+            Object value = node.getProperty(property, null);
+            if (!(value instanceof Point point)) {
+                continue;
+            }
+            if (!crs.equals(point.getCRS())) {
+                throw new IllegalArgumentException("Cannot compare geometries of different CRS: " + crs + " !+ " + point.getCRS());
+            }
+            double[] coordinate = point.getCoordinate().getCoordinate();
+            if (!envelope.contains(coordinate[0], coordinate[1])) {
+                continue;
+            }
+            if (candidates.size() == xs.length) {
+                xs = Arrays.copyOf(xs, xs.length * 2);
+                ys = Arrays.copyOf(ys, ys.length * 2);
+            }
+            xs[candidates.size()] = coordinate[0];
+            ys[candidates.size()] = coordinate[1];
+            candidates.add(node);
+        }
+
+        double[] x = xs;
+        double[] y = ys;
+        boolean[] within = new boolean[candidates.size()];
+        IntStream.range(0, within.length).parallel().forEach(i -> within[i] = prepared.within(x[i], y[i]));
+
+        return IntStream.range(0, within.length).filter(i -> within[i]).mapToObj(i -> new NodeResult(candidates.get(i)));
+    }
+
+    @Description("Streams the nodes with the label whose point property lies inside the polygon, using the POINT index " +
+            "on the label and property to find the nodes inside the bounding box of the polygon")
+    @Procedure("spatial.algo.index.withinPolygon")
+    public Stream<NodeResult> withinPolygonIndexed(
+            @Name("label") String label,
+            @Name("polygon") Object polygon,
+            @Name(value = "property", defaultValue = "location") String property) {
+        Polygon geometry = asInMemoryPolygon(polygon);
+        PreparedPolygon prepared = PreparedPolygon.prepare(geometry);
+        PointIndexSeeker seeker = new PointIndexSeeker(tx, kernelTransaction(), label, property);
+
+        List<Node> result = new ArrayList<>();
+        for (Node node : seeker.seek(envelope(geometry))) {
+            Point point = indexedPoint(seeker, node);
+            if (point != null && prepared.within(point.getCoordinate().getCoordinate()[0], point.getCoordinate().getCoordinate()[1])) {
+                result.add(node);
+            }
+        }
+        return result.stream().map(NodeResult::new);
+    }
+
+    @Description("Streams the nodes with the label whose point property lies within the distance of the polyline, " +
+            "using the POINT index on the label and property. The distance is in meters for WGS84 points")
+    @Procedure("spatial.algo.index.withinDistanceOfPolyline")
+    public Stream<NodeDistanceResult> withinDistanceOfPolylineIndexed(
+            @Name("label") String label,
+            @Name("polyline") List<Point> polyline,
+            @Name("distance") double distance,
+            @Name(value = "property", defaultValue = "location") String property) {
+        if (polyline == null || polyline.size() < 2) {
+            throw new IllegalArgumentException("Invalid 'polyline', should be a list of at least 2, but was: " + (polyline == null ? "null" : polyline.size()));
+        } else if (distance < 0 || Double.isNaN(distance)) {
+            throw new IllegalArgumentException("Invalid 'distance', should not be negative, but was: " + distance);
+        }
+        Polyline geometry = Polyline.polyline(asInMemoryPoints(polyline));
+        Distance calculator = DistanceCalculator.getCalculator(geometry);
+        PointIndexSeeker seeker = new PointIndexSeeker(tx, kernelTransaction(), label, property);
+
+        List<NodeDistanceResult> result = new ArrayList<>();
+        for (Node node : seeker.seek(Envelope.bounding(geometry.getCoordinateSequence()).expand(distance))) {
+            Point point = indexedPoint(seeker, node);
+            if (point != null) {
+                double current = calculator.distance(geometry, asInMemoryPoint(point));
+                if (current <= distance) {
+                    result.add(new NodeDistanceResult(node, current));
+                }
+            }
+        }
+        return result.stream();
+    }
+
+    @Description("Streams the k nodes with the label whose point property is closest to the polygon, nearest first, " +
+            "using the POINT index on the label and property. Points inside the polygon have distance 0")
+    @Procedure("spatial.algo.index.nearestToPolygon")
+    public Stream<NodeDistanceResult> nearestToPolygonIndexed(
+            @Name("label") String label,
+            @Name("polygon") Object polygon,
+            @Name("k") long k,
+            @Name(value = "property", defaultValue = "location") String property) {
+        if (k < 1) {
+            throw new IllegalArgumentException("Invalid 'k', should be positive, but was: " + k);
+        }
+        Polygon geometry = asInMemoryPolygon(polygon);
+        Distance calculator = DistanceCalculator.getCalculator(geometry);
+        PointIndexSeeker seeker = new PointIndexSeeker(tx, kernelTransaction(), label, property);
+        Envelope bounds = envelope(geometry);
+        long count = seeker.count();
+
+        //Search ever larger boxes until k points are within the radius, every point within the radius is in the box
+        Map<String, Double> distances = new HashMap<>();
+        double radius = bounds.span() > 0 ? bounds.span() / 4 : 1;
+        boolean everything = false;
+        int previous = -1;
+        while (true) {
+            Envelope box = bounds.expand(everything ? Double.MAX_VALUE / 4 : radius);
+            List<NodeDistanceResult> candidates = new ArrayList<>();
+            for (Node node : seeker.seek(box)) {
+                Point point = indexedPoint(seeker, node);
+                if (point != null) {
+                    double current = distances.computeIfAbsent(node.getElementId(), id -> calculator.distance(geometry, asInMemoryPoint(point)));
+                    candidates.add(new NodeDistanceResult(node, current));
+                }
+            }
+            double limit = radius;
+            long within = candidates.stream().filter(candidate -> candidate.distance <= limit).count();
+            if (within >= k || everything || box.isEverything() || candidates.size() >= count) {
+                candidates.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+                return candidates.stream().limit(k);
+            }
+            //No new points in a larger box, the rest may be arbitrarily far away so all points are read
+            everything = candidates.size() == previous;
+            previous = candidates.size();
+            radius *= 2;
+        }
+    }
+
+    private static Envelope envelope(Polygon polygon) {
+        Polygon.SimplePolygon[] shells = polygon.getShells();
+        CoordinateSequence[] sequences = new CoordinateSequence[shells.length];
+        for (int i = 0; i < shells.length; i++) {
+            sequences[i] = shells[i].getCoordinateSequence();
+        }
+        return Envelope.bounding(sequences);
+    }
+
+    /**
+     * @return The point property of the node, or null if the node was found through the uncommitted state of the
+     * transaction and no longer has a point
+     */
+    private static Point indexedPoint(PointIndexSeeker seeker, Node node) {
+        Object value = node.getProperty(seeker.getProperty(), null);
+        return value instanceof Point point ? point : null;
+    }
+
+    /**
+     * @param polygon a list of points, or a node with a 'polygon' property or a polygon structure
+     * @return The polygon as in-memory geometry
+     */
+    private Polygon asInMemoryPolygon(Object polygon) {
+        if (polygon instanceof List<?> list) {
+            List<Point> points = new ArrayList<>(list.size());
+            for (Object point : list) {
+                if (!(point instanceof Point)) {
+                    throw new IllegalArgumentException("Invalid 'polygon', should be a list of points, but contained: " + point);
+                }
+                points.add((Point) point);
+            }
+            validatePolygon(points);
+            return Polygon.simple(asInMemoryPoints(points));
+        } else if (polygon instanceof Node node) {
+            if (node.hasProperty("polygon")) {
+                return Neo4jArrayToInMemoryConverter.convertToInMemoryPolygon(node);
+            }
+            Relationship structure = node.getRelationships(Direction.OUTGOING, Relation.POLYGON_STRUCTURE).stream().findFirst().orElse(null);
+            if (structure == null) {
+                throw new IllegalArgumentException("Invalid 'polygon', " + node + " has neither a 'polygon' property nor :POLYGON_STRUCTURE relationships");
+            } else if (structure.getEndNode().hasProperty("polygon")) {
+                return cachedPolygon(GeometryCache.Source.Property, node, UserDefinedFunctions::getArrayPolygon);
             } else {
-                Polygon.SimplePolygon geometry = Polygon.simple(asInMemoryPoints(polygon));
-                return CartesianWithin.within(geometry, asInMemoryPoint(point));
+                return cachedPolygon(GeometryCache.Source.Graph, node, UserDefinedFunctions::getGraphNodePolygon);
             }
+        } else {
+            throw new IllegalArgumentException("Invalid 'polygon', should be a list of points or a node, but was: " + polygon);
+        }
+    }
+
+    /**
+     * @param nodes a label name or a list of nodes
+     * @return The nodes to test
+     */
+    private Iterable<Node> asNodes(Object nodes) {
+        if (nodes instanceof String label) {
+            return () -> tx.findNodes(Label.label(label));
+        } else if (nodes instanceof List<?> list) {
+            List<Node> result = new ArrayList<>(list.size());
+            for (Object node : list) {
+                if (!(node instanceof Node)) {
+                    throw new IllegalArgumentException("Invalid 'nodes', should be a list of nodes, but contained: " + node);
+                }
+                result.add((Node) node);
+            }
+            return result;
+        } else {
+            throw new IllegalArgumentException("Invalid 'nodes', should be a label or a list of nodes, but was: " + nodes);
+        }
+    }
+
+    private void validatePolygon(List<Point> polygon) {
+        if (polygon == null || polygon.size() < 4) {
+            throw new IllegalArgumentException("Invalid 'polygon', should be a list of at least 4, but was: " + (polygon == null ? "null" : polygon.size()));
+        } else if (!polygon.get(0).equals(polygon.get(polygon.size() - 1))) {
+            throw new IllegalArgumentException("Invalid 'polygon', first and last point should be the same, but were: " + polygon.get(0) + " and " + polygon.get(polygon.size() - 1));
         }
     }
 
     @UserFunction("spatial.algo.convexHull")
     public List<Point> convexHullPoints(@Name("points") List<Point> points) {
-        Polygon.SimplePolygon convexHull = CartesianConvexHull.convexHull(asInMemoryPoints(points));
+        Polygon.SimplePolygon convexHull = new CartesianParallelConvexHull().convexHull(org.neo4j.spatial.core.CRS.Cartesian, asPackedCoordinates(points));
 
         return asNeo4jPoints(CoordinateReferenceSystem.WGS_84, convexHull.getPoints());
     }
 
     // TODO: write tests
     @UserFunction("spatial.algo.property.convexHull")
-    public List<Point> convexHullArray(@Name("main") Node main) {
-        MultiPolygon multiPolygon = getArrayPolygon(main);
-        Polygon.SimplePolygon convexHull = CartesianConvexHull.convexHull(multiPolygon);
+    public List<Point> convexHullArray(
+            @Name("main") Node main,
+            @Name(value = "tolerance", defaultValue = "0.0") double tolerance) {
+        MultiPolygon multiPolygon = arrayPolygon(main, tolerance);
+        Polygon.SimplePolygon convexHull = new CartesianParallelConvexHull().convexHull(multiPolygon);
 
         return asNeo4jPoints(CoordinateReferenceSystem.WGS_84, convexHull.getPoints());
     }
@@ -366,7 +987,7 @@ public class UserDefinedFunctions {
     // TODO: write tests
     @UserFunction("spatial.algo.graph.convexHull")
     public List<Point> convexHullGraphNode(@Name("main") Node main) {
-        MultiPolygon multiPolygon = getGraphNodePolygon(main);
+        MultiPolygon multiPolygon = cachedPolygon(GeometryCache.Source.Graph, main, UserDefinedFunctions::getGraphNodePolygon);
         Polygon.SimplePolygon convexHull = WGS84ConvexHull.convexHull(multiPolygon);
 
         return asNeo4jPoints(CoordinateReferenceSystem.WGS_84, convexHull.getPoints());
@@ -411,7 +1032,7 @@ public class UserDefinedFunctions {
         Polygon.SimplePolygon convexHull2 = CartesianConvexHull.convexHull(asInMemoryPoints(polygon2));
 
         Distance distance = DistanceCalculator.getCalculator(convexHull1);
-        return distance.distance(convexHull1, convexHull2);
+        return distance.convexDistance(convexHull1, convexHull2);
     }
 
     @UserFunction("spatial.algo.convexHull.distance.ends")
@@ -422,7 +1043,7 @@ public class UserDefinedFunctions {
             final CRS crs = polygon1.get(0).getCRS();
 
             Distance distance = DistanceCalculator.getCalculator(convexHull1);
-            Distance.DistanceResult dae = distance.distanceAndEndpoints(convexHull1, convexHull2);
+            Distance.DistanceResult dae = distance.convexDistanceAndEndpoints(convexHull1, convexHull2);
             return dae.asMap(p -> asNeo4jPoint(crs, p));
         } catch (Exception e) {
             System.out.println("Failed to calculate polygon distance: " + e.getMessage());
@@ -478,6 +1099,22 @@ public class UserDefinedFunctions {
     }
 
 
+    /**
+     * Reads the geometry through the {@link GeometryCache}, unless the cache is not kept up to date for this database or
+     * the transaction has uncommitted changes which the cached geometries would not reflect
+     */
+    private MultiPolygon cachedPolygon(GeometryCache.Source source, Node main, Function<Node, MultiPolygon> loader) {
+        GeometryCache cache = GeometryCache.getInstance();
+        if (!cache.isEnabled(db.databaseName()) || kernelTransaction().dataRead().transactionStateHasChanges()) {
+            return loader.apply(main);
+        }
+        return cache.get(source, main, loader);
+    }
+
+    private KernelTransaction kernelTransaction() {
+        return ((InternalTransaction) tx).kernelTransaction();
+    }
+
     private org.neo4j.spatial.core.Point[] asInMemoryPoints(List<Point> polygon) {
         org.neo4j.spatial.core.Point[] points = new org.neo4j.spatial.core.Point[polygon.size()];
         for (int i = 0; i < points.length; i++) {
@@ -486,6 +1123,19 @@ public class UserDefinedFunctions {
         return points;
     }
 
+    /**
+     * @return The interleaved x and y coordinates of the points, without a point object per vertex
+     */
+    private double[] asPackedCoordinates(List<Point> points) {
+        double[] coordinates = new double[2 * points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            double[] coordinate = points.get(i).getCoordinate().getCoordinate();
+            coordinates[2 * i] = coordinate[0];
+            coordinates[2 * i + 1] = coordinate[1];
+        }
+        return coordinates;
+    }
+
     private org.neo4j.spatial.core.Point asInMemoryPoint(Point point) {
         double[] coords = point.getCoordinate().getCoordinate().clone();
         org.neo4j.spatial.core.CRS crs = CRSConverter.toInMemoryCRS(point.getCRS());
@@ -540,6 +1190,58 @@ public class UserDefinedFunctions {
         }
     }
 
+    public class NodeResult {
+        public Node node;
+
+        private NodeResult(Node node) {
+            this.node = node;
+        }
+    }
+
+    public class NodeDistanceResult {
+        public Node node;
+        public double distance;
+
+        private NodeDistanceResult(Node node, double distance) {
+            this.node = node;
+            this.distance = distance;
+        }
+    }
+
+    public class BulkBuildResult {
+        public long relations;
+        public long succeeded;
+        public long failed;
+        public long batches;
+        public long time_ms;
+        public double relations_per_second;
+        public List<String> errors;
+
+        private BulkBuildResult(BulkGraphBuilder.Summary summary) {
+            this.relations = summary.relations;
+            this.succeeded = summary.succeeded;
+            this.failed = summary.failed;
+            this.batches = summary.batches;
+            this.time_ms = summary.timeMillis;
+            this.relations_per_second = summary.relationsPerSecond();
+            this.errors = summary.errors;
+        }
+    }
+
+    public class PyramidResult {
+        public String node_id;
+        public String property;
+        public long count;
+        public List<Long> level_counts;
+
+        private PyramidResult(String node_id, String property, long count, List<Long> level_counts) {
+            this.node_id = node_id;
+            this.property = property;
+            this.count = count;
+            this.level_counts = level_counts;
+        }
+    }
+
     public class PointArraySizeResult {
         public String node_id;
         public long count;
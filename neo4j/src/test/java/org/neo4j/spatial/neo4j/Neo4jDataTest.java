@@ -9,6 +9,8 @@ import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.spatial.Point;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.spatial.core.CRS;
 import org.neo4j.spatial.core.Polygon;
 import org.neo4j.spatial.core.Polyline;
@@ -18,8 +20,11 @@ import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Values;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.trace_cursors;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
@@ -145,6 +150,53 @@ public class Neo4jDataTest {
         }
     }
 
+    @Test
+    public void shouldReadSameGraphIDPolygonAsPropertyReader() {
+        long osmRelationId = 1;
+
+        TestModel model = new TestModel(10, 0);
+
+        try (Transaction tx = db.beginTx()) {
+            model.buildNodes(tx);
+            model.buildSingleWayPolygon(osmRelationId);
+            tx.commit();
+        }
+        try (Transaction tx = db.beginTx()) {
+            model.refresh(tx);
+            KernelTransaction ktx = ((InternalTransaction) tx).kernelTransaction();
+
+            Map<Long, org.neo4j.spatial.core.Point> cache = new HashMap<>();
+            try (CursorPointReader reader = new CursorPointReader(ktx, cache)) {
+                for (Node node : model.nodes) {
+                    Neo4jPoint expected = new Neo4jPoint(node);
+                    org.neo4j.spatial.core.Point actual = reader.read(node.getId());
+                    assertThat(actual.getCoordinate(), equalTo(expected.getCoordinate()));
+                    assertThat(actual.getCRS(), equalTo(expected.getCRS()));
+                    assertThat(reader.read(node.getId()), sameInstance(actual));
+
+                    Neo4jIDPoint idPoint = new Neo4jIDPoint(node.getId(), ktx);
+                    assertThat(idPoint.getCoordinate(), equalTo(expected.getCoordinate()));
+                    assertThat(idPoint.getCRS(), equalTo(expected.getCRS()));
+                }
+            }
+            assertThat(cache.size(), equalTo(model.n));
+
+            org.neo4j.spatial.core.Point[] expected = new Neo4jSimpleGraphNodePolygon(model.wayNodeAt(0), osmRelationId).getPoints();
+            for (boolean memoize : new boolean[]{true, false}) {
+                Neo4jSimpleGraphIDPolygon polygon = new Neo4jSimpleGraphIDPolygon(model.wayNodeAt(0), osmRelationId, ktx, memoize);
+                //The second call reads the memoized points, if any
+                for (int call = 0; call < 2; call++) {
+                    org.neo4j.spatial.core.Point[] actual = polygon.getPoints();
+                    assertThat(actual.length, equalTo(expected.length));
+                    for (int i = 0; i < expected.length; i++) {
+                        assertThat(actual[i].getCoordinate(), equalTo(expected[i].getCoordinate()));
+                    }
+                }
+            }
+            tx.commit();
+        }
+    }
+
     @Test
     public void shouldTraverseTwoWayPolygon() {
         long osmRelationId = 1;
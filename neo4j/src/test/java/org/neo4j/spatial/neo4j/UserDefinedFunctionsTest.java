@@ -13,19 +13,31 @@ import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.graphdb.traversal.Evaluators;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.kernel.api.procedure.GlobalProcedures;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
 import org.neo4j.kernel.impl.traversal.MonoDirectionalTraversalDescription;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.spatial.algo.AreaCalculator;
+import org.neo4j.spatial.algo.Distance;
+import org.neo4j.spatial.algo.DistanceCalculator;
+import org.neo4j.spatial.algo.WithinCalculator;
+import org.neo4j.spatial.core.MultiPolygon;
+import org.neo4j.spatial.core.PackedPolygon;
+import org.neo4j.spatial.core.Polygon;
 import org.neo4j.test.TestDatabaseManagementServiceBuilder;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.Values;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
 import static org.junit.Assert.*;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 
@@ -200,6 +212,77 @@ public class UserDefinedFunctionsTest {
         }
     }
 
+    @Test
+    public void shouldCreateOSMGraphPolygonFromManyShuffledWays() {
+        Random random = new Random(42);
+        String[] mainIds = new String[2];
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < mainIds.length; i++) {
+                Node main = tx.createNode(Label.label("OSMRelation"));
+                main.setProperty("relation_osm_id", (long) i);
+                //The first ring joins ways by common nodes, the second by proximity of the way ends. Proximity joins are
+                //greedy and do not bridge two open polylines, so only a ring of three ways closes in any member order
+                createRingOfWays(tx, main, i * 10, i == 0 ? 100 : 3, i == 0, random);
+                mainIds[i] = main.getElementId();
+            }
+            tx.commit();
+        }
+
+        for (String mainId : mainIds) {
+            testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+            testCallCount(db, "MATCH (m)-[:POLYGON_STRUCTURE]->(:Shell) WHERE elementId(m) = $mainId RETURN m", map("mainId", mainId), 1);
+            testCallCount(db, "MATCH (m)-[:POLYGON_STRUCTURE*]->(p:Polygon) WHERE elementId(m) = $mainId RETURN p", map("mainId", mainId), 1);
+        }
+    }
+
+    private static void createRingOfWays(Transaction tx, Node main, double longitude, int wayCount, boolean sharedEnds, Random random) {
+        int segmentsPerWay = 3;
+        Node[] osmNodes = new Node[wayCount * segmentsPerWay];
+        for (int i = 0; i < osmNodes.length; i++) {
+            double angle = 2 * Math.PI * i / osmNodes.length;
+            osmNodes[i] = tx.createNode(Label.label("OSMNode"));
+            osmNodes[i].setProperty("location", Values.pointValue(CoordinateReferenceSystem.WGS_84, longitude + 0.1 * Math.cos(angle), 0.1 * Math.sin(angle)));
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < wayCount; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, random);
+
+        for (int w : order) {
+            List<Node> wayOsmNodes = new ArrayList<>();
+            for (int j = 0; j <= segmentsPerWay; j++) {
+                Node osmNode = osmNodes[(w * segmentsPerWay + j) % osmNodes.length];
+                if (j == segmentsPerWay && !sharedEnds) {
+                    //A separate node about a meter away from the start of the next way
+                    Point location = (Point) osmNode.getProperty("location");
+                    double[] coordinate = location.getCoordinate().getCoordinate();
+                    osmNode = tx.createNode(Label.label("OSMNode"));
+                    osmNode.setProperty("location", Values.pointValue(CoordinateReferenceSystem.WGS_84, coordinate[0] + 0.00001, coordinate[1]));
+                }
+                wayOsmNodes.add(osmNode);
+            }
+            if (random.nextBoolean()) {
+                Collections.reverse(wayOsmNodes);
+            }
+
+            Node way = tx.createNode(Label.label("OSMWay"));
+            main.createRelationshipTo(way, Relation.MEMBER);
+            Node previous = null;
+            for (Node osmNode : wayOsmNodes) {
+                Node wayNode = tx.createNode(Label.label("OSMWayNode"));
+                wayNode.createRelationshipTo(osmNode, Relation.NODE);
+                if (previous == null) {
+                    way.createRelationshipTo(wayNode, Relation.FIRST_NODE);
+                } else {
+                    previous.createRelationshipTo(wayNode, Relation.NEXT);
+                }
+                previous = wayNode;
+            }
+        }
+    }
+
     @Test
     public void shouldCreateOSMGraphPolygonOneDirectionNoOverlap() {
         try (Transaction tx = db.beginTx()) {
@@ -408,6 +491,544 @@ public class UserDefinedFunctionsTest {
         }
     }
 
+    @Test
+    public void shouldWalkOSMGraphPolygonWithCursors() {
+        String mainId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+
+            createNestedSquareOSM(tx, main);
+
+            tx.commit();
+        }
+
+        testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.getNodeByElementId(mainId);
+            MultiPolygon expected = UserDefinedFunctions.getGraphNodePolygon(main);
+            MultiPolygon actual = UserDefinedFunctions.getGraphCursorPolygon(main, ((InternalTransaction) tx).kernelTransaction());
+
+            assertThat(actual.getShells().length, equalTo(expected.getShells().length));
+            for (int i = 0; i < expected.getShells().length; i++) {
+                org.neo4j.spatial.core.Point[] expectedPoints = expected.getShells()[i].getPoints();
+                org.neo4j.spatial.core.Point[] actualPoints = actual.getShells()[i].getPoints();
+                assertThat(actualPoints.length, equalTo(expectedPoints.length));
+                assertThat(Polygon.simple(actualPoints), equalTo(Polygon.simple(expectedPoints)));
+            }
+        }
+    }
+
+    @Test
+    public void shouldWalkOSMGraphPolylineWithCursors() {
+        String mainId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+
+            createOverlappingWaysOSM(tx, main);
+
+            tx.commit();
+        }
+
+        try (Transaction tx = db.beginTx()) {
+            tx.execute("CALL spatial.osm.graph.createPolygon($main)", map("main", tx.getNodeByElementId(mainId))).close();
+            tx.commit();
+        }
+
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.getNodeByElementId(mainId);
+            org.neo4j.spatial.core.MultiPolyline expected = UserDefinedFunctions.getGraphNodePolyline(main);
+            org.neo4j.spatial.core.MultiPolyline actual = UserDefinedFunctions.getGraphCursorPolyline(main, ((InternalTransaction) tx).kernelTransaction());
+
+            assertThat(actual.getChildren().length, equalTo(1));
+            assertThat(actual.getChildren().length, equalTo(expected.getChildren().length));
+            org.neo4j.spatial.core.Point[] expectedPoints = expected.getChildren()[0].getPoints();
+            org.neo4j.spatial.core.Point[] actualPoints = actual.getChildren()[0].getPoints();
+            assertThat(actualPoints.length, equalTo(12));
+            assertThat(actualPoints.length, equalTo(expectedPoints.length));
+            for (int i = 0; i < expectedPoints.length; i++) {
+                assertThat(actualPoints[i].getCoordinate(), equalTo(expectedPoints[i].getCoordinate()));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRejectCursorWalkIntoCycle() {
+        try (Transaction tx = db.beginTx()) {
+            //A polyline whose way nodes lead into a cycle of three way nodes which never ends
+            Node[] wayNodes = new Node[4];
+            for (int i = 0; i < wayNodes.length; i++) {
+                wayNodes[i] = tx.createNode(Label.label("OSMWayNode"));
+                Node node = tx.createNode(Label.label("OSMNode"));
+                node.setProperty("location", Values.pointValue(CoordinateReferenceSystem.WGS_84, i, i));
+                wayNodes[i].createRelationshipTo(node, Relation.NODE);
+            }
+            wayNodes[0].createRelationshipTo(wayNodes[1], Relation.NEXT);
+            wayNodes[1].createRelationshipTo(wayNodes[2], Relation.NEXT);
+            wayNodes[2].createRelationshipTo(wayNodes[3], Relation.NEXT);
+            wayNodes[3].createRelationshipTo(wayNodes[1], Relation.NEXT);
+
+            try (CursorGraphTraverser traverser = new CursorGraphTraverser(((InternalTransaction) tx).kernelTransaction(), 1)) {
+                traverser.polyline(wayNodes[0].getId());
+                fail("Expected the walk into a cycle to be rejected");
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), containsString("without ending the polyline"));
+            }
+        }
+    }
+
+    @Test
+    public void shouldCreateOSMPropertyPolygonInOnePass() {
+        String mainId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+
+            createNestedSquareOSM(tx, main);
+
+            tx.commit();
+        }
+
+        testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+
+        Map<String, Object> expected = new HashMap<>();
+        testResult(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPolygon(m) YIELD node_id, count RETURN node_id, count", map("mainId", mainId), result -> {
+            result.forEachRemaining(row -> expected.put((String) row.get("node_id"), row.get("count")));
+        });
+        List<Point[]> traversed = propertyPolygons(mainId);
+        assertThat(expected.size(), equalTo(2));
+
+        Map<String, Object> actual = new HashMap<>();
+        testResult(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPolygon(m, true) YIELD node_id, count RETURN node_id, count", map("mainId", mainId), result -> {
+            result.forEachRemaining(row -> actual.put((String) row.get("node_id"), row.get("count")));
+        });
+        assertThat(actual, equalTo(expected));
+
+        List<Point[]> walked = propertyPolygons(mainId);
+        for (int i = 0; i < traversed.size(); i++) {
+            assertThat(Polygon.simple(asInMemoryPoints(walked.get(i))), equalTo(Polygon.simple(asInMemoryPoints(traversed.get(i)))));
+            assertThat(walked.get(i)[0].getCRS(), equalTo(CoordinateReferenceSystem.CARTESIAN));
+        }
+    }
+
+    private List<Point[]> propertyPolygons(String mainId) {
+        List<Point[]> result = new ArrayList<>();
+        testResult(db, "MATCH (m)-[:POLYGON_STRUCTURE*]->(p:Polygon) WHERE elementId(m) = $mainId RETURN p.polygon AS polygon ORDER BY elementId(p)", map("mainId", mainId), rows -> {
+            rows.forEachRemaining(row -> result.add(((List<?>) row.get("polygon")).toArray(new Point[0])));
+        });
+        return result;
+    }
+
+    private static org.neo4j.spatial.core.Point[] asInMemoryPoints(Point[] points) {
+        org.neo4j.spatial.core.Point[] result = new org.neo4j.spatial.core.Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            result[i] = org.neo4j.spatial.core.Point.point(CRSConverter.toInMemoryCRS(points[i].getCRS()), points[i].getCoordinate().getCoordinate());
+        }
+        return result;
+    }
+
+    @Test
+    public void shouldCreateOSMBlobPolygon() {
+        String mainId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+
+            createNestedSquareOSM(tx, main);
+
+            tx.commit();
+        }
+
+        testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+        testCallCount(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.blob.createPolygon(m, 0.0) YIELD node_id RETURN node_id", map("mainId", mainId), 2);
+
+        double expected;
+        try (Transaction tx = db.beginTx()) {
+            MultiPolygon polygon = UserDefinedFunctions.getGraphNodePolygon(tx.getNodeByElementId(mainId));
+            expected = AreaCalculator.getCalculator(polygon.getCRS()).area(polygon);
+        }
+        testCall(db, "MATCH (m) WHERE elementId(m) = $mainId RETURN spatial.osm.blob.area(m) AS area", map("mainId", mainId),
+                result -> assertThat((double) result.get("area"), closeTo(expected, 1e-9)));
+        testCall(db, "MATCH (m) WHERE elementId(m) = $mainId RETURN spatial.osm.blob.polygonAsWKT(m) AS wkt", map("mainId", mainId),
+                result -> assertThat((String) result.get("wkt"), startsWith("MULTIPOLYGON")));
+    }
+
+    @Test
+    public void shouldStoreCartesianBlobPolygonWithoutLossByDefault() {
+        String mainId;
+        double x = 10.000000012345;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+
+            createNestedSquareOSM(tx, main);
+            tx.execute("MATCH (n:OSMNode) WHERE n.location = point({x: 10, y: -10}) SET n.location = point({x: $x, y: -10})", map("x", x)).close();
+
+            tx.commit();
+        }
+
+        testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+        testCallCount(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.blob.createPolygon(m) YIELD node_id RETURN node_id", map("mainId", mainId), 2);
+
+        try (Transaction tx = db.beginTx()) {
+            boolean found = false;
+            try (ResourceIterator<Node> polygons = tx.findNodes(Label.label("Polygon"))) {
+                while (polygons.hasNext()) {
+                    PackedPolygon polygon = Neo4jBlobToInMemoryConverter.convertToInMemoryPolygon(polygons.next());
+                    for (int i = 0; i < polygon.size(); i++) {
+                        found |= polygon.getX(i) == x;
+                    }
+                }
+            }
+            assertThat("Expected the Cartesian coordinate to be stored without rounding", found, equalTo(true));
+        }
+    }
+
+    @Test
+    public void shouldInvalidateCachedPolygonOnWrite() {
+        String mainId;
+        String polygonId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            Node polygon = tx.createNode(Label.label("Polygon"));
+            polygon.setProperty("polygon", cartesianSquare(10));
+            main.createRelationshipTo(polygon, Relation.POLYGON_STRUCTURE);
+            mainId = main.getElementId();
+            polygonId = polygon.getElementId();
+            tx.commit();
+        }
+        GeometryCache cache = GeometryCache.getInstance();
+        assertTrue("Cache should be maintained for the database", cache.isEnabled(db.databaseName()));
+
+        String query = "MATCH (m) WHERE elementId(m) = $mainId RETURN spatial.osm.property.polygonAsWKT(m) AS wkt";
+        int before = cache.size();
+        testCall(db, query, map("mainId", mainId), result -> assertThat((String) result.get("wkt"), containsString("10.0")));
+        assertThat(cache.size(), equalTo(before + 1));
+        testCall(db, query, map("mainId", mainId), result -> assertThat((String) result.get("wkt"), containsString("10.0")));
+        assertThat(cache.size(), equalTo(before + 1));
+
+        try (Transaction tx = db.beginTx()) {
+            tx.getNodeByElementId(polygonId).setProperty("polygon", cartesianSquare(20));
+            Result result = tx.execute(query, map("mainId", mainId));
+            assertThat("Uncommitted changes should be visible", (String) result.next().get("wkt"), containsString("20.0"));
+            tx.commit();
+        }
+        assertThat(cache.size(), equalTo(before));
+        testCall(db, query, map("mainId", mainId), result -> assertThat((String) result.get("wkt"), containsString("20.0")));
+    }
+
+    @Test
+    public void shouldInvalidateCachedGraphPolygonOnRelationIdsChange() {
+        String mainId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+            createNestedSquareOSM(tx, main);
+            tx.commit();
+        }
+        testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+
+        GeometryCache cache = GeometryCache.getInstance();
+        String query = "MATCH (m) WHERE elementId(m) = $mainId RETURN spatial.osm.graph.polygonAsWKT(m) AS wkt";
+        int before = cache.size();
+        testCall(db, query, map("mainId", mainId), result -> assertThat((String) result.get("wkt"), startsWith("MULTIPOLYGON")));
+        assertThat(cache.size(), equalTo(before + 1));
+
+        try (Transaction tx = db.beginTx()) {
+            Relationship next = tx.findRelationships(Relation.NEXT_IN_POLYGON).next();
+            next.setProperty("relation_osm_ids", new long[]{1L, 2L});
+            tx.commit();
+        }
+        assertThat(cache.size(), equalTo(before));
+        testCall(db, query, map("mainId", mainId), result -> assertThat((String) result.get("wkt"), startsWith("MULTIPOLYGON")));
+        assertThat(cache.size(), equalTo(before + 1));
+
+        try (Transaction tx = db.beginTx()) {
+            Relationship next = tx.findRelationships(Relation.NEXT_IN_POLYGON).next();
+            next.removeProperty("relation_osm_ids");
+            tx.commit();
+        }
+        assertThat(cache.size(), equalTo(before));
+    }
+
+    @Test
+    public void shouldReadSimplifiedLevelsOfPyramid() {
+        String mainId;
+        String polygonId;
+        Point[] ring = new Point[2001];
+        for (int i = 0; i < 2000; i++) {
+            double angle = 2 * Math.PI * i / 2000;
+            ring[i] = Values.pointValue(CoordinateReferenceSystem.WGS_84, 10 + Math.cos(angle) * (1 + 0.1 * Math.sin(7 * angle)), 50 + Math.sin(angle));
+        }
+        ring[2000] = ring[0];
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            Node polygon = tx.createNode(Label.label("Polygon"));
+            polygon.setProperty("polygon", ring);
+            main.createRelationshipTo(polygon, Relation.POLYGON_STRUCTURE);
+            Node polyline = tx.createNode(Label.label("Polyline"));
+            polyline.setProperty("polyline", Arrays.copyOf(ring, 1000));
+            main.createRelationshipTo(polyline, Relation.POLYLINE_STRUCTURE);
+            mainId = main.getElementId();
+            polygonId = polygon.getElementId();
+            tx.commit();
+        }
+
+        Map<String, List<?>> levels = new HashMap<>();
+        testResult(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPyramid(m, [1000.0, 100.0]) YIELD property, count, level_counts RETURN *", map("mainId", mainId), result -> {
+            result.forEachRemaining(row -> levels.put((String) row.get("property"), (List<?>) row.get("level_counts")));
+        });
+        assertThat(levels.keySet(), containsInAnyOrder("polygon", "polyline"));
+        List<?> counts = levels.get("polygon");
+        assertThat((Long) counts.get(0), lessThanOrEqualTo(2000L));
+        assertThat((Long) counts.get(1), lessThanOrEqualTo((Long) counts.get(0)));
+        assertThat((Long) counts.get(1), greaterThan(3L));
+
+        String query = "MATCH (m) WHERE elementId(m) = $mainId RETURN size(spatial.osm.property.polygonShell(m, $tolerance)) AS size";
+        testCall(db, query, map("mainId", mainId, "tolerance", 0.0), result -> assertThat(result.get("size"), equalTo(2001L)));
+        testCall(db, query, map("mainId", mainId, "tolerance", 50.0), result -> assertThat(result.get("size"), equalTo(2001L)));
+        testCall(db, query, map("mainId", mainId, "tolerance", 500.0), result -> assertThat(result.get("size"), equalTo(counts.get(0))));
+        testCall(db, query, map("mainId", mainId, "tolerance", 5000.0), result -> assertThat(result.get("size"), equalTo(counts.get(1))));
+        testCall(db, "MATCH (m) WHERE elementId(m) = $mainId RETURN size(spatial.algo.property.convexHull(m, 5000.0)) AS size", map("mainId", mainId),
+                result -> assertThat((Long) result.get("size"), lessThanOrEqualTo((Long) counts.get(1))));
+
+        testCall(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPyramid(m, [10000.0], 'Visvalingam') YIELD property, level_counts WHERE property = 'polygon' RETURN level_counts", map("mainId", mainId),
+                result -> assertThat((Long) ((List<?>) result.get("level_counts")).get(0), lessThanOrEqualTo((Long) counts.get(1))));
+        testCall(db, "MATCH (p) WHERE elementId(p) = $polygonId RETURN p.polygon_levels AS levels, p.polygon_level_1 AS removed", map("polygonId", polygonId), result -> {
+            assertThat(((double[]) result.get("levels")).length, equalTo(1));
+            assertThat(result.get("removed"), nullValue());
+        });
+        testCallFails(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPyramid(m, [100.0], 'Nearest') YIELD property RETURN property", map("mainId", mainId),
+                "Illegal simplification method. Choose 'DouglasPeucker' or 'Visvalingam'");
+    }
+
+    @Test
+    public void shouldRemovePyramidWhenGeometryIsRewritten() {
+        String mainId;
+        try (Transaction tx = db.beginTx()) {
+            Node main = tx.createNode(Label.label("OSMRelation"));
+            main.setProperty("relation_osm_id", 1L);
+            mainId = main.getElementId();
+            createNestedSquareOSM(tx, main);
+            tx.commit();
+        }
+        testCall(db, "CALL spatial.osm.graph.createPolygon.nodeId($mainId)", map("mainId", mainId));
+        testCallCount(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPolygon(m) YIELD node_id RETURN node_id", map("mainId", mainId), 2);
+        testCallCount(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPyramid(m, [1.0, 5.0]) YIELD node_id RETURN node_id", map("mainId", mainId), 2);
+        testCallCount(db, "MATCH (p:Polygon) WHERE p.polygon_levels IS NOT NULL AND p.polygon_level_1 IS NOT NULL RETURN p", null, 2);
+
+        testCallCount(db, "MATCH (m) WHERE elementId(m) = $mainId CALL spatial.osm.property.createPolygon(m) YIELD node_id RETURN node_id", map("mainId", mainId), 2);
+        testCallCount(db, "MATCH (p:Polygon) WHERE p.polygon_levels IS NOT NULL OR p.polygon_level_0 IS NOT NULL OR p.polygon_level_1 IS NOT NULL RETURN p", null, 0);
+        testCallCount(db, "MATCH (p:Polygon) WHERE p.polygon IS NOT NULL RETURN p", null, 2);
+    }
+
+    private static Point[] cartesianSquare(double size) {
+        return new Point[]{
+                Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 0, 0),
+                Values.pointValue(CoordinateReferenceSystem.CARTESIAN, size, 0),
+                Values.pointValue(CoordinateReferenceSystem.CARTESIAN, size, size),
+                Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 0, size),
+                Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 0, 0)
+        };
+    }
+
+    @Test
+    public void shouldCreateOSMGraphPolygonsInBatches() {
+        try (Transaction tx = db.beginTx()) {
+            for (long id = 1; id <= 3; id++) {
+                Node main = tx.createNode(Label.label("OSMRelation"));
+                main.setProperty("relation_osm_id", id);
+                createNestedSquareOSM(tx, main);
+            }
+            //A relation without an id cannot be built and should not stop the others
+            tx.createNode(Label.label("OSMRelation"));
+            tx.commit();
+        }
+
+        testCall(db, "CALL spatial.osm.graph.createPolygons('OSMRelation', 2, 2)", result -> {
+            assertThat(result.get("relations"), equalTo(4L));
+            assertThat(result.get("succeeded"), equalTo(3L));
+            assertThat(result.get("failed"), equalTo(1L));
+            assertThat(result.get("batches"), equalTo(2L));
+            assertThat((List<?>) result.get("errors"), hasSize(1));
+        });
+        testCallCount(db, "MATCH (m:OSMRelation)-[:POLYGON_STRUCTURE*]->(p:Polygon) RETURN p", null, 6);
+
+        testCall(db, "CALL spatial.osm.graph.createPolygons([2])", result -> assertThat(result.get("succeeded"), equalTo(1L)));
+        testCallCount(db, "MATCH (m:OSMRelation)-[:POLYGON_STRUCTURE*]->(p:Polygon) RETURN p", null, 6);
+    }
+
+    @Test
+    public void shouldCreateOSMGraphPolygonsOfRelationsSharingWaysConcurrently() {
+        int relations = 8;
+        try (Transaction tx = db.beginTx()) {
+            Node first = tx.createNode(Label.label("OSMRelation"));
+            first.setProperty("relation_osm_id", 1L);
+            createNestedSquareOSM(tx, first);
+            for (long id = 2; id <= relations; id++) {
+                Node main = tx.createNode(Label.label("OSMRelation"));
+                main.setProperty("relation_osm_id", id);
+                for (Relationship member : first.getRelationships(Direction.OUTGOING, Relation.MEMBER)) {
+                    main.createRelationshipTo(member.getEndNode(), Relation.MEMBER);
+                }
+            }
+            tx.commit();
+        }
+
+        testCall(db, "CALL spatial.osm.graph.createPolygons('OSMRelation', 1, 4)", result -> {
+            assertThat(result.get("succeeded"), equalTo((long) relations));
+            assertThat(result.get("failed"), equalTo(0L));
+        });
+
+        //Every relation shares the connections between the ways, none of their ids may be lost
+        testResult(db, "MATCH (a:OSMWayNode)-[r:NEXT_IN_POLYGON]->(b:OSMWayNode) RETURN elementId(a) AS a, elementId(b) AS b, r.relation_osm_ids AS ids", result -> {
+            Set<List<String>> pairs = new HashSet<>();
+            int count = 0;
+            while (result.hasNext()) {
+                Map<String, Object> row = result.next();
+                pairs.add(List.of((String) row.get("a"), (String) row.get("b")));
+                assertThat(((long[]) row.get("ids")).length, equalTo(relations));
+                count++;
+            }
+            assertThat(count, greaterThan(0));
+            assertThat("Expected one relationship per pair of way nodes", pairs.size(), equalTo(count));
+        });
+        for (long id = 1; id <= relations; id++) {
+            testCall(db, "MATCH (m:OSMRelation {relation_osm_id: $id}) RETURN spatial.osm.graph.polygonAsWKT(m) AS wkt", map("id", id),
+                    result -> assertThat((String) result.get("wkt"), startsWith("MULTIPOLYGON")));
+        }
+    }
+
+    @Test
+    public void shouldCreateOSMGraphPolylinesOfRelationsSharingWaysInOppositeDirections() {
+        String[] mainIds = new String[2];
+        String firstId;
+        String secondId;
+        try (Transaction tx = db.beginTx()) {
+            //Two ways meeting at the same location, the second relation comes from a third way and walks them in the opposite direction
+            Node[][] wayNodes = new Node[3][3];
+            Node[] nodes = new Node[7];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = tx.createNode(Label.label("OSMNode"));
+                nodes[i].setProperty("location", Values.pointValue(CoordinateReferenceSystem.WGS_84, 0, i));
+            }
+            for (int i = 0; i < wayNodes.length; i++) {
+                for (int j = 0; j < wayNodes[i].length; j++) {
+                    wayNodes[i][j] = tx.createNode(Label.label("OSMWayNode"));
+                    wayNodes[i][j].createRelationshipTo(nodes[i < 2 ? 2 * i + j : nodes.length - 1 - j], Relation.NODE);
+                    if (j > 0) {
+                        wayNodes[i][j - 1].createRelationshipTo(wayNodes[i][j], Relation.NEXT);
+                    }
+                }
+            }
+            firstId = wayNodes[0][2].getElementId();
+            secondId = wayNodes[1][0].getElementId();
+
+            List<Node> forward = new ArrayList<>();
+            Collections.addAll(forward, wayNodes[0]);
+            Collections.addAll(forward, wayNodes[1]);
+            List<Node> backward = new ArrayList<>(forward);
+            Collections.reverse(backward);
+            backward.addAll(0, Arrays.asList(wayNodes[2]));
+
+            List<List<Node>> polylines = List.of(forward, backward);
+            for (int i = 0; i < mainIds.length; i++) {
+                Node main = tx.createNode(Label.label("OSMRelation"));
+                main.setProperty("relation_osm_id", i + 1L);
+                mainIds[i] = main.getElementId();
+                new GraphPolylineBuilder(tx, main, List.of(polylines.get(i))).build();
+            }
+
+            tx.commit();
+        }
+
+        try (Transaction tx = db.beginTx()) {
+            Node first = tx.getNodeByElementId(firstId);
+            Node second = tx.getNodeByElementId(secondId);
+            Relationship forward = first.getSingleRelationship(Relation.NEXT_IN_POLYLINE, Direction.OUTGOING);
+            Relationship backward = second.getSingleRelationship(Relation.NEXT_IN_POLYLINE, Direction.OUTGOING);
+            assertThat(forward.getEndNode(), equalTo(second));
+            assertThat((long[]) forward.getProperty("relation_osm_ids"), equalTo(new long[]{1}));
+            assertThat(backward.getEndNode(), equalTo(first));
+            assertThat((long[]) backward.getProperty("relation_osm_ids"), equalTo(new long[]{2}));
+
+            for (String mainId : mainIds) {
+                org.neo4j.spatial.core.MultiPolyline actual = UserDefinedFunctions.getGraphCursorPolyline(tx.getNodeByElementId(mainId), ((InternalTransaction) tx).kernelTransaction());
+                assertThat(actual.getChildren().length, equalTo(1));
+                assertThat(actual.getChildren()[0].getPoints().length, equalTo(mainId.equals(mainIds[0]) ? 5 : 7));
+            }
+        }
+
+        testCall(db, "MATCH (m) WHERE elementId(m) = $mainId RETURN spatial.osm.graph.polylineAsWKT(m) AS wkt", map("mainId", mainIds[0]),
+                result -> assertThat(result.get("wkt"), equalTo("MULTILINESTRING((0.0 0.0,0.0 1.0,0.0 2.0,0.0 3.0,0.0 4.0))")));
+        testCall(db, "MATCH (m) WHERE elementId(m) = $mainId RETURN spatial.osm.graph.polylineAsWKT(m) AS wkt", map("mainId", mainIds[1]),
+                result -> assertThat(result.get("wkt"), equalTo("MULTILINESTRING((0.0 6.0,0.0 5.0,0.0 4.0,0.0 3.0,0.0 2.0,0.0 1.0,0.0 0.0))")));
+    }
+
+    /**
+     * Four ways of three way nodes each, the last way node of a way is connected to a way node at the first location
+     * of the next way, so together they form one polyline
+     */
+    private static void createOverlappingWaysOSM(Transaction tx, Node main) {
+        int x = 4;
+        int y = 3;
+
+        Node[] ways = new Node[x];
+        Node[][] wayNodes = new Node[x][y];
+        Node[][] nodes = new Node[x][y];
+        Node[] connectors = new Node[x];
+
+        Relationship rel;
+
+        for (int i = 0; i < x; i++) {
+            ways[i] = tx.createNode(Label.label("OSMWay"));
+            main.createRelationshipTo(ways[i], Relation.MEMBER);
+
+            for (int j = 0; j < y; j++) {
+                wayNodes[i][j] = tx.createNode(Label.label("OSMWayNode"));
+
+                if (j == 0) {
+                    ways[i].createRelationshipTo(wayNodes[i][j], Relation.FIRST_NODE);
+                } else {
+                    rel = wayNodes[i][j - 1].createRelationshipTo(wayNodes[i][j], Relation.NEXT);
+                    rel.setProperty("relation_osm_id", 1l);
+                }
+            }
+
+            for (int j = 0; j < y; j++) {
+                nodes[i][j] = tx.createNode(Label.label("OSMNode"));
+                nodes[i][j].setProperty("location", Values.pointValue(CoordinateReferenceSystem.WGS_84, i, j));
+                wayNodes[i][j].createRelationshipTo(nodes[i][j], Relation.NODE);
+            }
+        }
+
+        for (int i = 0; i < x; i++) {
+            connectors[i] = tx.createNode(Label.label("OSMWayNode"));
+        }
+
+        rel = wayNodes[0][y - 1].createRelationshipTo(connectors[0], Relation.NEXT);
+        rel.setProperty("relation_osm_id", 1l);
+        connectors[0].createRelationshipTo(nodes[1][0], Relation.NODE);
+
+        rel = wayNodes[1][y - 1].createRelationshipTo(connectors[1], Relation.NEXT);
+        rel.setProperty("relation_osm_id", 1l);
+        connectors[1].createRelationshipTo(nodes[2][0], Relation.NODE);
+
+        rel = wayNodes[2][y - 1].createRelationshipTo(connectors[2], Relation.NEXT);
+        rel.setProperty("relation_osm_id", 1l);
+        connectors[2].createRelationshipTo(nodes[3][0], Relation.NODE);
+    }
+
     private String createNestedSquareOSM(Transaction tx, Node main) {
         Node[] ways = new Node[4];
         Node[][] wayNodes = new Node[ways.length][4];
@@ -540,6 +1161,112 @@ public class UserDefinedFunctionsTest {
         });
     }
 
+    @Test
+    public void shouldFindNodesInPolygon() {
+        ArrayList<Point> points = new ArrayList<>();
+        points.add(Values.pointValue(CoordinateReferenceSystem.WGS_84, 0, 0));
+        points.add(Values.pointValue(CoordinateReferenceSystem.WGS_84, 10, 0));
+        points.add(Values.pointValue(CoordinateReferenceSystem.WGS_84, 0, 10));
+        Set<String> inside = new HashSet<>();
+        try (Transaction tx = db.beginTx()) {
+            for (int x = -2; x <= 12; x += 2) {
+                for (int y = -2; y <= 12; y += 2) {
+                    Node node = tx.createNode(Label.label("Place"));
+                    node.setProperty("location", Values.pointValue(CoordinateReferenceSystem.WGS_84, x + 0.5, y + 0.5));
+                    if (x >= 0 && y >= 0 && x + y < 10) {
+                        inside.add(node.getElementId());
+                    }
+                }
+            }
+            tx.commit();
+        }
+
+        testResult(db, "WITH spatial.polygon($points) AS polygon CALL spatial.algo.withinPolygon.nodes(polygon, 'Place') YIELD node RETURN elementId(node) AS id", map("points", points), result -> {
+            Set<String> found = new HashSet<>();
+            result.forEachRemaining(row -> found.add((String) row.get("id")));
+            assertThat("Should find exactly the nodes inside the polygon", found, equalTo(inside));
+        });
+    }
+
+    @Test
+    public void shouldFindNodesThroughPointIndex() {
+        Point[] polygon = new Point[]{
+                Values.pointValue(CoordinateReferenceSystem.WGS_84, 0, 0),
+                Values.pointValue(CoordinateReferenceSystem.WGS_84, 10, 0),
+                Values.pointValue(CoordinateReferenceSystem.WGS_84, 0, 10),
+                Values.pointValue(CoordinateReferenceSystem.WGS_84, 0, 0)};
+        Point[] polyline = new Point[]{
+                Values.pointValue(CoordinateReferenceSystem.WGS_84, -3, -3),
+                Values.pointValue(CoordinateReferenceSystem.WGS_84, 12, 5)};
+        double distance = 150000;
+        int k = 80;
+
+        Map<String, org.neo4j.spatial.core.Point> places = new HashMap<>();
+        try (Transaction tx = db.beginTx()) {
+            tx.execute("CREATE POINT INDEX FOR (n:Place) ON (n.location)").close();
+            tx.commit();
+        }
+        try (Transaction tx = db.beginTx()) {
+            tx.schema().awaitIndexesOnline(1, TimeUnit.MINUTES);
+            Random random = new Random(42);
+            for (int i = 0; i < 1000; i++) {
+                Point location = Values.pointValue(CoordinateReferenceSystem.WGS_84, random.nextDouble() * 40 - 20, random.nextDouble() * 40 - 20);
+                Node node = tx.createNode(Label.label("Place"));
+                node.setProperty("location", location);
+                places.put(node.getElementId(), asInMemoryPoints(new Point[]{location})[0]);
+            }
+            tx.commit();
+        }
+
+        Polygon.SimplePolygon inMemoryPolygon = Polygon.simple(asInMemoryPoints(polygon));
+        org.neo4j.spatial.core.Polyline inMemoryPolyline = org.neo4j.spatial.core.Polyline.polyline(asInMemoryPoints(polyline));
+        Distance calculator = DistanceCalculator.getCalculator(inMemoryPolygon);
+        Set<String> inside = new HashSet<>();
+        Set<String> near = new HashSet<>();
+        List<Double> nearest = new ArrayList<>();
+        places.forEach((id, point) -> {
+            if (WithinCalculator.within(inMemoryPolygon, point)) {
+                inside.add(id);
+            }
+            if (calculator.distance(inMemoryPolyline, point) <= distance) {
+                near.add(id);
+            }
+            nearest.add(calculator.distance(inMemoryPolygon, point));
+        });
+        Collections.sort(nearest);
+
+        testResult(db, "CALL spatial.algo.index.withinPolygon('Place', $polygon) YIELD node RETURN elementId(node) AS id", map("polygon", Arrays.asList(polygon)), result -> {
+            Set<String> found = new HashSet<>();
+            result.forEachRemaining(row -> found.add((String) row.get("id")));
+            assertThat("Should find exactly the nodes inside the polygon", found, equalTo(inside));
+        });
+        testResult(db, "CALL spatial.algo.index.withinDistanceOfPolyline('Place', $polyline, $distance) YIELD node, distance RETURN elementId(node) AS id, distance", map("polyline", Arrays.asList(polyline), "distance", distance), result -> {
+            Set<String> found = new HashSet<>();
+            result.forEachRemaining(row -> {
+                found.add((String) row.get("id"));
+                assertThat("Should be within the distance", (double) row.get("distance"), lessThanOrEqualTo(distance));
+            });
+            assertThat("Should find exactly the nodes near the polyline", found, equalTo(near));
+        });
+        testResult(db, "CALL spatial.algo.index.nearestToPolygon('Place', $polygon, $k) YIELD distance RETURN distance", map("polygon", Arrays.asList(polygon), "k", k), result -> {
+            List<Double> found = new ArrayList<>();
+            result.forEachRemaining(row -> found.add((double) row.get("distance")));
+            assertThat("Should find the k nodes nearest to the polygon", found, equalTo(nearest.subList(0, k)));
+            assertThat("Should have more than the nodes inside the polygon", found.get(inside.size()), greaterThan(0.0));
+        });
+    }
+
+    @Test
+    public void shouldFailToSeekWithoutPointIndex() {
+        Point[] polygon = cartesianSquare(10);
+        try (Transaction tx = db.beginTx()) {
+            tx.createNode(Label.label("Place")).setProperty("location", Values.pointValue(CoordinateReferenceSystem.CARTESIAN, 1, 1));
+            tx.commit();
+        }
+        Exception e = assertThrows(QueryExecutionException.class, () -> testResult(db, "CALL spatial.algo.index.withinPolygon('Place', $polygon)", map("polygon", Arrays.asList(polygon)), Result::resultAsString));
+        assertThat(e.getMessage(), containsString("CREATE POINT INDEX"));
+    }
+
     private static final double circumference = 40000000;
     private static final double oneDegreeDistance = circumference / 360.0;
     private static final double oneByOneDiagonal = Math.sqrt(2 * oneDegreeDistance * oneDegreeDistance);